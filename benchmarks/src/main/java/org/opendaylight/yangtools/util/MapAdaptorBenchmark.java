@@ -0,0 +1,96 @@
+/*
+ * Copyright (c) 2016 Cisco Systems, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.yangtools.util;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Benchmarking of snapshot-and-modify cycles through {@link MapAdaptor}, which is how the data tree maintains
+ * children of its nodes. Each cycle takes a mutable snapshot of an optimized map, modifies a few entries and
+ * optimizes the result back, crossing the threshold between plain HashMaps and persistent maps at larger sizes.
+ *
+ * @see <a href="http://openjdk.java.net/projects/code-tools/jmh/">JMH</a>
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Fork(1)
+@Warmup(iterations = 10)
+@Measurement(iterations = 10)
+public class MapAdaptorBenchmark {
+    private static final MapAdaptor ADAPTOR = MapAdaptor.getDefaultInstance();
+
+    @Param({ "10", "100", "1000", "100000" })
+    public int size;
+
+    @Param({ "1", "10" })
+    public int modifications;
+
+    private Map<Integer, String> optimized;
+    private int counter;
+
+    public static void main(final String... args) throws RunnerException {
+        final Options opt = new OptionsBuilder()
+            .include(".*" + MapAdaptorBenchmark.class.getSimpleName() + ".*")
+            .forks(1)
+            .build();
+
+        new Runner(opt).run();
+    }
+
+    @Setup
+    public void setup() {
+        final Map<Integer, String> initial = ADAPTOR.initialSnapshot(size);
+        for (int i = 0; i < size; ++i) {
+            initial.put(i, "value" + i);
+        }
+        optimized = ADAPTOR.optimize(initial);
+    }
+
+    @Benchmark
+    public Map<Integer, String> snapshotModifyOptimize() {
+        final Map<Integer, String> snapshot = ADAPTOR.takeSnapshot(optimized);
+        for (int i = 0; i < modifications; ++i) {
+            snapshot.put(counter++ % size, "updated");
+        }
+        return ADAPTOR.optimize(snapshot);
+    }
+
+    @Benchmark
+    public Map<Integer, String> snapshotAddRemoveOptimize() {
+        final Map<Integer, String> snapshot = ADAPTOR.takeSnapshot(optimized);
+        for (int i = 0; i < modifications; ++i) {
+            snapshot.put(size + i, "added");
+        }
+        for (int i = 0; i < modifications; ++i) {
+            snapshot.remove(size + i);
+        }
+        return ADAPTOR.optimize(snapshot);
+    }
+
+    @Benchmark
+    public String snapshotGet() {
+        return optimized.get(counter++ % size);
+    }
+}
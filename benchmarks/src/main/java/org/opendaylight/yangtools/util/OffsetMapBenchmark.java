@@ -0,0 +1,164 @@
+/*
+ * Copyright (c) 2016 Cisco Systems, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.yangtools.util;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.concurrent.TimeUnit;
+import org.opendaylight.yangtools.yang.common.QName;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Benchmarking of {@link ImmutableOffsetMap}, {@link MutableOffsetMap} and {@link SharedSingletonMap} against
+ * {@link HashMap}. Maps are keyed by QNames, as are the maps holding NormalizedNode children and list keys.
+ *
+ * @see <a href="http://openjdk.java.net/projects/code-tools/jmh/">JMH</a>
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Fork(1)
+@Warmup(iterations = 10)
+@Measurement(iterations = 10)
+public class OffsetMapBenchmark {
+    private static final QName BASE = QName.create("urn:opendaylight:benchmark", "2016-01-01", "base");
+
+    @Param({ "1", "2", "5", "10", "50" })
+    public int size;
+
+    private QName[] keys;
+    private QName[] lookupKeys;
+    private QName missingKey;
+    private Map<QName, Object> source;
+    private Map<QName, Object> hashMap;
+    private Map<QName, Object> immutableMap;
+
+    public static void main(final String... args) throws RunnerException {
+        final Options opt = new OptionsBuilder()
+            .include(".*" + OffsetMapBenchmark.class.getSimpleName() + ".*")
+            .forks(1)
+            .build();
+
+        new Runner(opt).run();
+    }
+
+    @Setup
+    public void setup() {
+        keys = new QName[size];
+        lookupKeys = new QName[size];
+        source = new LinkedHashMap<>();
+        for (int i = 0; i < size; ++i) {
+            keys[i] = QName.create(BASE, "leaf" + i).intern();
+            // Equal, but not identical keys, as produced by a parser
+            lookupKeys[i] = QName.create(BASE, "leaf" + i);
+            source.put(keys[i], "value" + i);
+        }
+        missingKey = QName.create(BASE, "missing");
+
+        hashMap = new HashMap<>(source);
+        immutableMap = ImmutableOffsetMap.orderedCopyOf(source);
+    }
+
+    @Benchmark
+    public void hashMapGet(final Blackhole bh) {
+        for (QName key : lookupKeys) {
+            bh.consume(hashMap.get(key));
+        }
+    }
+
+    @Benchmark
+    public void offsetMapGet(final Blackhole bh) {
+        for (QName key : lookupKeys) {
+            bh.consume(immutableMap.get(key));
+        }
+    }
+
+    @Benchmark
+    public void offsetMapGetIdentical(final Blackhole bh) {
+        for (QName key : keys) {
+            bh.consume(immutableMap.get(key));
+        }
+    }
+
+    @Benchmark
+    public Object offsetMapGetMissing() {
+        return immutableMap.get(missingKey);
+    }
+
+    @Benchmark
+    public void hashMapIterate(final Blackhole bh) {
+        for (Entry<QName, Object> e : hashMap.entrySet()) {
+            bh.consume(e.getValue());
+        }
+    }
+
+    @Benchmark
+    public void offsetMapIterate(final Blackhole bh) {
+        for (Entry<QName, Object> e : immutableMap.entrySet()) {
+            bh.consume(e.getValue());
+        }
+    }
+
+    @Benchmark
+    public Object hashMapCopy() {
+        return new HashMap<>(source);
+    }
+
+    @Benchmark
+    public Object orderedCopy() {
+        return ImmutableOffsetMap.orderedCopyOf(source);
+    }
+
+    @Benchmark
+    public Object unorderedCopy() {
+        return ImmutableOffsetMap.unorderedCopyOf(source);
+    }
+
+    @Benchmark
+    public Object hashMapPut() {
+        final Map<QName, Object> map = new HashMap<>(hashMap);
+        map.put(keys[0], "updated");
+        return map;
+    }
+
+    @Benchmark
+    public Object mutableOffsetMapPut() {
+        final MutableOffsetMap<QName, Object> map = MutableOffsetMap.orderedCopyOf(immutableMap);
+        map.put(keys[0], "updated");
+        return map.toUnmodifiableMap();
+    }
+
+    @Benchmark
+    public Object mutableOffsetMapAdd() {
+        final MutableOffsetMap<QName, Object> map = MutableOffsetMap.orderedCopyOf(immutableMap);
+        map.put(missingKey, "added");
+        return map.toUnmodifiableMap();
+    }
+
+    @Benchmark
+    public Object sharedSingletonMapCreate() {
+        return SharedSingletonMap.unorderedOf(keys[0], "value");
+    }
+}
@@ -0,0 +1,153 @@
+/*
+ * Copyright (c) 2016 Cisco Systems, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.yangtools.util.concurrent;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import org.opendaylight.yangtools.util.concurrent.QueuedNotificationManager.Invoker;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Benchmarking of {@link QueuedNotificationManager} with multiple producers. Throughput benchmarks measure the rate
+ * at which notifications are accepted, latency benchmarks measure the time from submission until the listener has
+ * been invoked.
+ *
+ * @see <a href="http://openjdk.java.net/projects/code-tools/jmh/">JMH</a>
+ */
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 10)
+@Measurement(iterations = 10)
+public class QueuedNotificationManagerBenchmark {
+    private static final int MAX_QUEUE_CAPACITY = 1000;
+
+    /**
+     * Listener counting received notifications.
+     */
+    public static final class CountingListener {
+        final AtomicLong received = new AtomicLong();
+    }
+
+    private static final Invoker<CountingListener, Long> INVOKER = new Invoker<CountingListener, Long>() {
+        @Override
+        public void invokeListener(final CountingListener listener, final Long notification) {
+            listener.received.incrementAndGet();
+        }
+    };
+
+    @Param({ "1", "10" })
+    public int listenerCount;
+
+    private ExecutorService executor;
+    private QueuedNotificationManager<CountingListener, Long> manager;
+    private CountingListener[] listeners;
+
+    /**
+     * Per-producer state, tracking which listener to notify next.
+     */
+    @State(Scope.Thread)
+    public static class ProducerState {
+        long sequence;
+    }
+
+    public static void main(final String... args) throws RunnerException {
+        final Options opt = new OptionsBuilder()
+            .include(".*" + QueuedNotificationManagerBenchmark.class.getSimpleName() + ".*")
+            .forks(1)
+            .build();
+
+        new Runner(opt).run();
+    }
+
+    @Setup(Level.Trial)
+    public void setup() {
+        executor = SpecialExecutors.newBlockingBoundedFastThreadPool(listenerCount, MAX_QUEUE_CAPACITY,
+            "benchmark-notifications");
+        manager = new QueuedNotificationManager<>(executor, INVOKER, MAX_QUEUE_CAPACITY, "benchmark");
+        listeners = new CountingListener[listenerCount];
+        for (int i = 0; i < listenerCount; ++i) {
+            listeners[i] = new CountingListener();
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws InterruptedException {
+        executor.shutdown();
+        executor.awaitTermination(1, TimeUnit.MINUTES);
+    }
+
+    private CountingListener nextListener(final ProducerState state) {
+        return listeners[(int) (state.sequence++ % listenerCount)];
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.Throughput)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    @Threads(1)
+    public void submitSingleProducer(final ProducerState state) {
+        manager.submitNotification(nextListener(state), state.sequence);
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.Throughput)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    @Threads(4)
+    public void submitFourProducers(final ProducerState state) {
+        manager.submitNotification(nextListener(state), state.sequence);
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SampleTime)
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    @Threads(1)
+    public long deliveryLatency(final ProducerState state) {
+        return deliver(state);
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SampleTime)
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    @Threads(4)
+    public long deliveryLatencyFourProducers(final ProducerState state) {
+        return deliver(state);
+    }
+
+    private long deliver(final ProducerState state) {
+        final CountingListener listener = nextListener(state);
+        final long target = listener.received.get() + 1;
+        manager.submitNotification(listener, state.sequence);
+
+        // Other producers may be delivering to the same listener, hence we just wait for the count to move past
+        // the value we have observed. Yield while waiting, so that producers do not starve the notification threads
+        // when there are fewer cores than threads.
+        long received = listener.received.get();
+        while (received < target) {
+            Thread.yield();
+            received = listener.received.get();
+        }
+        return received;
+    }
+}
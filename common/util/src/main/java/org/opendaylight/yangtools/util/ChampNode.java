@@ -0,0 +1,494 @@
+/*
+ * Copyright (c) 2016 Cisco Systems, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.yangtools.util;
+
+import java.util.AbstractMap.SimpleImmutableEntry;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.Map.Entry;
+import java.util.NoSuchElementException;
+
+/**
+ * A node of a Compressed Hash-Array Mapped Prefix-tree (CHAMP), as described by Steindorfer and Vinju in "Optimizing
+ * Hash-Array Mapped Tries for Fast and Lean Immutable JVM Collections". Each level of the trie consumes 5 bits of the
+ * key hash, entries and sub-nodes are kept in a single array indexed by two separate bitmaps. Once the hash is
+ * exhausted, colliding entries are kept in a linear collision node.
+ *
+ * <p>
+ * Nodes are immutable, except for those created under an owner token: a modification carrying the same token may
+ * update such nodes in place. This allows a single writer to build up a trie without copying nodes it has created
+ * itself, while nodes shared with other tries are always copied. Removal keeps the trie in canonical form, where each
+ * sub-node holds at least two entries, which keeps both lookups and iteration fast.
+ *
+ * @param <K> the type of keys
+ * @param <V> the type of values
+ */
+abstract class ChampNode<K, V> {
+    /**
+     * Holder of the previous value of a modified key.
+     *
+     * @param <V> the type of values
+     */
+    static final class Change<V> {
+        V oldValue;
+    }
+
+    private static final int BITS = 5;
+    private static final int MASK = (1 << BITS) - 1;
+    private static final int HASH_BITS = 32;
+
+    private static final ChampNode<?, ?> EMPTY = new BitmapIndexedNode<>(null, 0, 0, new Object[0]);
+
+    @SuppressWarnings("unchecked")
+    static <K, V> ChampNode<K, V> empty() {
+        return (ChampNode<K, V>) EMPTY;
+    }
+
+    static int hash(final Object key) {
+        final int h = key.hashCode();
+        return h ^ h >>> 16;
+    }
+
+    abstract V get(Object key, int hash, int shift);
+
+    abstract ChampNode<K, V> put(Object owner, K key, V value, int hash, int shift, Change<V> change);
+
+    abstract ChampNode<K, V> remove(Object owner, Object key, int hash, int shift, Change<V> change);
+
+    abstract int payloadArity();
+
+    abstract int nodeArity();
+
+    abstract K keyAt(int index);
+
+    abstract V valueAt(int index);
+
+    abstract ChampNode<K, V> nodeAt(int index);
+
+    final boolean isSingleEntry() {
+        return payloadArity() == 1 && nodeArity() == 0;
+    }
+
+    static <K, V> Iterator<Entry<K, V>> iterator(final ChampNode<K, V> root) {
+        return new EntryIterator<>(root);
+    }
+
+    private static int mask(final int hash, final int shift) {
+        return hash >>> shift & MASK;
+    }
+
+    private static int bitpos(final int mask) {
+        return 1 << mask;
+    }
+
+    private static int index(final int bitmap, final int bit) {
+        return Integer.bitCount(bitmap & bit - 1);
+    }
+
+    /**
+     * Create a node holding a single entry, positioned for the root level. Such a node is used when a removal leaves
+     * a single entry in a sub-node: the parent inlines the entry, and the root can use the node directly.
+     */
+    private static <K, V> ChampNode<K, V> singleEntry(final Object owner, final K key, final V value) {
+        return new BitmapIndexedNode<>(owner, bitpos(mask(hash(key), 0)), 0, new Object[] { key, value });
+    }
+
+    private static <K, V> ChampNode<K, V> mergeTwo(final Object owner, final K key0, final V value0, final int hash0,
+            final K key1, final V value1, final int hash1, final int shift) {
+        if (shift >= HASH_BITS) {
+            return new CollisionNode<>(owner, hash0, new Object[] { key0, value0, key1, value1 });
+        }
+
+        final int mask0 = mask(hash0, shift);
+        final int mask1 = mask(hash1, shift);
+        if (mask0 != mask1) {
+            final int dataMap = bitpos(mask0) | bitpos(mask1);
+            if (mask0 < mask1) {
+                return new BitmapIndexedNode<>(owner, dataMap, 0, new Object[] { key0, value0, key1, value1 });
+            }
+            return new BitmapIndexedNode<>(owner, dataMap, 0, new Object[] { key1, value1, key0, value0 });
+        }
+
+        final ChampNode<K, V> node = mergeTwo(owner, key0, value0, hash0, key1, value1, hash1, shift + BITS);
+        return new BitmapIndexedNode<>(owner, 0, bitpos(mask0), new Object[] { node });
+    }
+
+    /**
+     * Regular trie node. Entries are stored as key/value pairs at the start of the array, in bit order, sub-nodes are
+     * stored at the end of the array, in reverse bit order.
+     */
+    private static final class BitmapIndexedNode<K, V> extends ChampNode<K, V> {
+        private final Object owner;
+        private int dataMap;
+        private int nodeMap;
+        private Object[] content;
+
+        BitmapIndexedNode(final Object owner, final int dataMap, final int nodeMap, final Object[] content) {
+            this.owner = owner;
+            this.dataMap = dataMap;
+            this.nodeMap = nodeMap;
+            this.content = content;
+        }
+
+        @Override
+        V get(final Object key, final int hash, final int shift) {
+            final int bit = bitpos(mask(hash, shift));
+            if ((dataMap & bit) != 0) {
+                final int index = index(dataMap, bit);
+                return key.equals(content[2 * index]) ? valueAt(index) : null;
+            }
+            if ((nodeMap & bit) != 0) {
+                return nodeFor(bit).get(key, hash, shift + BITS);
+            }
+            return null;
+        }
+
+        @Override
+        ChampNode<K, V> put(final Object owner, final K key, final V value, final int hash, final int shift,
+                final Change<V> change) {
+            final int bit = bitpos(mask(hash, shift));
+            if ((dataMap & bit) != 0) {
+                final int index = index(dataMap, bit);
+                final K currentKey = keyAt(index);
+                if (key.equals(currentKey)) {
+                    final V currentValue = valueAt(index);
+                    change.oldValue = currentValue;
+                    return currentValue == value ? this : copyAndSetValue(owner, index, value);
+                }
+
+                final ChampNode<K, V> node = mergeTwo(owner, currentKey, valueAt(index), hash(currentKey), key, value,
+                    hash, shift + BITS);
+                return copyAndMigrateToNode(owner, bit, node);
+            }
+            if ((nodeMap & bit) != 0) {
+                final ChampNode<K, V> node = nodeFor(bit);
+                final ChampNode<K, V> newNode = node.put(owner, key, value, hash, shift + BITS, change);
+                return newNode == node ? this : copyAndSetNode(owner, bit, newNode);
+            }
+            return copyAndInsertValue(owner, bit, key, value);
+        }
+
+        @Override
+        ChampNode<K, V> remove(final Object owner, final Object key, final int hash, final int shift,
+                final Change<V> change) {
+            final int bit = bitpos(mask(hash, shift));
+            if ((dataMap & bit) != 0) {
+                final int index = index(dataMap, bit);
+                if (!key.equals(content[2 * index])) {
+                    return this;
+                }
+
+                change.oldValue = valueAt(index);
+                if (shift != 0 && payloadArity() == 2 && nodeArity() == 0) {
+                    // The parent will inline the remaining entry
+                    final int other = index ^ 1;
+                    return singleEntry(owner, keyAt(other), valueAt(other));
+                }
+                return copyAndRemoveValue(owner, bit);
+            }
+            if ((nodeMap & bit) != 0) {
+                final ChampNode<K, V> node = nodeFor(bit);
+                final ChampNode<K, V> newNode = node.remove(owner, key, hash, shift + BITS, change);
+                if (newNode == node) {
+                    return this;
+                }
+                if (newNode.isSingleEntry()) {
+                    if (payloadArity() == 0 && nodeArity() == 1) {
+                        // Propagate the entry further up
+                        return newNode;
+                    }
+                    return copyAndMigrateToInline(owner, bit, newNode);
+                }
+                return copyAndSetNode(owner, bit, newNode);
+            }
+            return this;
+        }
+
+        @Override
+        int payloadArity() {
+            return Integer.bitCount(dataMap);
+        }
+
+        @Override
+        int nodeArity() {
+            return Integer.bitCount(nodeMap);
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        K keyAt(final int index) {
+            return (K) content[2 * index];
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        V valueAt(final int index) {
+            return (V) content[2 * index + 1];
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        ChampNode<K, V> nodeAt(final int index) {
+            return (ChampNode<K, V>) content[content.length - 1 - index];
+        }
+
+        private ChampNode<K, V> nodeFor(final int bit) {
+            return nodeAt(index(nodeMap, bit));
+        }
+
+        private ChampNode<K, V> update(final Object owner, final int newDataMap, final int newNodeMap,
+                final Object[] newContent) {
+            if (owner != null && owner == this.owner) {
+                dataMap = newDataMap;
+                nodeMap = newNodeMap;
+                content = newContent;
+                return this;
+            }
+            return new BitmapIndexedNode<>(owner, newDataMap, newNodeMap, newContent);
+        }
+
+        private ChampNode<K, V> copyAndSetValue(final Object owner, final int index, final V value) {
+            if (owner != null && owner == this.owner) {
+                content[2 * index + 1] = value;
+                return this;
+            }
+
+            final Object[] newContent = content.clone();
+            newContent[2 * index + 1] = value;
+            return new BitmapIndexedNode<>(owner, dataMap, nodeMap, newContent);
+        }
+
+        private ChampNode<K, V> copyAndSetNode(final Object owner, final int bit, final ChampNode<K, V> node) {
+            final int offset = content.length - 1 - index(nodeMap, bit);
+            if (owner != null && owner == this.owner) {
+                content[offset] = node;
+                return this;
+            }
+
+            final Object[] newContent = content.clone();
+            newContent[offset] = node;
+            return new BitmapIndexedNode<>(owner, dataMap, nodeMap, newContent);
+        }
+
+        private ChampNode<K, V> copyAndInsertValue(final Object owner, final int bit, final K key, final V value) {
+            final int offset = 2 * index(dataMap, bit);
+            final Object[] newContent = new Object[content.length + 2];
+            System.arraycopy(content, 0, newContent, 0, offset);
+            newContent[offset] = key;
+            newContent[offset + 1] = value;
+            System.arraycopy(content, offset, newContent, offset + 2, content.length - offset);
+            return update(owner, dataMap | bit, nodeMap, newContent);
+        }
+
+        private ChampNode<K, V> copyAndRemoveValue(final Object owner, final int bit) {
+            final int offset = 2 * index(dataMap, bit);
+            final Object[] newContent = new Object[content.length - 2];
+            System.arraycopy(content, 0, newContent, 0, offset);
+            System.arraycopy(content, offset + 2, newContent, offset, content.length - offset - 2);
+            return update(owner, dataMap ^ bit, nodeMap, newContent);
+        }
+
+        private ChampNode<K, V> copyAndMigrateToNode(final Object owner, final int bit, final ChampNode<K, V> node) {
+            final int dataOffset = 2 * index(dataMap, bit);
+            final int dataLength = 2 * payloadArity();
+            final int lowerNodes = index(nodeMap, bit);
+            final int higherNodes = nodeArity() - lowerNodes;
+
+            final Object[] newContent = new Object[content.length - 1];
+            System.arraycopy(content, 0, newContent, 0, dataOffset);
+            System.arraycopy(content, dataOffset + 2, newContent, dataOffset, dataLength - dataOffset - 2);
+            System.arraycopy(content, dataLength, newContent, dataLength - 2, higherNodes);
+            newContent[dataLength - 2 + higherNodes] = node;
+            System.arraycopy(content, dataLength + higherNodes, newContent, dataLength - 1 + higherNodes,
+                lowerNodes);
+            return update(owner, dataMap ^ bit, nodeMap | bit, newContent);
+        }
+
+        private ChampNode<K, V> copyAndMigrateToInline(final Object owner, final int bit, final ChampNode<K, V> node) {
+            final int dataOffset = 2 * index(dataMap, bit);
+            final int dataLength = 2 * payloadArity();
+            final int lowerNodes = index(nodeMap, bit);
+            final int higherNodes = nodeArity() - 1 - lowerNodes;
+
+            final Object[] newContent = new Object[content.length + 1];
+            System.arraycopy(content, 0, newContent, 0, dataOffset);
+            newContent[dataOffset] = node.keyAt(0);
+            newContent[dataOffset + 1] = node.valueAt(0);
+            System.arraycopy(content, dataOffset, newContent, dataOffset + 2, dataLength - dataOffset);
+            System.arraycopy(content, dataLength, newContent, dataLength + 2, higherNodes);
+            System.arraycopy(content, dataLength + higherNodes + 1, newContent, dataLength + 2 + higherNodes,
+                lowerNodes);
+            return update(owner, dataMap | bit, nodeMap ^ bit, newContent);
+        }
+    }
+
+    /**
+     * Node holding entries whose keys have the same hash. Entries are stored as key/value pairs.
+     */
+    private static final class CollisionNode<K, V> extends ChampNode<K, V> {
+        private final Object owner;
+        private final int hash;
+        private Object[] content;
+
+        CollisionNode(final Object owner, final int hash, final Object[] content) {
+            this.owner = owner;
+            this.hash = hash;
+            this.content = content;
+        }
+
+        private int indexOf(final Object key) {
+            for (int i = 0; i < content.length; i += 2) {
+                if (key.equals(content[i])) {
+                    return i;
+                }
+            }
+            return -1;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        V get(final Object key, final int hash, final int shift) {
+            if (hash != this.hash) {
+                return null;
+            }
+            final int offset = indexOf(key);
+            return offset == -1 ? null : (V) content[offset + 1];
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        ChampNode<K, V> put(final Object owner, final K key, final V value, final int hash, final int shift,
+                final Change<V> change) {
+            final int offset = indexOf(key);
+            final Object[] newContent;
+            if (offset != -1) {
+                final V currentValue = (V) content[offset + 1];
+                change.oldValue = currentValue;
+                if (currentValue == value) {
+                    return this;
+                }
+                if (owner != null && owner == this.owner) {
+                    content[offset + 1] = value;
+                    return this;
+                }
+                newContent = content.clone();
+                newContent[offset + 1] = value;
+            } else {
+                newContent = new Object[content.length + 2];
+                System.arraycopy(content, 0, newContent, 0, content.length);
+                newContent[content.length] = key;
+                newContent[content.length + 1] = value;
+            }
+
+            if (owner != null && owner == this.owner) {
+                content = newContent;
+                return this;
+            }
+            return new CollisionNode<>(owner, hash, newContent);
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        ChampNode<K, V> remove(final Object owner, final Object key, final int hash, final int shift,
+                final Change<V> change) {
+            final int offset = indexOf(key);
+            if (offset == -1) {
+                return this;
+            }
+
+            change.oldValue = (V) content[offset + 1];
+            if (content.length == 4) {
+                final int other = offset ^ 2;
+                return singleEntry(owner, (K) content[other], (V) content[other + 1]);
+            }
+
+            final Object[] newContent = new Object[content.length - 2];
+            System.arraycopy(content, 0, newContent, 0, offset);
+            System.arraycopy(content, offset + 2, newContent, offset, content.length - offset - 2);
+            if (owner != null && owner == this.owner) {
+                content = newContent;
+                return this;
+            }
+            return new CollisionNode<>(owner, hash, newContent);
+        }
+
+        @Override
+        int payloadArity() {
+            return content.length / 2;
+        }
+
+        @Override
+        int nodeArity() {
+            return 0;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        K keyAt(final int index) {
+            return (K) content[2 * index];
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        V valueAt(final int index) {
+            return (V) content[2 * index + 1];
+        }
+
+        @Override
+        ChampNode<K, V> nodeAt(final int index) {
+            throw new IndexOutOfBoundsException("Collision node has no sub-nodes");
+        }
+    }
+
+    private static final class EntryIterator<K, V> implements Iterator<Entry<K, V>> {
+        private final Deque<ChampNode<K, V>> pending = new ArrayDeque<>();
+        private ChampNode<K, V> current;
+        private int index;
+
+        EntryIterator(final ChampNode<K, V> root) {
+            enter(root);
+        }
+
+        private void enter(final ChampNode<K, V> node) {
+            current = node;
+            index = 0;
+            for (int i = 0; i < node.nodeArity(); ++i) {
+                pending.push(node.nodeAt(i));
+            }
+        }
+
+        @Override
+        public boolean hasNext() {
+            while (index >= current.payloadArity()) {
+                final ChampNode<K, V> next = pending.poll();
+                if (next == null) {
+                    return false;
+                }
+                enter(next);
+            }
+            return true;
+        }
+
+        @Override
+        public Entry<K, V> next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+
+            final Entry<K, V> ret = new SimpleImmutableEntry<>(current.keyAt(index), current.valueAt(index));
+            index++;
+            return ret;
+        }
+
+        @Override
+        public void remove() {
+            throw new UnsupportedOperationException();
+        }
+    }
+}
@@ -0,0 +1,269 @@
+/*
+ * Copyright (c) 2016 Cisco Systems, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.yangtools.util;
+
+import com.google.common.annotations.Beta;
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.base.Preconditions;
+import com.google.common.collect.UnmodifiableIterator;
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import javax.annotation.Nonnull;
+
+/**
+ * An immutable set of keys, each of which is assigned an offset. Offsets are dense, starting at 0 and following the
+ * iteration order of the set. This class acts as an object-to-int map: {@link #offsetOf(Object)} looks the offset up
+ * in a table of primitive integers, without boxing and without allocating any objects.
+ *
+ * <p>
+ * Since the set of keys is known up front, the table is laid out as a perfect hash whenever possible: a multiplier is
+ * searched for, which places each key into a distinct slot. A lookup then consists of a multiplication, a shift and
+ * a single comparison, which is an identity check for interned keys. Keys are also stored in slot order next to
+ * their offsets, so that the key to compare against is a single array load away from the slot. Key sets for which
+ * no such multiplier is found, typically because some of their keys have the same hash code, use linear probing
+ * instead.
+ *
+ * <p>
+ * Instances are used as key layouts of {@link ImmutableOffsetMap} and {@link MutableOffsetMap}, but are useful in
+ * any place where a fixed set of keys needs to be mapped onto array indices. This set does not support null elements.
+ *
+ * @param <K> the type of keys
+ */
+@Beta
+public final class ImmutableKeyIndex<K> extends AbstractSet<K> {
+    private static final ImmutableKeyIndex<Object> EMPTY = create(new Object[0]);
+
+    // Number of multipliers tried for each table size
+    private static final int SEED_ATTEMPTS = 16;
+    // Number of times the table is allowed to double beyond its minimum size in search of a perfect layout
+    private static final int EXTRA_BITS = 2;
+    // Golden ratio multiplier, used to derive multipliers
+    private static final int GOLDEN_RATIO = 0x9E3779B9;
+
+    // Keys in offset order
+    private final Object[] keys;
+    // Keys in slot order, null indicates an empty slot
+    private final Object[] slots;
+    // Key offsets in slot order
+    private final int[] offsets;
+    // Hash multiplier
+    private final int seed;
+    // Hash shift, selecting the top bits of the product
+    private final int shift;
+    // True if each key occupies the slot it hashes to, hence no probing is needed
+    private final boolean perfect;
+    private final int hashCode;
+
+    private ImmutableKeyIndex(final Object[] keys, final int[] table, final int seed, final int shift,
+            final boolean perfect, final int hashCode) {
+        this.keys = keys;
+        this.slots = new Object[table.length];
+        this.offsets = new int[table.length];
+        for (int i = 0; i < table.length; ++i) {
+            if (table[i] != 0) {
+                slots[i] = keys[table[i] - 1];
+                offsets[i] = table[i] - 1;
+            }
+        }
+        this.seed = seed;
+        this.shift = shift;
+        this.perfect = perfect;
+        this.hashCode = hashCode;
+    }
+
+    private static <K> ImmutableKeyIndex<K> create(final Object[] keys) {
+        final int[] hashes = new int[keys.length];
+        int hashCode = 0;
+        for (int i = 0; i < keys.length; ++i) {
+            hashes[i] = Preconditions.checkNotNull(keys[i]).hashCode();
+            hashCode += hashes[i];
+        }
+
+        int minBits = 1;
+        while (1 << minBits < keys.length * 2) {
+            minBits++;
+        }
+
+        for (int bits = minBits; bits <= minBits + EXTRA_BITS; ++bits) {
+            for (int attempt = 0; attempt < SEED_ATTEMPTS; ++attempt) {
+                // Multipliers need to be odd
+                final int seed = GOLDEN_RATIO * (2 * attempt + 1) | 1;
+                final int[] table = perfectTable(keys, hashes, seed, bits);
+                if (table != null) {
+                    return new ImmutableKeyIndex<>(keys, table, seed, 32 - bits, true, hashCode);
+                }
+            }
+        }
+
+        return new ImmutableKeyIndex<>(keys, probingTable(keys, hashes, GOLDEN_RATIO, minBits), GOLDEN_RATIO,
+            32 - minBits, false, hashCode);
+    }
+
+    private static int[] perfectTable(final Object[] keys, final int[] hashes, final int seed, final int bits) {
+        final int[] table = new int[1 << bits];
+        for (int i = 0; i < keys.length; ++i) {
+            final int slot = (hashes[i] * seed) >>> (32 - bits);
+            if (table[slot] != 0) {
+                checkDuplicate(keys, table[slot] - 1, i);
+                return null;
+            }
+            table[slot] = i + 1;
+        }
+        return table;
+    }
+
+    private static int[] probingTable(final Object[] keys, final int[] hashes, final int seed, final int bits) {
+        final int[] table = new int[1 << bits];
+        final int mask = table.length - 1;
+        for (int i = 0; i < keys.length; ++i) {
+            int slot = (hashes[i] * seed) >>> (32 - bits);
+            while (table[slot] != 0) {
+                checkDuplicate(keys, table[slot] - 1, i);
+                slot = (slot + 1) & mask;
+            }
+            table[slot] = i + 1;
+        }
+        return table;
+    }
+
+    private static void checkDuplicate(final Object[] keys, final int existing, final int offset) {
+        Preconditions.checkArgument(!keys[offset].equals(keys[existing]), "Duplicate key %s", keys[offset]);
+    }
+
+    /**
+     * Return an empty index.
+     *
+     * @return An empty index
+     */
+    @SuppressWarnings("unchecked")
+    @Nonnull public static <K> ImmutableKeyIndex<K> of() {
+        return (ImmutableKeyIndex<K>) EMPTY;
+    }
+
+    /**
+     * Create an index of specified keys. Keys are assigned offsets in their iteration order.
+     *
+     * @param keys Keys to index
+     * @return An index of the keys
+     * @throws NullPointerException if any of the keys is null
+     * @throws IllegalArgumentException if the keys contain duplicates
+     */
+    @Nonnull public static <K> ImmutableKeyIndex<K> copyOf(@Nonnull final Collection<? extends K> keys) {
+        return keys.isEmpty() ? ImmutableKeyIndex.<K>of() : ImmutableKeyIndex.<K>create(keys.toArray());
+    }
+
+    /**
+     * Return the offset of a key.
+     *
+     * @param key Key to look up
+     * @return Offset of the key, or -1 if the key is not present
+     */
+    public int offsetOf(final Object key) {
+        if (key == null) {
+            return -1;
+        }
+
+        int slot = (key.hashCode() * seed) >>> shift;
+        if (perfect) {
+            final Object candidate = slots[slot];
+            return candidate != null && (candidate == key || candidate.equals(key)) ? offsets[slot] : -1;
+        }
+
+        final int mask = slots.length - 1;
+        for (Object candidate = slots[slot]; candidate != null; candidate = slots[slot]) {
+            if (candidate == key || candidate.equals(key)) {
+                return offsets[slot];
+            }
+            slot = (slot + 1) & mask;
+        }
+        return -1;
+    }
+
+    /**
+     * Return the key at specified offset.
+     *
+     * @param offset Key offset
+     * @return Key at that offset
+     * @throws IndexOutOfBoundsException if the offset is out of range
+     */
+    @SuppressWarnings("unchecked")
+    @Nonnull public K keyAt(final int offset) {
+        return (K) keys[offset];
+    }
+
+    /**
+     * Check whether this index assigns the same offsets to the same keys as another index.
+     *
+     * @param other Other index
+     * @return True if the two indices have the same keys in the same order
+     */
+    public boolean hasSameLayout(@Nonnull final ImmutableKeyIndex<?> other) {
+        return this == other || Arrays.equals(keys, other.keys);
+    }
+
+    @VisibleForTesting
+    boolean isPerfect() {
+        return perfect;
+    }
+
+    @Override
+    public int size() {
+        return keys.length;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return keys.length == 0;
+    }
+
+    @Override
+    public boolean contains(final Object o) {
+        return offsetOf(o) >= 0;
+    }
+
+    @Override
+    public Iterator<K> iterator() {
+        return new UnmodifiableIterator<K>() {
+            private int offset = 0;
+
+            @Override
+            public boolean hasNext() {
+                return offset < keys.length;
+            }
+
+            @Override
+            public K next() {
+                if (offset >= keys.length) {
+                    throw new NoSuchElementException();
+                }
+                return keyAt(offset++);
+            }
+        };
+    }
+
+    @Override
+    public Object[] toArray() {
+        return keys.clone();
+    }
+
+    @Override
+    public int hashCode() {
+        return hashCode;
+    }
+
+    @Override
+    public boolean equals(final Object o) {
+        if (o instanceof ImmutableKeyIndex && hasSameLayout((ImmutableKeyIndex<?>) o)) {
+            return true;
+        }
+        return super.equals(o);
+    }
+}
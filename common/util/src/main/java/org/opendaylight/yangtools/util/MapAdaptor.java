@@ -10,7 +10,6 @@ package org.opendaylight.yangtools.util;
 import com.google.common.base.Preconditions;
 import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.Maps;
-import com.romix.scala.collection.concurrent.TrieMap;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.Map;
@@ -40,7 +39,7 @@ public final class MapAdaptor {
         DEFAULT_INSTANCE = new MapAdaptor(true,
                 getProperty(COPY_MAX_ITEMS_MAX_PROP, DEFAULT_COPY_MAX_ITEMS),
                 getProperty(PERSIST_MIN_ITEMS_PROP, DEFAULT_PERSIST_MIN_ITEMS));
-        LOG.debug("Configured HashMap/TrieMap cutoff at {}/{} entries",
+        LOG.debug("Configured HashMap/CHAMP cutoff at {}/{} entries",
                 DEFAULT_INSTANCE.persistMinItems, DEFAULT_INSTANCE.copyMaxItems);
     }
 
@@ -97,7 +96,7 @@ public final class MapAdaptor {
     public <K, V> Map<K, V> initialSnapshot(final int expectedSize) {
         Preconditions.checkArgument(expectedSize >= 0);
         if (expectedSize > persistMinItems) {
-            return new ReadWriteTrieMap<>();
+            return new ReadWriteChampMap<>();
         }
 
         if (expectedSize < 2) {
@@ -117,8 +116,8 @@ public final class MapAdaptor {
      */
     @SuppressWarnings("static-method")
     public <K, V> Map<K, V> takeSnapshot(final Map<K, V> input) {
-        if (input instanceof ReadOnlyTrieMap) {
-            return ((ReadOnlyTrieMap<K, V>)input).toReadWrite();
+        if (input instanceof ReadOnlyChampMap) {
+            return ((ReadOnlyChampMap<K, V>)input).toReadWrite();
         }
 
         LOG.trace("Converting input {} to a HashMap", input);
@@ -172,7 +171,7 @@ public final class MapAdaptor {
      * @return
      */
     public <K, V> Map<K, V> optimize(final Map<K, V> input) {
-        if (input instanceof ReadOnlyTrieMap) {
+        if (input instanceof ReadOnlyChampMap) {
             LOG.warn("Optimizing read-only map {}", input);
         }
 
@@ -190,8 +189,8 @@ public final class MapAdaptor {
          * We retain the persistent map as long as it holds at least
          * persistMinItems
          */
-        if (input instanceof ReadWriteTrieMap && size >= persistMinItems) {
-            return ((ReadWriteTrieMap<K, V>)input).toReadOnly();
+        if (input instanceof ReadWriteChampMap && size >= persistMinItems) {
+            return ((ReadWriteChampMap<K, V>)input).toReadOnly();
         }
 
         /*
@@ -221,18 +220,15 @@ public final class MapAdaptor {
         }
 
         /*
-         * Favor isolation speed: use a TrieMap and perform snapshots
-         *
-         * This one is a bit tricky, as the TrieMap is concurrent and does not
-         * keep an uptodate size. Updating it requires a full walk -- which is
-         * O(N) and we want to avoid that. So we wrap it in an interceptor,
-         * which will maintain the size for us.
+         * Favor isolation speed: use a persistent CHAMP trie, which can be
+         * snapshotted in O(1) and copies only the modified paths. Unlike
+         * a concurrent TrieMap, it also keeps an up-to-date size.
          */
-        LOG.trace("Copying input {} to a TrieMap ({} entries)", input, size);
-        final TrieMap<K, V> map = new TrieMap<>();
+        LOG.trace("Copying input {} to a CHAMP map ({} entries)", input, size);
+        final ReadWriteChampMap<K, V> map = new ReadWriteChampMap<>();
         map.putAll(input);
-        final Map<K, V> ret = new ReadOnlyTrieMap<>(map, size);
-        LOG.trace("Read-only TrieMap is {}", ret);
+        final Map<K, V> ret = map.toReadOnly();
+        LOG.trace("Read-only CHAMP map is {}", ret);
         return ret;
     }
 }
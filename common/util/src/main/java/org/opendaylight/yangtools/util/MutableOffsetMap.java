@@ -51,7 +51,7 @@ public abstract class MutableOffsetMap<K, V> extends AbstractMap<K, V> implement
             super(OffsetMapCache.orderedOffsets(source.keySet()), source, new LinkedHashMap<>());
         }
 
-        Ordered(final Map<K, Integer> offsets, final V[] objects) {
+        Ordered(final ImmutableKeyIndex<K> offsets, final V[] objects) {
             super(offsets, objects, new LinkedHashMap<>());
         }
 
@@ -66,7 +66,7 @@ public abstract class MutableOffsetMap<K, V> extends AbstractMap<K, V> implement
         }
 
         @Override
-        UnmodifiableMapPhase<K, V> unmodifiedMap(final Map<K, Integer> offsets, final V[] objects) {
+        UnmodifiableMapPhase<K, V> unmodifiedMap(final ImmutableKeyIndex<K> offsets, final V[] objects) {
             return new ImmutableOffsetMap.Ordered<>(offsets, objects);
         }
 
@@ -85,7 +85,7 @@ public abstract class MutableOffsetMap<K, V> extends AbstractMap<K, V> implement
             super(OffsetMapCache.unorderedOffsets(source.keySet()), source, new HashMap<>());
         }
 
-        Unordered(final Map<K, Integer> offsets, final V[] objects) {
+        Unordered(final ImmutableKeyIndex<K> offsets, final V[] objects) {
             super(offsets, objects, new HashMap<>());
         }
 
@@ -96,12 +96,12 @@ public abstract class MutableOffsetMap<K, V> extends AbstractMap<K, V> implement
 
         @Override
         UnmodifiableMapPhase<K, V> modifiedMap(final List<K> keys, final V[] objects) {
-            final Map<K, Integer> offsets = OffsetMapCache.unorderedOffsets(keys);
+            final ImmutableKeyIndex<K> offsets = OffsetMapCache.unorderedOffsets(keys);
             return new ImmutableOffsetMap.Unordered<>(offsets, OffsetMapCache.adjustedArray(offsets, keys, objects));
         }
 
         @Override
-        UnmodifiableMapPhase<K, V> unmodifiedMap(final Map<K, Integer> offsets, final V[] objects) {
+        UnmodifiableMapPhase<K, V> unmodifiedMap(final ImmutableKeyIndex<K> offsets, final V[] objects) {
             return new ImmutableOffsetMap.Unordered<>(offsets, objects);
         }
 
@@ -113,14 +113,14 @@ public abstract class MutableOffsetMap<K, V> extends AbstractMap<K, V> implement
 
     private static final Object[] EMPTY_ARRAY = new Object[0];
     private static final Object REMOVED = new Object();
-    private final Map<K, Integer> offsets;
+    private final ImmutableKeyIndex<K> offsets;
     private HashMap<K, V> newKeys;
     private Object[] objects;
     private int removed = 0;
     private transient volatile int modCount;
     private boolean needClone = true;
 
-    MutableOffsetMap(final Map<K, Integer> offsets, final V[] objects, final HashMap<K, V> newKeys) {
+    MutableOffsetMap(final ImmutableKeyIndex<K> offsets, final V[] objects, final HashMap<K, V> newKeys) {
         Verify.verify(newKeys.isEmpty());
         this.offsets = Preconditions.checkNotNull(offsets);
         this.objects = Preconditions.checkNotNull(objects);
@@ -129,15 +129,15 @@ public abstract class MutableOffsetMap<K, V> extends AbstractMap<K, V> implement
 
     @SuppressWarnings("unchecked")
     MutableOffsetMap(final HashMap<K, V> newKeys) {
-        this(ImmutableMap.of(), (V[]) EMPTY_ARRAY, newKeys);
+        this(ImmutableKeyIndex.<K>of(), (V[]) EMPTY_ARRAY, newKeys);
     }
 
     @SuppressWarnings("unchecked")
-    MutableOffsetMap(final Map<K, Integer> offsets, final Map<K, V> source, final HashMap<K, V> newKeys) {
+    MutableOffsetMap(final ImmutableKeyIndex<K> offsets, final Map<K, V> source, final HashMap<K, V> newKeys) {
         this(offsets, (V[]) new Object[offsets.size()], newKeys);
 
         for (Entry<K, V> e : source.entrySet()) {
-            objects[offsets.get(e.getKey())] = Preconditions.checkNotNull(e.getValue());
+            objects[offsets.offsetOf(e.getKey())] = Preconditions.checkNotNull(e.getValue());
         }
 
         this.needClone = false;
@@ -177,7 +177,7 @@ public abstract class MutableOffsetMap<K, V> extends AbstractMap<K, V> implement
 
     abstract Object removedObject();
     abstract UnmodifiableMapPhase<K, V> modifiedMap(List<K> keys, V[] objects);
-    abstract UnmodifiableMapPhase<K, V> unmodifiedMap(Map<K, Integer> offsets, V[] objects);
+    abstract UnmodifiableMapPhase<K, V> unmodifiedMap(ImmutableKeyIndex<K> offsets, V[] objects);
     abstract SharedSingletonMap<K, V> singletonMap();
 
     @Override
@@ -192,8 +192,8 @@ public abstract class MutableOffsetMap<K, V> extends AbstractMap<K, V> implement
 
     @Override
     public final boolean containsKey(final Object key) {
-        final Integer offset = offsets.get(key);
-        if (offset != null) {
+        final int offset = offsets.offsetOf(key);
+        if (offset >= 0) {
             final Object obj = objects[offset];
             if (!REMOVED.equals(obj)) {
                 return obj != null;
@@ -205,8 +205,8 @@ public abstract class MutableOffsetMap<K, V> extends AbstractMap<K, V> implement
 
     @Override
     public final V get(final Object key) {
-        final Integer offset = offsets.get(key);
-        if (offset != null) {
+        final int offset = offsets.offsetOf(key);
+        if (offset >= 0) {
             final Object obj = objects[offset];
 
             /*
@@ -236,8 +236,8 @@ public abstract class MutableOffsetMap<K, V> extends AbstractMap<K, V> implement
     @Override
     public final V put(final K key, final V value) {
         Preconditions.checkNotNull(value);
-        final Integer offset = offsets.get(Preconditions.checkNotNull(key));
-        if (offset != null) {
+        final int offset = offsets.offsetOf(Preconditions.checkNotNull(key));
+        if (offset >= 0) {
             final Object obj = objects[offset];
 
             /*
@@ -269,8 +269,8 @@ public abstract class MutableOffsetMap<K, V> extends AbstractMap<K, V> implement
 
     @Override
     public final V remove(final Object key) {
-        final Integer offset = offsets.get(key);
-        if (offset != null) {
+        final int offset = offsets.offsetOf(key);
+        if (offset >= 0) {
             final Object obj = objects[offset];
 
             /*
@@ -344,15 +344,15 @@ public abstract class MutableOffsetMap<K, V> extends AbstractMap<K, V> implement
         final List<K> keyset = new ArrayList<>(s);
         if (removed != 0) {
             if (removed != offsets.size()) {
-                for (Entry<K, Integer> e : offsets.entrySet()) {
-                    final Object o = objects[e.getValue()];
+                for (int j = 0; j < objects.length; ++j) {
+                    final Object o = objects[j];
                     if (o != null && !REMOVED.equals(o)) {
-                        keyset.add(e.getKey());
+                        keyset.add(offsets.keyAt(j));
                     }
                 }
             }
         } else {
-            keyset.addAll(offsets.keySet());
+            keyset.addAll(offsets);
         }
         keyset.addAll(newKeys.keySet());
 
@@ -362,8 +362,7 @@ public abstract class MutableOffsetMap<K, V> extends AbstractMap<K, V> implement
         int i = 0;
         if (removed != 0) {
             if (removed != offsets.size()) {
-                for (Entry<K, Integer> e : offsets.entrySet()) {
-                    final Object o = objects[e.getValue()];
+                for (Object o : objects) {
                     if (o != null && !REMOVED.equals(o)) {
                         @SuppressWarnings("unchecked")
                         final V v = (V) o;
@@ -402,10 +401,10 @@ public abstract class MutableOffsetMap<K, V> extends AbstractMap<K, V> implement
     public final int hashCode() {
         int result = 0;
 
-        for (Entry<K, Integer> e : offsets.entrySet()) {
-            final Object v = objects[e.getValue()];
-            if (v != null) {
-                result += e.getKey().hashCode() ^ v.hashCode();
+        for (int i = 0; i < objects.length; ++i) {
+            final Object v = objects[i];
+            if (v != null && !REMOVED.equals(v)) {
+                result += offsets.keyAt(i).hashCode() ^ v.hashCode();
             }
         }
 
@@ -424,13 +423,13 @@ public abstract class MutableOffsetMap<K, V> extends AbstractMap<K, V> implement
         if (o instanceof ImmutableOffsetMap) {
             final ImmutableOffsetMap<?, ?> om = (ImmutableOffsetMap<?, ?>) o;
 
-            if (newKeys.isEmpty() && offsets.equals(om.offsets())) {
+            if (newKeys.isEmpty() && offsets.hasSameLayout(om.offsets())) {
                 return Arrays.deepEquals(objects, om.objects());
             }
         } else if (o instanceof MutableOffsetMap) {
             final MutableOffsetMap<?, ?> om = (MutableOffsetMap<?, ?>) o;
 
-            if (offsets.equals(om.offsets)) {
+            if (offsets.hasSameLayout(om.offsets)) {
                 return Arrays.deepEquals(objects, om.objects) && newKeys.equals(om.newKeys);
             }
         }
@@ -453,9 +452,9 @@ public abstract class MutableOffsetMap<K, V> extends AbstractMap<K, V> implement
             }
 
             // Ensure all objects are present
-            for (Entry<K, Integer> e : offsets.entrySet()) {
-                final Object obj = objects[e.getValue()];
-                if (obj != null && !REMOVED.equals(obj) && !obj.equals(other.get(e.getKey()))) {
+            for (int i = 0; i < objects.length; ++i) {
+                final Object obj = objects[i];
+                if (obj != null && !REMOVED.equals(obj) && !obj.equals(other.get(offsets.keyAt(i)))) {
                     return false;
                 }
             }
@@ -570,7 +569,7 @@ public abstract class MutableOffsetMap<K, V> extends AbstractMap<K, V> implement
     }
 
     private abstract class AbstractSetIterator<E> implements Iterator<E> {
-        private final Iterator<Entry<K, Integer>> oldIterator = offsets.entrySet().iterator();
+        private int oldOffset = 0;
         private final Iterator<K> newIterator = newKeys.keySet().iterator();
         private int expectedModCount = modCount;
         private K currentKey, nextKey;
@@ -580,11 +579,11 @@ public abstract class MutableOffsetMap<K, V> extends AbstractMap<K, V> implement
         }
 
         private void updateNextKey() {
-            while (oldIterator.hasNext()) {
-                final Entry<K, Integer> e = oldIterator.next();
-                final Object obj = objects[e.getValue()];
+            while (oldOffset < objects.length) {
+                final int offset = oldOffset++;
+                final Object obj = objects[offset];
                 if (obj != null && !REMOVED.equals(obj)) {
-                    nextKey = e.getKey();
+                    nextKey = offsets.keyAt(offset);
                     return;
                 }
             }
@@ -609,8 +608,8 @@ public abstract class MutableOffsetMap<K, V> extends AbstractMap<K, V> implement
             Preconditions.checkState(currentKey != null);
 
             checkModCount();
-            final Integer offset = offsets.get(currentKey);
-            if (offset != null) {
+            final int offset = offsets.offsetOf(currentKey);
+            if (offset >= 0) {
                 cloneArray();
                 objects[offset] = removedObject();
                 removed++;
@@ -0,0 +1,77 @@
+/*
+ * Copyright (c) 2016 Cisco Systems, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.yangtools.util;
+
+import com.google.common.base.Preconditions;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Set;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * An immutable map backed by a persistent CHAMP trie. This is what we give out from MapAdaptor.optimize() for large
+ * maps. Taking a snapshot is O(1), as the trie is shared with the resulting {@link ReadWriteChampMap}, which copies
+ * only the nodes on the path to each entry it modifies.
+ *
+ * @param <K> Key type
+ * @param <V> Value type
+ */
+final class ReadOnlyChampMap<K, V> extends AbstractMap<K, V> {
+    private static final Logger LOG = LoggerFactory.getLogger(ReadOnlyChampMap.class);
+    private final ChampNode<K, V> root;
+    private final int size;
+
+    ReadOnlyChampMap(final ChampNode<K, V> root, final int size) {
+        this.root = Preconditions.checkNotNull(root);
+        this.size = size;
+    }
+
+    Map<K, V> toReadWrite() {
+        final Map<K, V> ret = new ReadWriteChampMap<>(root, size);
+        LOG.trace("Converted read-only CHAMP map {} to read-write {}", this, ret);
+        return ret;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    @Override
+    public boolean containsKey(final Object key) {
+        return get(key) != null;
+    }
+
+    @Override
+    public V get(final Object key) {
+        return key == null ? null : root.get(key, ChampNode.hash(key), 0);
+    }
+
+    @Override
+    public Set<Entry<K, V>> entrySet() {
+        return new AbstractSet<Entry<K, V>>() {
+            @Override
+            public Iterator<Entry<K, V>> iterator() {
+                return ChampNode.iterator(root);
+            }
+
+            @Override
+            public int size() {
+                return size;
+            }
+        };
+    }
+}
@@ -0,0 +1,156 @@
+/*
+ * Copyright (c) 2016 Cisco Systems, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.yangtools.util;
+
+import com.google.common.base.Preconditions;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Set;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * A mutable map backed by a persistent CHAMP trie. Nodes shared with other maps are copied on first modification,
+ * nodes created by this map are then updated in place until the map is frozen by {@link #toReadOnly()}. This map is
+ * not thread-safe and does not allow null keys or values.
+ *
+ * <p>
+ * Entries can be removed through the iterators of {@link #keySet()}, {@link #values()} and {@link #entrySet()}.
+ * Iterators walk the trie as it was when they were created, hence any modification of the map made while iterating
+ * is not reflected by them. Entries returned by iterators do not support {@link Entry#setValue(Object)}.
+ *
+ * @param <K> Key type
+ * @param <V> Value type
+ */
+final class ReadWriteChampMap<K, V> extends AbstractMap<K, V> {
+    private static final Logger LOG = LoggerFactory.getLogger(ReadWriteChampMap.class);
+    private final ChampNode.Change<V> change = new ChampNode.Change<>();
+    private ChampNode<K, V> root;
+    private Object owner;
+    private int size;
+
+    ReadWriteChampMap() {
+        this(ChampNode.<K, V>empty(), 0);
+    }
+
+    ReadWriteChampMap(final ChampNode<K, V> root, final int size) {
+        this.root = Preconditions.checkNotNull(root);
+        this.size = size;
+        this.owner = new Object();
+    }
+
+    Map<K, V> toReadOnly() {
+        // Nodes we own are now shared, make sure any further modification copies them
+        owner = new Object();
+        final Map<K, V> ret = new ReadOnlyChampMap<>(root, size);
+        LOG.trace("Converted read-write CHAMP map {} to read-only {}", this, ret);
+        return ret;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    @Override
+    public boolean containsKey(final Object key) {
+        return get(key) != null;
+    }
+
+    @Override
+    public V get(final Object key) {
+        return key == null ? null : root.get(key, ChampNode.hash(key), 0);
+    }
+
+    @Override
+    public V put(final K key, final V value) {
+        Preconditions.checkNotNull(key);
+        Preconditions.checkNotNull(value);
+
+        root = root.put(owner, key, value, ChampNode.hash(key), 0, change);
+        final V ret = change.oldValue;
+        if (ret == null) {
+            size++;
+        } else {
+            change.oldValue = null;
+        }
+        return ret;
+    }
+
+    @Override
+    public V remove(final Object key) {
+        if (key == null) {
+            return null;
+        }
+
+        root = root.remove(owner, key, ChampNode.hash(key), 0, change);
+        final V ret = change.oldValue;
+        if (ret != null) {
+            change.oldValue = null;
+            size--;
+        }
+        return ret;
+    }
+
+    @Override
+    public void clear() {
+        root = ChampNode.empty();
+        size = 0;
+    }
+
+    @Override
+    public Set<Entry<K, V>> entrySet() {
+        return new AbstractSet<Entry<K, V>>() {
+            @Override
+            public Iterator<Entry<K, V>> iterator() {
+                return new EntryIterator();
+            }
+
+            @Override
+            public int size() {
+                return size;
+            }
+        };
+    }
+
+    private final class EntryIterator implements Iterator<Entry<K, V>> {
+        private final Iterator<Entry<K, V>> delegate;
+        private Entry<K, V> last;
+
+        EntryIterator() {
+            // The trie we are walking must not be updated in place, make sure modifications copy the nodes
+            owner = new Object();
+            delegate = ChampNode.iterator(root);
+        }
+
+        @Override
+        public boolean hasNext() {
+            return delegate.hasNext();
+        }
+
+        @Override
+        public Entry<K, V> next() {
+            last = delegate.next();
+            return last;
+        }
+
+        @Override
+        public void remove() {
+            Preconditions.checkState(last != null, "No entry to remove");
+            ReadWriteChampMap.this.remove(last.getKey());
+            last = null;
+        }
+    }
+}
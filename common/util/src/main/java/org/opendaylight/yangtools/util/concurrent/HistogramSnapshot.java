@@ -0,0 +1,104 @@
+/*
+ * Copyright (c) 2016 Cisco Systems, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.yangtools.util.concurrent;
+
+import com.google.common.annotations.Beta;
+import com.google.common.base.MoreObjects;
+import com.google.common.base.Preconditions;
+import java.beans.ConstructorProperties;
+
+/**
+ * Immutable snapshot of a {@link Log2Histogram}.
+ *
+ * @see Log2Histogram
+ */
+@Beta
+public final class HistogramSnapshot {
+    /**
+     * Snapshot of a histogram with no recorded values.
+     */
+    public static final HistogramSnapshot EMPTY = new HistogramSnapshot(0, 0, 0, new long[0]);
+
+    private final long count;
+    private final long sum;
+    private final long max;
+    private final long[] bucketCounts;
+
+    @ConstructorProperties({ "count", "sum", "max", "bucketCounts" })
+    public HistogramSnapshot(final long count, final long sum, final long max, final long[] bucketCounts) {
+        Preconditions.checkArgument(bucketCounts.length <= Log2Histogram.BUCKETS, "Too many buckets %s",
+            bucketCounts.length);
+        this.count = count;
+        this.sum = sum;
+        this.max = max;
+        this.bucketCounts = bucketCounts.clone();
+    }
+
+    /**
+     * Returns the number of recorded values.
+     */
+    public long getCount() {
+        return count;
+    }
+
+    /**
+     * Returns the sum of recorded values.
+     */
+    public long getSum() {
+        return sum;
+    }
+
+    /**
+     * Returns the largest recorded value.
+     */
+    public long getMax() {
+        return max;
+    }
+
+    /**
+     * Returns the average of recorded values, or 0 if there are none.
+     */
+    public double getMean() {
+        return count == 0 ? 0 : (double) sum / count;
+    }
+
+    /**
+     * Returns the number of values in each bucket. Bucket 0 counts zeroes, bucket {@code i} counts values between
+     * {@code 2^(i-1)} and {@code 2^i - 1}. Trailing empty buckets are omitted.
+     */
+    public long[] getBucketCounts() {
+        return bucketCounts.clone();
+    }
+
+    /**
+     * Returns an upper bound of the value below which the specified percentage of recorded values falls. The result
+     * is the upper bound of the bucket containing the percentile, but never more than {@link #getMax()}.
+     *
+     * @param percentile Percentile, between 0 (exclusive) and 100 (inclusive)
+     * @return Upper bound of the percentile, or 0 if there are no recorded values
+     */
+    public long getPercentile(final double percentile) {
+        Preconditions.checkArgument(percentile > 0 && percentile <= 100, "Invalid percentile %s", percentile);
+
+        final long rank = (long) Math.ceil(percentile / 100 * count);
+        long seen = 0;
+        for (int i = 0; i < bucketCounts.length; ++i) {
+            seen += bucketCounts[i];
+            if (seen >= rank) {
+                return Math.min(Log2Histogram.upperBoundOf(i), max);
+            }
+        }
+        return max;
+    }
+
+    @Override
+    public String toString() {
+        return MoreObjects.toStringHelper(this).add("count", count).add("mean", getMean()).add("max", max)
+                .toString();
+    }
+}
@@ -8,11 +8,17 @@
 
 package org.opendaylight.yangtools.util.concurrent;
 
+import com.google.common.base.Preconditions;
 import java.beans.ConstructorProperties;
 
 /**
  * Class used by the {@link QueuedNotificationManager} that contains a snapshot of notification
  * queue statistics for a listener.
+ * <p>
+ * If the manager tracks listener metrics, the snapshot also contains histograms of the time
+ * notifications spend queued before being dispatched, of the time spent invoking the listener and
+ * of the sizes of submitted notification batches, as well as counts of offers which had to wait
+ * for queue space and of notifications which were rejected. Otherwise these are empty.
  *
  * @author Thomas Pantelis
  * @see QueuedNotificationManager
@@ -21,11 +27,30 @@ public class ListenerNotificationQueueStats {
 
     private final String listenerClassName;
     private final int currentQueueSize;
+    private final HistogramSnapshot dispatchLatency;
+    private final HistogramSnapshot invocationTime;
+    private final HistogramSnapshot batchSize;
+    private final long blockedOffers;
+    private final long rejectedNotifications;
 
     @ConstructorProperties({ "listenerClassName","currentQueueSize" })
     public ListenerNotificationQueueStats( final String listenerClassName, final int currentQueueSize ) {
+        this( listenerClassName, currentQueueSize, HistogramSnapshot.EMPTY, HistogramSnapshot.EMPTY,
+                HistogramSnapshot.EMPTY, 0, 0 );
+    }
+
+    @ConstructorProperties({ "listenerClassName","currentQueueSize","dispatchLatency","invocationTime",
+        "batchSize","blockedOffers","rejectedNotifications" })
+    public ListenerNotificationQueueStats( final String listenerClassName, final int currentQueueSize,
+            final HistogramSnapshot dispatchLatency, final HistogramSnapshot invocationTime,
+            final HistogramSnapshot batchSize, final long blockedOffers, final long rejectedNotifications ) {
         this.listenerClassName = listenerClassName;
         this.currentQueueSize = currentQueueSize;
+        this.dispatchLatency = Preconditions.checkNotNull( dispatchLatency );
+        this.invocationTime = Preconditions.checkNotNull( invocationTime );
+        this.batchSize = Preconditions.checkNotNull( batchSize );
+        this.blockedOffers = blockedOffers;
+        this.rejectedNotifications = rejectedNotifications;
     }
 
     /**
@@ -41,4 +66,43 @@ public class ListenerNotificationQueueStats {
     public int getCurrentQueueSize() {
         return currentQueueSize;
     }
+
+    /**
+     * Returns the histogram of the time, in nanoseconds, notifications spent in the queue before
+     * being dispatched to the listener.
+     */
+    public HistogramSnapshot getDispatchLatency() {
+        return dispatchLatency;
+    }
+
+    /**
+     * Returns the histogram of the time, in nanoseconds, spent invoking the listener with a
+     * notification. Its count is the number of notifications dispatched to the listener.
+     */
+    public HistogramSnapshot getInvocationTime() {
+        return invocationTime;
+    }
+
+    /**
+     * Returns the histogram of the number of notifications submitted for the listener at once.
+     */
+    public HistogramSnapshot getBatchSize() {
+        return batchSize;
+    }
+
+    /**
+     * Returns the number of notifications whose submission had to wait for the listener's queue to
+     * drain because it was full.
+     */
+    public long getBlockedOffers() {
+        return blockedOffers;
+    }
+
+    /**
+     * Returns the number of notifications which were not delivered to the listener because they
+     * could not be queued or because the executor rejected the listener's task.
+     */
+    public long getRejectedNotifications() {
+        return rejectedNotifications;
+    }
 }
@@ -0,0 +1,113 @@
+/*
+ * Copyright (c) 2016 Cisco Systems, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.yangtools.util.concurrent;
+
+import com.google.common.annotations.Beta;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicLongFieldUpdater;
+import javax.annotation.Nonnull;
+
+/**
+ * Concurrent histogram of non-negative long values, such as durations in nanoseconds or sizes. Values are counted in
+ * power-of-two buckets: bucket 0 holds zero, bucket {@code i} holds values between {@code 2^(i-1)} and
+ * {@code 2^i - 1}. This gives a relative precision of a factor of two, which is sufficient to tell apart a listener
+ * which takes microseconds from one which takes milliseconds, at a fixed memory cost and without any locking.
+ *
+ * <p>
+ * Recording a value consists of three atomic operations. Reads do not block writers, hence a {@link #snapshot()}
+ * taken while values are being recorded may not be consistent across buckets.
+ */
+@Beta
+public final class Log2Histogram {
+    static final int BUCKETS = 64;
+
+    private static final AtomicLongFieldUpdater<Log2Histogram> SUM_UPDATER =
+            AtomicLongFieldUpdater.newUpdater(Log2Histogram.class, "sum");
+    private static final AtomicLongFieldUpdater<Log2Histogram> MAX_UPDATER =
+            AtomicLongFieldUpdater.newUpdater(Log2Histogram.class, "max");
+
+    private final AtomicLongArray buckets = new AtomicLongArray(BUCKETS);
+
+    private volatile long sum = 0;
+    private volatile long max = 0;
+
+    static int bucketOf(final long value) {
+        return value <= 0 ? 0 : BUCKETS - Long.numberOfLeadingZeros(value);
+    }
+
+    static long upperBoundOf(final int bucket) {
+        return bucket == BUCKETS - 1 ? Long.MAX_VALUE : (1L << bucket) - 1;
+    }
+
+    /**
+     * Record a value. Negative values are recorded as zero.
+     *
+     * @param value Value to record
+     */
+    public void record(final long value) {
+        final long v = Math.max(value, 0);
+        buckets.incrementAndGet(bucketOf(v));
+        SUM_UPDATER.addAndGet(this, v);
+
+        long current = max;
+        while (v > current && !MAX_UPDATER.weakCompareAndSet(this, current, v)) {
+            current = max;
+        }
+    }
+
+    /**
+     * Return the number of recorded values.
+     *
+     * @return Number of recorded values
+     */
+    public long getCount() {
+        long count = 0;
+        for (int i = 0; i < BUCKETS; ++i) {
+            count += buckets.get(i);
+        }
+        return count;
+    }
+
+    /**
+     * Return the sum of all recorded values.
+     *
+     * @return Sum of recorded values
+     */
+    public long getSum() {
+        return sum;
+    }
+
+    /**
+     * Return the largest recorded value.
+     *
+     * @return Largest recorded value, or 0 if no values have been recorded
+     */
+    public long getMax() {
+        return max;
+    }
+
+    /**
+     * Take a snapshot of this histogram.
+     *
+     * @return An immutable snapshot
+     */
+    @Nonnull public HistogramSnapshot snapshot() {
+        int length = BUCKETS;
+        while (length > 0 && buckets.get(length - 1) == 0) {
+            length--;
+        }
+
+        final long[] counts = new long[length];
+        long count = 0;
+        for (int i = 0; i < length; ++i) {
+            counts[i] = buckets.get(i);
+            count += counts[i];
+        }
+        return new HistogramSnapshot(count, sum, max, counts);
+    }
+}
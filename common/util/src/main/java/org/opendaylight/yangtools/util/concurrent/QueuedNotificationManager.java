@@ -11,6 +11,7 @@ package org.opendaylight.yangtools.util.concurrent;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 import java.util.concurrent.BlockingQueue;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
@@ -18,6 +19,7 @@ import java.util.concurrent.Executor;
 import java.util.concurrent.LinkedBlockingQueue;
 import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongFieldUpdater;
 import java.util.concurrent.locks.Lock;
 import java.util.concurrent.locks.ReentrantLock;
 
@@ -27,6 +29,9 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import com.google.common.base.Preconditions;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheLoader;
+import com.google.common.cache.LoadingCache;
 
 /**
  * This class manages queuing and dispatching notifications for multiple listeners concurrently.
@@ -39,6 +44,12 @@ import com.google.common.base.Preconditions;
  * listener. Any subsequent notifications that occur before all previous notifications have been
  * dispatched are appended to the existing queue. When all notifications have been dispatched, the
  * queue and task are discarded.
+ * <p>
+ * Optionally, this class tracks metrics for each listener: how long notifications wait in the queue,
+ * how long the listener takes to process them, how many notifications are submitted at once, how
+ * often submitters block on a full queue and how many notifications are rejected. The metrics are
+ * kept for as long as the listener is reachable and are reported via
+ * {@link #getListenerNotificationQueueStats()}. Recording and reading them does not involve any locks.
  *
  * @author Thomas Pantelis
  *
@@ -80,6 +91,11 @@ public class QueuedNotificationManager<L,N> implements NotificationManager<L,N>
     private final ConcurrentMap<ListenerKey<L>,NotificationTask>
                                                           listenerCache = new ConcurrentHashMap<>();
 
+    /**
+     * Per-listener metrics, keyed by listener reference identity, or null if metrics are not tracked.
+     */
+    private final LoadingCache<L,ListenerMetrics> listenerMetrics;
+
     private final String name;
     private final int maxQueueCapacity;
 
@@ -93,11 +109,35 @@ public class QueuedNotificationManager<L,N> implements NotificationManager<L,N>
      */
     public QueuedNotificationManager( Executor executor, Invoker<L,N> listenerInvoker,
             int maxQueueCapacity, String name ) {
+        this( executor, listenerInvoker, maxQueueCapacity, name, false );
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param executor the {@link Executor} to use for notification tasks
+     * @param listenerInvoker the {@link Invoker} to use for invoking listeners
+     * @param maxQueueCapacity the capacity of each listener queue
+     * @param name the name of this instance for logging info
+     * @param trackListenerMetrics whether per-listener latency and throughput metrics should be
+     *        tracked
+     */
+    public QueuedNotificationManager( Executor executor, Invoker<L,N> listenerInvoker,
+            int maxQueueCapacity, String name, boolean trackListenerMetrics ) {
         this.executor = Preconditions.checkNotNull( executor );
         this.listenerInvoker = Preconditions.checkNotNull( listenerInvoker );
         Preconditions.checkArgument( maxQueueCapacity > 0, "maxQueueCapacity must be > 0 " );
         this.maxQueueCapacity = maxQueueCapacity;
         this.name = Preconditions.checkNotNull( name );
+
+        // Weak keys are compared by identity, which is what we want for listeners.
+        this.listenerMetrics = !trackListenerMetrics ? null : CacheBuilder.newBuilder().weakKeys()
+                .build( new CacheLoader<L,ListenerMetrics>() {
+                    @Override
+                    public ListenerMetrics load( final L key ) {
+                        return new ListenerMetrics();
+                    }
+                } );
     }
 
     /* (non-Javadoc)
@@ -133,6 +173,10 @@ public class QueuedNotificationManager<L,N> implements NotificationManager<L,N>
         ListenerKey<L> key = new ListenerKey<>( listener );
         NotificationTask newNotificationTask = null;
 
+        // The batch size is recorded once the notifications have been queued, so the caller's Iterable is only
+        // walked once.
+        final ListenerMetrics metrics = listenerMetrics == null ? null : listenerMetrics.getUnchecked( listener );
+
         // Keep looping until we are either able to add a new NotificationTask or are able to
         // add our notifications to an existing NotificationTask. Eventually one or the other
         // will occur.
@@ -152,7 +196,7 @@ public class QueuedNotificationManager<L,N> implements NotificationManager<L,N>
                     // notification ordering. In any case loop back up and try again.
 
                     if (newNotificationTask == null) {
-                        newNotificationTask = new NotificationTask( key, notifications );
+                        newNotificationTask = new NotificationTask( key, metrics, notifications );
                     }
 
                     existingTask = listenerCache.putIfAbsent( key, newNotificationTask );
@@ -165,7 +209,19 @@ public class QueuedNotificationManager<L,N> implements NotificationManager<L,N>
                         LOG.debug( "{}: Submitting NotificationTask for listener {}",
                                    name, listener.toString() );
 
-                        executor.execute( newNotificationTask );
+                        // Nothing has been dequeued yet, so the queue holds exactly our batch
+                        if (metrics != null) {
+                            metrics.batchSize.record( newNotificationTask.notificationQueue.size() );
+                        }
+
+                        try {
+                            executor.execute( newNotificationTask );
+                        } catch( RejectedExecutionException e ) {
+                            if (metrics != null) {
+                                metrics.addRejected( newNotificationTask.notificationQueue.size() );
+                            }
+                            throw e;
+                        }
                         break;
                     }
                 } else {
@@ -195,6 +251,10 @@ public class QueuedNotificationManager<L,N> implements NotificationManager<L,N>
      * notification task in progress.
      */
     public List<ListenerNotificationQueueStats> getListenerNotificationQueueStats() {
+        if (listenerMetrics != null) {
+            return getListenerMetricsStats();
+        }
+
         List<ListenerNotificationQueueStats> statsList = new ArrayList<>( listenerCache.size() );
         for (NotificationTask task: listenerCache.values()) {
             statsList.add( new ListenerNotificationQueueStats(
@@ -204,6 +264,22 @@ public class QueuedNotificationManager<L,N> implements NotificationManager<L,N>
         return statsList ;
     }
 
+    /**
+     * When listener metrics are tracked, report all listeners which are still reachable, including
+     * those which currently have no notifications pending.
+     */
+    private List<ListenerNotificationQueueStats> getListenerMetricsStats() {
+        Map<L,ListenerMetrics> metricsMap = listenerMetrics.asMap();
+        List<ListenerNotificationQueueStats> statsList = new ArrayList<>( metricsMap.size() );
+        for (Map.Entry<L,ListenerMetrics> entry: metricsMap.entrySet()) {
+            NotificationTask task = listenerCache.get( new ListenerKey<>( entry.getKey() ) );
+            statsList.add( entry.getValue().toStats( entry.getKey().toString(),
+                    task == null ? 0 : task.notificationQueue.size() ) );
+        }
+
+        return statsList;
+    }
+
     /**
      * Returns the maximum listener queue capacity.
      */
@@ -261,13 +337,61 @@ public class QueuedNotificationManager<L,N> implements NotificationManager<L,N>
         }
     }
 
+    /**
+     * Per-listener metrics. Histograms and counters are updated by submitting and dispatching
+     * threads without locking and can be read at any time.
+     */
+    private static final class ListenerMetrics {
+        private static final AtomicLongFieldUpdater<ListenerMetrics> BLOCKED_OFFERS_UPDATER =
+                AtomicLongFieldUpdater.newUpdater( ListenerMetrics.class, "blockedOffers" );
+        private static final AtomicLongFieldUpdater<ListenerMetrics> REJECTED_UPDATER =
+                AtomicLongFieldUpdater.newUpdater( ListenerMetrics.class, "rejected" );
+
+        final Log2Histogram dispatchLatency = new Log2Histogram();
+        final Log2Histogram invocationTime = new Log2Histogram();
+        final Log2Histogram batchSize = new Log2Histogram();
+
+        private volatile long blockedOffers = 0;
+        private volatile long rejected = 0;
+
+        void addBlockedOffer() {
+            BLOCKED_OFFERS_UPDATER.incrementAndGet( this );
+        }
+
+        void addRejected( final int count ) {
+            REJECTED_UPDATER.addAndGet( this, count );
+        }
+
+        ListenerNotificationQueueStats toStats( final String listenerName, final int queueSize ) {
+            return new ListenerNotificationQueueStats( listenerName, queueSize,
+                    dispatchLatency.snapshot(), invocationTime.snapshot(), batchSize.snapshot(),
+                    blockedOffers, rejected );
+        }
+    }
+
+    /**
+     * Queue entry used when metrics are tracked, which records when the notification was queued.
+     */
+    private static final class TimestampedNotification {
+        final Object notification;
+        final long queuedNanos;
+
+        TimestampedNotification( final Object notification ) {
+            this.notification = notification;
+            this.queuedNanos = System.nanoTime();
+        }
+    }
+
     /**
      * Executor task for a single listener that queues notifications and sends them serially to the
      * listener.
      */
     private class NotificationTask implements Runnable {
 
-        private final BlockingQueue<N> notificationQueue;
+        /**
+         * Holds notifications, or {@link TimestampedNotification}s if metrics are tracked.
+         */
+        private final BlockingQueue<Object> notificationQueue;
 
         private volatile boolean done = false;
 
@@ -278,16 +402,24 @@ public class QueuedNotificationManager<L,N> implements NotificationManager<L,N>
 
         private final ListenerKey<L> listenerKey;
 
-        NotificationTask( ListenerKey<L> listenerKey, Iterable<N> notifications ) {
+        private final ListenerMetrics metrics;
+
+        NotificationTask( ListenerKey<L> listenerKey, ListenerMetrics metrics,
+                Iterable<N> notifications ) {
 
             this.listenerKey = listenerKey;
+            this.metrics = metrics;
             this.notificationQueue = new LinkedBlockingQueue<>( maxQueueCapacity );
 
             for (N notification: notifications) {
-                this.notificationQueue.add( notification );
+                this.notificationQueue.add( queueEntry( notification ) );
             }
         }
 
+        private Object queueEntry( N notification ) {
+            return metrics == null ? notification : new TimestampedNotification( notification );
+        }
+
         boolean submitNotifications( Iterable<N> notifications ) throws InterruptedException {
 
             queuingLock.lock();
@@ -300,20 +432,32 @@ public class QueuedNotificationManager<L,N> implements NotificationManager<L,N>
                     return false;
                 }
 
+                int batchSize = 0;
                 for (N notification: notifications) {
-                    boolean notificationOfferAttemptSuccess = false;
+                    batchSize++;
+                    if (LOG.isDebugEnabled()) {
+                        LOG.debug( "{}: Offering notification to the queue for listener {}: {}",
+                                   name, listenerKey.toString(), notification );
+                    }
+
+                    Object entry = queueEntry( notification );
+
+                    // Try the offer without waiting first, so we know whether we had to block.
+                    boolean notificationOfferAttemptSuccess = notificationQueue.offer( entry );
+                    if (notificationOfferAttemptSuccess) {
+                        continue;
+                    }
+                    if (metrics != null) {
+                        metrics.addBlockedOffer();
+                    }
+
                     // The offer is attempted for up to 10 minutes, with a status message printed each minute
                     for (int notificationOfferAttempts = 0;
                          notificationOfferAttempts < MAX_NOTIFICATION_OFFER_ATTEMPTS; notificationOfferAttempts++) {
 
                         // Try to offer for up to a minute and log a message if it times out.
-                        if (LOG.isDebugEnabled()) {
-                            LOG.debug( "{}: Offering notification to the queue for listener {}: {}",
-                                       name, listenerKey.toString(), notification );
-                        }
-
                         if (notificationOfferAttemptSuccess = notificationQueue.offer(
-                                notification, 1, TimeUnit.MINUTES)) {
+                                entry, 1, TimeUnit.MINUTES)) {
                             break;
                         }
 
@@ -331,6 +475,9 @@ public class QueuedNotificationManager<L,N> implements NotificationManager<L,N>
                             "is likely in an unrecoverable state (deadlock or endless loop).",
                             name, listenerKey.toString(), MAX_NOTIFICATION_OFFER_ATTEMPTS,
                             MAX_NOTIFICATION_OFFER_ATTEMPTS );
+                        if (metrics != null) {
+                            metrics.addRejected( 1 );
+                        }
                     }
                 }
 
@@ -340,6 +487,9 @@ public class QueuedNotificationManager<L,N> implements NotificationManager<L,N>
 
                 queuedNotifications = true;
 
+                if (metrics != null) {
+                    metrics.batchSize.record( batchSize );
+                }
             } finally {
                 queuingLock.unlock();
             }
@@ -358,7 +508,7 @@ public class QueuedNotificationManager<L,N> implements NotificationManager<L,N>
                     // Get the notification at the head of the queue, waiting a little bit for one
                     // to get offered.
 
-                    N notification = notificationQueue.poll( 10, TimeUnit.MILLISECONDS );
+                    Object notification = notificationQueue.poll( 10, TimeUnit.MILLISECONDS );
                     if (notification == null) {
 
                         // The queue is empty - try to get the queuingLock. If we can't get the lock
@@ -406,12 +556,35 @@ public class QueuedNotificationManager<L,N> implements NotificationManager<L,N>
             }
         }
 
-        private void notifyListener( N notification ) {
+        private void notifyListener( Object entry ) {
+
+            if (entry == null) {
+                return;
+            }
 
-            if (notification == null) {
+            if (metrics == null) {
+                invokeListener( entry );
                 return;
             }
 
+            // Unwrap the notification and account for the time it spent queued as well as the
+            // time the listener takes to process it, whether it succeeds or not.
+
+            TimestampedNotification timestamped = (TimestampedNotification) entry;
+            long startNanos = System.nanoTime();
+            metrics.dispatchLatency.record( startNanos - timestamped.queuedNanos );
+            try {
+                invokeListener( timestamped.notification );
+            } finally {
+                metrics.invocationTime.record( System.nanoTime() - startNanos );
+            }
+        }
+
+        private void invokeListener( Object entry ) {
+
+            @SuppressWarnings("unchecked")
+            N notification = (N) entry;
+
             try {
 
                 if (LOG.isDebugEnabled()) {
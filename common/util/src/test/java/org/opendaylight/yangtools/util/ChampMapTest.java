@@ -0,0 +1,183 @@
+/*
+ * Copyright (c) 2016 Cisco Systems, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.yangtools.util;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Random;
+import org.junit.Test;
+
+public class ChampMapTest {
+    /**
+     * Key with a controllable hash code, so we can exercise collision nodes.
+     */
+    private static final class Key {
+        private final int value;
+        private final int hash;
+
+        Key(final int value, final int hash) {
+            this.value = value;
+            this.hash = hash;
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+
+        @Override
+        public boolean equals(final Object obj) {
+            return obj instanceof Key && ((Key) obj).value == value;
+        }
+
+        @Override
+        public String toString() {
+            return value + "@" + hash;
+        }
+    }
+
+    private static void assertSameContent(final Map<Key, Integer> expected, final Map<Key, Integer> actual) {
+        assertEquals(expected.size(), actual.size());
+        assertEquals(expected, actual);
+        assertEquals(actual, expected);
+        assertEquals(expected.hashCode(), actual.hashCode());
+
+        int count = 0;
+        for (Entry<Key, Integer> e : actual.entrySet()) {
+            assertEquals(expected.get(e.getKey()), e.getValue());
+            count++;
+        }
+        assertEquals(expected.size(), count);
+    }
+
+    private static void randomOperations(final int hashRange) {
+        final Random random = new Random(hashRange);
+        final Map<Key, Integer> expected = new HashMap<>();
+        ReadWriteChampMap<Key, Integer> actual = new ReadWriteChampMap<>();
+
+        for (int i = 0; i < 20000; ++i) {
+            final int value = random.nextInt(2000);
+            final Key key = new Key(value, value % hashRange);
+            if (random.nextInt(3) == 0) {
+                assertEquals(expected.remove(key), actual.remove(key));
+            } else {
+                assertEquals(expected.put(key, i), actual.put(key, i));
+            }
+            assertEquals(expected.size(), actual.size());
+
+            if (i % 1000 == 0) {
+                assertSameContent(expected, actual);
+
+                // Freeze the current state and continue modifying a snapshot
+                final Map<Key, Integer> frozen = new HashMap<>(expected);
+                final ReadOnlyChampMap<Key, Integer> readOnly = (ReadOnlyChampMap<Key, Integer>) actual.toReadOnly();
+                actual = (ReadWriteChampMap<Key, Integer>) readOnly.toReadWrite();
+                actual.put(new Key(-1, -1), -1);
+                actual.remove(new Key(-1, -1));
+                assertSameContent(frozen, readOnly);
+            }
+        }
+        assertSameContent(expected, actual);
+    }
+
+    @Test
+    public void testRandomOperations() {
+        randomOperations(Integer.MAX_VALUE);
+    }
+
+    @Test
+    public void testCollisions() {
+        randomOperations(7);
+    }
+
+    @Test
+    public void testSnapshotIsolation() {
+        final ReadWriteChampMap<String, String> map = new ReadWriteChampMap<>();
+        for (int i = 0; i < 1000; ++i) {
+            map.put(String.valueOf(i), "foo");
+        }
+
+        final Map<String, String> readOnly = map.toReadOnly();
+        map.put("0", "bar");
+        map.remove("1");
+        map.put("foo", "bar");
+
+        assertEquals(1000, readOnly.size());
+        assertEquals("foo", readOnly.get("0"));
+        assertEquals("foo", readOnly.get("1"));
+        assertNull(readOnly.get("foo"));
+
+        assertEquals(1000, map.size());
+        assertEquals("bar", map.get("0"));
+        assertFalse(map.containsKey("1"));
+        assertTrue(map.containsKey("foo"));
+
+        final Map<String, String> snapshot = ((ReadOnlyChampMap<String, String>) readOnly).toReadWrite();
+        snapshot.clear();
+        assertTrue(snapshot.isEmpty());
+        assertEquals(1000, readOnly.size());
+    }
+
+    @Test
+    public void testIteratorRemove() {
+        final ReadWriteChampMap<String, String> map = new ReadWriteChampMap<>();
+        final Map<String, String> expected = new HashMap<>();
+        for (int i = 0; i < 1000; ++i) {
+            map.put(String.valueOf(i), String.valueOf(i % 3));
+            expected.put(String.valueOf(i), String.valueOf(i % 3));
+        }
+        final Map<String, String> readOnly = map.toReadOnly();
+
+        final Iterator<String> it = map.keySet().iterator();
+        while (it.hasNext()) {
+            if (Integer.parseInt(it.next()) % 2 == 0) {
+                it.remove();
+            }
+        }
+        assertTrue(map.values().removeAll(Collections.singleton("0")));
+        for (int i = 0; i < 1000; ++i) {
+            if (i % 2 == 0 || i % 3 == 0) {
+                expected.remove(String.valueOf(i));
+            }
+        }
+
+        assertEquals(expected, map);
+        assertEquals(expected.size(), map.size());
+        assertEquals(1000, readOnly.size());
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testIteratorRemoveTwice() {
+        final ReadWriteChampMap<String, String> map = new ReadWriteChampMap<>();
+        map.put("foo", "bar");
+        final Iterator<Entry<String, String>> it = map.entrySet().iterator();
+        it.next();
+        it.remove();
+        it.remove();
+    }
+
+    @Test(expected = NullPointerException.class)
+    public void testNullValue() {
+        new ReadWriteChampMap<String, String>().put("foo", null);
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void testUnmodifiableEntrySet() {
+        final ReadWriteChampMap<String, String> map = new ReadWriteChampMap<>();
+        map.put("foo", "bar");
+        map.entrySet().iterator().next().setValue("baz");
+    }
+}
@@ -0,0 +1,140 @@
+/*
+ * Copyright (c) 2016 Cisco Systems, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.yangtools.util;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import org.junit.Test;
+import org.opendaylight.yangtools.yang.common.QName;
+
+public class ImmutableKeyIndexTest {
+    @Test
+    public void testEmpty() {
+        final ImmutableKeyIndex<String> index = ImmutableKeyIndex.of();
+        assertSame(index, ImmutableKeyIndex.copyOf(Collections.<String>emptyList()));
+        assertTrue(index.isEmpty());
+        assertEquals(-1, index.offsetOf("a"));
+        assertEquals(-1, index.offsetOf(null));
+        assertEquals(Collections.emptySet(), index);
+    }
+
+    @Test
+    public void testOffsets() {
+        final List<String> keys = new ArrayList<>();
+        for (int i = 0; i < 100; ++i) {
+            keys.add("key" + i);
+        }
+
+        final ImmutableKeyIndex<String> index = ImmutableKeyIndex.copyOf(keys);
+        assertEquals(100, index.size());
+        for (int i = 0; i < 100; ++i) {
+            assertEquals(i, index.offsetOf(new String("key" + i)));
+            assertEquals("key" + i, index.keyAt(i));
+        }
+        assertEquals(-1, index.offsetOf("key100"));
+        assertEquals(-1, index.offsetOf(null));
+        assertFalse(index.contains(1));
+        assertEquals(keys, ImmutableList.copyOf(index));
+    }
+
+    @Test
+    public void testPerfectLayout() {
+        final List<String> keys = ImmutableList.of("name", "type", "enabled", "mtu", "description", "address");
+        final ImmutableKeyIndex<String> index = ImmutableKeyIndex.copyOf(keys);
+        assertTrue(index.isPerfect());
+        for (int i = 0; i < keys.size(); ++i) {
+            assertEquals(i, index.offsetOf(keys.get(i)));
+            assertEquals(i, index.offsetOf(new String(keys.get(i))));
+        }
+        assertEquals(-1, index.offsetOf("speed"));
+    }
+
+    @Test
+    public void testPerfectQNameLayouts() {
+        // Children of a single module, laid out the way NormalizedNode children and list keys are
+        final String[] names = { "name", "description", "type", "enabled", "link-up-down-trap-enable",
+            "admin-status", "oper-status", "last-change", "if-index", "phys-address", "higher-layer-if",
+            "lower-layer-if", "speed", "statistics", "discontinuity-time", "in-octets", "in-unicast-pkts",
+            "in-broadcast-pkts", "in-multicast-pkts", "in-discards", "in-errors", "in-unknown-protos", "out-octets",
+            "out-unicast-pkts", "out-broadcast-pkts", "out-multicast-pkts", "out-discards", "out-errors", "mtu",
+            "ipv4", "ipv6", "address", "prefix-length", "netmask", "origin", "neighbor", "forwarding", "autoconf",
+            "create-global-addresses", "create-temporary-addresses", "temporary-valid-lifetime",
+            "temporary-preferred-lifetime", "id", "key", "value", "config", "state", "counters", "timestamp",
+            "dup-addr-detect-transmits" };
+        final QName[] modules = {
+            QName.create("urn:ietf:params:xml:ns:yang:ietf-interfaces", "2014-05-08", "interfaces"),
+            QName.create("urn:opendaylight:benchmark", "2016-01-01", "base"),
+            QName.create("urn:foo", "foo"),
+        };
+
+        for (QName module : modules) {
+            for (int size = 10; size <= names.length; ++size) {
+                final List<QName> keys = new ArrayList<>(size);
+                final List<QName> synthetic = new ArrayList<>(size);
+                for (int i = 0; i < size; ++i) {
+                    keys.add(QName.create(module, names[i]));
+                    synthetic.add(QName.create(module, "leaf" + i));
+                }
+
+                assertPerfect(keys);
+                assertPerfect(synthetic);
+            }
+        }
+    }
+
+    private static void assertPerfect(final List<QName> keys) {
+        final ImmutableKeyIndex<QName> index = ImmutableKeyIndex.copyOf(keys);
+        assertTrue("Layout of " + keys + " is not perfect", index.isPerfect());
+        for (int i = 0; i < keys.size(); ++i) {
+            final QName key = keys.get(i);
+            assertEquals(i, index.offsetOf(QName.create(key.getModule(), key.getLocalName())));
+        }
+    }
+
+    @Test
+    public void testCollidingKeys() {
+        // "Aa" and "BB" have the same hash code
+        final ImmutableKeyIndex<String> index = ImmutableKeyIndex.copyOf(ImmutableList.of("Aa", "BB", "AaAa", "BBBB"));
+        assertFalse(index.isPerfect());
+        assertEquals(0, index.offsetOf("Aa"));
+        assertEquals(1, index.offsetOf("BB"));
+        assertEquals(2, index.offsetOf("AaAa"));
+        assertEquals(3, index.offsetOf("BBBB"));
+        assertEquals(-1, index.offsetOf("AaBB"));
+    }
+
+    @Test
+    public void testEquality() {
+        final ImmutableKeyIndex<String> ab = ImmutableKeyIndex.copyOf(ImmutableList.of("a", "b"));
+        final ImmutableKeyIndex<String> ba = ImmutableKeyIndex.copyOf(ImmutableList.of("b", "a"));
+
+        assertEquals(ImmutableSet.of("a", "b"), ab);
+        assertEquals(ab, ImmutableSet.of("a", "b"));
+        assertEquals(ab, ba);
+        assertEquals(ab.hashCode(), ImmutableSet.of("a", "b").hashCode());
+        assertTrue(ab.hasSameLayout(ImmutableKeyIndex.copyOf(ImmutableList.of("a", "b"))));
+        assertFalse(ab.hasSameLayout(ba));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testDuplicateKeys() {
+        ImmutableKeyIndex.copyOf(ImmutableList.of("a", "b", "a"));
+    }
+
+    @Test(expected = NullPointerException.class)
+    public void testNullKey() {
+        ImmutableKeyIndex.copyOf(Collections.<String>singletonList(null));
+    }
+}
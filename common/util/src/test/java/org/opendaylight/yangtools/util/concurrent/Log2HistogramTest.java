@@ -0,0 +1,66 @@
+/*
+ * Copyright (c) 2016 Cisco Systems, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.yangtools.util.concurrent;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+import org.junit.Test;
+
+public class Log2HistogramTest {
+
+    @Test
+    public void testEmpty() {
+        final HistogramSnapshot snapshot = new Log2Histogram().snapshot();
+        assertEquals(0, snapshot.getCount());
+        assertEquals(0, snapshot.getMax());
+        assertEquals(0, snapshot.getMean(), 0);
+        assertEquals(0, snapshot.getBucketCounts().length);
+        assertEquals(0, snapshot.getPercentile(99));
+    }
+
+    @Test
+    public void testRecord() {
+        final Log2Histogram histogram = new Log2Histogram();
+        histogram.record(-5);
+        histogram.record(1);
+        histogram.record(2);
+        histogram.record(3);
+        histogram.record(1000);
+
+        assertEquals(5, histogram.getCount());
+        assertEquals(1006, histogram.getSum());
+        assertEquals(1000, histogram.getMax());
+
+        final HistogramSnapshot snapshot = histogram.snapshot();
+        assertEquals(5, snapshot.getCount());
+        assertEquals(201.2, snapshot.getMean(), 0.001);
+        assertArrayEquals(new long[] { 1, 1, 2, 0, 0, 0, 0, 0, 0, 0, 1 }, snapshot.getBucketCounts());
+
+        // Third value falls into the [2, 3] bucket
+        assertEquals(3, snapshot.getPercentile(50));
+        // The [512, 1023] bucket is capped by the maximum
+        assertEquals(1000, snapshot.getPercentile(100));
+    }
+
+    @Test
+    public void testBucketBounds() {
+        assertEquals(0, Log2Histogram.bucketOf(0));
+        assertEquals(1, Log2Histogram.bucketOf(1));
+        assertEquals(10, Log2Histogram.bucketOf(1023));
+        assertEquals(11, Log2Histogram.bucketOf(1024));
+        assertEquals(63, Log2Histogram.bucketOf(Long.MAX_VALUE));
+        assertEquals(1023, Log2Histogram.upperBoundOf(10));
+        assertEquals(Long.MAX_VALUE, Log2Histogram.upperBoundOf(63));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testInvalidPercentile() {
+        HistogramSnapshot.EMPTY.getPercentile(0);
+    }
+}
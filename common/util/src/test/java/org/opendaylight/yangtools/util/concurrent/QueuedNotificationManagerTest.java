@@ -10,14 +10,19 @@ package org.opendaylight.yangtools.util.concurrent;
 
 import static org.junit.Assert.fail;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.Iterator;
 import java.util.List;
+import java.util.concurrent.BlockingQueue;
 import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
 
@@ -297,4 +302,118 @@ public class QueuedNotificationManagerTest {
 
         listener.verifyNotifications();
     }
+
+    @Test(timeout=10000)
+    public void testListenerMetrics() throws InterruptedException {
+
+        // Tasks are only run when we say so, which lets us fill up the listener's queue.
+        final BlockingQueue<Runnable> tasks = new LinkedBlockingQueue<>();
+        Executor deferredExecutor = new Executor() {
+            @Override
+            public void execute( final Runnable command ) {
+                tasks.add( command );
+            }
+        };
+
+        final QueuedNotificationManager<TestListener<Integer>, Integer> manager =
+                new QueuedNotificationManager<>( deferredExecutor, new TestNotifier<>(),
+                2, "TestMgr", true );
+
+        final TestListener<Integer> listener = new TestListener<>( 3, 1 );
+        manager.submitNotifications( listener, Arrays.asList( 1, 2 ) );
+
+        // The queue is full, so this submission has to wait for the task to drain it.
+        Thread submitter = new Thread( new Runnable() {
+            @Override
+            public void run() {
+                manager.submitNotification( listener, 3 );
+            }
+        } );
+        submitter.start();
+
+        while (manager.getListenerNotificationQueueStats().get( 0 ).getBlockedOffers() == 0) {
+            Uninterruptibles.sleepUninterruptibly( 10, TimeUnit.MILLISECONDS );
+        }
+
+        tasks.take().run();
+        submitter.join();
+        listener.verifyNotifications( Arrays.asList( 1, 2, 3 ) );
+
+        List<ListenerNotificationQueueStats> statsList = manager.getListenerNotificationQueueStats();
+        assertEquals( "Stats size", 1, statsList.size() );
+
+        ListenerNotificationQueueStats stats = statsList.get( 0 );
+        assertEquals( "getListenerClassName", listener.toString(), stats.getListenerClassName() );
+        assertEquals( "getCurrentQueueSize", 0, stats.getCurrentQueueSize() );
+        assertEquals( "Dispatched", 3, stats.getInvocationTime().getCount() );
+        assertEquals( "Dispatch latencies", 3, stats.getDispatchLatency().getCount() );
+        assertEquals( "Batches", 2, stats.getBatchSize().getCount() );
+        assertEquals( "Largest batch", 2, stats.getBatchSize().getMax() );
+        assertEquals( "getBlockedOffers", 1, stats.getBlockedOffers() );
+        assertEquals( "getRejectedNotifications", 0, stats.getRejectedNotifications() );
+    }
+
+    @Test(timeout=10000)
+    public void testListenerMetricsWithSinglePassIterable() {
+
+        // Tasks are never run, so the second batch is added to the existing task
+        Executor deferredExecutor = new Executor() {
+            @Override
+            public void execute( final Runnable command ) {
+            }
+        };
+
+        QueuedNotificationManager<TestListener<Integer>, Integer> manager =
+                new QueuedNotificationManager<>( deferredExecutor, new TestNotifier<>(),
+                10, "TestMgr", true );
+
+        TestListener<Integer> listener = new TestListener<>( 5, 1 );
+        manager.submitNotifications( listener, singlePass( Arrays.asList( 1, 2 ) ) );
+        manager.submitNotifications( listener, singlePass( Arrays.asList( 3, 4, 5 ) ) );
+
+        ListenerNotificationQueueStats stats = manager.getListenerNotificationQueueStats().get( 0 );
+        assertEquals( "getCurrentQueueSize", 5, stats.getCurrentQueueSize() );
+        assertEquals( "Batches", 2, stats.getBatchSize().getCount() );
+        assertEquals( "Notifications", 5, stats.getBatchSize().getSum() );
+    }
+
+    private static <T> Iterable<T> singlePass( final Iterable<T> delegate ) {
+        return new Iterable<T>() {
+            private boolean iterated = false;
+
+            @Override
+            public Iterator<T> iterator() {
+                assertFalse( "Iterable walked more than once", iterated );
+                iterated = true;
+                return delegate.iterator();
+            }
+        };
+    }
+
+    @Test(timeout=10000)
+    public void testListenerMetricsWithRejectedTask() {
+
+        Executor rejectingExecutor = new Executor() {
+            @Override
+            public void execute( final Runnable command ) {
+                throw new RejectedExecutionException( "mock" );
+            }
+        };
+
+        QueuedNotificationManager<TestListener<Integer>, Integer> manager =
+                new QueuedNotificationManager<>( rejectingExecutor, new TestNotifier<>(),
+                10, "TestMgr", true );
+
+        TestListener<Integer> listener = new TestListener<>( 3, 1 );
+        try {
+            manager.submitNotifications( listener, Arrays.asList( 1, 2, 3 ) );
+            fail( "Expected RejectedExecutionException" );
+        } catch( RejectedExecutionException e ) {
+            // Expected
+        }
+
+        ListenerNotificationQueueStats stats = manager.getListenerNotificationQueueStats().get( 0 );
+        assertEquals( "getRejectedNotifications", 3, stats.getRejectedNotifications() );
+        assertEquals( "Dispatched", 0, stats.getInvocationTime().getCount() );
+    }
 }
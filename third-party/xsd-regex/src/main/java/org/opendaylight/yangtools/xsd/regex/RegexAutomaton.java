@@ -0,0 +1,413 @@
+/*
+ * Copyright (c) 2016 Cisco Systems, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.yangtools.xsd.regex;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+
+/**
+ * A deterministic finite automaton accepting the same strings as an XML Schema regular expression. It is built from
+ * the {@link Token} tree produced by {@link ParserForXMLSchema}, so it recognizes the same syntax. Matching runs in
+ * time linear in the length of the input and does not backtrack, regardless of the expression.
+ *
+ * <p>
+ * Input code points are mapped onto equivalence classes of code points which no part of the expression can tell
+ * apart, hence the transition table stays small even with large character classes like {@code \p{L}}. Expressions
+ * whose automaton would exceed internal size limits, typically due to large bounded repetitions, are rejected.
+ *
+ * <p>
+ * Instances are immutable and thread-safe.
+ */
+public final class RegexAutomaton {
+    private static final int MAX_CODE_POINT = Token.UTF16_MAX;
+    private static final int MAX_NFA_STATES = 4096;
+    private static final int MAX_TRANSITIONS = 1 << 18;
+    private static final int ASCII_LIMIT = 128;
+    private static final int DEAD = -1;
+
+    // Code points matched by '.': everything except line terminators
+    private static final int[] DOT_RANGES = { 0, '\n' - 1, '\n' + 1, '\r' - 1, '\r' + 1, MAX_CODE_POINT };
+    private static final int[] ALL_RANGES = { 0, MAX_CODE_POINT };
+
+    // Starting code points of intervals which are not split by any character set, and their equivalence classes
+    private final int[] intervalStarts;
+    private final int[] intervalClasses;
+    private final int[] asciiClasses;
+    private final int classCount;
+    // Next state for each state and equivalence class, DEAD if the input cannot be matched
+    private final int[] transitions;
+    private final boolean[] accepting;
+
+    private RegexAutomaton(final int[] intervalStarts, final int[] intervalClasses, final int classCount,
+            final int[] transitions, final boolean[] accepting) {
+        this.intervalStarts = intervalStarts;
+        this.intervalClasses = intervalClasses;
+        this.classCount = classCount;
+        this.transitions = transitions;
+        this.accepting = accepting;
+
+        asciiClasses = new int[ASCII_LIMIT];
+        for (int i = 0; i < ASCII_LIMIT; ++i) {
+            asciiClasses[i] = lookupClass(i);
+        }
+    }
+
+    /**
+     * Compile an XML Schema regular expression. The expression is implicitly anchored at both ends, as mandated by
+     * XML Schema.
+     *
+     * @param regex Regular expression
+     * @return An automaton
+     * @throws ParseException if the expression is not a valid XML Schema regular expression
+     * @throws IllegalArgumentException if the automaton would be too large
+     */
+    public static RegexAutomaton compile(final String regex) {
+        final Token token = new ParserForXMLSchema().parse(regex, RegularExpression.XMLSCHEMA_MODE);
+        final NfaBuilder nfa = new NfaBuilder();
+        final int start = nfa.newState();
+        nfa.accept = nfa.build(token, start);
+        return nfa.determinize(start);
+    }
+
+    /**
+     * Check whether the entire input is matched by this automaton.
+     *
+     * @param str Input string
+     * @return True if the string matches
+     */
+    public boolean matches(final CharSequence str) {
+        final int length = str.length();
+        int state = 0;
+        for (int i = 0; i < length;) {
+            final int cp = Character.codePointAt(str, i);
+            i += Character.charCount(cp);
+            state = transitions[state * classCount + classOf(cp)];
+            if (state == DEAD) {
+                return false;
+            }
+        }
+        return accepting[state];
+    }
+
+    /**
+     * Return the number of states of this automaton.
+     *
+     * @return Number of states
+     */
+    public int getStateCount() {
+        return accepting.length;
+    }
+
+    private int classOf(final int cp) {
+        return cp < ASCII_LIMIT ? asciiClasses[cp] : lookupClass(cp);
+    }
+
+    private int lookupClass(final int cp) {
+        final int idx = Arrays.binarySearch(intervalStarts, cp);
+        return intervalClasses[idx >= 0 ? idx : -idx - 2];
+    }
+
+    /**
+     * Thompson-style construction of a nondeterministic automaton. Every construct which loops does so on a state it
+     * has allocated itself, so that loops never leak into sibling constructs.
+     */
+    private static final class NfaBuilder {
+        // Parallel lists of edges: source, target and character set index, -1 for epsilon edges
+        private final List<int[]> sets = new ArrayList<>();
+        private int[] edgeFrom = new int[16];
+        private int[] edgeTo = new int[16];
+        private int[] edgeSet = new int[16];
+        private int edgeCount;
+        private int stateCount;
+        int accept;
+
+        int newState() {
+            if (stateCount == MAX_NFA_STATES) {
+                throw new IllegalArgumentException("Expression requires more than " + MAX_NFA_STATES + " states");
+            }
+            return stateCount++;
+        }
+
+        private void addEdge(final int from, final int to, final int set) {
+            if (edgeCount == edgeFrom.length) {
+                edgeFrom = Arrays.copyOf(edgeFrom, edgeCount * 2);
+                edgeTo = Arrays.copyOf(edgeTo, edgeCount * 2);
+                edgeSet = Arrays.copyOf(edgeSet, edgeCount * 2);
+            }
+            edgeFrom[edgeCount] = from;
+            edgeTo[edgeCount] = to;
+            edgeSet[edgeCount] = set;
+            edgeCount++;
+        }
+
+        private void addEpsilon(final int from, final int to) {
+            addEdge(from, to, -1);
+        }
+
+        private int addRanges(final int from, final int[] ranges) {
+            final int to = newState();
+            if (ranges != null && ranges.length != 0) {
+                sets.add(ranges);
+                addEdge(from, to, sets.size() - 1);
+            }
+            return to;
+        }
+
+        private int addChar(final int from, final int ch) {
+            return addRanges(from, new int[] { ch, ch });
+        }
+
+        /**
+         * Build the automaton fragment for a token.
+         *
+         * @param token Token
+         * @param from State at which the fragment starts
+         * @return State at which the fragment ends
+         */
+        int build(final Token token, final int from) {
+            switch (token.type) {
+                case Token.CHAR:
+                    return addChar(from, token.getChar());
+                case Token.DOT:
+                    return addRanges(from, DOT_RANGES);
+                case Token.RANGE:
+                    token.sortRanges();
+                    token.compactRanges();
+                    return addRanges(from, ((RangeToken) token).ranges);
+                case Token.NRANGE:
+                    if (((RangeToken) token).ranges == null) {
+                        return addRanges(from, ALL_RANGES);
+                    }
+                    return addRanges(from, ((RangeToken) Token.complementRanges(token)).ranges);
+                case Token.STRING: {
+                    final String str = token.getString();
+                    int state = from;
+                    for (int i = 0; i < str.length();) {
+                        final int cp = str.codePointAt(i);
+                        i += Character.charCount(cp);
+                        state = addChar(state, cp);
+                    }
+                    return state;
+                }
+                case Token.CONCAT: {
+                    int state = from;
+                    for (int i = 0; i < token.size(); ++i) {
+                        state = build(token.getChild(i), state);
+                    }
+                    return state;
+                }
+                case Token.UNION: {
+                    final int to = newState();
+                    for (int i = 0; i < token.size(); ++i) {
+                        addEpsilon(build(token.getChild(i), fork(from)), to);
+                    }
+                    return to;
+                }
+                case Token.PAREN:
+                    return build(token.getChild(0), from);
+                case Token.EMPTY:
+                    return from;
+                case Token.CLOSURE:
+                case Token.NONGREEDYCLOSURE:
+                    return buildClosure(token, from);
+                default:
+                    throw new IllegalArgumentException("Unsupported token type " + token.type);
+            }
+        }
+
+        private int fork(final int from) {
+            final int ret = newState();
+            addEpsilon(from, ret);
+            return ret;
+        }
+
+        private int buildClosure(final Token token, final int from) {
+            final Token child = token.getChild(0);
+            final int min = Math.max(token.getMin(), 0);
+            final int max = token.getMax();
+
+            int state = from;
+            for (int i = 0; i < min; ++i) {
+                state = build(child, fork(state));
+            }
+
+            if (max < 0) {
+                final int loop = fork(state);
+                addEpsilon(build(child, fork(loop)), loop);
+                return loop;
+            }
+
+            final int to = newState();
+            for (int i = min; i < max; ++i) {
+                addEpsilon(state, to);
+                state = build(child, fork(state));
+            }
+            addEpsilon(state, to);
+            return to;
+        }
+
+        RegexAutomaton determinize(final int start) {
+            // Split code points into intervals not split by any set, then merge intervals which are covered by the
+            // same sets into equivalence classes.
+            final TreeSet<Integer> boundaries = new TreeSet<>();
+            boundaries.add(0);
+            for (final int[] ranges : sets) {
+                for (int i = 0; i < ranges.length; i += 2) {
+                    boundaries.add(ranges[i]);
+                    if (ranges[i + 1] < MAX_CODE_POINT) {
+                        boundaries.add(ranges[i + 1] + 1);
+                    }
+                }
+            }
+            final int[] intervalStarts = new int[boundaries.size()];
+            int idx = 0;
+            for (final Integer boundary : boundaries) {
+                intervalStarts[idx++] = boundary;
+            }
+
+            final BitSet[] signatures = new BitSet[intervalStarts.length];
+            for (int i = 0; i < signatures.length; ++i) {
+                signatures[i] = new BitSet();
+            }
+            for (int set = 0; set < sets.size(); ++set) {
+                final int[] ranges = sets.get(set);
+                for (int i = 0; i < ranges.length; i += 2) {
+                    final int last = Arrays.binarySearch(intervalStarts, ranges[i + 1] + 1);
+                    final int end = last >= 0 ? last : intervalStarts.length;
+                    for (int j = Arrays.binarySearch(intervalStarts, ranges[i]); j < end; ++j) {
+                        signatures[j].set(set);
+                    }
+                }
+            }
+
+            final Map<BitSet, Integer> classIds = new HashMap<>();
+            final int[] intervalClasses = new int[intervalStarts.length];
+            for (int i = 0; i < signatures.length; ++i) {
+                Integer id = classIds.get(signatures[i]);
+                if (id == null) {
+                    id = classIds.size();
+                    classIds.put(signatures[i], id);
+                }
+                intervalClasses[i] = id;
+            }
+            final int classCount = classIds.size();
+
+            // Classes covered by each set
+            final BitSet[] setClasses = new BitSet[sets.size()];
+            for (int i = 0; i < setClasses.length; ++i) {
+                setClasses[i] = new BitSet(classCount);
+            }
+            for (final Map.Entry<BitSet, Integer> e : classIds.entrySet()) {
+                final BitSet signature = e.getKey();
+                for (int set = signature.nextSetBit(0); set >= 0; set = signature.nextSetBit(set + 1)) {
+                    setClasses[set].set(e.getValue());
+                }
+            }
+
+            // Per-state edge lists
+            final int[] edgeStart = new int[stateCount + 1];
+            for (int i = 0; i < edgeCount; ++i) {
+                edgeStart[edgeFrom[i] + 1]++;
+            }
+            for (int i = 0; i < stateCount; ++i) {
+                edgeStart[i + 1] += edgeStart[i];
+            }
+            final int[] edges = new int[edgeCount];
+            final int[] fill = Arrays.copyOf(edgeStart, stateCount);
+            for (int i = 0; i < edgeCount; ++i) {
+                edges[fill[edgeFrom[i]]++] = i;
+            }
+
+            // Subset construction
+            final Map<BitSet, Integer> dfaStates = new HashMap<>();
+            final List<BitSet> pending = new ArrayList<>();
+            final BitSet initial = closure(new BitSet(stateCount), start, edgeStart, edges);
+            dfaStates.put(initial, 0);
+            pending.add(initial);
+
+            int[] table = new int[classCount * 4];
+            for (int state = 0; state < pending.size(); ++state) {
+                if ((state + 1) * classCount > MAX_TRANSITIONS) {
+                    throw new IllegalArgumentException("Automaton would exceed " + MAX_TRANSITIONS + " transitions");
+                }
+                if ((state + 1) * classCount > table.length) {
+                    table = Arrays.copyOf(table, Math.max(table.length * 2, (state + 1) * classCount));
+                }
+
+                final BitSet[] moves = new BitSet[classCount];
+                final BitSet nfaStates = pending.get(state);
+                for (int s = nfaStates.nextSetBit(0); s >= 0; s = nfaStates.nextSetBit(s + 1)) {
+                    for (int e = edgeStart[s]; e < edgeStart[s + 1]; ++e) {
+                        final int edge = edges[e];
+                        final int set = edgeSet[edge];
+                        if (set < 0) {
+                            continue;
+                        }
+                        final BitSet covered = setClasses[set];
+                        for (int c = covered.nextSetBit(0); c >= 0; c = covered.nextSetBit(c + 1)) {
+                            if (moves[c] == null) {
+                                moves[c] = new BitSet(stateCount);
+                            }
+                            closure(moves[c], edgeTo[edge], edgeStart, edges);
+                        }
+                    }
+                }
+
+                for (int c = 0; c < classCount; ++c) {
+                    final BitSet target = moves[c];
+                    if (target == null) {
+                        table[state * classCount + c] = DEAD;
+                        continue;
+                    }
+                    Integer id = dfaStates.get(target);
+                    if (id == null) {
+                        id = pending.size();
+                        dfaStates.put(target, id);
+                        pending.add(target);
+                    }
+                    table[state * classCount + c] = id;
+                }
+            }
+
+            final boolean[] accepting = new boolean[pending.size()];
+            for (int i = 0; i < accepting.length; ++i) {
+                accepting[i] = pending.get(i).get(accept);
+            }
+            return new RegexAutomaton(intervalStarts, intervalClasses, classCount,
+                Arrays.copyOf(table, accepting.length * classCount), accepting);
+        }
+
+        private BitSet closure(final BitSet result, final int state, final int[] edgeStart, final int[] edges) {
+            if (result.get(state)) {
+                return result;
+            }
+
+            final Deque<Integer> stack = new ArrayDeque<>();
+            result.set(state);
+            stack.push(state);
+            while (!stack.isEmpty()) {
+                final int s = stack.pop();
+                for (int e = edgeStart[s]; e < edgeStart[s + 1]; ++e) {
+                    final int edge = edges[e];
+                    if (edgeSet[edge] < 0 && !result.get(edgeTo[edge])) {
+                        result.set(edgeTo[edge]);
+                        stack.push(edgeTo[edge]);
+                    }
+                }
+            }
+            return result;
+        }
+    }
+}
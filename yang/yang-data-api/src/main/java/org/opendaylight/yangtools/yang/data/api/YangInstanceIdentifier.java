@@ -13,8 +13,12 @@ import com.google.common.base.Preconditions;
 import com.google.common.cache.CacheBuilder;
 import com.google.common.cache.CacheLoader;
 import com.google.common.cache.LoadingCache;
+import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.ImmutableSet;
 import com.google.common.collect.Iterables;
+import java.io.IOException;
+import java.io.ObjectOutputStream;
+import java.io.ObjectStreamException;
 import java.io.Serializable;
 import java.lang.reflect.Array;
 import java.util.Arrays;
@@ -33,7 +37,6 @@ import org.opendaylight.yangtools.concepts.Immutable;
 import org.opendaylight.yangtools.concepts.Path;
 import org.opendaylight.yangtools.util.HashCodeBuilder;
 import org.opendaylight.yangtools.util.ImmutableOffsetMap;
-import org.opendaylight.yangtools.util.SharedSingletonMap;
 import org.opendaylight.yangtools.yang.common.QName;
 import org.opendaylight.yangtools.yang.common.QNameModule;
 import org.opendaylight.yangtools.yang.data.api.schema.LeafSetEntryNode;
@@ -500,25 +503,82 @@ public abstract class YangInstanceIdentifier implements Path<YangInstanceIdentif
     /**
      * Composite path argument identifying a {@link org.opendaylight.yangtools.yang.data.api.schema.MapEntryNode} leaf
      * overall data tree.
+     *
+     * <p>
+     * The vast majority of lists have a single key, hence identifiers with a single predicate store the key and its
+     * value directly, without an intermediate map, and are also compared without it. The {@link #getKeyValues()} view
+     * is instantiated on each invocation for them, hence users interested in individual values should prefer
+     * {@link #getValue(QName)}, {@link #keySet()} and {@link #size()}.
+     *
+     * <p>
+     * The serialized form is the same regardless of the representation: key values are always written as a map, so
+     * that releases which do not know the single-key representation can read them.
      */
     public static final class NodeIdentifierWithPredicates extends AbstractPathArgument {
         private static final long serialVersionUID = -4787195606494761540L;
 
-        private final Map<QName, Object> keyValues;
+        // Key of the single predicate, null if keyValues holds a Map
+        private final QName singleKey;
+        // Value of the single predicate, or a Map<QName, Object> of all predicates
+        private final Object keyValues;
 
         public NodeIdentifierWithPredicates(final QName node, final Map<QName, Object> keyValues) {
             super(node);
-            // Retains ImmutableMap for empty maps. For larger sizes uses a shared key set.
-            this.keyValues = ImmutableOffsetMap.unorderedCopyOf(keyValues);
+            if (keyValues.size() == 1) {
+                final Entry<QName, Object> entry = keyValues.entrySet().iterator().next();
+                this.singleKey = Preconditions.checkNotNull(entry.getKey());
+                this.keyValues = Preconditions.checkNotNull(entry.getValue());
+            } else {
+                this.singleKey = null;
+                // Retains ImmutableMap for empty maps. For larger sizes uses a shared key set.
+                this.keyValues = ImmutableOffsetMap.unorderedCopyOf(keyValues);
+            }
         }
 
         public NodeIdentifierWithPredicates(final QName node, final QName key, final Object value) {
             super(node);
-            this.keyValues = SharedSingletonMap.unorderedOf(key, value);
+            this.singleKey = Preconditions.checkNotNull(key);
+            this.keyValues = Preconditions.checkNotNull(value);
         }
 
         public Map<QName, Object> getKeyValues() {
-            return keyValues;
+            return singleKey != null ? ImmutableMap.of(singleKey, keyValues) : multipleKeyValues();
+        }
+
+        /**
+         * Return the number of predicates in this identifier.
+         *
+         * @return Number of predicates
+         */
+        public int size() {
+            return singleKey != null ? 1 : multipleKeyValues().size();
+        }
+
+        /**
+         * Return the QNames of the predicates in this identifier.
+         *
+         * @return Set of predicate QNames
+         */
+        @Nonnull public Set<QName> keySet() {
+            return singleKey != null ? ImmutableSet.of(singleKey) : multipleKeyValues().keySet();
+        }
+
+        /**
+         * Return the value of a particular predicate.
+         *
+         * @param key Predicate QName
+         * @return Predicate value, or null if this identifier does not have such a predicate
+         */
+        @Nullable public Object getValue(final QName key) {
+            if (singleKey != null) {
+                return singleKey.equals(key) ? keyValues : null;
+            }
+            return multipleKeyValues().get(key);
+        }
+
+        @SuppressWarnings("unchecked")
+        private Map<QName, Object> multipleKeyValues() {
+            return (Map<QName, Object>) keyValues;
         }
 
         @Override
@@ -527,7 +587,10 @@ public abstract class YangInstanceIdentifier implements Path<YangInstanceIdentif
             int result = super.hashCodeImpl();
             result = prime * result;
 
-            for (Entry<QName, Object> entry : keyValues.entrySet()) {
+            if (singleKey != null) {
+                return result + singleKey.hashCode() + YangInstanceIdentifier.hashCode(keyValues);
+            }
+            for (Entry<QName, Object> entry : multipleKeyValues().entrySet()) {
                 result += Objects.hashCode(entry.getKey()) + YangInstanceIdentifier.hashCode(entry.getValue());
             }
             return result;
@@ -539,17 +602,24 @@ public abstract class YangInstanceIdentifier implements Path<YangInstanceIdentif
                 return false;
             }
 
-            final Map<QName, Object> otherKeyValues = ((NodeIdentifierWithPredicates) obj).keyValues;
+            final NodeIdentifierWithPredicates other = (NodeIdentifierWithPredicates) obj;
+            if (singleKey != null) {
+                return singleKey.equals(other.singleKey) && Objects.deepEquals(keyValues, other.keyValues);
+            }
+            if (other.singleKey != null) {
+                return false;
+            }
 
-            // TODO: benchmark to see if just calling equals() on the two maps is not faster
-            if (keyValues == otherKeyValues) {
+            final Map<QName, Object> thisKeyValues = multipleKeyValues();
+            final Map<QName, Object> otherKeyValues = other.multipleKeyValues();
+            if (thisKeyValues == otherKeyValues) {
                 return true;
             }
-            if (keyValues.size() != otherKeyValues.size()) {
+            if (thisKeyValues.size() != otherKeyValues.size()) {
                 return false;
             }
 
-            for (Entry<QName, Object> entry : keyValues.entrySet()) {
+            for (Entry<QName, Object> entry : thisKeyValues.entrySet()) {
                 if (!otherKeyValues.containsKey(entry.getKey())
                         || !Objects.deepEquals(entry.getValue(), otherKeyValues.get(entry.getKey()))) {
 
@@ -562,12 +632,30 @@ public abstract class YangInstanceIdentifier implements Path<YangInstanceIdentif
 
         @Override
         public String toString() {
-            return super.toString() + '[' + keyValues + ']';
+            return super.toString() + '[' + getKeyValues() + ']';
         }
 
         @Override
         public String toRelativeString(final PathArgument previous) {
-            return super.toRelativeString(previous) + '[' + keyValues + ']';
+            return super.toRelativeString(previous) + '[' + getKeyValues() + ']';
+        }
+
+        /*
+         * Always write the key values as a Map, without the single key, which is the form older releases expect.
+         */
+        private void writeObject(final ObjectOutputStream out) throws IOException {
+            final ObjectOutputStream.PutField fields = out.putFields();
+            fields.put("singleKey", null);
+            fields.put("keyValues", getKeyValues());
+            out.writeFields();
+        }
+
+        /*
+         * Serialized instances carry a Map of key values, which may hold a single entry. Normalize them to the current
+         * representation.
+         */
+        private Object readResolve() throws ObjectStreamException {
+            return singleKey == null ? new NodeIdentifierWithPredicates(getNodeType(), multipleKeyValues()) : this;
         }
     }
 
@@ -0,0 +1,79 @@
+/*
+ * Copyright (c) 2016 Cisco Systems, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.yangtools.yang.data.api;
+
+import com.google.common.annotations.Beta;
+import com.google.common.collect.Interner;
+import com.google.common.collect.Interners;
+import javax.annotation.Nonnull;
+import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier.NodeIdentifier;
+import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier.PathArgument;
+
+/**
+ * An interner of {@link YangInstanceIdentifier}s. Interned identifiers share their prefixes structurally: the parent
+ * of an interned identifier is itself interned, hence a million list entry paths share a single instance of the path
+ * to their list and each holds just a reference to it and its own path argument. Path arguments are interned as well,
+ * so equal arguments appearing in multiple paths are stored only once.
+ *
+ * <p>
+ * Interned identifiers are compared by reference to their parents, which makes equality checks between them cheap,
+ * and their hash codes are computed only once. This makes them well-suited as keys of long-lived maps.
+ *
+ * <p>
+ * Interning is opt-in: users with a large population of retained identifiers should create an interner and pass
+ * identifiers through it before retaining them. The interner holds its entries weakly and is thread-safe.
+ */
+@Beta
+public final class YangInstanceIdentifierInterner {
+    private final Interner<YangInstanceIdentifier> identifiers = Interners.newWeakInterner();
+    private final Interner<PathArgument> arguments = Interners.newWeakInterner();
+
+    /**
+     * Return an interned identifier equal to the supplied one.
+     *
+     * @param identifier Identifier to intern
+     * @return Interned identifier, which may be the supplied one
+     */
+    @Nonnull public YangInstanceIdentifier intern(@Nonnull final YangInstanceIdentifier identifier) {
+        if (identifier.isEmpty()) {
+            return YangInstanceIdentifier.EMPTY;
+        }
+
+        final YangInstanceIdentifier parent = identifier.getParent();
+        final YangInstanceIdentifier internedParent = intern(parent);
+        final PathArgument arg = identifier.getLastPathArgument();
+        final PathArgument internedArg = intern(arg);
+
+        /*
+         * We can store the identifier itself only if it already is a stacked identifier composed of interned parts.
+         * Otherwise create one, which also converts fixed identifiers into the stacked form.
+         */
+        final YangInstanceIdentifier template;
+        if (identifier instanceof StackedYangInstanceIdentifier && internedParent == parent && internedArg == arg) {
+            template = identifier;
+        } else {
+            template = internedParent.node(internedArg);
+        }
+
+        return identifiers.intern(template);
+    }
+
+    /**
+     * Return an interned path argument equal to the supplied one.
+     *
+     * @param arg Path argument to intern
+     * @return Interned path argument, which may be the supplied one
+     */
+    @Nonnull public PathArgument intern(@Nonnull final PathArgument arg) {
+        if (arg instanceof NodeIdentifier) {
+            // These are already cached globally
+            return NodeIdentifier.create(arg.getNodeType());
+        }
+        return arguments.intern(arg);
+    }
+}
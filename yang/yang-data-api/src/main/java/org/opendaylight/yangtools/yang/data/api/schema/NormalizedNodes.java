@@ -17,6 +17,7 @@ import java.util.Arrays;
 import java.util.Iterator;
 import java.util.Map;
 import javax.annotation.Nonnull;
+import org.opendaylight.yangtools.yang.common.QName;
 import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier;
 import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier.AugmentationIdentifier;
 import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier.NodeIdentifierWithPredicates;
@@ -127,8 +128,17 @@ public final class NormalizedNodes {
 
     private static String toStringTree(final PathArgument identifier) {
         if (identifier instanceof NodeIdentifierWithPredicates) {
-            return identifier.getNodeType().getLocalName() +
-                    ((NodeIdentifierWithPredicates) identifier).getKeyValues().values();
+            final NodeIdentifierWithPredicates nip = (NodeIdentifierWithPredicates) identifier;
+            final StringBuilder sb = new StringBuilder(identifier.getNodeType().getLocalName()).append('[');
+            boolean first = true;
+            for (QName key : nip.keySet()) {
+                if (!first) {
+                    sb.append(", ");
+                }
+                sb.append(nip.getValue(key));
+                first = false;
+            }
+            return sb.append(']').toString();
         } else if (identifier instanceof AugmentationIdentifier) {
             return "augmentation";
         } else {
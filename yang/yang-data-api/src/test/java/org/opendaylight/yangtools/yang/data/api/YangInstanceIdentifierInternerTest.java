@@ -0,0 +1,86 @@
+/*
+ * Copyright (c) 2016 Cisco Systems, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.yangtools.yang.data.api;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import com.google.common.collect.ImmutableList;
+import org.junit.Before;
+import org.junit.Test;
+import org.opendaylight.yangtools.yang.common.QName;
+import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier.NodeIdentifier;
+import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier.NodeIdentifierWithPredicates;
+import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier.PathArgument;
+
+public class YangInstanceIdentifierInternerTest {
+    private static final QName CONTAINER = QName.create("test", "2016-01-01", "container");
+    private static final QName LIST = QName.create("test", "2016-01-01", "list");
+    private static final QName KEY = QName.create("test", "2016-01-01", "key");
+
+    private YangInstanceIdentifierInterner interner;
+
+    @Before
+    public void setUp() {
+        interner = new YangInstanceIdentifierInterner();
+    }
+
+    private static YangInstanceIdentifier entryPath(final int key) {
+        return YangInstanceIdentifier.builder().node(CONTAINER).node(LIST).nodeWithKey(LIST, KEY, key).build();
+    }
+
+    @Test
+    public void testEmpty() {
+        assertSame(YangInstanceIdentifier.EMPTY, interner.intern(YangInstanceIdentifier.create()));
+    }
+
+    @Test
+    public void testEqualIdentifiers() {
+        final YangInstanceIdentifier first = entryPath(1);
+        final YangInstanceIdentifier second = entryPath(1);
+        assertNotSame(first, second);
+
+        final YangInstanceIdentifier interned = interner.intern(first);
+        assertEquals(first, interned);
+        assertSame(interned, interner.intern(second));
+        assertSame(interned, interner.intern(interned));
+    }
+
+    @Test
+    public void testSharedParents() {
+        final YangInstanceIdentifier one = interner.intern(entryPath(1));
+        final YangInstanceIdentifier two = interner.intern(entryPath(2));
+        assertSame(one.getParent(), two.getParent());
+        assertSame(one.getParent().getParent(), interner.intern(YangInstanceIdentifier.of(CONTAINER)));
+    }
+
+    @Test
+    public void testFixedBecomesStacked() {
+        final YangInstanceIdentifier fixed = YangInstanceIdentifier.create(ImmutableList.<PathArgument>of(
+            new NodeIdentifier(CONTAINER), new NodeIdentifier(LIST), new NodeIdentifierWithPredicates(LIST, KEY, 1)));
+        assertTrue(fixed instanceof FixedYangInstanceIdentifier);
+
+        final YangInstanceIdentifier interned = interner.intern(fixed);
+        assertTrue(interned instanceof StackedYangInstanceIdentifier);
+        assertEquals(fixed, interned);
+        assertEquals(fixed.getPathArguments(), interned.getPathArguments());
+        assertEquals(fixed.getReversePathArguments(), interned.getReversePathArguments());
+        assertSame(interned, interner.intern(entryPath(1)));
+    }
+
+    @Test
+    public void testSharedPathArguments() {
+        final PathArgument first = new NodeIdentifierWithPredicates(LIST, KEY, 1);
+        final PathArgument second = new NodeIdentifierWithPredicates(LIST, KEY, 1);
+        assertSame(interner.intern(first), interner.intern(second));
+        assertSame(NodeIdentifier.create(CONTAINER), interner.intern(new NodeIdentifier(CONTAINER)));
+        assertSame(interner.intern(entryPath(1)).getLastPathArgument(), interner.intern(second));
+    }
+}
@@ -24,9 +24,12 @@ import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.ObjectInputStream;
 import java.io.ObjectOutputStream;
+import java.io.ObjectStreamClass;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
 import java.util.Map.Entry;
 import org.junit.Test;
 import org.opendaylight.yangtools.yang.common.QName;
@@ -270,6 +273,34 @@ public class YangInstanceIdentifierTest {
                 node1.equals( new NodeIdentifierWithPredicates( NODENAME1, KEY1, new byte[]{1,2,3} ) ) );
     }
 
+    @Test
+    public void testSingleKeyNodeIdentifierWithPredicates() throws IOException, ClassNotFoundException {
+        final NodeIdentifierWithPredicates fromKey = new NodeIdentifierWithPredicates(NODENAME1, KEY1, "foo");
+        final NodeIdentifierWithPredicates fromMap = new NodeIdentifierWithPredicates(NODENAME1,
+            ImmutableMap.<QName, Object>of(KEY1, "foo"));
+        assertEquals(fromKey, fromMap);
+        assertEquals(fromKey.hashCode(), fromMap.hashCode());
+        assertEquals(ImmutableMap.of(KEY1, "foo"), fromMap.getKeyValues());
+
+        assertEquals(1, fromKey.size());
+        assertEquals(Collections.singleton(KEY1), fromKey.keySet());
+        assertEquals("foo", fromKey.getValue(KEY1));
+        assertNull(fromKey.getValue(KEY2));
+
+        final NodeIdentifierWithPredicates multiple = new NodeIdentifierWithPredicates(NODENAME1,
+            ImmutableMap.<QName, Object>of(KEY1, "foo", KEY2, "bar"));
+        assertEquals(2, multiple.size());
+        assertEquals(Sets.newHashSet(KEY1, KEY2), multiple.keySet());
+        assertEquals("bar", multiple.getValue(KEY2));
+        assertNull(multiple.getValue(KEY3));
+        assertNotEquals(fromKey, multiple);
+        assertNotEquals(multiple, fromKey);
+
+        final YangInstanceIdentifier id = YangInstanceIdentifier.create(new NodeIdentifier(NODENAME1), fromKey,
+            multiple);
+        assertEquals(id, serdes(id));
+    }
+
     @Test
     public void testNodeWithValue() {
 
@@ -383,6 +414,25 @@ public class YangInstanceIdentifierTest {
         assertSame(YangInstanceIdentifier.EMPTY, empty);
     }
 
+    @Test
+    public void testPredicatesSerialization() throws IOException, ClassNotFoundException {
+        // Must remain stable, as legacy streams carry it
+        assertEquals(-4787195606494761540L, ObjectStreamClass.lookup(NodeIdentifierWithPredicates.class)
+            .getSerialVersionUID());
+
+        final NodeIdentifierWithPredicates single = new NodeIdentifierWithPredicates(NODENAME1, KEY1, "foo");
+        final Map<QName, Object> keys = new HashMap<>();
+        keys.put(KEY1, "foo");
+        keys.put(KEY2, "bar");
+        final NodeIdentifierWithPredicates multiple = new NodeIdentifierWithPredicates(NODENAME1, keys);
+
+        final YangInstanceIdentifier id = YangInstanceIdentifier.create(single, multiple);
+        final YangInstanceIdentifier deserialized = serdes(id);
+        assertEquals(id, deserialized);
+        assertEquals(1, ((NodeIdentifierWithPredicates) deserialized.getPathArguments().get(0)).size());
+        assertEquals(2, ((NodeIdentifierWithPredicates) deserialized.getPathArguments().get(1)).size());
+    }
+
     @Test
     public void testToOptimized() {
         final YangInstanceIdentifier fixed = YangInstanceIdentifier.create(new NodeIdentifier(NODENAME1),
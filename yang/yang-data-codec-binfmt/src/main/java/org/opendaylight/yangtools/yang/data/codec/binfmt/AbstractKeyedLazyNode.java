@@ -0,0 +1,71 @@
+/*
+ * Copyright (c) 2016 Cisco Systems, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.yangtools.yang.data.codec.binfmt;
+
+import com.google.common.base.Optional;
+import com.google.common.collect.ImmutableMap;
+import java.util.Collection;
+import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier.PathArgument;
+import org.opendaylight.yangtools.yang.data.api.schema.NormalizedNode;
+import org.opendaylight.yangtools.yang.data.api.schema.NormalizedNodeContainer;
+
+/**
+ * A lazily-decoded node whose children are addressable by their identifiers.
+ *
+ * @param <I> Identifier type
+ * @param <K> Child identifier type
+ * @param <V> Child node type
+ */
+abstract class AbstractKeyedLazyNode<I extends PathArgument, K extends PathArgument,
+        V extends NormalizedNode<? extends K, ?>> extends AbstractLazyNode<I, V>
+        implements NormalizedNodeContainer<I, K, V> {
+    private volatile ImmutableMap<K, V> children;
+
+    AbstractKeyedLazyNode(final LazyNodeSource source, final int record, final I identifier) {
+        super(source, record, identifier);
+    }
+
+    final ImmutableMap<K, V> childMap() {
+        ImmutableMap<K, V> ret = children;
+        if (ret == null) {
+            // Concurrent decoding results in equal maps, hence we do not need to synchronize
+            final ImmutableMap.Builder<K, V> builder = ImmutableMap.builder();
+            for (V child : readChildren()) {
+                builder.put(child.getIdentifier(), child);
+            }
+            ret = builder.build();
+            children = ret;
+        }
+        return ret;
+    }
+
+    @Override
+    final Collection<V> children() {
+        return childMap().values();
+    }
+
+    @Override
+    final boolean isMaterialized() {
+        return children != null;
+    }
+
+    @Override
+    public final Optional<V> getChild(final K child) {
+        return Optional.fromNullable(childMap().get(child));
+    }
+
+    @Override
+    final int childrenHashCode() {
+        return childMap().hashCode();
+    }
+
+    @Override
+    final boolean childrenEquals(final AbstractLazyNode<?, ?> other) {
+        return childMap().equals(((AbstractKeyedLazyNode<?, ?, ?>) other).childMap());
+    }
+}
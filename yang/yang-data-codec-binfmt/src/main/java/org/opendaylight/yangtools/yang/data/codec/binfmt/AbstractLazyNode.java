@@ -0,0 +1,131 @@
+/*
+ * Copyright (c) 2016 Cisco Systems, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.yangtools.yang.data.codec.binfmt;
+
+import com.google.common.base.MoreObjects;
+import com.google.common.base.Preconditions;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.Collection;
+import org.opendaylight.yangtools.yang.common.QName;
+import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier.PathArgument;
+import org.opendaylight.yangtools.yang.data.api.schema.NormalizedNode;
+import org.opendaylight.yangtools.yang.data.api.schema.stream.NormalizedNodeStreamWriter;
+
+/**
+ * Base class for container-like nodes backed by a {@link LazyNodeSource}. Children are decoded from the source when
+ * they are first accessed and are retained afterwards.
+ *
+ * <p>
+ * Equality of lazy nodes follows the same rules as equality of immutable nodes: two nodes are equal if they are of the
+ * same class and have the same identifier and children. Lazy nodes are therefore never equal to immutable nodes.
+ *
+ * @param <I> Identifier type
+ * @param <V> Child node type
+ */
+abstract class AbstractLazyNode<I extends PathArgument, V extends NormalizedNode<?, ?>>
+        implements NormalizedNode<I, Collection<V>> {
+    private final LazyNodeSource source;
+    private final I identifier;
+    private final int record;
+
+    AbstractLazyNode(final LazyNodeSource source, final int record, final I identifier) {
+        this.source = Preconditions.checkNotNull(source);
+        this.identifier = Preconditions.checkNotNull(identifier);
+        this.record = record;
+    }
+
+    @Override
+    public final I getIdentifier() {
+        return identifier;
+    }
+
+    @Override
+    public final QName getNodeType() {
+        return identifier.getNodeType();
+    }
+
+    @Override
+    public final Collection<V> getValue() {
+        return children();
+    }
+
+    /**
+     * Return the children of this node, decoding them if needed.
+     *
+     * @return Children of this node
+     */
+    abstract Collection<V> children();
+
+    /**
+     * Check whether children of this node have been decoded.
+     *
+     * @return True if children of this node have been decoded
+     */
+    abstract boolean isMaterialized();
+
+    @SuppressWarnings("unchecked")
+    final Collection<V> readChildren() {
+        return (Collection<V>) (Collection<?>) source.readChildren(record);
+    }
+
+    final LazyNodeSource getSource() {
+        return source;
+    }
+
+    final int getRecord() {
+        return record;
+    }
+
+    /**
+     * Emit this node into a writer, without decoding the children of this node.
+     *
+     * @param writer Target writer
+     * @throws IOException if the writer reports an error
+     */
+    final void emitTo(final NormalizedNodeStreamWriter writer) throws IOException {
+        source.emitNode(record, writer);
+    }
+
+    /**
+     * Copy the encoded form of this node.
+     *
+     * @param output Target output
+     * @throws IOException if the output reports an error
+     */
+    final void copyTo(final DataOutput output) throws IOException {
+        source.copyNode(record, output);
+    }
+
+    @Override
+    public final int hashCode() {
+        return 31 * identifier.hashCode() + childrenHashCode();
+    }
+
+    @Override
+    public final boolean equals(final Object obj) {
+        if (this == obj) {
+            return true;
+        }
+        if (obj == null || getClass() != obj.getClass()) {
+            return false;
+        }
+        final AbstractLazyNode<?, ?> other = (AbstractLazyNode<?, ?>) obj;
+        return identifier.equals(other.identifier) && childrenEquals(other);
+    }
+
+    abstract int childrenHashCode();
+
+    abstract boolean childrenEquals(AbstractLazyNode<?, ?> other);
+
+    @Override
+    public final String toString() {
+        return MoreObjects.toStringHelper(this).add("nodeIdentifier", identifier).add("materialized",
+            isMaterialized()).toString();
+    }
+}
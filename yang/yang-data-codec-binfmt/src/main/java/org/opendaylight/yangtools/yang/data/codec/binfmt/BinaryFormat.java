@@ -0,0 +1,74 @@
+/*
+ * Copyright (c) 2016 Cisco Systems, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.yangtools.yang.data.codec.binfmt;
+
+/**
+ * Constants defining the binary stream format. A stream starts with a {@link #MAGIC} and a {@link #VERSION} byte,
+ * followed by any number of nodes and instance identifiers.
+ *
+ * <p>
+ * Each node is encoded as a node tag, followed by its identifier. Leaf-like nodes are followed by their value,
+ * container-like nodes are followed by the child size hint, their children and {@link #END_NODE}.
+ *
+ * <p>
+ * QNames are encoded as an unsigned varint. Zero introduces a new QName, which is followed by its module and local
+ * name and is assigned the next index. Any other value refers to a previously-introduced QName by its index plus one.
+ * Modules are encoded in the same way, a new module being followed by its namespace and revision (empty if absent).
+ *
+ * <p>
+ * Strings are encoded as their UTF-8 length as unsigned varint, followed by the UTF-8 bytes. Signed integers use
+ * ZigZag-encoded varints. Size hints are encoded as unsigned varint, with zero meaning an unknown size and any other
+ * value representing the hint plus one.
+ */
+final class BinaryFormat {
+    static final short MAGIC = (short) 0xB1A7;
+    static final byte VERSION = 1;
+
+    // Node tags
+    static final byte END_NODE = 0;
+    static final byte LEAF = 1;
+    static final byte LEAF_SET = 2;
+    static final byte ORDERED_LEAF_SET = 3;
+    static final byte LEAF_SET_ENTRY = 4;
+    static final byte CONTAINER = 5;
+    static final byte UNKEYED_LIST = 6;
+    static final byte UNKEYED_LIST_ITEM = 7;
+    static final byte MAP = 8;
+    static final byte ORDERED_MAP = 9;
+    static final byte MAP_ENTRY = 10;
+    static final byte CHOICE = 11;
+    static final byte AUGMENTATION = 12;
+    static final byte ANYXML = 13;
+    static final byte YANG_MODELED_ANYXML = 14;
+
+    // Value tags
+    static final byte VALUE_NULL = 0;
+    static final byte VALUE_FALSE = 1;
+    static final byte VALUE_TRUE = 2;
+    static final byte VALUE_BYTE = 3;
+    static final byte VALUE_SHORT = 4;
+    static final byte VALUE_INT = 5;
+    static final byte VALUE_LONG = 6;
+    static final byte VALUE_BIG_INTEGER = 7;
+    static final byte VALUE_BIG_DECIMAL = 8;
+    static final byte VALUE_STRING = 9;
+    static final byte VALUE_BINARY = 10;
+    static final byte VALUE_QNAME = 11;
+    static final byte VALUE_BITS = 12;
+    static final byte VALUE_INSTANCE_IDENTIFIER = 13;
+
+    // Path argument tags
+    static final byte NODE_IDENTIFIER = 0;
+    static final byte NODE_IDENTIFIER_WITH_PREDICATES = 1;
+    static final byte NODE_WITH_VALUE = 2;
+    static final byte AUGMENTATION_IDENTIFIER = 3;
+
+    private BinaryFormat() {
+        throw new UnsupportedOperationException();
+    }
+}
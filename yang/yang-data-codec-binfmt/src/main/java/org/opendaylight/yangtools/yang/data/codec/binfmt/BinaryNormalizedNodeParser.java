@@ -0,0 +1,595 @@
+/*
+ * Copyright (c) 2016 Cisco Systems, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.yangtools.yang.data.codec.binfmt;
+
+import static org.opendaylight.yangtools.yang.data.codec.binfmt.BinaryFormat.ANYXML;
+import static org.opendaylight.yangtools.yang.data.codec.binfmt.BinaryFormat.AUGMENTATION;
+import static org.opendaylight.yangtools.yang.data.codec.binfmt.BinaryFormat.AUGMENTATION_IDENTIFIER;
+import static org.opendaylight.yangtools.yang.data.codec.binfmt.BinaryFormat.CHOICE;
+import static org.opendaylight.yangtools.yang.data.codec.binfmt.BinaryFormat.CONTAINER;
+import static org.opendaylight.yangtools.yang.data.codec.binfmt.BinaryFormat.END_NODE;
+import static org.opendaylight.yangtools.yang.data.codec.binfmt.BinaryFormat.LEAF;
+import static org.opendaylight.yangtools.yang.data.codec.binfmt.BinaryFormat.LEAF_SET;
+import static org.opendaylight.yangtools.yang.data.codec.binfmt.BinaryFormat.LEAF_SET_ENTRY;
+import static org.opendaylight.yangtools.yang.data.codec.binfmt.BinaryFormat.MAGIC;
+import static org.opendaylight.yangtools.yang.data.codec.binfmt.BinaryFormat.MAP;
+import static org.opendaylight.yangtools.yang.data.codec.binfmt.BinaryFormat.MAP_ENTRY;
+import static org.opendaylight.yangtools.yang.data.codec.binfmt.BinaryFormat.NODE_IDENTIFIER;
+import static org.opendaylight.yangtools.yang.data.codec.binfmt.BinaryFormat.NODE_IDENTIFIER_WITH_PREDICATES;
+import static org.opendaylight.yangtools.yang.data.codec.binfmt.BinaryFormat.NODE_WITH_VALUE;
+import static org.opendaylight.yangtools.yang.data.codec.binfmt.BinaryFormat.ORDERED_LEAF_SET;
+import static org.opendaylight.yangtools.yang.data.codec.binfmt.BinaryFormat.ORDERED_MAP;
+import static org.opendaylight.yangtools.yang.data.codec.binfmt.BinaryFormat.UNKEYED_LIST;
+import static org.opendaylight.yangtools.yang.data.codec.binfmt.BinaryFormat.UNKEYED_LIST_ITEM;
+import static org.opendaylight.yangtools.yang.data.codec.binfmt.BinaryFormat.VALUE_BIG_DECIMAL;
+import static org.opendaylight.yangtools.yang.data.codec.binfmt.BinaryFormat.VALUE_BIG_INTEGER;
+import static org.opendaylight.yangtools.yang.data.codec.binfmt.BinaryFormat.VALUE_BINARY;
+import static org.opendaylight.yangtools.yang.data.codec.binfmt.BinaryFormat.VALUE_BITS;
+import static org.opendaylight.yangtools.yang.data.codec.binfmt.BinaryFormat.VALUE_BYTE;
+import static org.opendaylight.yangtools.yang.data.codec.binfmt.BinaryFormat.VALUE_FALSE;
+import static org.opendaylight.yangtools.yang.data.codec.binfmt.BinaryFormat.VALUE_INSTANCE_IDENTIFIER;
+import static org.opendaylight.yangtools.yang.data.codec.binfmt.BinaryFormat.VALUE_INT;
+import static org.opendaylight.yangtools.yang.data.codec.binfmt.BinaryFormat.VALUE_LONG;
+import static org.opendaylight.yangtools.yang.data.codec.binfmt.BinaryFormat.VALUE_NULL;
+import static org.opendaylight.yangtools.yang.data.codec.binfmt.BinaryFormat.VALUE_QNAME;
+import static org.opendaylight.yangtools.yang.data.codec.binfmt.BinaryFormat.VALUE_SHORT;
+import static org.opendaylight.yangtools.yang.data.codec.binfmt.BinaryFormat.VALUE_STRING;
+import static org.opendaylight.yangtools.yang.data.codec.binfmt.BinaryFormat.VALUE_TRUE;
+import static org.opendaylight.yangtools.yang.data.codec.binfmt.BinaryFormat.VERSION;
+import static org.opendaylight.yangtools.yang.data.codec.binfmt.BinaryFormat.YANG_MODELED_ANYXML;
+
+import com.google.common.annotations.Beta;
+import com.google.common.base.Preconditions;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
+import java.io.DataInput;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.StringReader;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import javax.xml.parsers.DocumentBuilder;
+import javax.xml.parsers.DocumentBuilderFactory;
+import javax.xml.parsers.ParserConfigurationException;
+import javax.xml.transform.dom.DOMSource;
+import org.opendaylight.yangtools.yang.common.QName;
+import org.opendaylight.yangtools.yang.common.QNameModule;
+import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier;
+import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier.AugmentationIdentifier;
+import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier.NodeIdentifier;
+import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier.NodeIdentifierWithPredicates;
+import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier.NodeWithValue;
+import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier.PathArgument;
+import org.opendaylight.yangtools.yang.data.api.schema.NormalizedNode;
+import org.opendaylight.yangtools.yang.data.api.schema.stream.NormalizedNodeStreamWriter;
+import org.opendaylight.yangtools.yang.data.impl.schema.ImmutableNormalizedNodeStreamWriter;
+import org.opendaylight.yangtools.yang.data.impl.schema.NormalizedNodeResult;
+import org.w3c.dom.Document;
+import org.xml.sax.InputSource;
+import org.xml.sax.SAXException;
+
+/**
+ * Streaming parser of the binary format produced by {@link BinaryNormalizedNodeStreamWriter}. Nodes are not
+ * materialized, but are emitted into a {@link NormalizedNodeStreamWriter} as they are read. Size hints recorded
+ * in the stream are passed to the writer.
+ *
+ * <p>
+ * A single parser instance has to be used to read everything written by a single writer instance, in the order it
+ * was written, as it maintains the QName dictionary.
+ */
+@Beta
+public final class BinaryNormalizedNodeParser {
+    private static final DocumentBuilderFactory BUILDER_FACTORY;
+
+    static {
+        final DocumentBuilderFactory factory = DocumentBuilderFactory.newInstance();
+        factory.setNamespaceAware(true);
+        factory.setCoalescing(true);
+        factory.setIgnoringElementContentWhitespace(true);
+        factory.setIgnoringComments(true);
+
+        // Anyxml values come from remote peers or persistent storage, do not process DTDs or external entities
+        try {
+            factory.setFeature("http://apache.org/xml/features/disallow-doctype-decl", true);
+            factory.setFeature("http://xml.org/sax/features/external-general-entities", false);
+            factory.setFeature("http://xml.org/sax/features/external-parameter-entities", false);
+        } catch (ParserConfigurationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+        factory.setExpandEntityReferences(false);
+        factory.setXIncludeAware(false);
+        BUILDER_FACTORY = factory;
+    }
+
+    private final List<QNameModule> modules;
+    private final List<QName> qnames;
+    // Lazily-populated NodeIdentifiers corresponding to qnames
+    private final List<NodeIdentifier> identifiers;
+    private final DataInput input;
+    // Frozen parsers share the dictionary of another parser and do not modify it
+    private final boolean frozen;
+    private boolean headerRead;
+
+    private BinaryNormalizedNodeParser(final DataInput input) {
+        this.input = Preconditions.checkNotNull(input);
+        this.modules = new ArrayList<>();
+        this.qnames = new ArrayList<>();
+        this.identifiers = new ArrayList<>();
+        this.frozen = false;
+    }
+
+    /**
+     * Create a parser reading a part of a stream whose dictionary has already been populated by another parser.
+     * Definitions encountered by this parser are decoded, but are not added to the dictionary, as it already contains
+     * them. The other parser must not be used to read more input once this constructor has been invoked.
+     *
+     * @param input Source input, positioned after the stream header
+     * @param dictionary Parser holding the dictionary
+     */
+    BinaryNormalizedNodeParser(final DataInput input, final BinaryNormalizedNodeParser dictionary) {
+        this.input = Preconditions.checkNotNull(input);
+        this.modules = dictionary.modules;
+        this.qnames = dictionary.qnames;
+        this.identifiers = dictionary.identifiers;
+        this.frozen = true;
+        this.headerRead = true;
+    }
+
+    /**
+     * Create a new parser.
+     *
+     * @param input Source input
+     * @return A new parser instance
+     */
+    public static BinaryNormalizedNodeParser create(final DataInput input) {
+        return new BinaryNormalizedNodeParser(input);
+    }
+
+    /**
+     * Read the first node in an encoded stream, returning a view which decodes children of container-like nodes only
+     * when they are accessed. The stream is scanned once to validate its structure and to index container-like nodes.
+     *
+     * <p>
+     * The returned node is backed by the array, which must not be modified afterwards. Its children are decoded
+     * independently, hence the node can be shared between threads. When written to a
+     * {@link BinaryNormalizedNodeStreamWriter}, its encoded form is reused. Yang-modeled anyxml nodes require a schema
+     * and are not supported.
+     *
+     * @param bytes Encoded stream
+     * @return A lazily-decoded {@link NormalizedNode}
+     * @throws IOException if the stream is malformed
+     */
+    public static NormalizedNode<?, ?> readLazyNormalizedNode(final byte[] bytes) throws IOException {
+        return LazyNodeSource.readFirstNode(bytes);
+    }
+
+    /**
+     * Read a single node from the input and emit it into a writer.
+     *
+     * @param writer Target writer
+     * @throws IOException if the input cannot be read or is malformed, or if the writer reports an error
+     */
+    public void parse(final NormalizedNodeStreamWriter writer) throws IOException {
+        ensureHeader();
+        final byte tag = input.readByte();
+        if (tag == END_NODE) {
+            throw new IOException("Unexpected end of node");
+        }
+        readNode(writer, tag);
+    }
+
+    /**
+     * Read a single node from the input.
+     *
+     * @return A {@link NormalizedNode}
+     * @throws IOException if the input cannot be read or is malformed
+     */
+    public NormalizedNode<?, ?> readNormalizedNode() throws IOException {
+        final NormalizedNodeResult result = new NormalizedNodeResult();
+        try (final NormalizedNodeStreamWriter writer = ImmutableNormalizedNodeStreamWriter.from(result)) {
+            parse(writer);
+        }
+        return result.getResult();
+    }
+
+    /**
+     * Read a {@link YangInstanceIdentifier} from the input.
+     *
+     * @return A {@link YangInstanceIdentifier}
+     * @throws IOException if the input cannot be read or is malformed
+     */
+    public YangInstanceIdentifier readYangInstanceIdentifier() throws IOException {
+        ensureHeader();
+        return readIdentifier();
+    }
+
+    /**
+     * Populate all cached {@link NodeIdentifier}s, so that the dictionary can be shared with frozen parsers.
+     */
+    void populateIdentifiers() {
+        for (int i = 0; i < qnames.size(); ++i) {
+            if (identifiers.get(i) == null) {
+                identifiers.set(i, NodeIdentifier.create(qnames.get(i)));
+            }
+        }
+    }
+
+    int qnameCount() {
+        return qnames.size();
+    }
+
+    QName qnameAt(final int index) {
+        return qnames.get(index);
+    }
+
+    int moduleCount() {
+        return modules.size();
+    }
+
+    QNameModule moduleAt(final int index) {
+        return modules.get(index);
+    }
+
+    void ensureHeader() throws IOException {
+        if (!headerRead) {
+            final short magic = input.readShort();
+            if (magic != MAGIC) {
+                throw new IOException(String.format("Invalid stream header %04x", magic & 0xFFFF));
+            }
+            final byte version = input.readByte();
+            if (version != VERSION) {
+                throw new IOException("Unsupported stream version " + version);
+            }
+            headerRead = true;
+        }
+    }
+
+    private void readNode(final NormalizedNodeStreamWriter writer, final byte tag) throws IOException {
+        switch (tag) {
+            case LEAF:
+                writer.leafNode(readNodeIdentifier(), readValue());
+                return;
+            case LEAF_SET_ENTRY:
+                writer.leafSetEntryNode(readQName(), readValue());
+                return;
+            case ANYXML:
+                writer.anyxmlNode(readNodeIdentifier(), readDOMSource());
+                return;
+            case LEAF_SET:
+                writer.startLeafSet(readNodeIdentifier(), readSizeHint());
+                break;
+            case ORDERED_LEAF_SET:
+                writer.startOrderedLeafSet(readNodeIdentifier(), readSizeHint());
+                break;
+            case CONTAINER:
+                writer.startContainerNode(readNodeIdentifier(), readSizeHint());
+                break;
+            case UNKEYED_LIST:
+                writer.startUnkeyedList(readNodeIdentifier(), readSizeHint());
+                break;
+            case UNKEYED_LIST_ITEM:
+                writer.startUnkeyedListItem(readNodeIdentifier(), readSizeHint());
+                break;
+            case MAP:
+                writer.startMapNode(readNodeIdentifier(), readSizeHint());
+                break;
+            case ORDERED_MAP:
+                writer.startOrderedMapNode(readNodeIdentifier(), readSizeHint());
+                break;
+            case MAP_ENTRY:
+                writer.startMapEntryNode(readPredicates(), readSizeHint());
+                break;
+            case CHOICE:
+                writer.startChoiceNode(readNodeIdentifier(), readSizeHint());
+                break;
+            case AUGMENTATION:
+                writer.startAugmentationNode(readAugmentationIdentifier());
+                break;
+            case YANG_MODELED_ANYXML:
+                writer.startYangModeledAnyXmlNode(readNodeIdentifier(), readSizeHint());
+                break;
+            default:
+                throw new IOException("Invalid node tag " + tag);
+        }
+
+        // Read children of a container-like node
+        while (true) {
+            final byte childTag = input.readByte();
+            if (childTag == END_NODE) {
+                writer.endNode();
+                return;
+            }
+            readNode(writer, childTag);
+        }
+    }
+
+    int readSizeHint() throws IOException {
+        final int hint = readVarInt();
+        return hint == 0 ? NormalizedNodeStreamWriter.UNKNOWN_SIZE : hint - 1;
+    }
+
+    private QNameModule readModule() throws IOException {
+        final int index = readVarInt();
+        if (index != 0) {
+            return lookup(modules, index, "module");
+        }
+
+        final URI namespace;
+        try {
+            namespace = new URI(readString());
+        } catch (URISyntaxException e) {
+            throw new IOException("Invalid namespace", e);
+        }
+        final String revision = readString();
+        final QNameModule module = QNameModule.create(namespace,
+            revision.isEmpty() ? null : QName.parseRevision(revision)).intern();
+        if (!frozen) {
+            modules.add(module);
+        }
+        return module;
+    }
+
+    private QName defineQName() throws IOException {
+        final QNameModule module = readModule();
+        final QName qname = QName.create(module, readString()).intern();
+        if (!frozen) {
+            qnames.add(qname);
+            identifiers.add(null);
+        }
+        return qname;
+    }
+
+    QName readQName() throws IOException {
+        final int index = readVarInt();
+        return index != 0 ? lookup(qnames, index, "QName") : defineQName();
+    }
+
+    NodeIdentifier readNodeIdentifier() throws IOException {
+        final int index = readVarInt();
+        if (index == 0) {
+            return NodeIdentifier.create(defineQName());
+        }
+
+        final QName qname = lookup(qnames, index, "QName");
+        NodeIdentifier ret = identifiers.get(index - 1);
+        if (ret == null) {
+            ret = NodeIdentifier.create(qname);
+            if (!frozen) {
+                identifiers.set(index - 1, ret);
+            }
+        }
+        return ret;
+    }
+
+    private static <T> T lookup(final List<T> list, final int index, final String what) throws IOException {
+        if (index > list.size()) {
+            throw new IOException("Invalid " + what + " reference " + index);
+        }
+        return list.get(index - 1);
+    }
+
+    NodeIdentifierWithPredicates readPredicates() throws IOException {
+        final QName qname = readQName();
+        final int size = readVarInt();
+        switch (size) {
+            case 0:
+                return new NodeIdentifierWithPredicates(qname, ImmutableMap.<QName, Object>of());
+            case 1:
+                return new NodeIdentifierWithPredicates(qname, readQName(), readValue());
+            default:
+                final ImmutableMap.Builder<QName, Object> builder = ImmutableMap.builder();
+                for (int i = 0; i < size; ++i) {
+                    builder.put(readQName(), readValue());
+                }
+                return new NodeIdentifierWithPredicates(qname, builder.build());
+        }
+    }
+
+    AugmentationIdentifier readAugmentationIdentifier() throws IOException {
+        final int size = readVarInt();
+        final ImmutableSet.Builder<QName> builder = ImmutableSet.builder();
+        for (int i = 0; i < size; ++i) {
+            builder.add(readQName());
+        }
+        return new AugmentationIdentifier(builder.build());
+    }
+
+    private YangInstanceIdentifier readIdentifier() throws IOException {
+        final int size = readVarInt();
+        final ImmutableList.Builder<PathArgument> builder = ImmutableList.builder();
+        for (int i = 0; i < size; ++i) {
+            builder.add(readPathArgument());
+        }
+        return YangInstanceIdentifier.create(builder.build());
+    }
+
+    private PathArgument readPathArgument() throws IOException {
+        final byte tag = input.readByte();
+        switch (tag) {
+            case NODE_IDENTIFIER:
+                return readNodeIdentifier();
+            case NODE_IDENTIFIER_WITH_PREDICATES:
+                return readPredicates();
+            case NODE_WITH_VALUE:
+                return new NodeWithValue<>(readQName(), readValue());
+            case AUGMENTATION_IDENTIFIER:
+                return readAugmentationIdentifier();
+            default:
+                throw new IOException("Invalid path argument tag " + tag);
+        }
+    }
+
+    Object readValue() throws IOException {
+        final byte tag = input.readByte();
+        switch (tag) {
+            case VALUE_NULL:
+                return null;
+            case VALUE_FALSE:
+                return Boolean.FALSE;
+            case VALUE_TRUE:
+                return Boolean.TRUE;
+            case VALUE_BYTE:
+                return input.readByte();
+            case VALUE_SHORT:
+                return (short) unZigZag(readVarInt());
+            case VALUE_INT:
+                return unZigZag(readVarInt());
+            case VALUE_LONG:
+                return unZigZag(readVarLong());
+            case VALUE_BIG_INTEGER:
+                return new BigInteger(readBytes());
+            case VALUE_BIG_DECIMAL:
+                final int scale = unZigZag(readVarInt());
+                return new BigDecimal(new BigInteger(readBytes()), scale);
+            case VALUE_STRING:
+                return readString();
+            case VALUE_BINARY:
+                return readBytes();
+            case VALUE_QNAME:
+                return readQName();
+            case VALUE_BITS:
+                final int size = readVarInt();
+                final ImmutableSet.Builder<String> builder = ImmutableSet.builder();
+                for (int i = 0; i < size; ++i) {
+                    builder.add(readString());
+                }
+                return builder.build();
+            case VALUE_INSTANCE_IDENTIFIER:
+                return readIdentifier();
+            default:
+                throw new IOException("Invalid value tag " + tag);
+        }
+    }
+
+    /**
+     * Skip a value without decoding it. QNames referenced by the value are still entered into the dictionary.
+     *
+     * @throws IOException if the input cannot be read or is malformed
+     */
+    void skipValue() throws IOException {
+        final byte tag = input.readByte();
+        switch (tag) {
+            case VALUE_NULL:
+            case VALUE_FALSE:
+            case VALUE_TRUE:
+                return;
+            case VALUE_BYTE:
+                input.readByte();
+                return;
+            case VALUE_SHORT:
+            case VALUE_INT:
+                readVarInt();
+                return;
+            case VALUE_LONG:
+                readVarLong();
+                return;
+            case VALUE_BIG_DECIMAL:
+                readVarInt();
+                skipBytes();
+                return;
+            case VALUE_BIG_INTEGER:
+            case VALUE_STRING:
+            case VALUE_BINARY:
+                skipBytes();
+                return;
+            case VALUE_QNAME:
+                readQName();
+                return;
+            case VALUE_BITS:
+                final int size = readVarInt();
+                for (int i = 0; i < size; ++i) {
+                    skipBytes();
+                }
+                return;
+            case VALUE_INSTANCE_IDENTIFIER:
+                readIdentifier();
+                return;
+            default:
+                throw new IOException("Invalid value tag " + tag);
+        }
+    }
+
+    void skipBytes() throws IOException {
+        final int length = readLength();
+        if (input.skipBytes(length) != length) {
+            throw new EOFException();
+        }
+    }
+
+    DOMSource readDOMSource() throws IOException {
+        final String str = readString();
+        final Document doc;
+        try {
+            final DocumentBuilder builder;
+            // DocumentBuilderFactory is not guaranteed to be thread-safe
+            synchronized (BUILDER_FACTORY) {
+                builder = BUILDER_FACTORY.newDocumentBuilder();
+            }
+            doc = builder.parse(new InputSource(new StringReader(str)));
+        } catch (ParserConfigurationException | SAXException e) {
+            throw new IOException("Failed to parse anyxml value", e);
+        }
+        return new DOMSource(doc.getDocumentElement());
+    }
+
+    private String readString() throws IOException {
+        return new String(readBytes(), StandardCharsets.UTF_8);
+    }
+
+    private byte[] readBytes() throws IOException {
+        final byte[] bytes = new byte[readLength()];
+        input.readFully(bytes);
+        return bytes;
+    }
+
+    private int readLength() throws IOException {
+        final int length = readVarInt();
+        if (length < 0) {
+            throw new IOException("Invalid length " + length);
+        }
+        return length;
+    }
+
+    private int readVarInt() throws IOException {
+        int ret = 0;
+        for (int shift = 0; shift < 35; shift += 7) {
+            final byte b = input.readByte();
+            ret |= (b & 0x7F) << shift;
+            if (b >= 0) {
+                return ret;
+            }
+        }
+        throw new IOException("Malformed varint");
+    }
+
+    private long readVarLong() throws IOException {
+        long ret = 0;
+        for (int shift = 0; shift < 70; shift += 7) {
+            final byte b = input.readByte();
+            ret |= (long) (b & 0x7F) << shift;
+            if (b >= 0) {
+                return ret;
+            }
+        }
+        throw new IOException("Malformed varint");
+    }
+
+    private static int unZigZag(final int value) {
+        return value >>> 1 ^ -(value & 1);
+    }
+
+    private static long unZigZag(final long value) {
+        return value >>> 1 ^ -(value & 1);
+    }
+}
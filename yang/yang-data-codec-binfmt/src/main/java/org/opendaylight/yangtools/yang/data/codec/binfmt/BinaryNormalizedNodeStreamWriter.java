@@ -0,0 +1,498 @@
+/*
+ * Copyright (c) 2016 Cisco Systems, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.yangtools.yang.data.codec.binfmt;
+
+import static org.opendaylight.yangtools.yang.data.codec.binfmt.BinaryFormat.ANYXML;
+import static org.opendaylight.yangtools.yang.data.codec.binfmt.BinaryFormat.AUGMENTATION;
+import static org.opendaylight.yangtools.yang.data.codec.binfmt.BinaryFormat.AUGMENTATION_IDENTIFIER;
+import static org.opendaylight.yangtools.yang.data.codec.binfmt.BinaryFormat.CHOICE;
+import static org.opendaylight.yangtools.yang.data.codec.binfmt.BinaryFormat.CONTAINER;
+import static org.opendaylight.yangtools.yang.data.codec.binfmt.BinaryFormat.END_NODE;
+import static org.opendaylight.yangtools.yang.data.codec.binfmt.BinaryFormat.LEAF;
+import static org.opendaylight.yangtools.yang.data.codec.binfmt.BinaryFormat.LEAF_SET;
+import static org.opendaylight.yangtools.yang.data.codec.binfmt.BinaryFormat.LEAF_SET_ENTRY;
+import static org.opendaylight.yangtools.yang.data.codec.binfmt.BinaryFormat.MAGIC;
+import static org.opendaylight.yangtools.yang.data.codec.binfmt.BinaryFormat.MAP;
+import static org.opendaylight.yangtools.yang.data.codec.binfmt.BinaryFormat.MAP_ENTRY;
+import static org.opendaylight.yangtools.yang.data.codec.binfmt.BinaryFormat.NODE_IDENTIFIER;
+import static org.opendaylight.yangtools.yang.data.codec.binfmt.BinaryFormat.NODE_IDENTIFIER_WITH_PREDICATES;
+import static org.opendaylight.yangtools.yang.data.codec.binfmt.BinaryFormat.NODE_WITH_VALUE;
+import static org.opendaylight.yangtools.yang.data.codec.binfmt.BinaryFormat.ORDERED_LEAF_SET;
+import static org.opendaylight.yangtools.yang.data.codec.binfmt.BinaryFormat.ORDERED_MAP;
+import static org.opendaylight.yangtools.yang.data.codec.binfmt.BinaryFormat.UNKEYED_LIST;
+import static org.opendaylight.yangtools.yang.data.codec.binfmt.BinaryFormat.UNKEYED_LIST_ITEM;
+import static org.opendaylight.yangtools.yang.data.codec.binfmt.BinaryFormat.VALUE_BIG_DECIMAL;
+import static org.opendaylight.yangtools.yang.data.codec.binfmt.BinaryFormat.VALUE_BIG_INTEGER;
+import static org.opendaylight.yangtools.yang.data.codec.binfmt.BinaryFormat.VALUE_BINARY;
+import static org.opendaylight.yangtools.yang.data.codec.binfmt.BinaryFormat.VALUE_BITS;
+import static org.opendaylight.yangtools.yang.data.codec.binfmt.BinaryFormat.VALUE_BYTE;
+import static org.opendaylight.yangtools.yang.data.codec.binfmt.BinaryFormat.VALUE_FALSE;
+import static org.opendaylight.yangtools.yang.data.codec.binfmt.BinaryFormat.VALUE_INSTANCE_IDENTIFIER;
+import static org.opendaylight.yangtools.yang.data.codec.binfmt.BinaryFormat.VALUE_INT;
+import static org.opendaylight.yangtools.yang.data.codec.binfmt.BinaryFormat.VALUE_LONG;
+import static org.opendaylight.yangtools.yang.data.codec.binfmt.BinaryFormat.VALUE_NULL;
+import static org.opendaylight.yangtools.yang.data.codec.binfmt.BinaryFormat.VALUE_QNAME;
+import static org.opendaylight.yangtools.yang.data.codec.binfmt.BinaryFormat.VALUE_SHORT;
+import static org.opendaylight.yangtools.yang.data.codec.binfmt.BinaryFormat.VALUE_STRING;
+import static org.opendaylight.yangtools.yang.data.codec.binfmt.BinaryFormat.VALUE_TRUE;
+import static org.opendaylight.yangtools.yang.data.codec.binfmt.BinaryFormat.VERSION;
+import static org.opendaylight.yangtools.yang.data.codec.binfmt.BinaryFormat.YANG_MODELED_ANYXML;
+
+import com.google.common.annotations.Beta;
+import com.google.common.base.Preconditions;
+import java.io.Closeable;
+import java.io.DataOutput;
+import java.io.Flushable;
+import java.io.IOException;
+import java.io.StringWriter;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import javax.xml.transform.OutputKeys;
+import javax.xml.transform.Transformer;
+import javax.xml.transform.TransformerException;
+import javax.xml.transform.TransformerFactory;
+import javax.xml.transform.dom.DOMSource;
+import javax.xml.transform.stream.StreamResult;
+import org.opendaylight.yangtools.yang.common.QName;
+import org.opendaylight.yangtools.yang.common.QNameModule;
+import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier;
+import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier.AugmentationIdentifier;
+import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier.NodeIdentifier;
+import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier.NodeIdentifierWithPredicates;
+import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier.NodeWithValue;
+import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier.PathArgument;
+import org.opendaylight.yangtools.yang.data.api.schema.NormalizedNode;
+import org.opendaylight.yangtools.yang.data.api.schema.stream.NormalizedNodeStreamWriter;
+import org.opendaylight.yangtools.yang.data.api.schema.stream.NormalizedNodeWriter;
+
+/**
+ * A {@link NormalizedNodeStreamWriter} which emits the compact binary format understood by
+ * {@link BinaryNormalizedNodeParser}. The format is not schema-aware: node identifiers are encoded via a per-stream
+ * QName dictionary, so that each QName and each module is written out only once, and leaf values are encoded based on
+ * their Java type.
+ *
+ * <p>
+ * Multiple nodes and instance identifiers can be written to the same output, in which case they share the dictionary
+ * and have to be read back by a single parser instance, in the same order.
+ *
+ * <p>
+ * Supported leaf values are null (type empty), {@link String}, {@link Boolean}, {@link Byte}, {@link Short},
+ * {@link Integer}, {@link Long}, {@link BigInteger}, {@link BigDecimal}, byte arrays, {@link QName},
+ * {@link Set}s of {@link String}s (type bits) and {@link YangInstanceIdentifier}. Anyxml values are expected to be
+ * {@link DOMSource}s.
+ */
+@Beta
+public final class BinaryNormalizedNodeStreamWriter implements NormalizedNodeStreamWriter {
+    private static final TransformerFactory TRANSFORMER_FACTORY = TransformerFactory.newInstance();
+
+    private final Map<QNameModule, Integer> modules = new HashMap<>();
+    private final Map<QName, Integer> qnames = new HashMap<>();
+    private final byte[] scratch = new byte[10];
+    private final NormalizedNodeWriter nodeWriter = new NormalizedNodeWriter(this) {
+        @Override
+        public NormalizedNodeWriter write(final NormalizedNode<?, ?> node) throws IOException {
+            if (node instanceof AbstractLazyNode) {
+                writeLazyNode((AbstractLazyNode<?, ?>) node);
+                return this;
+            }
+            return super.write(node);
+        }
+    };
+    private final DataOutput output;
+    // Source whose dictionary our dictionary mirrors, allowing its nodes to be copied verbatim
+    private LazyNodeSource dictionarySource;
+    private int moduleCount;
+    private int qnameCount;
+    private boolean headerWritten;
+    private int depth;
+
+    private BinaryNormalizedNodeStreamWriter(final DataOutput output) {
+        this.output = Preconditions.checkNotNull(output);
+    }
+
+    /**
+     * Create a new writer.
+     *
+     * @param output Target output
+     * @return A new writer instance
+     */
+    public static BinaryNormalizedNodeStreamWriter create(final DataOutput output) {
+        return new BinaryNormalizedNodeStreamWriter(output);
+    }
+
+    /**
+     * Write a complete {@link NormalizedNode}.
+     *
+     * <p>
+     * Nodes obtained from {@link BinaryNormalizedNodeParser#readLazyNormalizedNode(byte[])}, including those nested
+     * in other nodes, are written without decoding their children. Their encoded form is copied verbatim if this
+     * writer's dictionary matches the source stream's dictionary at that point, which is the case when such a node is
+     * the first thing written by this writer.
+     *
+     * @param node Node to write
+     * @throws IOException if the output reports an error
+     */
+    public void writeNormalizedNode(final NormalizedNode<?, ?> node) throws IOException {
+        nodeWriter.write(node);
+    }
+
+    /**
+     * Write a {@link YangInstanceIdentifier}.
+     *
+     * @param identifier Identifier to write
+     * @throws IOException if the output reports an error
+     */
+    public void writeYangInstanceIdentifier(final YangInstanceIdentifier identifier) throws IOException {
+        ensureHeader();
+        writeIdentifier(identifier);
+    }
+
+    @Override
+    public void leafNode(final NodeIdentifier name, final Object value) throws IOException {
+        startNode(LEAF, name);
+        writeValue(value);
+    }
+
+    @Override
+    public void startLeafSet(final NodeIdentifier name, final int childSizeHint) throws IOException {
+        startContainer(LEAF_SET, name, childSizeHint);
+    }
+
+    @Override
+    public void startOrderedLeafSet(final NodeIdentifier name, final int childSizeHint) throws IOException {
+        startContainer(ORDERED_LEAF_SET, name, childSizeHint);
+    }
+
+    @Override
+    public void leafSetEntryNode(final QName name, final Object value) throws IOException {
+        ensureHeader();
+        output.writeByte(LEAF_SET_ENTRY);
+        writeQName(name);
+        writeValue(value);
+    }
+
+    @Override
+    public void startContainerNode(final NodeIdentifier name, final int childSizeHint) throws IOException {
+        startContainer(CONTAINER, name, childSizeHint);
+    }
+
+    @Override
+    public void startUnkeyedList(final NodeIdentifier name, final int childSizeHint) throws IOException {
+        startContainer(UNKEYED_LIST, name, childSizeHint);
+    }
+
+    @Override
+    public void startUnkeyedListItem(final NodeIdentifier name, final int childSizeHint) throws IOException {
+        startContainer(UNKEYED_LIST_ITEM, name, childSizeHint);
+    }
+
+    @Override
+    public void startMapNode(final NodeIdentifier name, final int childSizeHint) throws IOException {
+        startContainer(MAP, name, childSizeHint);
+    }
+
+    @Override
+    public void startMapEntryNode(final NodeIdentifierWithPredicates identifier, final int childSizeHint)
+            throws IOException {
+        ensureHeader();
+        output.writeByte(MAP_ENTRY);
+        writePredicates(identifier);
+        writeSizeHint(childSizeHint);
+        depth++;
+    }
+
+    @Override
+    public void startOrderedMapNode(final NodeIdentifier name, final int childSizeHint) throws IOException {
+        startContainer(ORDERED_MAP, name, childSizeHint);
+    }
+
+    @Override
+    public void startChoiceNode(final NodeIdentifier name, final int childSizeHint) throws IOException {
+        startContainer(CHOICE, name, childSizeHint);
+    }
+
+    @Override
+    public void startAugmentationNode(final AugmentationIdentifier identifier) throws IOException {
+        ensureHeader();
+        output.writeByte(AUGMENTATION);
+        writeAugmentationIdentifier(identifier);
+        depth++;
+    }
+
+    @Override
+    public void anyxmlNode(final NodeIdentifier name, final Object value) throws IOException {
+        Preconditions.checkArgument(value instanceof DOMSource, "Unsupported anyxml value %s", value);
+        startNode(ANYXML, name);
+        writeString(domToString((DOMSource) value));
+    }
+
+    @Override
+    public void startYangModeledAnyXmlNode(final NodeIdentifier name, final int childSizeHint) throws IOException {
+        startContainer(YANG_MODELED_ANYXML, name, childSizeHint);
+    }
+
+    @Override
+    public void endNode() throws IOException {
+        Preconditions.checkState(depth > 0, "No node to end");
+        output.writeByte(END_NODE);
+        depth--;
+    }
+
+    @Override
+    public void close() throws IOException {
+        flush();
+        if (output instanceof Closeable) {
+            ((Closeable) output).close();
+        }
+    }
+
+    @Override
+    public void flush() throws IOException {
+        if (output instanceof Flushable) {
+            ((Flushable) output).flush();
+        }
+    }
+
+    private void writeLazyNode(final AbstractLazyNode<?, ?> node) throws IOException {
+        final LazyNodeSource source = node.getSource();
+        final int record = node.getRecord();
+        final boolean synced = dictionarySource == source || qnameCount == 0 && moduleCount == 0;
+        if (!synced || qnameCount != source.qnamesBefore(record) || moduleCount != source.modulesBefore(record)) {
+            node.emitTo(this);
+            return;
+        }
+
+        ensureHeader();
+        node.copyTo(output);
+
+        // Account for definitions in the copied data
+        for (int i = moduleCount; i < source.modulesAfter(record); ++i) {
+            final QNameModule module = source.moduleAt(i);
+            if (!modules.containsKey(module)) {
+                modules.put(module, i);
+            }
+        }
+        moduleCount = source.modulesAfter(record);
+        for (int i = qnameCount; i < source.qnamesAfter(record); ++i) {
+            final QName qname = source.qnameAt(i);
+            if (!qnames.containsKey(qname)) {
+                qnames.put(qname, i);
+            }
+        }
+        qnameCount = source.qnamesAfter(record);
+        dictionarySource = source;
+    }
+
+    private void ensureHeader() throws IOException {
+        if (!headerWritten) {
+            output.writeShort(MAGIC);
+            output.writeByte(VERSION);
+            headerWritten = true;
+        }
+    }
+
+    private void startNode(final byte tag, final NodeIdentifier name) throws IOException {
+        ensureHeader();
+        output.writeByte(tag);
+        writeQName(name.getNodeType());
+    }
+
+    private void startContainer(final byte tag, final NodeIdentifier name, final int childSizeHint)
+            throws IOException {
+        startNode(tag, name);
+        writeSizeHint(childSizeHint);
+        depth++;
+    }
+
+    private void writeSizeHint(final int childSizeHint) throws IOException {
+        writeVarInt(childSizeHint < 0 ? 0 : childSizeHint + 1);
+    }
+
+    private void writeModule(final QNameModule module) throws IOException {
+        final Integer index = modules.get(module);
+        if (index != null) {
+            writeVarInt(index + 1);
+            return;
+        }
+
+        writeVarInt(0);
+        writeString(module.getNamespace().toString());
+        final String revision = module.getFormattedRevision();
+        writeString(revision == null ? "" : revision);
+        modules.put(module, moduleCount++);
+        dictionarySource = null;
+    }
+
+    private void writeQName(final QName qname) throws IOException {
+        final Integer index = qnames.get(qname);
+        if (index != null) {
+            writeVarInt(index + 1);
+            return;
+        }
+
+        writeVarInt(0);
+        writeModule(qname.getModule());
+        writeString(qname.getLocalName());
+        qnames.put(qname, qnameCount++);
+        dictionarySource = null;
+    }
+
+    private void writePredicates(final NodeIdentifierWithPredicates identifier) throws IOException {
+        writeQName(identifier.getNodeType());
+        writeVarInt(identifier.size());
+        for (QName key : identifier.keySet()) {
+            writeQName(key);
+            writeValue(identifier.getValue(key));
+        }
+    }
+
+    private void writeAugmentationIdentifier(final AugmentationIdentifier identifier) throws IOException {
+        final Set<QName> childNames = identifier.getPossibleChildNames();
+        writeVarInt(childNames.size());
+        for (QName qname : childNames) {
+            writeQName(qname);
+        }
+    }
+
+    private void writeIdentifier(final YangInstanceIdentifier identifier) throws IOException {
+        final List<PathArgument> args = identifier.getPathArguments();
+        writeVarInt(args.size());
+        for (PathArgument arg : args) {
+            writePathArgument(arg);
+        }
+    }
+
+    private void writePathArgument(final PathArgument arg) throws IOException {
+        if (arg instanceof NodeIdentifier) {
+            output.writeByte(NODE_IDENTIFIER);
+            writeQName(arg.getNodeType());
+        } else if (arg instanceof NodeIdentifierWithPredicates) {
+            output.writeByte(NODE_IDENTIFIER_WITH_PREDICATES);
+            writePredicates((NodeIdentifierWithPredicates) arg);
+        } else if (arg instanceof NodeWithValue) {
+            output.writeByte(NODE_WITH_VALUE);
+            writeQName(arg.getNodeType());
+            writeValue(((NodeWithValue<?>) arg).getValue());
+        } else if (arg instanceof AugmentationIdentifier) {
+            output.writeByte(AUGMENTATION_IDENTIFIER);
+            writeAugmentationIdentifier((AugmentationIdentifier) arg);
+        } else {
+            throw new IllegalArgumentException("Unhandled path argument " + arg);
+        }
+    }
+
+    private void writeValue(final Object value) throws IOException {
+        if (value == null) {
+            output.writeByte(VALUE_NULL);
+        } else if (value instanceof String) {
+            output.writeByte(VALUE_STRING);
+            writeString((String) value);
+        } else if (value instanceof Boolean) {
+            output.writeByte((Boolean) value ? VALUE_TRUE : VALUE_FALSE);
+        } else if (value instanceof Integer) {
+            output.writeByte(VALUE_INT);
+            writeVarInt(zigZag((Integer) value));
+        } else if (value instanceof Long) {
+            output.writeByte(VALUE_LONG);
+            writeVarLong(zigZag((Long) value));
+        } else if (value instanceof Short) {
+            output.writeByte(VALUE_SHORT);
+            writeVarInt(zigZag((Short) value));
+        } else if (value instanceof Byte) {
+            output.writeByte(VALUE_BYTE);
+            output.writeByte((Byte) value);
+        } else if (value instanceof BigInteger) {
+            output.writeByte(VALUE_BIG_INTEGER);
+            writeBytes(((BigInteger) value).toByteArray());
+        } else if (value instanceof BigDecimal) {
+            final BigDecimal decimal = (BigDecimal) value;
+            output.writeByte(VALUE_BIG_DECIMAL);
+            writeVarInt(zigZag(decimal.scale()));
+            writeBytes(decimal.unscaledValue().toByteArray());
+        } else if (value instanceof byte[]) {
+            output.writeByte(VALUE_BINARY);
+            writeBytes((byte[]) value);
+        } else if (value instanceof QName) {
+            output.writeByte(VALUE_QNAME);
+            writeQName((QName) value);
+        } else if (value instanceof Set) {
+            final Set<?> bits = (Set<?>) value;
+            output.writeByte(VALUE_BITS);
+            writeVarInt(bits.size());
+            for (Object bit : bits) {
+                Preconditions.checkArgument(bit instanceof String, "Unsupported bit %s in %s", bit, value);
+                writeString((String) bit);
+            }
+        } else if (value instanceof YangInstanceIdentifier) {
+            output.writeByte(VALUE_INSTANCE_IDENTIFIER);
+            writeIdentifier((YangInstanceIdentifier) value);
+        } else {
+            throw new IllegalArgumentException("Unsupported value type " + value.getClass());
+        }
+    }
+
+    private void writeString(final String str) throws IOException {
+        writeBytes(str.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private void writeBytes(final byte[] bytes) throws IOException {
+        writeVarInt(bytes.length);
+        output.write(bytes);
+    }
+
+    private void writeVarInt(final int value) throws IOException {
+        int v = value;
+        int i = 0;
+        while ((v & ~0x7F) != 0) {
+            scratch[i++] = (byte) (v & 0x7F | 0x80);
+            v >>>= 7;
+        }
+        scratch[i++] = (byte) v;
+        output.write(scratch, 0, i);
+    }
+
+    private void writeVarLong(final long value) throws IOException {
+        long v = value;
+        int i = 0;
+        while ((v & ~0x7FL) != 0) {
+            scratch[i++] = (byte) (v & 0x7F | 0x80);
+            v >>>= 7;
+        }
+        scratch[i++] = (byte) v;
+        output.write(scratch, 0, i);
+    }
+
+    private static int zigZag(final int value) {
+        return value << 1 ^ value >> 31;
+    }
+
+    private static long zigZag(final long value) {
+        return value << 1 ^ value >> 63;
+    }
+
+    private static String domToString(final DOMSource source) throws IOException {
+        final StringWriter writer = new StringWriter();
+        try {
+            final Transformer transformer;
+            // TransformerFactory is not guaranteed to be thread-safe
+            synchronized (TRANSFORMER_FACTORY) {
+                transformer = TRANSFORMER_FACTORY.newTransformer();
+            }
+            transformer.setOutputProperty(OutputKeys.OMIT_XML_DECLARATION, "yes");
+            transformer.transform(source, new StreamResult(writer));
+        } catch (TransformerException e) {
+            throw new IOException("Failed to serialize anyxml value " + source, e);
+        }
+        return writer.toString();
+    }
+}
@@ -0,0 +1,78 @@
+/*
+ * Copyright (c) 2016 Cisco Systems, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.yangtools.yang.data.codec.binfmt;
+
+import com.google.common.collect.ImmutableMap;
+import java.util.Map;
+import org.opendaylight.yangtools.yang.common.QName;
+import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier.AugmentationIdentifier;
+import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier.NodeIdentifier;
+import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier.NodeIdentifierWithPredicates;
+import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier.PathArgument;
+import org.opendaylight.yangtools.yang.data.api.schema.AugmentationNode;
+import org.opendaylight.yangtools.yang.data.api.schema.ChoiceNode;
+import org.opendaylight.yangtools.yang.data.api.schema.ContainerNode;
+import org.opendaylight.yangtools.yang.data.api.schema.DataContainerChild;
+import org.opendaylight.yangtools.yang.data.api.schema.DataContainerNode;
+import org.opendaylight.yangtools.yang.data.api.schema.MapEntryNode;
+import org.opendaylight.yangtools.yang.data.api.schema.UnkeyedListEntryNode;
+
+/**
+ * Lazily-decoded {@link DataContainerNode}s. The binary format does not carry attributes, hence attributes of these
+ * nodes are always empty.
+ *
+ * @param <I> Identifier type
+ */
+abstract class LazyDataContainerNode<I extends PathArgument>
+        extends AbstractKeyedLazyNode<I, PathArgument, DataContainerChild<? extends PathArgument, ?>>
+        implements DataContainerNode<I> {
+
+    static final class Container extends LazyDataContainerNode<NodeIdentifier> implements ContainerNode {
+        Container(final LazyNodeSource source, final int record, final NodeIdentifier identifier) {
+            super(source, record, identifier);
+        }
+    }
+
+    static final class MapEntry extends LazyDataContainerNode<NodeIdentifierWithPredicates> implements MapEntryNode {
+        MapEntry(final LazyNodeSource source, final int record, final NodeIdentifierWithPredicates identifier) {
+            super(source, record, identifier);
+        }
+    }
+
+    static final class UnkeyedListEntry extends LazyDataContainerNode<NodeIdentifier>
+            implements UnkeyedListEntryNode {
+        UnkeyedListEntry(final LazyNodeSource source, final int record, final NodeIdentifier identifier) {
+            super(source, record, identifier);
+        }
+    }
+
+    static final class Choice extends LazyDataContainerNode<NodeIdentifier> implements ChoiceNode {
+        Choice(final LazyNodeSource source, final int record, final NodeIdentifier identifier) {
+            super(source, record, identifier);
+        }
+    }
+
+    static final class Augmentation extends LazyDataContainerNode<AugmentationIdentifier>
+            implements AugmentationNode {
+        Augmentation(final LazyNodeSource source, final int record, final AugmentationIdentifier identifier) {
+            super(source, record, identifier);
+        }
+    }
+
+    LazyDataContainerNode(final LazyNodeSource source, final int record, final I identifier) {
+        super(source, record, identifier);
+    }
+
+    public final Map<QName, String> getAttributes() {
+        return ImmutableMap.of();
+    }
+
+    public final Object getAttributeValue(final QName name) {
+        return null;
+    }
+}
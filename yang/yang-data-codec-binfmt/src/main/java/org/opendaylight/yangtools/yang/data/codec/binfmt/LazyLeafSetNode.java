@@ -0,0 +1,42 @@
+/*
+ * Copyright (c) 2016 Cisco Systems, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.yangtools.yang.data.codec.binfmt;
+
+import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier.NodeIdentifier;
+import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier.NodeWithValue;
+import org.opendaylight.yangtools.yang.data.api.schema.LeafSetEntryNode;
+import org.opendaylight.yangtools.yang.data.api.schema.LeafSetNode;
+import org.opendaylight.yangtools.yang.data.api.schema.OrderedLeafSetNode;
+
+/**
+ * Lazily-decoded {@link LeafSetNode}. Value types are not known without a schema, hence entries are typed as
+ * {@link Object}.
+ */
+class LazyLeafSetNode extends AbstractKeyedLazyNode<NodeIdentifier, NodeWithValue, LeafSetEntryNode<Object>>
+        implements LeafSetNode<Object> {
+
+    static final class Ordered extends LazyLeafSetNode implements OrderedLeafSetNode<Object> {
+        Ordered(final LazyNodeSource source, final int record, final NodeIdentifier identifier) {
+            super(source, record, identifier);
+        }
+
+        @Override
+        public LeafSetEntryNode<Object> getChild(final int position) {
+            return childMap().values().asList().get(position);
+        }
+
+        @Override
+        public int getSize() {
+            return childMap().size();
+        }
+    }
+
+    LazyLeafSetNode(final LazyNodeSource source, final int record, final NodeIdentifier identifier) {
+        super(source, record, identifier);
+    }
+}
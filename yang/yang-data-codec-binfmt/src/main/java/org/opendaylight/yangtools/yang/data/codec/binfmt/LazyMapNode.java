@@ -0,0 +1,41 @@
+/*
+ * Copyright (c) 2016 Cisco Systems, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.yangtools.yang.data.codec.binfmt;
+
+import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier.NodeIdentifier;
+import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier.NodeIdentifierWithPredicates;
+import org.opendaylight.yangtools.yang.data.api.schema.MapEntryNode;
+import org.opendaylight.yangtools.yang.data.api.schema.MapNode;
+import org.opendaylight.yangtools.yang.data.api.schema.OrderedMapNode;
+
+/**
+ * Lazily-decoded {@link MapNode}.
+ */
+class LazyMapNode extends AbstractKeyedLazyNode<NodeIdentifier, NodeIdentifierWithPredicates, MapEntryNode>
+        implements MapNode {
+
+    static final class Ordered extends LazyMapNode implements OrderedMapNode {
+        Ordered(final LazyNodeSource source, final int record, final NodeIdentifier identifier) {
+            super(source, record, identifier);
+        }
+
+        @Override
+        public MapEntryNode getChild(final int position) {
+            return childMap().values().asList().get(position);
+        }
+
+        @Override
+        public int getSize() {
+            return childMap().size();
+        }
+    }
+
+    LazyMapNode(final LazyNodeSource source, final int record, final NodeIdentifier identifier) {
+        super(source, record, identifier);
+    }
+}
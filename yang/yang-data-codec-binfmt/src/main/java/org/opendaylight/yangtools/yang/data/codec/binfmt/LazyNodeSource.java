@@ -0,0 +1,341 @@
+/*
+ * Copyright (c) 2016 Cisco Systems, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.yangtools.yang.data.codec.binfmt;
+
+import static org.opendaylight.yangtools.yang.data.codec.binfmt.BinaryFormat.ANYXML;
+import static org.opendaylight.yangtools.yang.data.codec.binfmt.BinaryFormat.AUGMENTATION;
+import static org.opendaylight.yangtools.yang.data.codec.binfmt.BinaryFormat.CHOICE;
+import static org.opendaylight.yangtools.yang.data.codec.binfmt.BinaryFormat.CONTAINER;
+import static org.opendaylight.yangtools.yang.data.codec.binfmt.BinaryFormat.END_NODE;
+import static org.opendaylight.yangtools.yang.data.codec.binfmt.BinaryFormat.LEAF;
+import static org.opendaylight.yangtools.yang.data.codec.binfmt.BinaryFormat.LEAF_SET;
+import static org.opendaylight.yangtools.yang.data.codec.binfmt.BinaryFormat.LEAF_SET_ENTRY;
+import static org.opendaylight.yangtools.yang.data.codec.binfmt.BinaryFormat.MAP;
+import static org.opendaylight.yangtools.yang.data.codec.binfmt.BinaryFormat.MAP_ENTRY;
+import static org.opendaylight.yangtools.yang.data.codec.binfmt.BinaryFormat.ORDERED_LEAF_SET;
+import static org.opendaylight.yangtools.yang.data.codec.binfmt.BinaryFormat.ORDERED_MAP;
+import static org.opendaylight.yangtools.yang.data.codec.binfmt.BinaryFormat.UNKEYED_LIST;
+import static org.opendaylight.yangtools.yang.data.codec.binfmt.BinaryFormat.UNKEYED_LIST_ITEM;
+import static org.opendaylight.yangtools.yang.data.codec.binfmt.BinaryFormat.YANG_MODELED_ANYXML;
+
+import com.google.common.base.Preconditions;
+import com.google.common.collect.ImmutableList;
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.Arrays;
+import org.opendaylight.yangtools.yang.common.QName;
+import org.opendaylight.yangtools.yang.common.QNameModule;
+import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier.NodeWithValue;
+import org.opendaylight.yangtools.yang.data.api.schema.NormalizedNode;
+import org.opendaylight.yangtools.yang.data.api.schema.stream.NormalizedNodeStreamWriter;
+import org.opendaylight.yangtools.yang.data.impl.schema.Builders;
+import org.opendaylight.yangtools.yang.data.impl.schema.ImmutableNodes;
+
+/**
+ * An encoded stream backing lazily-decoded nodes. When created, the first node in the stream is scanned once, which
+ * populates the QName dictionary and records the position of each container-like node. Children of those nodes are
+ * then decoded on demand, directly from the byte array.
+ *
+ * <p>
+ * Each container-like node is identified by its record, which holds its start offset, the offset of its first child,
+ * its end offset and the size of the dictionary at its start and end. Records are kept in an int array, in the order
+ * in which nodes were encountered, which is also the order of their start offsets.
+ */
+final class LazyNodeSource {
+    /**
+     * A {@link ByteArrayInputStream} with an accessible position.
+     */
+    private static final class Input extends ByteArrayInputStream {
+        Input(final byte[] buf, final int offset) {
+            super(buf);
+            pos = offset;
+        }
+
+        int position() {
+            return pos;
+        }
+
+        void seek(final int position) {
+            pos = position;
+        }
+    }
+
+    /**
+     * Read state over a part of the stream.
+     */
+    private static final class Cursor {
+        final Input input;
+        final DataInputStream data;
+        final BinaryNormalizedNodeParser parser;
+
+        Cursor(final Input input, final BinaryNormalizedNodeParser dictionary) {
+            this.input = input;
+            this.data = new DataInputStream(input);
+            this.parser = dictionary == null ? BinaryNormalizedNodeParser.create(data)
+                    : new BinaryNormalizedNodeParser(data, dictionary);
+        }
+    }
+
+    private static final int START = 0;
+    private static final int CHILDREN = 1;
+    private static final int END = 2;
+    private static final int QNAMES_BEFORE = 3;
+    private static final int MODULES_BEFORE = 4;
+    private static final int QNAMES_AFTER = 5;
+    private static final int MODULES_AFTER = 6;
+    private static final int RECORD_SIZE = 7;
+
+    private final byte[] bytes;
+    private BinaryNormalizedNodeParser dictionary;
+    private int[] records = new int[RECORD_SIZE * 16];
+    private int recordCount;
+
+    private LazyNodeSource(final byte[] bytes) {
+        this.bytes = Preconditions.checkNotNull(bytes);
+    }
+
+    /**
+     * Scan the first node in a stream and return a lazily-decoded view of it.
+     *
+     * @param bytes Encoded stream, which must not be modified afterwards
+     * @return Lazily-decoded node
+     * @throws IOException if the stream is malformed
+     */
+    static NormalizedNode<?, ?> readFirstNode(final byte[] bytes) throws IOException {
+        final LazyNodeSource source = new LazyNodeSource(bytes);
+        final Cursor scanner = new Cursor(new Input(bytes, 0), null);
+        scanner.parser.ensureHeader();
+        final int start = scanner.input.position();
+        source.scanNode(scanner, scanner.data.readByte(), start);
+
+        // The dictionary is complete, freeze it so it can be shared by cursors reading the stream concurrently
+        scanner.parser.populateIdentifiers();
+        source.dictionary = scanner.parser;
+        source.records = Arrays.copyOf(source.records, source.recordCount * RECORD_SIZE);
+
+        final Cursor cursor = source.newCursor(start);
+        return source.readNode(cursor, cursor.data.readByte(), start);
+    }
+
+    private void scanNode(final Cursor cursor, final byte tag, final int start) throws IOException {
+        final BinaryNormalizedNodeParser parser = cursor.parser;
+        final int qnamesBefore = parser.qnameCount();
+        final int modulesBefore = parser.moduleCount();
+
+        switch (tag) {
+            case LEAF:
+                parser.readNodeIdentifier();
+                parser.skipValue();
+                return;
+            case LEAF_SET_ENTRY:
+                parser.readQName();
+                parser.skipValue();
+                return;
+            case ANYXML:
+                parser.readNodeIdentifier();
+                parser.skipBytes();
+                return;
+            case LEAF_SET:
+            case ORDERED_LEAF_SET:
+            case CONTAINER:
+            case UNKEYED_LIST:
+            case UNKEYED_LIST_ITEM:
+            case MAP:
+            case ORDERED_MAP:
+            case CHOICE:
+                parser.readNodeIdentifier();
+                parser.readSizeHint();
+                break;
+            case MAP_ENTRY:
+                parser.readPredicates();
+                parser.readSizeHint();
+                break;
+            case AUGMENTATION:
+                parser.readAugmentationIdentifier();
+                break;
+            case YANG_MODELED_ANYXML:
+                throw new IOException("Yang-modeled anyxml nodes cannot be decoded lazily");
+            default:
+                throw new IOException("Invalid node tag " + tag);
+        }
+
+        if (recordCount * RECORD_SIZE == records.length) {
+            records = Arrays.copyOf(records, records.length * 2);
+        }
+        final int offset = recordCount++ * RECORD_SIZE;
+        records[offset + START] = start;
+        records[offset + CHILDREN] = cursor.input.position();
+        records[offset + QNAMES_BEFORE] = qnamesBefore;
+        records[offset + MODULES_BEFORE] = modulesBefore;
+
+        while (true) {
+            final int childStart = cursor.input.position();
+            final byte childTag = cursor.data.readByte();
+            if (childTag == END_NODE) {
+                break;
+            }
+            scanNode(cursor, childTag, childStart);
+        }
+
+        records[offset + END] = cursor.input.position();
+        records[offset + QNAMES_AFTER] = parser.qnameCount();
+        records[offset + MODULES_AFTER] = parser.moduleCount();
+    }
+
+    private Cursor newCursor(final int position) {
+        return new Cursor(new Input(bytes, position), dictionary);
+    }
+
+    private int findRecord(final int start) {
+        int low = 0;
+        int high = recordCount - 1;
+        while (low <= high) {
+            final int mid = low + high >>> 1;
+            final int midStart = records[mid * RECORD_SIZE + START];
+            if (midStart < start) {
+                low = mid + 1;
+            } else if (midStart > start) {
+                high = mid - 1;
+            } else {
+                return mid;
+            }
+        }
+        throw new IllegalStateException("No node starts at offset " + start);
+    }
+
+    private NormalizedNode<?, ?> readNode(final Cursor cursor, final byte tag, final int start) throws IOException {
+        final BinaryNormalizedNodeParser parser = cursor.parser;
+        switch (tag) {
+            case LEAF:
+                return ImmutableNodes.leafNode(parser.readNodeIdentifier(), parser.readValue());
+            case LEAF_SET_ENTRY:
+                final QName name = parser.readQName();
+                final Object value = parser.readValue();
+                return Builders.<Object>leafSetEntryBuilder().withNodeIdentifier(new NodeWithValue<>(name, value))
+                        .withValue(value).build();
+            case ANYXML:
+                return Builders.anyXmlBuilder().withNodeIdentifier(parser.readNodeIdentifier())
+                        .withValue(parser.readDOMSource()).build();
+            default:
+                // Fall through to container-like nodes
+        }
+
+        final int record = findRecord(start);
+        final NormalizedNode<?, ?> ret;
+        switch (tag) {
+            case LEAF_SET:
+                ret = new LazyLeafSetNode(this, record, parser.readNodeIdentifier());
+                break;
+            case ORDERED_LEAF_SET:
+                ret = new LazyLeafSetNode.Ordered(this, record, parser.readNodeIdentifier());
+                break;
+            case CONTAINER:
+                ret = new LazyDataContainerNode.Container(this, record, parser.readNodeIdentifier());
+                break;
+            case UNKEYED_LIST:
+                ret = new LazyUnkeyedListNode(this, record, parser.readNodeIdentifier());
+                break;
+            case UNKEYED_LIST_ITEM:
+                ret = new LazyDataContainerNode.UnkeyedListEntry(this, record, parser.readNodeIdentifier());
+                break;
+            case MAP:
+                ret = new LazyMapNode(this, record, parser.readNodeIdentifier());
+                break;
+            case ORDERED_MAP:
+                ret = new LazyMapNode.Ordered(this, record, parser.readNodeIdentifier());
+                break;
+            case MAP_ENTRY:
+                ret = new LazyDataContainerNode.MapEntry(this, record, parser.readPredicates());
+                break;
+            case CHOICE:
+                ret = new LazyDataContainerNode.Choice(this, record, parser.readNodeIdentifier());
+                break;
+            case AUGMENTATION:
+                ret = new LazyDataContainerNode.Augmentation(this, record, parser.readAugmentationIdentifier());
+                break;
+            default:
+                throw new IOException("Invalid node tag " + tag);
+        }
+
+        cursor.input.seek(records[record * RECORD_SIZE + END]);
+        return ret;
+    }
+
+    /**
+     * Decode the children of a container-like node.
+     *
+     * @param record Node record
+     * @return Children of the node, in encounter order
+     */
+    ImmutableList<NormalizedNode<?, ?>> readChildren(final int record) {
+        final Cursor cursor = newCursor(records[record * RECORD_SIZE + CHILDREN]);
+        final ImmutableList.Builder<NormalizedNode<?, ?>> builder = ImmutableList.builder();
+        try {
+            while (true) {
+                final int start = cursor.input.position();
+                final byte tag = cursor.data.readByte();
+                if (tag == END_NODE) {
+                    return builder.build();
+                }
+                builder.add(readNode(cursor, tag, start));
+            }
+        } catch (IOException e) {
+            throw new IllegalStateException("Failed to decode children at offset "
+                    + records[record * RECORD_SIZE + CHILDREN], e);
+        }
+    }
+
+    /**
+     * Emit a container-like node into a writer.
+     *
+     * @param record Node record
+     * @param writer Target writer
+     * @throws IOException if the writer reports an error
+     */
+    void emitNode(final int record, final NormalizedNodeStreamWriter writer) throws IOException {
+        newCursor(records[record * RECORD_SIZE + START]).parser.parse(writer);
+    }
+
+    /**
+     * Copy the encoded form of a container-like node.
+     *
+     * @param record Node record
+     * @param output Target output
+     * @throws IOException if the output reports an error
+     */
+    void copyNode(final int record, final DataOutput output) throws IOException {
+        final int start = records[record * RECORD_SIZE + START];
+        output.write(bytes, start, records[record * RECORD_SIZE + END] - start);
+    }
+
+    int qnamesBefore(final int record) {
+        return records[record * RECORD_SIZE + QNAMES_BEFORE];
+    }
+
+    int modulesBefore(final int record) {
+        return records[record * RECORD_SIZE + MODULES_BEFORE];
+    }
+
+    int qnamesAfter(final int record) {
+        return records[record * RECORD_SIZE + QNAMES_AFTER];
+    }
+
+    int modulesAfter(final int record) {
+        return records[record * RECORD_SIZE + MODULES_AFTER];
+    }
+
+    QName qnameAt(final int index) {
+        return dictionary.qnameAt(index);
+    }
+
+    QNameModule moduleAt(final int index) {
+        return dictionary.moduleAt(index);
+    }
+}
@@ -0,0 +1,65 @@
+/*
+ * Copyright (c) 2016 Cisco Systems, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.yangtools.yang.data.codec.binfmt;
+
+import com.google.common.collect.ImmutableList;
+import java.util.Collection;
+import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier.NodeIdentifier;
+import org.opendaylight.yangtools.yang.data.api.schema.UnkeyedListEntryNode;
+import org.opendaylight.yangtools.yang.data.api.schema.UnkeyedListNode;
+
+/**
+ * Lazily-decoded {@link UnkeyedListNode}. Its entries share the same identifier, hence they are kept in a list.
+ */
+final class LazyUnkeyedListNode extends AbstractLazyNode<NodeIdentifier, UnkeyedListEntryNode>
+        implements UnkeyedListNode {
+    private volatile ImmutableList<UnkeyedListEntryNode> children;
+
+    LazyUnkeyedListNode(final LazyNodeSource source, final int record, final NodeIdentifier identifier) {
+        super(source, record, identifier);
+    }
+
+    private ImmutableList<UnkeyedListEntryNode> childList() {
+        ImmutableList<UnkeyedListEntryNode> ret = children;
+        if (ret == null) {
+            ret = ImmutableList.copyOf(readChildren());
+            children = ret;
+        }
+        return ret;
+    }
+
+    @Override
+    Collection<UnkeyedListEntryNode> children() {
+        return childList();
+    }
+
+    @Override
+    boolean isMaterialized() {
+        return children != null;
+    }
+
+    @Override
+    public UnkeyedListEntryNode getChild(final int position) {
+        return childList().get(position);
+    }
+
+    @Override
+    public int getSize() {
+        return childList().size();
+    }
+
+    @Override
+    int childrenHashCode() {
+        return childList().hashCode();
+    }
+
+    @Override
+    boolean childrenEquals(final AbstractLazyNode<?, ?> other) {
+        return childList().equals(((LazyUnkeyedListNode) other).childList());
+    }
+}
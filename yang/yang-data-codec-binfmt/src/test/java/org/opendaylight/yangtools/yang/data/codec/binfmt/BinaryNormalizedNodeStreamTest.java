@@ -0,0 +1,248 @@
+/*
+ * Copyright (c) 2016 Cisco Systems, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.yangtools.yang.data.codec.binfmt;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import com.google.common.base.Strings;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.io.ByteArrayDataOutput;
+import com.google.common.io.ByteStreams;
+import com.google.common.primitives.Bytes;
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.StringReader;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import javax.xml.parsers.DocumentBuilderFactory;
+import javax.xml.transform.dom.DOMSource;
+import org.junit.Test;
+import org.opendaylight.yangtools.yang.common.QName;
+import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier;
+import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier.AugmentationIdentifier;
+import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier.NodeIdentifier;
+import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier.NodeIdentifierWithPredicates;
+import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier.NodeWithValue;
+import org.opendaylight.yangtools.yang.data.api.schema.ContainerNode;
+import org.opendaylight.yangtools.yang.data.api.schema.NormalizedNode;
+import org.opendaylight.yangtools.yang.data.api.schema.stream.ForwardingNormalizedNodeStreamWriter;
+import org.opendaylight.yangtools.yang.data.api.schema.stream.NormalizedNodeStreamWriter;
+import org.opendaylight.yangtools.yang.data.impl.schema.Builders;
+import org.opendaylight.yangtools.yang.data.impl.schema.ImmutableNodes;
+import org.opendaylight.yangtools.yang.data.impl.schema.ImmutableNormalizedNodeStreamWriter;
+import org.opendaylight.yangtools.yang.data.impl.schema.NormalizedNodeResult;
+import org.w3c.dom.Document;
+import org.xml.sax.InputSource;
+
+public class BinaryNormalizedNodeStreamTest {
+    static final QName TOP = QName.create("urn:test:binfmt", "2016-01-01", "top");
+    private static final QName LEAF = QName.create(TOP, "leaf");
+    static final QName LIST = QName.create(TOP, "list");
+    static final QName ID = QName.create(TOP, "id");
+    private static final QName NAME = QName.create(TOP, "name");
+    private static final QName LEAF_LIST = QName.create(TOP, "leaf-list");
+    static final QName UNKEYED = QName.create(TOP, "unkeyed");
+    static final QName CHOICE = QName.create(TOP, "choice");
+    static final QName CASE_LEAF = QName.create(TOP, "case-leaf");
+    private static final QName AUGMENTED = QName.create("urn:test:binfmt:aug", "augmented");
+    private static final QName IDENTITY = QName.create("urn:test:binfmt:identity", "2015-12-31", "identity");
+
+    private static final YangInstanceIdentifier IDENTIFIER = YangInstanceIdentifier.create(new NodeIdentifier(TOP),
+        new NodeIdentifier(LIST), new NodeIdentifierWithPredicates(LIST, ImmutableMap.<QName, Object>of(ID, 1,
+            NAME, "one")), new AugmentationIdentifier(ImmutableSet.of(AUGMENTED)), new NodeIdentifier(AUGMENTED),
+        new NodeWithValue<>(LEAF_LIST, "a"));
+
+    static ContainerNode createTestContainer() {
+        return Builders.containerBuilder().withNodeIdentifier(new NodeIdentifier(TOP))
+            .withChild(ImmutableNodes.leafNode(QName.create(TOP, "string"), "string é中"))
+            .withChild(ImmutableNodes.leafNode(QName.create(TOP, "empty"), null))
+            .withChild(ImmutableNodes.leafNode(QName.create(TOP, "true"), Boolean.TRUE))
+            .withChild(ImmutableNodes.leafNode(QName.create(TOP, "false"), Boolean.FALSE))
+            .withChild(ImmutableNodes.leafNode(QName.create(TOP, "byte"), (byte) -128))
+            .withChild(ImmutableNodes.leafNode(QName.create(TOP, "short"), Short.MIN_VALUE))
+            .withChild(ImmutableNodes.leafNode(QName.create(TOP, "int"), Integer.MIN_VALUE))
+            .withChild(ImmutableNodes.leafNode(QName.create(TOP, "int-small"), -1))
+            .withChild(ImmutableNodes.leafNode(QName.create(TOP, "long"), Long.MAX_VALUE))
+            .withChild(ImmutableNodes.leafNode(QName.create(TOP, "uint64"), new BigInteger("18446744073709551615")))
+            .withChild(ImmutableNodes.leafNode(QName.create(TOP, "decimal"), new BigDecimal("-12.3400")))
+            .withChild(ImmutableNodes.leafNode(QName.create(TOP, "identityref"), IDENTITY))
+            .withChild(ImmutableNodes.leafNode(QName.create(TOP, "bits"), ImmutableSet.of("one", "three")))
+            .withChild(ImmutableNodes.leafNode(QName.create(TOP, "instance-identifier"), IDENTIFIER))
+            .withChild(Builders.leafSetBuilder().withNodeIdentifier(new NodeIdentifier(LEAF_LIST))
+                .withChildValue("a").withChildValue("b").build())
+            .withChild(Builders.orderedLeafSetBuilder().withNodeIdentifier(
+                new NodeIdentifier(QName.create(TOP, "ordered-leaf-list"))).withChildValue(2).withChildValue(1)
+                .build())
+            .withChild(Builders.mapBuilder().withNodeIdentifier(new NodeIdentifier(LIST))
+                .withChild(Builders.mapEntryBuilder().withNodeIdentifier(new NodeIdentifierWithPredicates(LIST,
+                    ImmutableMap.<QName, Object>of(ID, 1, NAME, "one")))
+                    .withChild(ImmutableNodes.leafNode(ID, 1))
+                    .withChild(ImmutableNodes.leafNode(NAME, "one"))
+                    .withChild(Builders.augmentationBuilder().withNodeIdentifier(
+                        new AugmentationIdentifier(ImmutableSet.of(AUGMENTED)))
+                        .withChild(ImmutableNodes.leafNode(AUGMENTED, "augmented")).build())
+                    .build())
+                .withChild(ImmutableNodes.mapEntry(LIST, ID, 2))
+                .build())
+            .withChild(Builders.orderedMapBuilder().withNodeIdentifier(
+                new NodeIdentifier(QName.create(TOP, "ordered-list")))
+                .withChild(ImmutableNodes.mapEntry(QName.create(TOP, "ordered-list"), ID, 5))
+                .build())
+            .withChild(Builders.unkeyedListBuilder().withNodeIdentifier(new NodeIdentifier(UNKEYED))
+                .withChild(Builders.unkeyedListEntryBuilder().withNodeIdentifier(new NodeIdentifier(UNKEYED))
+                    .withChild(ImmutableNodes.leafNode(LEAF, "first")).build())
+                .withChild(Builders.unkeyedListEntryBuilder().withNodeIdentifier(new NodeIdentifier(UNKEYED))
+                    .withChild(ImmutableNodes.leafNode(LEAF, "second")).build())
+                .build())
+            .withChild(Builders.choiceBuilder().withNodeIdentifier(new NodeIdentifier(CHOICE))
+                .withChild(ImmutableNodes.leafNode(CASE_LEAF, "case")).build())
+            .withChild(ImmutableNodes.containerNode(QName.create(TOP, "empty-container")))
+            .build();
+    }
+
+    private static NormalizedNode<?, ?> roundTrip(final NormalizedNode<?, ?> node) throws IOException {
+        final ByteArrayDataOutput output = ByteStreams.newDataOutput();
+        BinaryNormalizedNodeStreamWriter.create(output).writeNormalizedNode(node);
+        return parser(output.toByteArray()).readNormalizedNode();
+    }
+
+    private static BinaryNormalizedNodeParser parser(final byte[] bytes) {
+        return BinaryNormalizedNodeParser.create(new DataInputStream(new ByteArrayInputStream(bytes)));
+    }
+
+    @Test
+    public void testRoundTrip() throws IOException {
+        final ContainerNode container = createTestContainer();
+        assertEquals(container, roundTrip(container));
+    }
+
+    @Test
+    public void testTopLevelNodes() throws IOException {
+        final NormalizedNode<?, ?> leaf = ImmutableNodes.leafNode(LEAF, "value");
+        assertEquals(leaf, roundTrip(leaf));
+
+        final NormalizedNode<?, ?> entry = ImmutableNodes.mapEntry(LIST, ID, 1);
+        assertEquals(entry, roundTrip(entry));
+    }
+
+    @Test
+    public void testSharedDictionary() throws IOException {
+        final ContainerNode container = createTestContainer();
+        final ByteArrayDataOutput output = ByteStreams.newDataOutput();
+        final BinaryNormalizedNodeStreamWriter writer = BinaryNormalizedNodeStreamWriter.create(output);
+
+        writer.writeNormalizedNode(container);
+        final int first = output.toByteArray().length;
+        writer.writeYangInstanceIdentifier(IDENTIFIER);
+        writer.writeNormalizedNode(container);
+        final int second = output.toByteArray().length - first;
+
+        // Second copy refers to the dictionary populated by the first one
+        assertTrue("First " + first + " second " + second, second < first);
+
+        final BinaryNormalizedNodeParser parser = parser(output.toByteArray());
+        assertEquals(container, parser.readNormalizedNode());
+        assertEquals(IDENTIFIER, parser.readYangInstanceIdentifier());
+        assertEquals(container, parser.readNormalizedNode());
+    }
+
+    @Test
+    public void testBinaryAndAnyxml() throws Exception {
+        final Document doc = DocumentBuilderFactory.newInstance().newDocumentBuilder().parse(
+            new InputSource(new StringReader("<foo xmlns=\"urn:foo\"><bar>baz</bar></foo>")));
+        final ByteArrayDataOutput output = ByteStreams.newDataOutput();
+        final BinaryNormalizedNodeStreamWriter writer = BinaryNormalizedNodeStreamWriter.create(output);
+        writer.startContainerNode(new NodeIdentifier(TOP), 2);
+        writer.leafNode(new NodeIdentifier(LEAF), new byte[] { 1, 2, 3 });
+        writer.anyxmlNode(new NodeIdentifier(QName.create(TOP, "anyxml")), new DOMSource(doc.getDocumentElement()));
+        writer.endNode();
+
+        final List<Object> values = new ArrayList<>();
+        final List<Integer> hints = new ArrayList<>();
+        final NormalizedNodeResult result = new NormalizedNodeResult();
+        final NormalizedNodeStreamWriter delegate = ImmutableNormalizedNodeStreamWriter.from(result);
+        parser(output.toByteArray()).parse(new ForwardingNormalizedNodeStreamWriter() {
+            @Override
+            protected NormalizedNodeStreamWriter delegate() {
+                return delegate;
+            }
+
+            @Override
+            public void startContainerNode(final NodeIdentifier name, final int childSizeHint) throws IOException {
+                hints.add(childSizeHint);
+                super.startContainerNode(name, childSizeHint);
+            }
+
+            @Override
+            public void leafNode(final NodeIdentifier name, final Object value) throws IOException {
+                values.add(value);
+                super.leafNode(name, value);
+            }
+
+            @Override
+            public void anyxmlNode(final NodeIdentifier name, final Object value) throws IOException {
+                values.add(value);
+                super.anyxmlNode(name, value);
+            }
+        });
+
+        assertEquals(ImmutableSet.of(2), ImmutableSet.copyOf(hints));
+        assertEquals(2, values.size());
+        assertArrayEquals(new byte[] { 1, 2, 3 }, (byte[]) values.get(0));
+        final org.w3c.dom.Node anyxml = ((DOMSource) values.get(1)).getNode();
+        assertEquals("urn:foo", anyxml.getNamespaceURI());
+        assertEquals("foo", anyxml.getLocalName());
+        assertEquals("baz", anyxml.getTextContent());
+    }
+
+    @Test(expected = IOException.class)
+    public void testAnyxmlDoctype() throws Exception {
+        final String doctype = "<!DOCTYPE foo [<!ENTITY x SYSTEM \"file:///etc/passwd\">]><foo xmlns=\"urn:foo\">&x;</foo>";
+
+        // Serialize a harmless document of the same length and swap the doctype in its place
+        final String prefix = "<foo xmlns=\"urn:foo\">";
+        final String suffix = "</foo>";
+        final String text = Strings.repeat("a", doctype.length() - prefix.length() - suffix.length());
+        final Document doc = DocumentBuilderFactory.newInstance().newDocumentBuilder().parse(
+            new InputSource(new StringReader(prefix + text + suffix)));
+        final ByteArrayDataOutput output = ByteStreams.newDataOutput();
+        BinaryNormalizedNodeStreamWriter.create(output).anyxmlNode(new NodeIdentifier(QName.create(TOP, "anyxml")),
+            new DOMSource(doc.getDocumentElement()));
+
+        final byte[] bytes = output.toByteArray();
+        final byte[] harmless = (prefix + text + suffix).getBytes(StandardCharsets.US_ASCII);
+        final int offset = Bytes.indexOf(bytes, harmless);
+        assertTrue(offset > 0);
+        System.arraycopy(doctype.getBytes(StandardCharsets.US_ASCII), 0, bytes, offset, harmless.length);
+
+        parser(bytes).readNormalizedNode();
+    }
+
+    @Test(expected = IOException.class)
+    public void testInvalidHeader() throws IOException {
+        parser(new byte[] { 0, 0, 1 }).readNormalizedNode();
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testUnsupportedValue() throws IOException {
+        BinaryNormalizedNodeStreamWriter.create(ByteStreams.newDataOutput()).leafNode(new NodeIdentifier(LEAF),
+            new Object());
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testUnbalancedEnd() throws IOException {
+        BinaryNormalizedNodeStreamWriter.create(ByteStreams.newDataOutput()).endNode();
+    }
+}
@@ -0,0 +1,161 @@
+/*
+ * Copyright (c) 2016 Cisco Systems, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.yangtools.yang.data.codec.binfmt;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertTrue;
+import static org.opendaylight.yangtools.yang.data.codec.binfmt.BinaryNormalizedNodeStreamTest.CASE_LEAF;
+import static org.opendaylight.yangtools.yang.data.codec.binfmt.BinaryNormalizedNodeStreamTest.CHOICE;
+import static org.opendaylight.yangtools.yang.data.codec.binfmt.BinaryNormalizedNodeStreamTest.ID;
+import static org.opendaylight.yangtools.yang.data.codec.binfmt.BinaryNormalizedNodeStreamTest.LIST;
+import static org.opendaylight.yangtools.yang.data.codec.binfmt.BinaryNormalizedNodeStreamTest.TOP;
+import static org.opendaylight.yangtools.yang.data.codec.binfmt.BinaryNormalizedNodeStreamTest.UNKEYED;
+import static org.opendaylight.yangtools.yang.data.codec.binfmt.BinaryNormalizedNodeStreamTest.createTestContainer;
+
+import com.google.common.io.ByteArrayDataOutput;
+import com.google.common.io.ByteStreams;
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.util.Arrays;
+import org.junit.Before;
+import org.junit.Test;
+import org.opendaylight.yangtools.yang.common.QName;
+import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier.NodeIdentifier;
+import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier.NodeIdentifierWithPredicates;
+import org.opendaylight.yangtools.yang.data.api.schema.ChoiceNode;
+import org.opendaylight.yangtools.yang.data.api.schema.ContainerNode;
+import org.opendaylight.yangtools.yang.data.api.schema.MapEntryNode;
+import org.opendaylight.yangtools.yang.data.api.schema.MapNode;
+import org.opendaylight.yangtools.yang.data.api.schema.NormalizedNode;
+import org.opendaylight.yangtools.yang.data.api.schema.OrderedMapNode;
+import org.opendaylight.yangtools.yang.data.api.schema.UnkeyedListNode;
+import org.opendaylight.yangtools.yang.data.api.schema.stream.NormalizedNodeWriter;
+import org.opendaylight.yangtools.yang.data.impl.schema.Builders;
+import org.opendaylight.yangtools.yang.data.impl.schema.ImmutableNodes;
+import org.opendaylight.yangtools.yang.data.impl.schema.ImmutableNormalizedNodeStreamWriter;
+import org.opendaylight.yangtools.yang.data.impl.schema.NormalizedNodeResult;
+
+public class LazyNormalizedNodeTest {
+    private ContainerNode container;
+    private byte[] bytes;
+
+    @Before
+    public void setUp() throws IOException {
+        container = createTestContainer();
+        bytes = write(container);
+    }
+
+    private static byte[] write(final NormalizedNode<?, ?> node) throws IOException {
+        final ByteArrayDataOutput output = ByteStreams.newDataOutput();
+        BinaryNormalizedNodeStreamWriter.create(output).writeNormalizedNode(node);
+        return output.toByteArray();
+    }
+
+    private static NormalizedNode<?, ?> read(final byte[] bytes) throws IOException {
+        return BinaryNormalizedNodeParser.create(new DataInputStream(new ByteArrayInputStream(bytes)))
+                .readNormalizedNode();
+    }
+
+    private static NormalizedNode<?, ?> materialize(final NormalizedNode<?, ?> node) throws IOException {
+        final NormalizedNodeResult result = new NormalizedNodeResult();
+        NormalizedNodeWriter.forStreamWriter(ImmutableNormalizedNodeStreamWriter.from(result)).write(node);
+        return result.getResult();
+    }
+
+    @Test
+    public void testLazyAccess() throws IOException {
+        final NormalizedNode<?, ?> node = BinaryNormalizedNodeParser.readLazyNormalizedNode(bytes);
+        assertTrue(node instanceof ContainerNode);
+        assertEquals(container.getIdentifier(), node.getIdentifier());
+
+        final AbstractLazyNode<?, ?> lazy = (AbstractLazyNode<?, ?>) node;
+        assertFalse(lazy.isMaterialized());
+
+        final ContainerNode lazyContainer = (ContainerNode) node;
+        assertEquals("string é中", lazyContainer.getChild(new NodeIdentifier(QName.create(TOP, "string")))
+            .get().getValue());
+        assertTrue(lazy.isMaterialized());
+
+        final MapNode map = (MapNode) lazyContainer.getChild(new NodeIdentifier(LIST)).get();
+        assertFalse(((AbstractLazyNode<?, ?>) (Object) map).isMaterialized());
+        final MapEntryNode entry = map.getChild(new NodeIdentifierWithPredicates(LIST, ID, 2)).get();
+        assertEquals(ImmutableNodes.mapEntry(LIST, ID, 2), materialize(entry));
+
+        final OrderedMapNode orderedMap = (OrderedMapNode) lazyContainer.getChild(
+            new NodeIdentifier(QName.create(TOP, "ordered-list"))).get();
+        assertEquals(1, orderedMap.getSize());
+        assertEquals(new NodeIdentifierWithPredicates(QName.create(TOP, "ordered-list"), ID, 5),
+            orderedMap.getChild(0).getIdentifier());
+
+        final UnkeyedListNode unkeyed = (UnkeyedListNode) lazyContainer.getChild(new NodeIdentifier(UNKEYED)).get();
+        assertEquals(2, unkeyed.getSize());
+
+        final ChoiceNode choice = (ChoiceNode) lazyContainer.getChild(new NodeIdentifier(CHOICE)).get();
+        assertEquals(ImmutableNodes.leafNode(CASE_LEAF, "case"), choice.getChild(new NodeIdentifier(CASE_LEAF))
+            .get());
+    }
+
+    @Test
+    public void testMaterialize() throws IOException {
+        final NormalizedNode<?, ?> node = BinaryNormalizedNodeParser.readLazyNormalizedNode(bytes);
+        assertEquals(container, materialize(node));
+
+        // Lazy nodes are equal to each other, but not to immutable nodes
+        assertEquals(node, BinaryNormalizedNodeParser.readLazyNormalizedNode(bytes));
+        assertEquals(node.hashCode(), BinaryNormalizedNodeParser.readLazyNormalizedNode(bytes).hashCode());
+        assertNotEquals(container, node);
+    }
+
+    @Test
+    public void testCopyUntouched() throws IOException {
+        final NormalizedNode<?, ?> node = BinaryNormalizedNodeParser.readLazyNormalizedNode(bytes);
+        assertArrayEquals(bytes, write(node));
+        assertFalse(((AbstractLazyNode<?, ?>) node).isMaterialized());
+
+        // Subsequent writes continue to use the dictionary established by the copy
+        final ByteArrayDataOutput output = ByteStreams.newDataOutput();
+        final BinaryNormalizedNodeStreamWriter writer = BinaryNormalizedNodeStreamWriter.create(output);
+        writer.writeNormalizedNode(node);
+        writer.writeNormalizedNode(container);
+        final byte[] twice = output.toByteArray();
+        assertTrue(twice.length < 2 * bytes.length);
+
+        final BinaryNormalizedNodeParser parser = BinaryNormalizedNodeParser.create(
+            new DataInputStream(new ByteArrayInputStream(twice)));
+        assertEquals(container, parser.readNormalizedNode());
+        assertEquals(container, parser.readNormalizedNode());
+    }
+
+    @Test
+    public void testWriteNested() throws IOException {
+        final ContainerNode node = (ContainerNode) BinaryNormalizedNodeParser.readLazyNormalizedNode(bytes);
+        final NormalizedNode<?, ?> map = node.getChild(new NodeIdentifier(LIST)).get();
+        final NormalizedNode<?, ?> expectedMap = container.getChild(new NodeIdentifier(LIST)).get();
+
+        // Nested node cannot be copied, as its QNames are defined before it
+        assertEquals(expectedMap, read(write(map)));
+        assertFalse(((AbstractLazyNode<?, ?>) (Object) map).isMaterialized());
+
+        // Lazy node nested in an immutable node
+        final ContainerNode modified = Builders.containerBuilder().withNodeIdentifier(new NodeIdentifier(TOP))
+                .withChild((MapNode) map).withChild(ImmutableNodes.leafNode(QName.create(TOP, "new"), "new")).build();
+        final ContainerNode expected = Builders.containerBuilder().withNodeIdentifier(new NodeIdentifier(TOP))
+                .withChild((MapNode) expectedMap).withChild(ImmutableNodes.leafNode(QName.create(TOP, "new"), "new"))
+                .build();
+        assertEquals(expected, read(write(modified)));
+    }
+
+    @Test(expected = IOException.class)
+    public void testTruncated() throws IOException {
+        BinaryNormalizedNodeParser.readLazyNormalizedNode(Arrays.copyOf(bytes, bytes.length - 1));
+    }
+}
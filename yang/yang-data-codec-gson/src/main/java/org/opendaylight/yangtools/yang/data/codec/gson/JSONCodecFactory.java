@@ -9,30 +9,28 @@ package org.opendaylight.yangtools.yang.data.codec.gson;
 
 import com.google.common.annotations.Beta;
 import com.google.common.base.Preconditions;
-import com.google.common.base.Verify;
 import com.google.common.cache.CacheBuilder;
 import com.google.common.cache.CacheLoader;
+import com.google.common.cache.CacheStats;
 import com.google.common.cache.LoadingCache;
 import com.google.gson.stream.JsonWriter;
 import java.io.IOException;
+import org.opendaylight.yangtools.yang.data.impl.codec.SchemaContextCodecRegistry;
 import org.opendaylight.yangtools.yang.data.impl.codec.TypeDefinitionAwareCodec;
 import org.opendaylight.yangtools.yang.model.api.DataSchemaNode;
-import org.opendaylight.yangtools.yang.model.api.LeafListSchemaNode;
-import org.opendaylight.yangtools.yang.model.api.LeafSchemaNode;
 import org.opendaylight.yangtools.yang.model.api.SchemaContext;
 import org.opendaylight.yangtools.yang.model.api.TypeDefinition;
 import org.opendaylight.yangtools.yang.model.api.type.EmptyTypeDefinition;
 import org.opendaylight.yangtools.yang.model.api.type.IdentityrefTypeDefinition;
 import org.opendaylight.yangtools.yang.model.api.type.InstanceIdentifierTypeDefinition;
-import org.opendaylight.yangtools.yang.model.api.type.LeafrefTypeDefinition;
-import org.opendaylight.yangtools.yang.model.util.DerivedType;
-import org.opendaylight.yangtools.yang.model.util.SchemaContextUtil;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 /**
  * Factory for creating JSON equivalents of codecs. Each instance of this object is bound to
  * a particular {@link SchemaContext}, but can be reused by multiple {@link JSONNormalizedNodeStreamWriter}s.
+ * Format-independent codecs are shared with all other factories bound to the same context through
+ * {@link SchemaContextCodecRegistry}.
  */
 @Beta
 public final class JSONCodecFactory {
@@ -62,30 +60,44 @@ public final class JSONCodecFactory {
 
     private final LoadingCache<DataSchemaNode, JSONCodec<Object>> codecs =
             CacheBuilder.newBuilder().softValues().build(new CacheLoader<DataSchemaNode, JSONCodec<Object>>() {
+        @SuppressWarnings("unchecked")
         @Override
         public JSONCodec<Object> load(final DataSchemaNode key) throws Exception {
-            final TypeDefinition<?> type;
-            if (key instanceof LeafSchemaNode) {
-                type = ((LeafSchemaNode) key).getType();
-            } else if (key instanceof LeafListSchemaNode) {
-                type = ((LeafListSchemaNode) key).getType();
-            } else {
-                throw new IllegalArgumentException("Not supported node type " + key.getClass().getName());
+            final TypeDefinition<?> type = registry.getEffectiveType(key);
+            if (type instanceof IdentityrefTypeDefinition) {
+                final JSONCodec<?> jsonStringIdentityrefCodec =
+                        new JSONStringIdentityrefCodec(schemaContext, key.getQName().getModule());
+                return (JSONCodec<Object>) jsonStringIdentityrefCodec;
             }
-            return createCodec(key,type);
+            return simpleCodecs.getUnchecked(type);
+        }
+    });
+
+    /*
+     * Codecs for types which do not depend on the schema node using them, shared by all such nodes. They wrap codecs
+     * from the registry, which are shared by all factories.
+     */
+    private final LoadingCache<TypeDefinition<?>, JSONCodec<Object>> simpleCodecs =
+            CacheBuilder.newBuilder().weakKeys().build(new CacheLoader<TypeDefinition<?>, JSONCodec<Object>>() {
+        @Override
+        public JSONCodec<Object> load(final TypeDefinition<?> key) {
+            return createFromSimpleType(key);
         }
     });
 
     private final SchemaContext schemaContext;
-    private final JSONCodec<?> iidCodec;
+    private final SchemaContextCodecRegistry registry;
+    private final JSONStringInstanceIdentifierCodec iidCodec;
 
     private JSONCodecFactory(final SchemaContext context) {
         this.schemaContext = Preconditions.checkNotNull(context);
+        this.registry = SchemaContextCodecRegistry.install(context);
         iidCodec = new JSONStringInstanceIdentifierCodec(context, this);
     }
 
     /**
-     * Instantiate a new codec factory attached to a particular context.
+     * Instantiate a new codec factory attached to a particular context. The first factory created for a context warms
+     * up the codecs shared by all factories bound to it, see {@link SchemaContextCodecRegistry#install(SchemaContext)}.
      *
      * @param context SchemaContext to which the factory should be bound
      * @return A codec factory instance.
@@ -94,46 +106,42 @@ public final class JSONCodecFactory {
         return new JSONCodecFactory(context);
     }
 
-    @SuppressWarnings("unchecked")
-    private JSONCodec<Object> createCodec(final DataSchemaNode key, final TypeDefinition<?> type) {
-        final TypeDefinition<?> normalizedType = DerivedType.from(type);
-        if (normalizedType instanceof LeafrefTypeDefinition) {
-            return createReferencedTypeCodec(key, (LeafrefTypeDefinition) normalizedType);
-        } else if (normalizedType instanceof IdentityrefTypeDefinition) {
-            final JSONCodec<?> jsonStringIdentityrefCodec =
-                    new JSONStringIdentityrefCodec(schemaContext, key.getQName().getModule());
-            return (JSONCodec<Object>) jsonStringIdentityrefCodec;
-        }
-        return createFromSimpleType(normalizedType);
-    }
-
-    private JSONCodec<Object> createReferencedTypeCodec(final DataSchemaNode schema,
-            final LeafrefTypeDefinition type) {
-        // FIXME: Verify if this does indeed support leafref of leafref
-        final TypeDefinition<?> referencedType =
-                SchemaContextUtil.getBaseTypeForLeafRef(type, getSchemaContext(), schema);
-        Verify.verifyNotNull(referencedType, "Unable to find base type for leafref node '%s'.", schema.getPath());
-        return createCodec(schema, referencedType);
-    }
-
     @SuppressWarnings("unchecked")
     private JSONCodec<Object> createFromSimpleType(final TypeDefinition<?> type) {
         if (type instanceof InstanceIdentifierTypeDefinition) {
-            return (JSONCodec<Object>) iidCodec;
+            return (JSONCodec<Object>) (JSONCodec<?>) iidCodec;
         }
         if (type instanceof EmptyTypeDefinition) {
             return JSONEmptyCodec.INSTANCE;
         }
 
-        final TypeDefinitionAwareCodec<Object, ?> codec = TypeDefinitionAwareCodec.from(type);
+        final TypeDefinitionAwareCodec<Object, ?> codec = registry.getCodec(type);
         if (codec == null) {
-            LOG.debug("Codec for type \"{}\" is not implemented yet.", type.getQName()
-                    .getLocalName());
             return NULL_CODEC;
         }
         return (JSONCodec<Object>) AbstractJSONCodec.create(codec);
     }
 
+    /**
+     * Return statistics of instance-identifier serialization cache.
+     *
+     * @return Cache statistics, or null if the cache is disabled
+     */
+    @Beta
+    public CacheStats getInstanceIdentifierSerializationStats() {
+        return iidCodec.getSerializationCacheStats();
+    }
+
+    /**
+     * Return statistics of instance-identifier deserialization cache.
+     *
+     * @return Cache statistics, or null if the cache is disabled
+     */
+    @Beta
+    public CacheStats getInstanceIdentifierDeserializationStats() {
+        return iidCodec.getDeserializationCacheStats();
+    }
+
     SchemaContext getSchemaContext() {
         return schemaContext;
     }
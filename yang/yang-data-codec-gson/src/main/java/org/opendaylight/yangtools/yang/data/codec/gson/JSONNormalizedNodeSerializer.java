@@ -0,0 +1,485 @@
+/*
+ * Copyright (c) 2016 Cisco Systems, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.yangtools.yang.data.codec.gson;
+
+import com.google.common.annotations.Beta;
+import com.google.common.base.Optional;
+import com.google.common.base.Preconditions;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.Iterables;
+import com.google.gson.stream.JsonWriter;
+import java.io.IOException;
+import java.net.URI;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import org.opendaylight.yangtools.yang.common.QName;
+import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier.AugmentationIdentifier;
+import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier.NodeIdentifier;
+import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier.PathArgument;
+import org.opendaylight.yangtools.yang.data.api.schema.AnyXmlNode;
+import org.opendaylight.yangtools.yang.data.api.schema.AugmentationNode;
+import org.opendaylight.yangtools.yang.data.api.schema.ChoiceNode;
+import org.opendaylight.yangtools.yang.data.api.schema.ContainerNode;
+import org.opendaylight.yangtools.yang.data.api.schema.DataContainerChild;
+import org.opendaylight.yangtools.yang.data.api.schema.DataContainerNode;
+import org.opendaylight.yangtools.yang.data.api.schema.LeafNode;
+import org.opendaylight.yangtools.yang.data.api.schema.LeafSetEntryNode;
+import org.opendaylight.yangtools.yang.data.api.schema.LeafSetNode;
+import org.opendaylight.yangtools.yang.data.api.schema.MapEntryNode;
+import org.opendaylight.yangtools.yang.data.api.schema.MapNode;
+import org.opendaylight.yangtools.yang.data.api.schema.NormalizedNode;
+import org.opendaylight.yangtools.yang.data.api.schema.UnkeyedListEntryNode;
+import org.opendaylight.yangtools.yang.data.api.schema.UnkeyedListNode;
+import org.opendaylight.yangtools.yang.data.api.schema.YangModeledAnyXmlNode;
+import org.opendaylight.yangtools.yang.data.impl.schema.SchemaUtils;
+import org.opendaylight.yangtools.yang.model.api.AnyXmlSchemaNode;
+import org.opendaylight.yangtools.yang.model.api.AugmentationSchema;
+import org.opendaylight.yangtools.yang.model.api.AugmentationTarget;
+import org.opendaylight.yangtools.yang.model.api.ChoiceCaseNode;
+import org.opendaylight.yangtools.yang.model.api.ChoiceSchemaNode;
+import org.opendaylight.yangtools.yang.model.api.ContainerSchemaNode;
+import org.opendaylight.yangtools.yang.model.api.DataNodeContainer;
+import org.opendaylight.yangtools.yang.model.api.DataSchemaNode;
+import org.opendaylight.yangtools.yang.model.api.GroupingDefinition;
+import org.opendaylight.yangtools.yang.model.api.LeafListSchemaNode;
+import org.opendaylight.yangtools.yang.model.api.LeafSchemaNode;
+import org.opendaylight.yangtools.yang.model.api.ListSchemaNode;
+import org.opendaylight.yangtools.yang.model.api.Module;
+import org.opendaylight.yangtools.yang.model.api.NotificationDefinition;
+import org.opendaylight.yangtools.yang.model.api.SchemaContext;
+import org.opendaylight.yangtools.yang.model.api.SchemaNode;
+import org.opendaylight.yangtools.yang.model.api.SchemaPath;
+import org.opendaylight.yangtools.yang.model.api.YangModeledAnyXmlSchemaNode;
+import org.opendaylight.yangtools.yang.model.util.EffectiveAugmentationSchema;
+
+/**
+ * Schema-compiled serializer of {@link NormalizedNode} trees into JSON. It produces the same output as
+ * {@link JSONNormalizedNodeStreamWriter} driven by a {@link
+ * org.opendaylight.yangtools.yang.data.api.schema.stream.NormalizedNodeWriter}, but instead of tracking schema and
+ * looking up codecs for each event, it walks the data tree directly using per-schema-node writers. These are compiled
+ * on first encounter and hold the JSON member name, including any module prefix, and the codec bound to the node.
+ * When writing into a JsonWriter created by {@link JsonWriterFactory#createJsonWriter(java.io.OutputStream)}, member
+ * names are emitted in their pre-encoded UTF-8 form.
+ *
+ * <p>
+ * Compiled writers are retained by the serializer, hence instances should be reused for all trees with the same
+ * schema root. Instances are thread-safe.
+ */
+@Beta
+public final class JSONNormalizedNodeSerializer {
+    private final JSONCodecFactory codecs;
+    private final ParentWriter root;
+    private final ObjectWriter rootItem;
+
+    private JSONNormalizedNodeSerializer(final JSONCodecFactory codecs, final DataNodeContainer schema,
+            final URI initialNs) {
+        this.codecs = codecs;
+        this.root = new ParentWriter(this, schema, initialNs);
+        this.rootItem = schema instanceof ListSchemaNode ? newItemWriter((ListSchemaNode) schema) : null;
+    }
+
+    /**
+     * Create a new serializer for data rooted at specified schema path.
+     *
+     * @param codecFactory JSON codec factory
+     * @param path Schema Path
+     * @param initialNs Initial namespace
+     * @return A serializer instance
+     */
+    public static JSONNormalizedNodeSerializer create(final JSONCodecFactory codecFactory, final SchemaPath path,
+            final URI initialNs) {
+        final SchemaNode schema = SchemaUtils.findParentSchemaOnPath(codecFactory.getSchemaContext(), path);
+        Preconditions.checkArgument(schema instanceof DataNodeContainer,
+            "Schema path must point to container or list or an rpc input/output. Supplied path %s pointed to: %s",
+            path, schema);
+        return new JSONNormalizedNodeSerializer(codecFactory, (DataNodeContainer) schema, initialNs);
+    }
+
+    /**
+     * Write a node as the only member of a new JSON object, just as a writer created by
+     * {@link JSONNormalizedNodeStreamWriter#createExclusiveWriter(JSONCodecFactory, SchemaPath, URI, JsonWriter)}.
+     *
+     * @param writer JsonWriter
+     * @param node Node to write
+     * @throws IOException when the writer reports it
+     */
+    public void writeExclusive(final JsonWriter writer, final NormalizedNode<?, ?> node) throws IOException {
+        writer.beginObject();
+        writeNested(writer, node);
+        writer.endObject();
+    }
+
+    /**
+     * Write a node into the JSON object currently open in the writer, just as a writer created by
+     * {@link JSONNormalizedNodeStreamWriter#createNestedWriter(JSONCodecFactory, SchemaPath, URI, JsonWriter)}.
+     *
+     * @param writer JsonWriter
+     * @param node Node to write
+     * @throws IOException when the writer reports it
+     */
+    public void writeNested(final JsonWriter writer, final NormalizedNode<?, ?> node) throws IOException {
+        if (rootItem != null && (node instanceof MapEntryNode || node instanceof UnkeyedListEntryNode)) {
+            rootItem.write(writer, node);
+        } else {
+            root.childWriter(node.getIdentifier()).write(writer, node);
+        }
+    }
+
+    private SchemaContext schemaContext() {
+        return codecs.getSchemaContext();
+    }
+
+    private MemberName memberName(final URI namespace, final QName qname) {
+        final URI ns = qname.getNamespace();
+        if (ns.equals(namespace)) {
+            return new MemberName(qname.getLocalName());
+        }
+
+        final Module module = schemaContext().findModuleByNamespaceAndRevision(ns, null);
+        Preconditions.checkArgument(module != null, "Could not find module for namespace %s", ns);
+        return new MemberName(module.getName() + ':' + qname.getLocalName());
+    }
+
+    private ObjectWriter newItemWriter(final ListSchemaNode schema) {
+        final List<QName> keys = schema.getKeyDefinition();
+        if (keys.isEmpty()) {
+            return new ObjectWriter(this, schema, schema.getQName().getNamespace());
+        }
+        return new KeyedObjectWriter(this, schema, keys);
+    }
+
+    /**
+     * Compile the writer of a child node.
+     *
+     * @param parent Parent schema, either a {@link DataNodeContainer} or a {@link ChoiceSchemaNode}
+     * @param namespace Namespace of the enclosing JSON object
+     * @param arg Child identifier
+     * @return A node writer
+     */
+    private NodeWriter compileChild(final Object parent, final URI namespace, final PathArgument arg) {
+        if (arg instanceof AugmentationIdentifier) {
+            return new ParentWriter(this, resolveAugmentation(parent, (AugmentationIdentifier) arg), namespace);
+        }
+
+        final QName qname = arg.getNodeType();
+        final SchemaNode schema = findChild(parent, qname);
+        if (schema instanceof ChoiceSchemaNode) {
+            return new ParentWriter(this, schema, namespace);
+        }
+
+        final MemberName name = memberName(namespace, qname);
+        if (schema instanceof ContainerSchemaNode || schema instanceof NotificationDefinition) {
+            return new NamedObjectWriter(this, (DataNodeContainer) schema, qname.getNamespace(), name);
+        } else if (schema instanceof ListSchemaNode) {
+            return new ListWriter(name, newItemWriter((ListSchemaNode) schema));
+        } else if (schema instanceof LeafSchemaNode) {
+            return new LeafWriter(name, codecs.codecFor((LeafSchemaNode) schema));
+        } else if (schema instanceof LeafListSchemaNode) {
+            return new LeafSetWriter(name, codecs.codecFor((LeafListSchemaNode) schema));
+        } else if (schema instanceof YangModeledAnyXmlSchemaNode) {
+            return new NamedObjectWriter(this, ((YangModeledAnyXmlSchemaNode) schema).getSchemaOfAnyXmlData(),
+                qname.getNamespace(), name);
+        } else if (schema instanceof AnyXmlSchemaNode) {
+            return new AnyXmlWriter(name);
+        }
+
+        throw new IllegalArgumentException("Unsupported schema node " + schema);
+    }
+
+    private static SchemaNode findChild(final Object parent, final QName qname) {
+        SchemaNode schema = null;
+        if (parent instanceof DataNodeContainer) {
+            schema = ((DataNodeContainer) parent).getDataChildByName(qname);
+            if (schema == null && (parent instanceof GroupingDefinition || parent instanceof NotificationDefinition)) {
+                schema = (SchemaNode) parent;
+            }
+        } else if (parent instanceof ChoiceSchemaNode) {
+            for (final ChoiceCaseNode caze : ((ChoiceSchemaNode) parent).getCases()) {
+                schema = caze.getDataChildByName(qname);
+                if (schema != null) {
+                    break;
+                }
+            }
+        }
+
+        Preconditions.checkArgument(schema != null, "Could not find schema for node %s in %s", qname, parent);
+        return schema;
+    }
+
+    private static AugmentationSchema resolveAugmentation(final Object parent, final AugmentationIdentifier id) {
+        Preconditions.checkArgument(parent instanceof AugmentationTarget, "Augmentation not allowed under %s",
+            parent);
+        Object target = parent;
+        if (target instanceof ChoiceSchemaNode) {
+            final QName name = Iterables.get(id.getPossibleChildNames(), 0);
+            target = null;
+            for (final ChoiceCaseNode caze : ((ChoiceSchemaNode) parent).getCases()) {
+                if (caze.getDataChildByName(name) != null) {
+                    target = caze;
+                    break;
+                }
+            }
+        }
+        Preconditions.checkArgument(target instanceof DataNodeContainer,
+            "Augmentation allowed only in DataNodeContainer, not %s", target);
+
+        final AugmentationSchema schema = SchemaUtils.findSchemaForAugment((AugmentationTarget) target,
+            id.getPossibleChildNames());
+        final Set<DataSchemaNode> realChildSchemas = new HashSet<>();
+        for (final DataSchemaNode child : schema.getChildNodes()) {
+            realChildSchemas.add(((DataNodeContainer) target).getDataChildByName(child.getQName()));
+        }
+        return new EffectiveAugmentationSchema(schema, realChildSchemas);
+    }
+
+    /**
+     * JSON member name, along with its UTF-8 encoding used with {@link UTF8JsonWriter}.
+     */
+    private static final class MemberName {
+        private final String name;
+        private final byte[] encoded;
+
+        MemberName(final String name) {
+            this.name = name;
+            this.encoded = UTF8JsonWriter.encodeName(name);
+        }
+
+        void write(final JsonWriter writer) throws IOException {
+            if (writer instanceof UTF8JsonWriter) {
+                ((UTF8JsonWriter) writer).name(encoded);
+            } else {
+                writer.name(name);
+            }
+        }
+    }
+
+    private abstract static class NodeWriter {
+        abstract void write(JsonWriter writer, NormalizedNode<?, ?> node) throws IOException;
+    }
+
+    /**
+     * Writer of nodes which do not have a JSON representation of their own, such as choices and augmentations, and
+     * base class for all nodes with children. Child writers are compiled on first encounter.
+     */
+    private static class ParentWriter extends NodeWriter {
+        private final ConcurrentMap<PathArgument, NodeWriter> children = new ConcurrentHashMap<>();
+        private final JSONNormalizedNodeSerializer serializer;
+        private final Object schema;
+        private final URI namespace;
+
+        ParentWriter(final JSONNormalizedNodeSerializer serializer, final Object schema, final URI namespace) {
+            this.serializer = serializer;
+            this.schema = schema;
+            this.namespace = namespace;
+        }
+
+        final NodeWriter childWriter(final PathArgument arg) {
+            NodeWriter ret = children.get(arg);
+            if (ret == null) {
+                ret = serializer.compileChild(schema, namespace, arg);
+                final NodeWriter existing = children.putIfAbsent(arg, ret);
+                if (existing != null) {
+                    ret = existing;
+                }
+            }
+            return ret;
+        }
+
+        final void writeChildren(final JsonWriter writer, final Iterable<? extends NormalizedNode<?, ?>> children)
+                throws IOException {
+            for (final NormalizedNode<?, ?> child : children) {
+                childWriter(child.getIdentifier()).write(writer, child);
+            }
+        }
+
+        @Override
+        void write(final JsonWriter writer, final NormalizedNode<?, ?> node) throws IOException {
+            Preconditions.checkArgument(node instanceof ChoiceNode || node instanceof AugmentationNode,
+                "Unexpected node %s", node);
+            writeChildren(writer, ((DataContainerNode<?>) node).getValue());
+        }
+    }
+
+    /**
+     * Writer of list entries, which are represented by anonymous JSON objects.
+     */
+    private static class ObjectWriter extends ParentWriter {
+        ObjectWriter(final JSONNormalizedNodeSerializer serializer, final DataNodeContainer schema,
+                final URI namespace) {
+            super(serializer, schema, namespace);
+        }
+
+        @Override
+        void write(final JsonWriter writer, final NormalizedNode<?, ?> node) throws IOException {
+            Preconditions.checkArgument(node instanceof DataContainerNode, "Unexpected node %s", node);
+            writer.beginObject();
+            writeContent(writer, (DataContainerNode<?>) node);
+            writer.endObject();
+        }
+
+        void writeContent(final JsonWriter writer, final DataContainerNode<?> node) throws IOException {
+            writeChildren(writer, node.getValue());
+        }
+    }
+
+    /**
+     * Writer of keyed list entries. Key leaves are written first, just as
+     * {@link org.opendaylight.yangtools.yang.data.api.schema.stream.NormalizedNodeWriter} does by default.
+     */
+    private static final class KeyedObjectWriter extends ObjectWriter {
+        private final List<NodeIdentifier> keys;
+        private final Set<QName> keyNames;
+
+        KeyedObjectWriter(final JSONNormalizedNodeSerializer serializer, final ListSchemaNode schema,
+                final List<QName> keys) {
+            super(serializer, schema, schema.getQName().getNamespace());
+            final ImmutableList.Builder<NodeIdentifier> builder = ImmutableList.builder();
+            for (final QName key : keys) {
+                builder.add(new NodeIdentifier(key));
+            }
+            this.keys = builder.build();
+            this.keyNames = ImmutableSet.copyOf(keys);
+        }
+
+        @Override
+        void writeContent(final JsonWriter writer, final DataContainerNode<?> node) throws IOException {
+            for (final NodeIdentifier key : keys) {
+                final Optional<DataContainerChild<? extends PathArgument, ?>> child = node.getChild(key);
+                if (child.isPresent()) {
+                    childWriter(key).write(writer, child.get());
+                }
+            }
+
+            for (final DataContainerChild<? extends PathArgument, ?> child : node.getValue()) {
+                if (child instanceof AugmentationNode || !keyNames.contains(child.getNodeType())) {
+                    childWriter(child.getIdentifier()).write(writer, child);
+                }
+            }
+        }
+    }
+
+    /**
+     * Writer of containers and yang-modeled anyxmls, which are represented by named JSON objects. These are always
+     * emitted, even if they are empty.
+     */
+    private static final class NamedObjectWriter extends ObjectWriter {
+        private final MemberName name;
+
+        NamedObjectWriter(final JSONNormalizedNodeSerializer serializer, final DataNodeContainer schema,
+                final URI namespace, final MemberName name) {
+            super(serializer, schema, namespace);
+            this.name = name;
+        }
+
+        @Override
+        void write(final JsonWriter writer, final NormalizedNode<?, ?> node) throws IOException {
+            Preconditions.checkArgument(node instanceof ContainerNode || node instanceof YangModeledAnyXmlNode,
+                "Unexpected node %s", node);
+            name.write(writer);
+            super.write(writer, node);
+        }
+    }
+
+    /**
+     * Writer of maps and unkeyed lists, which are represented by named JSON arrays. Empty lists are not emitted.
+     */
+    private static final class ListWriter extends NodeWriter {
+        private final ObjectWriter item;
+        private final MemberName name;
+
+        ListWriter(final MemberName name, final ObjectWriter item) {
+            this.name = name;
+            this.item = item;
+        }
+
+        @Override
+        void write(final JsonWriter writer, final NormalizedNode<?, ?> node) throws IOException {
+            final Iterable<? extends NormalizedNode<?, ?>> entries;
+            if (node instanceof MapNode) {
+                entries = ((MapNode) node).getValue();
+            } else {
+                Preconditions.checkArgument(node instanceof UnkeyedListNode, "Unexpected node %s", node);
+                entries = ((UnkeyedListNode) node).getValue();
+            }
+
+            if (Iterables.isEmpty(entries)) {
+                return;
+            }
+
+            name.write(writer);
+            writer.beginArray();
+            for (final NormalizedNode<?, ?> entry : entries) {
+                item.write(writer, entry);
+            }
+            writer.endArray();
+        }
+    }
+
+    private static final class LeafSetWriter extends NodeWriter {
+        private final JSONCodec<Object> codec;
+        private final MemberName name;
+
+        LeafSetWriter(final MemberName name, final JSONCodec<Object> codec) {
+            this.name = name;
+            this.codec = codec;
+        }
+
+        @Override
+        void write(final JsonWriter writer, final NormalizedNode<?, ?> node) throws IOException {
+            Preconditions.checkArgument(node instanceof LeafSetNode, "Unexpected node %s", node);
+            final Iterable<? extends LeafSetEntryNode<?>> entries = ((LeafSetNode<?>) node).getValue();
+            if (Iterables.isEmpty(entries)) {
+                return;
+            }
+
+            name.write(writer);
+            writer.beginArray();
+            for (final LeafSetEntryNode<?> entry : entries) {
+                codec.serializeToWriter(writer, entry.getValue());
+            }
+            writer.endArray();
+        }
+    }
+
+    private static final class LeafWriter extends NodeWriter {
+        private final JSONCodec<Object> codec;
+        private final MemberName name;
+
+        LeafWriter(final MemberName name, final JSONCodec<Object> codec) {
+            this.name = name;
+            this.codec = codec;
+        }
+
+        @Override
+        void write(final JsonWriter writer, final NormalizedNode<?, ?> node) throws IOException {
+            Preconditions.checkArgument(node instanceof LeafNode, "Unexpected node %s", node);
+            name.write(writer);
+            codec.serializeToWriter(writer, node.getValue());
+        }
+    }
+
+    private static final class AnyXmlWriter extends NodeWriter {
+        private final MemberName name;
+
+        AnyXmlWriter(final MemberName name) {
+            this.name = name;
+        }
+
+        @Override
+        void write(final JsonWriter writer, final NormalizedNode<?, ?> node) throws IOException {
+            Preconditions.checkArgument(node instanceof AnyXmlNode, "Unexpected node %s", node);
+            name.write(writer);
+            // FIXME this kind of serialization is incorrect since the value for AnyXml is now a DOMSource
+            writer.value(String.valueOf(node.getValue()));
+        }
+    }
+}
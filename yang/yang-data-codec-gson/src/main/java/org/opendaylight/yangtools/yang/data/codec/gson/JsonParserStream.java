@@ -37,6 +37,7 @@ import org.opendaylight.yangtools.yang.data.util.ListEntryNodeDataWithSchema;
 import org.opendaylight.yangtools.yang.data.util.ListNodeDataWithSchema;
 import org.opendaylight.yangtools.yang.data.util.ParserStreamUtils;
 import org.opendaylight.yangtools.yang.data.util.RpcAsContainer;
+import org.opendaylight.yangtools.yang.data.util.SchemaQNameInterner;
 import org.opendaylight.yangtools.yang.data.util.SimpleNodeDataWithSchema;
 import org.opendaylight.yangtools.yang.model.api.AnyXmlSchemaNode;
 import org.opendaylight.yangtools.yang.model.api.ChoiceCaseNode;
@@ -60,6 +61,7 @@ public final class JsonParserStream implements Closeable, Flushable {
     private final JSONCodecFactory codecs;
     private final SchemaContext schema;
     private final DataSchemaNode parentNode;
+    private final SchemaQNameInterner interner;
 
     private JsonParserStream(final NormalizedNodeStreamWriter writer, final SchemaContext schemaContext,
             final DataSchemaNode parentNode) {
@@ -67,6 +69,7 @@ public final class JsonParserStream implements Closeable, Flushable {
         this.writer = DataSchemaNodeAwareAdaptor.forWriter(writer);
         this.codecs = JSONCodecFactory.create(schemaContext);
         this.parentNode = parentNode;
+        this.interner = SchemaQNameInterner.forSchemaContext(schemaContext);
     }
 
     public static JsonParserStream create(final NormalizedNodeStreamWriter writer, final SchemaContext schemaContext,
@@ -91,7 +94,8 @@ public final class JsonParserStream implements Closeable, Flushable {
         try {
             reader.peek();
             isEmpty = false;
-            final CompositeNodeDataWithSchema compositeNodeDataWithSchema = new CompositeNodeDataWithSchema(parentNode);
+            final CompositeNodeDataWithSchema compositeNodeDataWithSchema = new CompositeNodeDataWithSchema(parentNode,
+                interner);
             read(reader, compositeNodeDataWithSchema);
             compositeNodeDataWithSchema.write(writer);
 
@@ -168,7 +172,8 @@ public final class JsonParserStream implements Closeable, Flushable {
                 if (parentSchema instanceof YangModeledAnyXmlSchemaNode) {
                     parentSchema = ((YangModeledAnyXmlSchemaNode) parentSchema).getSchemaOfAnyXmlData();
                 }
-                final NamespaceAndName namespaceAndName = resolveNamespace(jsonElementName, parentSchema);
+                final NamespaceAndName namespaceAndName = resolveNamespace(schema, jsonElementName, parentSchema,
+                    getCurrentNamespace());
                 final String localName = namespaceAndName.getName();
                 addNamespace(namespaceAndName.getUri());
                 if (namesakes.contains(jsonElementName)) {
@@ -243,7 +248,17 @@ public final class JsonParserStream implements Closeable, Flushable {
         namespaces.push(namespace);
     }
 
-    private NamespaceAndName resolveNamespace(final String childName, final DataSchemaNode dataSchemaNode) {
+    /**
+     * Resolve the namespace of a JSON member name.
+     *
+     * @param schema Schema context
+     * @param childName JSON member name
+     * @param dataSchemaNode Schema node of the enclosing JSON object
+     * @param currentNamespace Namespace of the enclosing JSON object, null at top level
+     * @return Local name and namespace of the member
+     */
+    static NamespaceAndName resolveNamespace(final SchemaContext schema, final String childName,
+            final DataSchemaNode dataSchemaNode, final URI currentNamespace) {
         final int lastIndexOfColon = childName.lastIndexOf(':');
         String moduleNamePart = null;
         String nodeNamePart = null;
@@ -261,12 +276,12 @@ public final class JsonParserStream implements Closeable, Flushable {
         if (namespace == null) {
             Set<URI> potentialUris = Collections.emptySet();
             potentialUris = resolveAllPotentialNamespaces(nodeNamePart, dataSchemaNode);
-            if (potentialUris.contains(getCurrentNamespace())) {
-                namespace = getCurrentNamespace();
+            if (potentialUris.contains(currentNamespace)) {
+                namespace = currentNamespace;
             } else if (potentialUris.size() == 1) {
                 namespace = potentialUris.iterator().next();
             } else if (potentialUris.size() > 1) {
-                throw new IllegalStateException("Choose suitable module name for element "+nodeNamePart+":"+toModuleNames(potentialUris));
+                throw new IllegalStateException("Choose suitable module name for element "+nodeNamePart+":"+toModuleNames(schema, potentialUris));
             } else if (potentialUris.isEmpty()) {
                 throw new IllegalStateException("Schema node with name "+nodeNamePart+" wasn't found under "+dataSchemaNode.getQName()+".");
             }
@@ -275,7 +290,7 @@ public final class JsonParserStream implements Closeable, Flushable {
         return new NamespaceAndName(nodeNamePart, namespace);
     }
 
-    private String toModuleNames(final Set<URI> potentialUris) {
+    private static String toModuleNames(final SchemaContext schema, final Set<URI> potentialUris) {
         final StringBuilder builder = new StringBuilder();
         for (final URI potentialUri : potentialUris) {
             builder.append("\n");
@@ -285,7 +300,7 @@ public final class JsonParserStream implements Closeable, Flushable {
         return builder.toString();
     }
 
-    private Set<URI> resolveAllPotentialNamespaces(final String elementName, final DataSchemaNode dataSchemaNode) {
+    private static Set<URI> resolveAllPotentialNamespaces(final String elementName, final DataSchemaNode dataSchemaNode) {
         final Set<URI> potentialUris = new HashSet<>();
         final Set<ChoiceSchemaNode> choices = new HashSet<>();
         if (dataSchemaNode instanceof DataNodeContainer) {
@@ -312,20 +327,20 @@ public final class JsonParserStream implements Closeable, Flushable {
 
 
 
-    private static class NamespaceAndName {
+    static final class NamespaceAndName {
         private final URI uri;
         private final String name;
 
-        public NamespaceAndName(final String name, final URI uri) {
+        NamespaceAndName(final String name, final URI uri) {
             this.name = name;
             this.uri = uri;
         }
 
-        public String getName() {
+        String getName() {
             return name;
         }
 
-        public URI getUri() {
+        URI getUri() {
             return uri;
         }
     }
@@ -10,6 +10,7 @@ package org.opendaylight.yangtools.yang.data.codec.gson;
 import com.google.common.annotations.Beta;
 import com.google.common.base.Strings;
 import com.google.gson.stream.JsonWriter;
+import java.io.OutputStream;
 import java.io.Writer;
 
 /**
@@ -44,4 +45,29 @@ public final class JsonWriterFactory {
         jsonWriter.setIndent(indent);
         return jsonWriter;
     }
+
+    /**
+     * Create a new JsonWriter, which writes UTF-8 encoded output directly to the specified output stream. Output is
+     * buffered internally and is guaranteed to reach the stream only after {@link JsonWriter#flush()} or
+     * {@link JsonWriter#close()} is invoked.
+     *
+     * @param out Output stream
+     * @return A JsonWriter instance
+     */
+    public static JsonWriter createJsonWriter(final OutputStream out) {
+        return new UTF8JsonWriter(out, null);
+    }
+
+    /**
+     * Create a new JsonWriter, which writes UTF-8 encoded output directly to the specified output stream. Output is
+     * buffered internally and is guaranteed to reach the stream only after {@link JsonWriter#flush()} or
+     * {@link JsonWriter#close()} is invoked.
+     *
+     * @param out Output stream
+     * @param indentSize size of the indent
+     * @return A JsonWriter instance
+     */
+    public static JsonWriter createJsonWriter(final OutputStream out, final int indentSize) {
+        return new UTF8JsonWriter(out, Strings.repeat(" ", indentSize));
+    }
 }
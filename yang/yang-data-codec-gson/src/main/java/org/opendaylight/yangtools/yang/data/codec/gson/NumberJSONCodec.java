@@ -10,6 +10,7 @@ package org.opendaylight.yangtools.yang.data.codec.gson;
 import com.google.gson.stream.JsonWriter;
 import java.io.IOException;
 import org.opendaylight.yangtools.concepts.Codec;
+import org.opendaylight.yangtools.yang.data.impl.codec.PrimitiveIntegerCodec;
 
 /**
  * A {@link JSONCodec} which does not need double quotes in output representation.
@@ -17,8 +18,20 @@ import org.opendaylight.yangtools.concepts.Codec;
  * @param <T> Deserialized value type
  */
 final class NumberJSONCodec<T extends Number> extends AbstractJSONCodec<T > {
+    private final PrimitiveIntegerCodec<?> primitiveCodec;
+
     NumberJSONCodec(final Codec<String, T> codec) {
         super(codec);
+        this.primitiveCodec = codec instanceof PrimitiveIntegerCodec ? (PrimitiveIntegerCodec<?>) codec : null;
+    }
+
+    /**
+     * Return the primitive view of the underlying codec.
+     *
+     * @return Primitive codec, or null if the underlying codec does not handle an integer type
+     */
+    PrimitiveIntegerCodec<?> primitiveCodec() {
+        return primitiveCodec;
     }
 
     @Override
@@ -33,7 +46,12 @@ final class NumberJSONCodec<T extends Number> extends AbstractJSONCodec<T > {
      * @param value
      */
     @Override
-    public void serializeToWriter(JsonWriter writer, T value) throws IOException {
-        writer.value(value);
+    public void serializeToWriter(final JsonWriter writer, final T value) throws IOException {
+        if (value instanceof Integer || value instanceof Long || value instanceof Short || value instanceof Byte) {
+            // Avoid going through Number.toString()
+            writer.value(value.longValue());
+        } else {
+            writer.value(value);
+        }
     }
 }
\ No newline at end of file
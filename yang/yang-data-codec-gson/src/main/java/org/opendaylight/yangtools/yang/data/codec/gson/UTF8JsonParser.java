@@ -0,0 +1,900 @@
+/*
+ * Copyright (c) 2016 Cisco Systems, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.yangtools.yang.data.codec.gson;
+
+import com.google.common.annotations.Beta;
+import com.google.common.base.Preconditions;
+import com.google.gson.JsonSyntaxException;
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.net.URI;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import org.opendaylight.yangtools.yang.data.api.schema.stream.DataSchemaNodeAwareAdaptor;
+import org.opendaylight.yangtools.yang.data.api.schema.stream.NormalizedNodeStreamWriter;
+import org.opendaylight.yangtools.yang.data.codec.gson.JsonParserStream.NamespaceAndName;
+import org.opendaylight.yangtools.yang.data.impl.codec.PrimitiveIntegerCodec;
+import org.opendaylight.yangtools.yang.data.util.AbstractNodeDataWithSchema;
+import org.opendaylight.yangtools.yang.data.util.AnyXmlNodeDataWithSchema;
+import org.opendaylight.yangtools.yang.data.util.CompositeNodeDataWithSchema;
+import org.opendaylight.yangtools.yang.data.util.LeafListEntryNodeDataWithSchema;
+import org.opendaylight.yangtools.yang.data.util.LeafListNodeDataWithSchema;
+import org.opendaylight.yangtools.yang.data.util.LeafNodeDataWithSchema;
+import org.opendaylight.yangtools.yang.data.util.ListEntryNodeDataWithSchema;
+import org.opendaylight.yangtools.yang.data.util.ListNodeDataWithSchema;
+import org.opendaylight.yangtools.yang.data.util.ParserStreamUtils;
+import org.opendaylight.yangtools.yang.data.util.RpcAsContainer;
+import org.opendaylight.yangtools.yang.data.util.SchemaQNameInterner;
+import org.opendaylight.yangtools.yang.data.util.SimpleNodeDataWithSchema;
+import org.opendaylight.yangtools.yang.model.api.AnyXmlSchemaNode;
+import org.opendaylight.yangtools.yang.model.api.DataSchemaNode;
+import org.opendaylight.yangtools.yang.model.api.LeafListSchemaNode;
+import org.opendaylight.yangtools.yang.model.api.LeafSchemaNode;
+import org.opendaylight.yangtools.yang.model.api.RpcDefinition;
+import org.opendaylight.yangtools.yang.model.api.SchemaNode;
+import org.opendaylight.yangtools.yang.model.api.TypeDefinition;
+import org.opendaylight.yangtools.yang.model.api.YangModeledAnyXmlSchemaNode;
+import org.opendaylight.yangtools.yang.model.api.type.BooleanTypeDefinition;
+import org.opendaylight.yangtools.yang.model.api.type.IntegerTypeDefinition;
+import org.opendaylight.yangtools.yang.model.api.type.UnsignedIntegerTypeDefinition;
+import org.opendaylight.yangtools.yang.model.util.DerivedType;
+
+/**
+ * Parser of UTF-8 encoded JSON documents, feeding a {@link NormalizedNodeStreamWriter}. It accepts the same data as
+ * {@link JsonParserStream} and produces the same events, but reads directly from a byte array, a {@link ByteBuffer}
+ * or a memory-mapped file instead of going through a {@link com.google.gson.stream.JsonReader}.
+ *
+ * <p>
+ * Member names are not materialized as Strings. Each schema node has a table of member names which have been
+ * encountered in its JSON objects, along with their resolved schema, which is matched directly against input bytes.
+ * Integer and boolean leaf values are converted directly into their Java representation.
+ *
+ * <p>
+ * Unlike {@link JsonParserStream}, this parser requires strictly well-formed JSON, as defined by RFC7159.
+ *
+ * <p>
+ * Name tables are retained by the parser, hence instances should be reused for all documents with the same schema
+ * root. Instances are thread-safe.
+ */
+@Beta
+public final class UTF8JsonParser {
+    private final JSONCodecFactory codecs;
+    private final DataSchemaNode parentNode;
+    private final SchemaQNameInterner interner;
+    private final Member root;
+
+    private UTF8JsonParser(final JSONCodecFactory codecs, final DataSchemaNode parentNode) {
+        this.codecs = Preconditions.checkNotNull(codecs);
+        this.parentNode = parentNode;
+        this.interner = SchemaQNameInterner.forSchemaContext(codecs.getSchemaContext());
+        this.root = new Member(this, new byte[0], 0, null, null);
+    }
+
+    /**
+     * Create a new parser for documents rooted at the schema context.
+     *
+     * @param codecFactory JSON codec factory
+     * @return A parser instance
+     */
+    public static UTF8JsonParser create(final JSONCodecFactory codecFactory) {
+        return new UTF8JsonParser(codecFactory, codecFactory.getSchemaContext());
+    }
+
+    /**
+     * Create a new parser for documents rooted at the specified schema node.
+     *
+     * @param codecFactory JSON codec factory
+     * @param parentNode Parent schema node
+     * @return A parser instance
+     */
+    public static UTF8JsonParser create(final JSONCodecFactory codecFactory, final SchemaNode parentNode) {
+        if (parentNode instanceof RpcDefinition) {
+            return new UTF8JsonParser(codecFactory, new RpcAsContainer((RpcDefinition) parentNode));
+        }
+        Preconditions.checkArgument(parentNode instanceof DataSchemaNode, "Instance of DataSchemaNode class awaited.");
+        return new UTF8JsonParser(codecFactory, (DataSchemaNode) parentNode);
+    }
+
+    /**
+     * Parse a JSON document and emit its contents into a writer.
+     *
+     * @param input Document bytes
+     * @param writer Output writer
+     * @throws JsonSyntaxException if the document is not well-formed
+     * @throws IOException when the writer reports it
+     */
+    public void parse(final byte[] input, final NormalizedNodeStreamWriter writer) throws IOException {
+        parse(ByteBuffer.wrap(input), writer);
+    }
+
+    /**
+     * Parse a JSON document and emit its contents into a writer. The document is read from the remaining bytes of
+     * the buffer. The buffer's position is not modified.
+     *
+     * @param input Document bytes
+     * @param writer Output writer
+     * @throws JsonSyntaxException if the document is not well-formed
+     * @throws IOException when the writer reports it
+     */
+    public void parse(final ByteBuffer input, final NormalizedNodeStreamWriter writer) throws IOException {
+        final CompositeNodeDataWithSchema result = new Session(this, input).parse();
+        if (result != null) {
+            result.write(DataSchemaNodeAwareAdaptor.forWriter(writer));
+        }
+    }
+
+    /**
+     * Parse a JSON document stored in a file and emit its contents into a writer. The file is memory-mapped.
+     *
+     * @param input Document file
+     * @param writer Output writer
+     * @throws JsonSyntaxException if the document is not well-formed
+     * @throws IOException when the file cannot be read or the writer reports it
+     */
+    public void parse(final File input, final NormalizedNodeStreamWriter writer) throws IOException {
+        final ByteBuffer buffer;
+        try (final RandomAccessFile file = new RandomAccessFile(input, "r")) {
+            final FileChannel channel = file.getChannel();
+            buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+        parse(buffer, writer);
+    }
+
+    /**
+     * A JSON member resolved to schema. It also acts as the name table of its own JSON objects, mapping their member
+     * names to resolved members. The table is an open-addressing hash table, which is replaced when a new name is
+     * encountered, so that lookups do not require synchronization.
+     */
+    private static final class Member {
+        private final UTF8JsonParser parser;
+        private final byte[] name;
+        private final int hash;
+        private final URI namespace;
+        private final DataSchemaNode[] path;
+        private final boolean integerLeaf;
+        private final boolean booleanLeaf;
+
+        private volatile JSONCodec<Object> codec;
+        private volatile PrimitiveIntegerCodec<?> integerCodec;
+        private volatile Member[] table = new Member[8];
+        private int size;
+
+        Member(final UTF8JsonParser parser, final byte[] name, final int hash, final URI namespace,
+                final DataSchemaNode[] path) {
+            this.parser = parser;
+            this.name = name;
+            this.hash = hash;
+            this.namespace = namespace;
+            this.path = path;
+
+            final TypeDefinition<?> type = path == null ? null : typeOf(path[path.length - 1]);
+            this.integerLeaf = type instanceof IntegerTypeDefinition || type instanceof UnsignedIntegerTypeDefinition;
+            this.booleanLeaf = type != null && type instanceof BooleanTypeDefinition;
+        }
+
+        private static TypeDefinition<?> typeOf(final DataSchemaNode schema) {
+            final TypeDefinition<?> type;
+            if (schema instanceof LeafSchemaNode) {
+                type = ((LeafSchemaNode) schema).getType();
+            } else if (schema instanceof LeafListSchemaNode) {
+                type = ((LeafListSchemaNode) schema).getType();
+            } else {
+                return null;
+            }
+            return DerivedType.from(type);
+        }
+
+        Deque<DataSchemaNode> newPath() {
+            return new ArrayDeque<>(Arrays.asList(path));
+        }
+
+        Object translateValue(final DataSchemaNode schema, final String value) {
+            if (schema instanceof AnyXmlSchemaNode) {
+                return value;
+            }
+
+            return codecFor(schema).deserialize(value);
+        }
+
+        private JSONCodec<Object> codecFor(final DataSchemaNode schema) {
+            JSONCodec<Object> ret = codec;
+            if (ret == null) {
+                ret = parser.codecs.codecFor(schema);
+                codec = ret;
+            }
+            return ret;
+        }
+
+        /**
+         * Return the primitive codec of an integer leaf, if its values can be converted directly.
+         *
+         * @return Primitive codec, or null if values need to go through {@link #translateValue(DataSchemaNode, String)}
+         */
+        PrimitiveIntegerCodec<?> integerCodec() {
+            if (!integerLeaf) {
+                return null;
+            }
+
+            PrimitiveIntegerCodec<?> ret = integerCodec;
+            if (ret == null) {
+                final JSONCodec<Object> jsonCodec = codecFor(path[path.length - 1]);
+                if (!(jsonCodec instanceof NumberJSONCodec)) {
+                    return null;
+                }
+                ret = ((NumberJSONCodec<?>) jsonCodec).primitiveCodec();
+                integerCodec = ret;
+            }
+            return ret;
+        }
+
+        Member lookup(final ByteBuffer buf, final int start, final int end, final int nameHash) {
+            final Member[] entries = table;
+            final int mask = entries.length - 1;
+            final int length = end - start;
+            for (int i = nameHash & mask;; i = i + 1 & mask) {
+                final Member entry = entries[i];
+                if (entry == null) {
+                    return null;
+                }
+                if (entry.hash == nameHash && entry.name.length == length && entry.matches(buf, start)) {
+                    return entry;
+                }
+            }
+        }
+
+        private boolean matches(final ByteBuffer buf, final int start) {
+            for (int i = 0; i < name.length; ++i) {
+                if (buf.get(start + i) != name[i]) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        /**
+         * Resolve a member name which has not been encountered in this object before.
+         */
+        synchronized Member resolve(final DataSchemaNode schema, final byte[] childName, final int childHash) {
+            final Member existing = lookup(ByteBuffer.wrap(childName), 0, childName.length, childHash);
+            if (existing != null) {
+                return existing;
+            }
+
+            DataSchemaNode parentSchema = schema;
+            if (parentSchema instanceof YangModeledAnyXmlSchemaNode) {
+                parentSchema = ((YangModeledAnyXmlSchemaNode) parentSchema).getSchemaOfAnyXmlData();
+            }
+
+            final NamespaceAndName namespaceAndName = JsonParserStream.resolveNamespace(
+                parser.codecs.getSchemaContext(), new String(childName, StandardCharsets.UTF_8), parentSchema,
+                namespace);
+            final String localName = namespaceAndName.getName();
+            final URI childNamespace = namespaceAndName.getUri();
+            final Deque<DataSchemaNode> childDataSchemaNodes =
+                    ParserStreamUtils.findSchemaNodeByNameAndNamespace(parentSchema, localName, childNamespace);
+            if (childDataSchemaNodes.isEmpty()) {
+                throw new IllegalStateException("Schema for node with name " + localName + " and namespace "
+                        + childNamespace + " doesn't exist.");
+            }
+
+            final Member ret = new Member(parser, childName, childHash, childNamespace,
+                childDataSchemaNodes.toArray(new DataSchemaNode[childDataSchemaNodes.size()]));
+
+            // Keep load factor at or below 0.5
+            Member[] entries = table;
+            if ((size + 1) * 2 > entries.length) {
+                final Member[] resized = new Member[entries.length * 2];
+                for (final Member entry : entries) {
+                    if (entry != null) {
+                        insert(resized, entry);
+                    }
+                }
+                entries = resized;
+            } else {
+                entries = entries.clone();
+            }
+            insert(entries, ret);
+            size++;
+            table = entries;
+            return ret;
+        }
+
+        private static void insert(final Member[] entries, final Member entry) {
+            final int mask = entries.length - 1;
+            int i = entry.hash & mask;
+            while (entries[i] != null) {
+                i = i + 1 & mask;
+            }
+            entries[i] = entry;
+        }
+    }
+
+    /**
+     * State of a single parse.
+     */
+    private static final class Session {
+        // Longest digit sequence which is guaranteed to fit into a long
+        private static final int MAX_LONG_DIGITS = 18;
+
+        private final UTF8JsonParser parser;
+        private final ByteBuffer buf;
+        private final int limit;
+        private StringBuilder sb;
+        private byte[] scratch;
+        private int pos;
+
+        // Span of the last string token, excluding quotes, and whether it contains escapes
+        private int tokenStart;
+        private int tokenEnd;
+        private int tokenHash;
+        private boolean tokenEscaped;
+
+        Session(final UTF8JsonParser parser, final ByteBuffer buf) {
+            this.parser = parser;
+            this.buf = buf;
+            this.pos = buf.position();
+            this.limit = buf.limit();
+        }
+
+        CompositeNodeDataWithSchema parse() {
+            skipWhitespace();
+            if (pos == limit) {
+                return null;
+            }
+
+            final CompositeNodeDataWithSchema ret = new CompositeNodeDataWithSchema(parser.parentNode,
+                parser.interner);
+            readValue(ret, parser.root);
+            skipWhitespace();
+            if (pos != limit) {
+                throw syntaxError("Unexpected content after JSON document");
+            }
+            return ret;
+        }
+
+        private void readValue(final AbstractNodeDataWithSchema parent, final Member member) {
+            switch (peek()) {
+                case '{':
+                    readObject(parent, member);
+                    break;
+                case '[':
+                    readArray(parent, member);
+                    break;
+                case '"':
+                    readString();
+                    final PrimitiveIntegerCodec<?> integerCodec = member.integerCodec();
+                    if (integerCodec != null && !tokenEscaped) {
+                        final Number value = parseInteger(integerCodec, tokenStart, tokenEnd);
+                        if (value != null) {
+                            setTranslatedValue(parent, value);
+                            break;
+                        }
+                    }
+                    setValue(parent, member, tokenString());
+                    break;
+                case 't':
+                    expectLiteral("true");
+                    setBoolean(parent, member, true);
+                    break;
+                case 'f':
+                    expectLiteral("false");
+                    setBoolean(parent, member, false);
+                    break;
+                case 'n':
+                    expectLiteral("null");
+                    setValue(parent, member, null);
+                    break;
+                default:
+                    readNumber(parent, member);
+                    break;
+            }
+        }
+
+        private void readObject(final AbstractNodeDataWithSchema parentData, final Member member) {
+            // Skip '{'
+            pos++;
+
+            AbstractNodeDataWithSchema parent = parentData;
+            /*
+             * This allows parsing of incorrectly /as showcased/
+             * in testconf nesting of list items - eg.
+             * lists with one value are sometimes serialized
+             * without wrapping array.
+             */
+            if (isArray(parent)) {
+                parent = newArrayEntry(parent);
+            }
+
+            skipWhitespace();
+            if (peek() == '}') {
+                pos++;
+                return;
+            }
+
+            final Set<Member> namesakes = new HashSet<>();
+            while (true) {
+                skipWhitespace();
+                if (peek() != '"') {
+                    throw syntaxError("Expected member name");
+                }
+                readString();
+                final Member child = childMember(member, parent.getSchema());
+                if (!namesakes.add(child)) {
+                    throw new JsonSyntaxException("Duplicate name " + new String(child.name, StandardCharsets.UTF_8)
+                        + " in JSON input.");
+                }
+
+                skipWhitespace();
+                expect(':');
+                skipWhitespace();
+
+                final AbstractNodeDataWithSchema newChild =
+                        ((CompositeNodeDataWithSchema) parent).addChild(child.newPath());
+                /*
+                 * FIXME:anyxml data shouldn't be skipped but should be loaded somehow.
+                 * will be able to load anyxml which conforms to YANG data using these
+                 * parser, for other anyxml will be harder.
+                 */
+                if (newChild instanceof AnyXmlNodeDataWithSchema) {
+                    skipValue();
+                } else {
+                    readValue(newChild, child);
+                }
+
+                skipWhitespace();
+                final byte c = peek();
+                pos++;
+                if (c == '}') {
+                    return;
+                }
+                if (c != ',') {
+                    throw syntaxError("Expected ',' or '}'");
+                }
+            }
+        }
+
+        private Member childMember(final Member member, final DataSchemaNode schema) {
+            if (!tokenEscaped) {
+                final Member ret = member.lookup(buf, tokenStart, tokenEnd, tokenHash);
+                if (ret != null) {
+                    return ret;
+                }
+                final byte[] name = new byte[tokenEnd - tokenStart];
+                for (int i = 0; i < name.length; ++i) {
+                    name[i] = buf.get(tokenStart + i);
+                }
+                return member.resolve(schema, name, tokenHash);
+            }
+
+            // Escaped names are rare, use their unescaped form
+            final byte[] name = tokenString().getBytes(StandardCharsets.UTF_8);
+            final int hash = hash(name);
+            final Member ret = member.lookup(ByteBuffer.wrap(name), 0, name.length, hash);
+            return ret != null ? ret : member.resolve(schema, name, hash);
+        }
+
+        private void readArray(final AbstractNodeDataWithSchema parent, final Member member) {
+            // Skip '['
+            pos++;
+            skipWhitespace();
+            if (peek() == ']') {
+                pos++;
+                return;
+            }
+
+            while (true) {
+                skipWhitespace();
+                if (parent instanceof LeafNodeDataWithSchema) {
+                    readValue(parent, member);
+                } else {
+                    readValue(newArrayEntry(parent), member);
+                }
+
+                skipWhitespace();
+                final byte c = peek();
+                pos++;
+                if (c == ']') {
+                    return;
+                }
+                if (c != ',') {
+                    throw syntaxError("Expected ',' or ']'");
+                }
+            }
+        }
+
+        private void readNumber(final AbstractNodeDataWithSchema parent, final Member member) {
+            final int start = pos;
+            final boolean integer = skipNumber();
+            final PrimitiveIntegerCodec<?> integerCodec = integer ? member.integerCodec() : null;
+            if (integerCodec != null) {
+                final Number value = parseInteger(integerCodec, start, pos);
+                if (value != null) {
+                    setTranslatedValue(parent, value);
+                    return;
+                }
+            }
+
+            setValue(parent, member, utf8String(start, pos));
+        }
+
+        /**
+         * Skip a number token.
+         *
+         * @return True if the number has neither a fraction nor an exponent.
+         */
+        private boolean skipNumber() {
+            if (peek() == '-') {
+                pos++;
+            }
+            final int integerStart = pos;
+            if (!skipDigits()) {
+                throw syntaxError("Unexpected character");
+            }
+            if (buf.get(integerStart) == '0' && pos - integerStart > 1) {
+                throw syntaxError("Malformed number");
+            }
+
+            boolean integer = true;
+            if (pos < limit && buf.get(pos) == '.') {
+                pos++;
+                if (!skipDigits()) {
+                    throw syntaxError("Malformed number");
+                }
+                integer = false;
+            }
+            if (pos < limit && (buf.get(pos) == 'e' || buf.get(pos) == 'E')) {
+                pos++;
+                if (pos < limit && (buf.get(pos) == '+' || buf.get(pos) == '-')) {
+                    pos++;
+                }
+                if (!skipDigits()) {
+                    throw syntaxError("Malformed number");
+                }
+                integer = false;
+            }
+            return integer;
+        }
+
+        private boolean skipDigits() {
+            final int start = pos;
+            while (pos < limit && buf.get(pos) >= '0' && buf.get(pos) <= '9') {
+                pos++;
+            }
+            return pos != start;
+        }
+
+        /**
+         * Parse a decimal integer in the lexical form accepted by the integer codecs.
+         *
+         * @return Converted value, or null if the value needs to be handled by the codec.
+         */
+        private Number parseInteger(final PrimitiveIntegerCodec<?> codec, final int start, final int end) {
+            int i = start;
+            boolean negative = false;
+            if (i < end && (buf.get(i) == '-' || buf.get(i) == '+')) {
+                negative = buf.get(i) == '-';
+                i++;
+            }
+
+            final int digits = end - i;
+            if (digits == 0 || digits > MAX_LONG_DIGITS) {
+                return null;
+            }
+            // Leading zeroes denote octal and hexadecimal numbers, a single zero must not be signed
+            if (buf.get(i) == '0' && (digits > 1 || i != start)) {
+                return null;
+            }
+
+            long value = 0;
+            for (; i < end; ++i) {
+                final byte c = buf.get(i);
+                if (c < '0' || c > '9') {
+                    return null;
+                }
+                value = value * 10 + c - '0';
+            }
+            if (negative) {
+                value = -value;
+            }
+            return codec.isValid(value) ? codec.valueOf(value) : null;
+        }
+
+        private void setBoolean(final AbstractNodeDataWithSchema parent, final Member member, final boolean value) {
+            if (member.booleanLeaf) {
+                setTranslatedValue(parent, value);
+            } else {
+                setValue(parent, member, Boolean.toString(value));
+            }
+        }
+
+        private static SimpleNodeDataWithSchema checkSimple(final AbstractNodeDataWithSchema parent) {
+            Preconditions.checkArgument(parent instanceof SimpleNodeDataWithSchema, "Node %s is not a simple type",
+                    parent.getSchema().getQName());
+            final SimpleNodeDataWithSchema parentSimpleNode = (SimpleNodeDataWithSchema) parent;
+            Preconditions.checkArgument(parentSimpleNode.getValue() == null,
+                "Node '%s' has already set its value to '%s'", parentSimpleNode.getSchema().getQName(),
+                parentSimpleNode.getValue());
+            return parentSimpleNode;
+        }
+
+        private static void setValue(final AbstractNodeDataWithSchema parent, final Member member,
+                final String value) {
+            final SimpleNodeDataWithSchema parentSimpleNode = checkSimple(parent);
+            parentSimpleNode.setValue(member.translateValue(parentSimpleNode.getSchema(), value));
+        }
+
+        private static void setTranslatedValue(final AbstractNodeDataWithSchema parent, final Object value) {
+            checkSimple(parent).setValue(value);
+        }
+
+        private static boolean isArray(final AbstractNodeDataWithSchema parent) {
+            return parent instanceof ListNodeDataWithSchema || parent instanceof LeafListNodeDataWithSchema;
+        }
+
+        private static AbstractNodeDataWithSchema newArrayEntry(final AbstractNodeDataWithSchema parent) {
+            final AbstractNodeDataWithSchema newChild;
+            if (parent instanceof ListNodeDataWithSchema) {
+                newChild = new ListEntryNodeDataWithSchema(parent.getSchema());
+            } else if (parent instanceof LeafListNodeDataWithSchema) {
+                newChild = new LeafListEntryNodeDataWithSchema(parent.getSchema());
+            } else {
+                throw new IllegalStateException("Found an unexpected array nested under "
+                        + parent.getSchema().getQName());
+            }
+            ((CompositeNodeDataWithSchema) parent).addChild(newChild);
+            return newChild;
+        }
+
+        /**
+         * Read a string token, recording its span, hash and whether it contains escape sequences.
+         */
+        private void readString() {
+            // Skip opening quote
+            pos++;
+            tokenStart = pos;
+            tokenEscaped = false;
+            int h = 0;
+            while (true) {
+                if (pos >= limit) {
+                    throw syntaxError("Unterminated string");
+                }
+                final byte c = buf.get(pos);
+                if (c == '"') {
+                    break;
+                }
+                if (c == '\\') {
+                    tokenEscaped = true;
+                    // Skip the escaped character, \\uXXXX is validated when the string is decoded
+                    pos++;
+                } else if (c >= 0 && c < 0x20) {
+                    // RFC7159 section 7: control characters must be escaped
+                    throw syntaxError("Unescaped control character in string");
+                }
+                h = 31 * h + c;
+                pos++;
+            }
+            tokenEnd = pos;
+            tokenHash = h;
+            // Skip closing quote
+            pos++;
+        }
+
+        private String tokenString() {
+            if (!tokenEscaped) {
+                return utf8String(tokenStart, tokenEnd);
+            }
+
+            if (sb == null) {
+                sb = new StringBuilder();
+            } else {
+                sb.setLength(0);
+            }
+
+            int segment = tokenStart;
+            int i = tokenStart;
+            while (i < tokenEnd) {
+                if (buf.get(i) != '\\') {
+                    i++;
+                    continue;
+                }
+
+                sb.append(utf8String(segment, i));
+                final byte c = buf.get(i + 1);
+                i += 2;
+                switch (c) {
+                    case '"':
+                    case '\\':
+                    case '/':
+                        sb.append((char) c);
+                        break;
+                    case 'b':
+                        sb.append('\b');
+                        break;
+                    case 'f':
+                        sb.append('\f');
+                        break;
+                    case 'n':
+                        sb.append('\n');
+                        break;
+                    case 'r':
+                        sb.append('\r');
+                        break;
+                    case 't':
+                        sb.append('\t');
+                        break;
+                    case 'u':
+                        if (i + 4 > tokenEnd) {
+                            throw syntaxError("Malformed unicode escape");
+                        }
+                        sb.append((char) (hexDigit(i) << 12 | hexDigit(i + 1) << 8 | hexDigit(i + 2) << 4
+                                | hexDigit(i + 3)));
+                        i += 4;
+                        break;
+                    default:
+                        throw syntaxError("Invalid escape sequence");
+                }
+                segment = i;
+            }
+            sb.append(utf8String(segment, tokenEnd));
+            return sb.toString();
+        }
+
+        private int hexDigit(final int offset) {
+            final byte c = buf.get(offset);
+            if (c >= '0' && c <= '9') {
+                return c - '0';
+            } else if (c >= 'a' && c <= 'f') {
+                return c - 'a' + 10;
+            } else if (c >= 'A' && c <= 'F') {
+                return c - 'A' + 10;
+            }
+            throw syntaxError("Malformed unicode escape");
+        }
+
+        private String utf8String(final int start, final int end) {
+            if (buf.hasArray()) {
+                return new String(buf.array(), buf.arrayOffset() + start, end - start, StandardCharsets.UTF_8);
+            }
+
+            final int length = end - start;
+            if (scratch == null || scratch.length < length) {
+                scratch = new byte[Math.max(length, 64)];
+            }
+            for (int i = 0; i < length; ++i) {
+                scratch[i] = buf.get(start + i);
+            }
+            return new String(scratch, 0, length, StandardCharsets.UTF_8);
+        }
+
+        private void skipValue() {
+            switch (peek()) {
+                case '{':
+                    pos++;
+                    skipWhitespace();
+                    if (peek() == '}') {
+                        pos++;
+                        return;
+                    }
+                    while (true) {
+                        skipWhitespace();
+                        if (peek() != '"') {
+                            throw syntaxError("Expected member name");
+                        }
+                        readString();
+                        skipWhitespace();
+                        expect(':');
+                        skipWhitespace();
+                        skipValue();
+                        skipWhitespace();
+                        final byte c = peek();
+                        pos++;
+                        if (c == '}') {
+                            return;
+                        }
+                        if (c != ',') {
+                            throw syntaxError("Expected ',' or '}'");
+                        }
+                    }
+                case '[':
+                    pos++;
+                    skipWhitespace();
+                    if (peek() == ']') {
+                        pos++;
+                        return;
+                    }
+                    while (true) {
+                        skipWhitespace();
+                        skipValue();
+                        skipWhitespace();
+                        final byte c = peek();
+                        pos++;
+                        if (c == ']') {
+                            return;
+                        }
+                        if (c != ',') {
+                            throw syntaxError("Expected ',' or ']'");
+                        }
+                    }
+                case '"':
+                    readString();
+                    return;
+                case 't':
+                    expectLiteral("true");
+                    return;
+                case 'f':
+                    expectLiteral("false");
+                    return;
+                case 'n':
+                    expectLiteral("null");
+                    return;
+                default:
+                    skipNumber();
+                    return;
+            }
+        }
+
+        private void expectLiteral(final String literal) {
+            for (int i = 0; i < literal.length(); ++i) {
+                if (pos >= limit || buf.get(pos) != literal.charAt(i)) {
+                    throw syntaxError("Unexpected character");
+                }
+                pos++;
+            }
+        }
+
+        private void expect(final char c) {
+            if (peek() != c) {
+                throw syntaxError("Expected '" + c + "'");
+            }
+            pos++;
+        }
+
+        private byte peek() {
+            if (pos >= limit) {
+                throw syntaxError("Unexpected end of input");
+            }
+            return buf.get(pos);
+        }
+
+        private void skipWhitespace() {
+            while (pos < limit) {
+                switch (buf.get(pos)) {
+                    case ' ':
+                    case '\t':
+                    case '\n':
+                    case '\r':
+                        pos++;
+                        break;
+                    default:
+                        return;
+                }
+            }
+        }
+
+        private JsonSyntaxException syntaxError(final String message) {
+            return new JsonSyntaxException(message + " at offset " + (pos - buf.position()));
+        }
+
+        private static int hash(final byte[] bytes) {
+            int h = 0;
+            for (final byte b : bytes) {
+                h = 31 * h + b;
+            }
+            return h;
+        }
+    }
+}
@@ -0,0 +1,531 @@
+/*
+ * Copyright (c) 2016 Cisco Systems, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.yangtools.yang.data.codec.gson;
+
+import com.google.common.base.Preconditions;
+import com.google.gson.stream.JsonWriter;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.Writer;
+import java.lang.reflect.Field;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * A {@link JsonWriter} which encodes its output into UTF-8 bytes as it goes, writing them into an internal buffer
+ * which is drained into an {@link OutputStream}. This avoids the char-level {@link Writer} and the separate charset
+ * encoding pass. Integral numbers are formatted directly into the buffer, without creating intermediate Strings, and
+ * member names can be supplied in pre-encoded form, see {@link #encodeName(String)}.
+ *
+ * <p>
+ * Output is byte-for-byte identical to a {@link JsonWriter} over an UTF-8 {@link java.io.OutputStreamWriter}, with
+ * the exception of unpaired surrogates, which are replaced by '?'. As with {@link JsonWriter}, non-finite numbers are
+ * always rejected by {@link #value(double)} and are accepted by {@link #value(Number)} only when the writer is lenient.
+ *
+ * <p>
+ * Indentation is fixed when the writer is created, see {@link JsonWriterFactory#createJsonWriter(OutputStream, int)}.
+ * {@link JsonWriter#setIndent(String)} is final and cannot be overridden, hence setting a non-empty indent through it
+ * is detected when a top-level value is started or the writer is flushed or closed, and results in an
+ * {@link UnsupportedOperationException}.
+ */
+final class UTF8JsonWriter extends JsonWriter {
+    private static final Writer UNWRITABLE_WRITER = new Writer() {
+        @Override
+        public void write(final char[] buffer, final int offset, final int counter) {
+            throw new AssertionError();
+        }
+
+        @Override
+        public void flush() {
+            throw new AssertionError();
+        }
+
+        @Override
+        public void close() {
+            throw new AssertionError();
+        }
+    };
+
+    private static final int EMPTY_ARRAY = 1;
+    private static final int NONEMPTY_ARRAY = 2;
+    private static final int EMPTY_OBJECT = 3;
+    private static final int DANGLING_NAME = 4;
+    private static final int NONEMPTY_OBJECT = 5;
+    private static final int EMPTY_DOCUMENT = 6;
+    private static final int NONEMPTY_DOCUMENT = 7;
+
+    private static final char LINE_SEPARATOR = 0x2028;
+    private static final char PARAGRAPH_SEPARATOR = 0x2029;
+    private static final int BUFFER_SIZE = 8192;
+    // Long.MIN_VALUE has 19 digits and a sign
+    private static final int MAX_LONG_LENGTH = 20;
+    private static final byte[] HEX = "0123456789abcdef".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] TRUE = "true".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] FALSE = "false".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] NULL = "null".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] MIN_LONG = Long.toString(Long.MIN_VALUE).getBytes(StandardCharsets.US_ASCII);
+    private static final byte[][] REPLACEMENTS;
+    private static final byte[][] HTML_SAFE_REPLACEMENTS;
+    private static final Field INDENT_FIELD;
+
+    static {
+        try {
+            INDENT_FIELD = JsonWriter.class.getDeclaredField("indent");
+            INDENT_FIELD.setAccessible(true);
+        } catch (NoSuchFieldException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+
+        REPLACEMENTS = new byte[128][];
+        for (int i = 0; i < 0x20; ++i) {
+            REPLACEMENTS[i] = unicodeEscape(i);
+        }
+        REPLACEMENTS['"'] = ascii("\\\"");
+        REPLACEMENTS['\\'] = ascii("\\\\");
+        REPLACEMENTS['\t'] = ascii("\\t");
+        REPLACEMENTS['\b'] = ascii("\\b");
+        REPLACEMENTS['\n'] = ascii("\\n");
+        REPLACEMENTS['\r'] = ascii("\\r");
+        REPLACEMENTS['\f'] = ascii("\\f");
+
+        HTML_SAFE_REPLACEMENTS = REPLACEMENTS.clone();
+        HTML_SAFE_REPLACEMENTS['<'] = unicodeEscape('<');
+        HTML_SAFE_REPLACEMENTS['>'] = unicodeEscape('>');
+        HTML_SAFE_REPLACEMENTS['&'] = unicodeEscape('&');
+        HTML_SAFE_REPLACEMENTS['='] = unicodeEscape('=');
+        HTML_SAFE_REPLACEMENTS['\''] = unicodeEscape('\'');
+    }
+
+    private final OutputStream out;
+    private final byte[] buffer = new byte[BUFFER_SIZE];
+    private final byte[] indent;
+    private final byte[] separator;
+
+    private int[] stack = new int[32];
+    private int stackSize = 0;
+    private int position = 0;
+
+    private String deferredName;
+    private byte[] deferredEncodedName;
+
+    UTF8JsonWriter(final OutputStream out, final String indent) {
+        super(UNWRITABLE_WRITER);
+        this.out = Preconditions.checkNotNull(out);
+        if (indent == null || indent.isEmpty()) {
+            this.indent = null;
+            this.separator = new byte[] { ':' };
+        } else {
+            this.indent = ascii(indent);
+            this.separator = new byte[] { ':', ' ' };
+        }
+        push(EMPTY_DOCUMENT);
+    }
+
+    /**
+     * Encode a member name for use with {@link #name(byte[])}. The name is quoted and escaped without regard to
+     * {@link #isHtmlSafe()}, which makes no difference for YANG identifiers.
+     *
+     * @param name Member name
+     * @return Encoded name
+     */
+    static byte[] encodeName(final String name) {
+        final ByteArrayOutputStream bos = new ByteArrayOutputStream();
+        final UTF8JsonWriter writer = new UTF8JsonWriter(bos, null);
+        try {
+            writer.string(name);
+            writer.drain();
+        } catch (IOException e) {
+            throw new IllegalStateException("Failed to encode " + name, e);
+        }
+        return bos.toByteArray();
+    }
+
+    /**
+     * Write a member name which has been encoded by {@link #encodeName(String)}.
+     *
+     * @param encodedName Encoded member name
+     * @return This writer
+     */
+    JsonWriter name(final byte[] encodedName) {
+        checkName();
+        deferredEncodedName = Preconditions.checkNotNull(encodedName);
+        return this;
+    }
+
+    @Override
+    public JsonWriter name(final String name) {
+        Preconditions.checkNotNull(name, "name == null");
+        checkName();
+        deferredName = name;
+        return this;
+    }
+
+    @Override
+    public JsonWriter beginArray() throws IOException {
+        return open(EMPTY_ARRAY, '[');
+    }
+
+    @Override
+    public JsonWriter endArray() throws IOException {
+        return close(EMPTY_ARRAY, NONEMPTY_ARRAY, ']');
+    }
+
+    @Override
+    public JsonWriter beginObject() throws IOException {
+        return open(EMPTY_OBJECT, '{');
+    }
+
+    @Override
+    public JsonWriter endObject() throws IOException {
+        return close(EMPTY_OBJECT, NONEMPTY_OBJECT, '}');
+    }
+
+    @Override
+    public JsonWriter value(final String value) throws IOException {
+        if (value == null) {
+            return nullValue();
+        }
+        writeDeferredName();
+        beforeValue(false);
+        string(value);
+        return this;
+    }
+
+    @Override
+    public JsonWriter nullValue() throws IOException {
+        if (hasDeferredName()) {
+            if (getSerializeNulls()) {
+                writeDeferredName();
+            } else {
+                // Skip the name and the value
+                deferredName = null;
+                deferredEncodedName = null;
+                return this;
+            }
+        }
+        beforeValue(false);
+        write(NULL);
+        return this;
+    }
+
+    @Override
+    public JsonWriter value(final boolean value) throws IOException {
+        writeDeferredName();
+        beforeValue(false);
+        write(value ? TRUE : FALSE);
+        return this;
+    }
+
+    @Override
+    public JsonWriter value(final double value) throws IOException {
+        if (Double.isNaN(value) || Double.isInfinite(value)) {
+            throw new IllegalArgumentException("Numeric values must be finite, but was " + value);
+        }
+        writeDeferredName();
+        beforeValue(false);
+        writeAscii(Double.toString(value));
+        return this;
+    }
+
+    @Override
+    public JsonWriter value(final long value) throws IOException {
+        writeDeferredName();
+        beforeValue(false);
+        writeLong(value);
+        return this;
+    }
+
+    @Override
+    public JsonWriter value(final Number value) throws IOException {
+        if (value == null) {
+            return nullValue();
+        }
+
+        if (value instanceof Integer || value instanceof Long || value instanceof Short || value instanceof Byte) {
+            return value(value.longValue());
+        }
+
+        final String str = value.toString();
+        if (!isLenient() && (str.equals("-Infinity") || str.equals("Infinity") || str.equals("NaN"))) {
+            throw new IllegalArgumentException("Numeric values must be finite, but was " + value);
+        }
+        writeDeferredName();
+        beforeValue(false);
+        writeAscii(str);
+        return this;
+    }
+
+    @Override
+    public void flush() throws IOException {
+        if (stackSize == 0) {
+            throw new IllegalStateException("JsonWriter is closed.");
+        }
+        checkIndent();
+        drain();
+        out.flush();
+    }
+
+    @Override
+    public void close() throws IOException {
+        checkIndent();
+        drain();
+        out.close();
+
+        final int size = stackSize;
+        if (size > 1 || size == 1 && stack[size - 1] != NONEMPTY_DOCUMENT) {
+            throw new IOException("Incomplete document");
+        }
+        stackSize = 0;
+    }
+
+    private boolean hasDeferredName() {
+        return deferredName != null || deferredEncodedName != null;
+    }
+
+    private void checkName() {
+        if (hasDeferredName()) {
+            throw new IllegalStateException();
+        }
+        if (stackSize == 0) {
+            throw new IllegalStateException("JsonWriter is closed.");
+        }
+    }
+
+    private JsonWriter open(final int empty, final char bracket) throws IOException {
+        writeDeferredName();
+        beforeValue(true);
+        push(empty);
+        write(bracket);
+        return this;
+    }
+
+    private JsonWriter close(final int empty, final int nonempty, final char bracket) throws IOException {
+        final int context = peek();
+        if (context != nonempty && context != empty) {
+            throw new IllegalStateException("Nesting problem.");
+        }
+        if (hasDeferredName()) {
+            throw new IllegalStateException("Dangling name: "
+                    + (deferredName != null ? deferredName : new String(deferredEncodedName, StandardCharsets.UTF_8)));
+        }
+
+        stackSize--;
+        if (context == nonempty) {
+            newline();
+        }
+        write(bracket);
+        return this;
+    }
+
+    private void push(final int newTop) {
+        if (stackSize == stack.length) {
+            stack = Arrays.copyOf(stack, stackSize * 2);
+        }
+        stack[stackSize++] = newTop;
+    }
+
+    private int peek() {
+        if (stackSize == 0) {
+            throw new IllegalStateException("JsonWriter is closed.");
+        }
+        return stack[stackSize - 1];
+    }
+
+    private void replaceTop(final int topOfStack) {
+        stack[stackSize - 1] = topOfStack;
+    }
+
+    private void writeDeferredName() throws IOException {
+        if (deferredEncodedName != null) {
+            beforeName();
+            write(deferredEncodedName);
+            deferredEncodedName = null;
+        } else if (deferredName != null) {
+            beforeName();
+            string(deferredName);
+            deferredName = null;
+        }
+    }
+
+    private void beforeName() throws IOException {
+        final int context = peek();
+        if (context == NONEMPTY_OBJECT) {
+            write(',');
+        } else if (context != EMPTY_OBJECT) {
+            throw new IllegalStateException("Nesting problem.");
+        }
+        newline();
+        replaceTop(DANGLING_NAME);
+    }
+
+    private void beforeValue(final boolean root) throws IOException {
+        switch (peek()) {
+            case NONEMPTY_DOCUMENT:
+                if (!isLenient()) {
+                    throw new IllegalStateException("JSON must have only one top-level value.");
+                }
+                // fall-through
+            case EMPTY_DOCUMENT:
+                if (!isLenient() && !root) {
+                    throw new IllegalStateException("JSON must start with an array or an object.");
+                }
+                checkIndent();
+                replaceTop(NONEMPTY_DOCUMENT);
+                break;
+            case EMPTY_ARRAY:
+                replaceTop(NONEMPTY_ARRAY);
+                newline();
+                break;
+            case NONEMPTY_ARRAY:
+                write(',');
+                newline();
+                break;
+            case DANGLING_NAME:
+                write(separator);
+                replaceTop(NONEMPTY_OBJECT);
+                break;
+            default:
+                throw new IllegalStateException("Nesting problem.");
+        }
+    }
+
+    private void checkIndent() {
+        final Object superIndent;
+        try {
+            superIndent = INDENT_FIELD.get(this);
+        } catch (IllegalAccessException e) {
+            throw new IllegalStateException("Failed to access indent", e);
+        }
+        if (superIndent != null) {
+            throw new UnsupportedOperationException("Indentation has to be specified when the writer is created");
+        }
+    }
+
+    private void newline() throws IOException {
+        if (indent != null) {
+            write('\n');
+            for (int i = 1; i < stackSize; ++i) {
+                write(indent);
+            }
+        }
+    }
+
+    private void writeLong(final long value) throws IOException {
+        if (value == Long.MIN_VALUE) {
+            write(MIN_LONG);
+            return;
+        }
+
+        ensureCapacity(MAX_LONG_LENGTH);
+        long remaining = value;
+        if (remaining < 0) {
+            buffer[position++] = '-';
+            remaining = -remaining;
+        }
+
+        // Emit digits backwards into the buffer and then reverse them
+        final int start = position;
+        do {
+            buffer[position++] = (byte) ('0' + remaining % 10);
+            remaining /= 10;
+        } while (remaining != 0);
+
+        for (int i = start, j = position - 1; i < j; ++i, --j) {
+            final byte tmp = buffer[i];
+            buffer[i] = buffer[j];
+            buffer[j] = tmp;
+        }
+    }
+
+    private void string(final String value) throws IOException {
+        final byte[][] replacements = isHtmlSafe() ? HTML_SAFE_REPLACEMENTS : REPLACEMENTS;
+        write('"');
+        final int length = value.length();
+        for (int i = 0; i < length; ++i) {
+            final char c = value.charAt(i);
+            if (c < 128) {
+                final byte[] replacement = replacements[c];
+                if (replacement == null) {
+                    write(c);
+                } else {
+                    write(replacement);
+                }
+            } else if (c < 0x800) {
+                ensureCapacity(2);
+                buffer[position++] = (byte) (0xc0 | c >> 6);
+                buffer[position++] = (byte) (0x80 | c & 0x3f);
+            } else if (c == LINE_SEPARATOR || c == PARAGRAPH_SEPARATOR) {
+                write(unicodeEscape(c));
+            } else if (Character.isHighSurrogate(c) && i + 1 < length
+                    && Character.isLowSurrogate(value.charAt(i + 1))) {
+                final int cp = Character.toCodePoint(c, value.charAt(++i));
+                ensureCapacity(4);
+                buffer[position++] = (byte) (0xf0 | cp >> 18);
+                buffer[position++] = (byte) (0x80 | cp >> 12 & 0x3f);
+                buffer[position++] = (byte) (0x80 | cp >> 6 & 0x3f);
+                buffer[position++] = (byte) (0x80 | cp & 0x3f);
+            } else if (Character.isSurrogate(c)) {
+                write('?');
+            } else {
+                ensureCapacity(3);
+                buffer[position++] = (byte) (0xe0 | c >> 12);
+                buffer[position++] = (byte) (0x80 | c >> 6 & 0x3f);
+                buffer[position++] = (byte) (0x80 | c & 0x3f);
+            }
+        }
+        write('"');
+    }
+
+    private void writeAscii(final String str) throws IOException {
+        final int length = str.length();
+        ensureCapacity(length);
+        for (int i = 0; i < length; ++i) {
+            buffer[position++] = (byte) str.charAt(i);
+        }
+    }
+
+    private void write(final char c) throws IOException {
+        ensureCapacity(1);
+        buffer[position++] = (byte) c;
+    }
+
+    private void write(final byte[] bytes) throws IOException {
+        if (bytes.length > buffer.length) {
+            drain();
+            out.write(bytes);
+            return;
+        }
+
+        ensureCapacity(bytes.length);
+        System.arraycopy(bytes, 0, buffer, position, bytes.length);
+        position += bytes.length;
+    }
+
+    private void ensureCapacity(final int length) throws IOException {
+        if (buffer.length - position < length) {
+            drain();
+            Preconditions.checkArgument(length <= buffer.length, "Cannot fit %s bytes into buffer", length);
+        }
+    }
+
+    private void drain() throws IOException {
+        if (position != 0) {
+            out.write(buffer, 0, position);
+            position = 0;
+        }
+    }
+
+    private static byte[] ascii(final String str) {
+        return str.getBytes(StandardCharsets.US_ASCII);
+    }
+
+    private static byte[] unicodeEscape(final int c) {
+        return new byte[] { '\\', 'u', HEX[c >> 12 & 0xf], HEX[c >> 8 & 0xf], HEX[c >> 4 & 0xf], HEX[c & 0xf] };
+    }
+}
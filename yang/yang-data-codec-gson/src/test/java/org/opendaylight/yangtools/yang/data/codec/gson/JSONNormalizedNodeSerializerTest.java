@@ -0,0 +1,115 @@
+/*
+ * Copyright (c) 2016 Cisco Systems, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.yangtools.yang.data.codec.gson;
+
+import static org.junit.Assert.assertEquals;
+import static org.opendaylight.yangtools.yang.data.codec.gson.TestUtils.loadModules;
+import static org.opendaylight.yangtools.yang.data.codec.gson.TestUtils.loadTextFile;
+
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonWriter;
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.net.URISyntaxException;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.opendaylight.yangtools.yang.common.QName;
+import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier.NodeIdentifier;
+import org.opendaylight.yangtools.yang.data.api.schema.NormalizedNode;
+import org.opendaylight.yangtools.yang.data.api.schema.stream.NormalizedNodeStreamWriter;
+import org.opendaylight.yangtools.yang.data.api.schema.stream.NormalizedNodeWriter;
+import org.opendaylight.yangtools.yang.data.impl.schema.Builders;
+import org.opendaylight.yangtools.yang.data.impl.schema.ImmutableNodes;
+import org.opendaylight.yangtools.yang.data.impl.schema.ImmutableNormalizedNodeStreamWriter;
+import org.opendaylight.yangtools.yang.data.impl.schema.NormalizedNodeResult;
+import org.opendaylight.yangtools.yang.model.api.SchemaContext;
+import org.opendaylight.yangtools.yang.model.api.SchemaPath;
+import org.opendaylight.yangtools.yang.parser.spi.meta.ReactorException;
+
+public class JSONNormalizedNodeSerializerTest {
+    private static final QName CONT_1 = QName.create("ns:complex:json", "2014-08-11", "cont1");
+    private static final QName EMPTY_LEAF = QName.create(CONT_1, "empty");
+
+    private static SchemaContext schemaContext;
+    private static JSONCodecFactory codecFactory;
+    private static JSONNormalizedNodeSerializer serializer;
+
+    @BeforeClass
+    public static void initialization() throws IOException, URISyntaxException, ReactorException {
+        schemaContext = loadModules("/complexjson/yang");
+        codecFactory = JSONCodecFactory.create(schemaContext);
+        serializer = JSONNormalizedNodeSerializer.create(codecFactory, SchemaPath.ROOT, null);
+    }
+
+    private static String streamWriterOutput(final NormalizedNode<?, ?> node) throws IOException {
+        final StringWriter writer = new StringWriter();
+        final NormalizedNodeStreamWriter jsonStream = JSONNormalizedNodeStreamWriter.createExclusiveWriter(
+            codecFactory, SchemaPath.ROOT, null, JsonWriterFactory.createJsonWriter(writer, 2));
+        final NormalizedNodeWriter nodeWriter = NormalizedNodeWriter.forStreamWriter(jsonStream);
+        nodeWriter.write(node);
+        nodeWriter.close();
+        return writer.toString();
+    }
+
+    private static String serializerOutput(final NormalizedNode<?, ?> node) throws IOException {
+        final StringWriter writer = new StringWriter();
+        final JsonWriter jsonWriter = JsonWriterFactory.createJsonWriter(writer, 2);
+        serializer.writeExclusive(jsonWriter, node);
+        jsonWriter.close();
+        return writer.toString();
+    }
+
+    private static void assertSameOutput(final NormalizedNode<?, ?> node) throws IOException {
+        final String expected = streamWriterOutput(node);
+        assertEquals(expected, serializerOutput(node));
+        // Second pass uses compiled writers
+        assertEquals(expected, serializerOutput(node));
+    }
+
+    private static NormalizedNode<?, ?> parse(final String resource) throws IOException, URISyntaxException {
+        final NormalizedNodeResult result = new NormalizedNodeResult();
+        final NormalizedNodeStreamWriter streamWriter = ImmutableNormalizedNodeStreamWriter.from(result);
+        JsonParserStream.create(streamWriter, schemaContext).parse(
+            new JsonReader(new StringReader(loadTextFile(resource))));
+        return result.getResult();
+    }
+
+    @Test
+    public void testCreatedStructures() throws IOException {
+        assertSameOutput(TestingNormalizedNodeStructuresCreator.leafNodeInContainer());
+        assertSameOutput(TestingNormalizedNodeStructuresCreator.leafListNodeInContainer());
+        assertSameOutput(TestingNormalizedNodeStructuresCreator.leafListNodeInContainerMultiline());
+        assertSameOutput(TestingNormalizedNodeStructuresCreator.keyedListNodeInContainer());
+        assertSameOutput(TestingNormalizedNodeStructuresCreator.leafNodeViaAugmentationInContainer());
+        assertSameOutput(TestingNormalizedNodeStructuresCreator.choiceNodeInContainer());
+        assertSameOutput(TestingNormalizedNodeStructuresCreator.caseNodeAugmentationInChoiceInContainer());
+        assertSameOutput(TestingNormalizedNodeStructuresCreator.caseNodeExternalAugmentationInChoiceInContainer());
+        assertSameOutput(TestingNormalizedNodeStructuresCreator.choiceNodeAugmentationInContainer());
+        assertSameOutput(TestingNormalizedNodeStructuresCreator.unkeyedNodeInContainer());
+        assertSameOutput(TestingNormalizedNodeStructuresCreator.topLevelContainer());
+    }
+
+    @Test
+    public void testParsedStructures() throws IOException, URISyntaxException {
+        assertSameOutput(parse("/complexjson/keyed-list-node-in-container.json"));
+        assertSameOutput(parse("/complexjson/multiple-choice-augmentation-in-container.json"));
+        assertSameOutput(parse("/complexjson/case-node-external-augmentation-in-choice-in-container.json"));
+    }
+
+    @Test
+    public void testEmptyType() throws IOException {
+        assertSameOutput(Builders.containerBuilder().withNodeIdentifier(new NodeIdentifier(CONT_1))
+            .addChild(ImmutableNodes.leafNode(EMPTY_LEAF, null)).build());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testUnknownNode() throws IOException {
+        serializerOutput(ImmutableNodes.containerNode(QName.create(CONT_1, "dummy")));
+    }
+}
@@ -0,0 +1,117 @@
+/*
+ * Copyright (c) 2016 Cisco Systems, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.yangtools.yang.data.codec.gson;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.fail;
+import static org.opendaylight.yangtools.yang.data.codec.gson.TestUtils.loadModules;
+
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
+import java.io.IOException;
+import java.net.URISyntaxException;
+import org.junit.Before;
+import org.junit.Test;
+import org.opendaylight.yangtools.yang.common.QName;
+import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier;
+import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier.AugmentationIdentifier;
+import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier.NodeIdentifier;
+import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier.NodeIdentifierWithPredicates;
+import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier.NodeWithValue;
+import org.opendaylight.yangtools.yang.parser.spi.meta.ReactorException;
+
+public class JSONStringInstanceIdentifierCodecTest {
+    private static final QName CONT_1 = QName.create("ns:complex:json", "2014-08-11", "cont1");
+    private static final QName CONT_11 = QName.create(CONT_1, "cont11");
+    private static final QName LF_111 = QName.create(CONT_1, "lf111");
+    private static final QName LF_113 = QName.create(CONT_1, "lf113");
+    private static final QName LST_11 = QName.create(CONT_1, "lst11");
+    private static final QName KEY_111 = QName.create(CONT_1, "key111");
+    private static final QName LFLST_11 = QName.create(CONT_1, "lflst11");
+
+    private static final String ENTRY = "/complexjson:cont1/complexjson:lst11[complexjson:key111='a/b']"
+            + "[complexjson:lf111='c']";
+
+    private JSONCodecFactory codecFactory;
+    private JSONStringInstanceIdentifierCodec codec;
+
+    @Before
+    public void setUp() throws IOException, URISyntaxException, ReactorException {
+        codecFactory = JSONCodecFactory.create(loadModules("/complexjson/yang"));
+        codec = new JSONStringInstanceIdentifierCodec(codecFactory.getSchemaContext(), codecFactory);
+    }
+
+    private static YangInstanceIdentifier entry(final String key111, final String lf111) {
+        return YangInstanceIdentifier.create(new NodeIdentifier(CONT_1), new NodeIdentifier(LST_11),
+            new NodeIdentifierWithPredicates(LST_11, ImmutableMap.<QName, Object>of(KEY_111, key111, LF_111, lf111)));
+    }
+
+    @Test
+    public void testDeserialize() {
+        final YangInstanceIdentifier expected = entry("a/b", "c").node(LF_113);
+        final YangInstanceIdentifier first = codec.deserialize(ENTRY + "/complexjson:lf113");
+        assertEquals(expected, first);
+        assertSame(first, codec.deserialize(ENTRY + "/complexjson:lf113"));
+
+        assertEquals(1, codec.getDeserializationCacheStats().hitCount());
+        assertEquals(1, codec.getDeserializationCacheStats().missCount());
+    }
+
+    @Test
+    public void testDeserializeFromParent() {
+        assertEquals(entry("a/b", "c"), codec.deserialize(ENTRY));
+        assertEquals(entry("a/b", "c").node(LF_111), codec.deserialize(ENTRY + "/complexjson:lf111"));
+        assertEquals(entry("a/b", "d"), codec.deserialize(
+            "/complexjson:cont1/complexjson:lst11[complexjson:key111='a/b'][complexjson:lf111='d']"));
+
+        final YangInstanceIdentifier leafList = codec.deserialize("/complexjson:cont1/complexjson:lflst11[.='x']");
+        assertEquals(YangInstanceIdentifier.create(new NodeIdentifier(CONT_1), new NodeIdentifier(LFLST_11),
+            new NodeWithValue<>(LFLST_11, "x")), leafList);
+
+        final YangInstanceIdentifier augmented = YangInstanceIdentifier.create(new NodeIdentifier(CONT_1),
+            new AugmentationIdentifier(ImmutableSet.of(CONT_11)), new NodeIdentifier(CONT_11));
+        assertEquals(augmented, codec.deserialize("/complexjson:cont1/complexjson:cont11"));
+        assertEquals(augmented.node(LF_111), codec.deserialize(
+            "/complexjson:cont1/complexjson:cont11/complexjson:lf111"));
+    }
+
+    @Test
+    public void testDeserializeInvalid() {
+        codec.deserialize(ENTRY);
+        try {
+            codec.deserialize(ENTRY + "/complexjson:dummy");
+            fail("Expected exception not raised");
+        } catch (IllegalArgumentException e) {
+            // Expected
+        }
+        try {
+            codec.deserialize(ENTRY + "/");
+            fail("Expected exception not raised");
+        } catch (IllegalArgumentException e) {
+            // Expected
+        }
+    }
+
+    @Test
+    public void testSerialize() {
+        final YangInstanceIdentifier id = entry("a/b", "c").node(LF_113);
+        final String expected = "/complexjson:cont1/complexjson:lst11[complexjson:key111='a/b']"
+                + "[complexjson:lf111='c']/complexjson:lf113";
+        assertEquals(expected, codec.serialize(id));
+        assertSame(codec.serialize(id), codec.serialize(entry("a/b", "c").node(LF_113)));
+        assertEquals(2, codec.getSerializationCacheStats().hitCount());
+        assertEquals(id, codec.deserialize(codec.serialize(id)));
+    }
+
+    @Test
+    public void testFactoryStats() {
+        assertEquals(0, codecFactory.getInstanceIdentifierSerializationStats().requestCount());
+        assertEquals(0, codecFactory.getInstanceIdentifierDeserializationStats().requestCount());
+    }
+}
@@ -0,0 +1,241 @@
+/*
+ * Copyright (c) 2016 Cisco Systems, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.yangtools.yang.data.codec.gson;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+import static org.opendaylight.yangtools.yang.data.codec.gson.TestUtils.loadModules;
+import static org.opendaylight.yangtools.yang.data.codec.gson.TestUtils.loadTextFile;
+
+import com.google.gson.JsonSyntaxException;
+import com.google.gson.stream.JsonReader;
+import java.io.File;
+import java.io.IOException;
+import java.io.StringReader;
+import java.net.URISyntaxException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.opendaylight.yangtools.yang.common.QName;
+import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier.NodeIdentifier;
+import org.opendaylight.yangtools.yang.data.api.schema.NormalizedNode;
+import org.opendaylight.yangtools.yang.data.impl.codec.SchemaContextCodecRegistry;
+import org.opendaylight.yangtools.yang.data.impl.schema.Builders;
+import org.opendaylight.yangtools.yang.data.impl.schema.ImmutableNodes;
+import org.opendaylight.yangtools.yang.data.impl.schema.ImmutableNormalizedNodeStreamWriter;
+import org.opendaylight.yangtools.yang.data.impl.schema.NormalizedNodeResult;
+import org.opendaylight.yangtools.yang.data.util.SchemaQNameInterner;
+import org.opendaylight.yangtools.yang.model.api.SchemaContext;
+import org.opendaylight.yangtools.yang.parser.spi.meta.ReactorException;
+
+public class UTF8JsonParserTest {
+    private static final QName CONT_1 = QName.create("ns:complex:json", "2014-08-11", "cont1");
+    private static final QName LF_11 = QName.create(CONT_1, "lf11");
+
+    private static final String[] RESOURCES = {
+        "/complexjson/leaf-node-in-container.json",
+        "/complexjson/leaf-node-via-augmentation-in-container.json",
+        "/complexjson/leaflist-node-in-container.json",
+        "/complexjson/keyed-list-node-in-container.json",
+        "/complexjson/choice-node-in-container.json",
+        "/complexjson/case-node-augmentation-in-choice-in-container.json",
+        "/complexjson/case-node-external-augmentation-in-choice-in-container.json",
+        "/complexjson/choice-node-augmentation-in-container.json",
+        "/complexjson/unkeyed-node-in-container.json",
+        "/complexjson/missing-module-in-top-level.json",
+        "/complexjson/multiple-choice-augmentation-in-container.json",
+        "/complexjson/type-empty.json",
+    };
+
+    private static SchemaContext schemaContext;
+    private static UTF8JsonParser parser;
+
+    @BeforeClass
+    public static void initialization() throws IOException, URISyntaxException, ReactorException {
+        schemaContext = loadModules("/complexjson/yang");
+        parser = UTF8JsonParser.create(JSONCodecFactory.create(schemaContext));
+    }
+
+    @Test
+    public void testCodecsWarmedUp() {
+        assertTrue(SchemaContextCodecRegistry.from(schemaContext).isWarmedUp());
+    }
+
+    @Test
+    public void testInternedIdentifiers() throws IOException {
+        final SchemaQNameInterner interner = SchemaQNameInterner.forSchemaContext(schemaContext);
+        final String json = "{\"complexjson:cont1\":{\"lf11\":453}}";
+
+        long hits = interner.getSeededHits();
+        parseStream(json);
+        assertTrue(interner.getSeededHits() > hits);
+
+        hits = interner.getSeededHits();
+        parseString(json);
+        assertTrue(interner.getSeededHits() > hits);
+    }
+
+    private static NormalizedNode<?, ?> parseStream(final String json) {
+        final NormalizedNodeResult result = new NormalizedNodeResult();
+        JsonParserStream.create(ImmutableNormalizedNodeStreamWriter.from(result), schemaContext).parse(
+            new JsonReader(new StringReader(json)));
+        return result.getResult();
+    }
+
+    private static NormalizedNode<?, ?> parseBytes(final byte[] json) throws IOException {
+        final NormalizedNodeResult result = new NormalizedNodeResult();
+        parser.parse(json, ImmutableNormalizedNodeStreamWriter.from(result));
+        return result.getResult();
+    }
+
+    private static NormalizedNode<?, ?> parseBuffer(final ByteBuffer json) throws IOException {
+        final NormalizedNodeResult result = new NormalizedNodeResult();
+        parser.parse(json, ImmutableNormalizedNodeStreamWriter.from(result));
+        return result.getResult();
+    }
+
+    private static NormalizedNode<?, ?> parseString(final String json) throws IOException {
+        return parseBytes(json.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static ByteBuffer directBuffer(final byte[] bytes) {
+        // Surround the document with garbage to make sure only the remaining bytes are parsed
+        final ByteBuffer buffer = ByteBuffer.allocateDirect(bytes.length + 8);
+        buffer.put("garb".getBytes(StandardCharsets.US_ASCII)).put(bytes).put("}age".getBytes(
+            StandardCharsets.US_ASCII));
+        buffer.position(4).limit(4 + bytes.length);
+        return buffer;
+    }
+
+    @Test
+    public void testSameAsJsonParserStream() throws IOException, URISyntaxException {
+        for (final String resource : RESOURCES) {
+            final String json = loadTextFile(resource);
+            final byte[] bytes = json.getBytes(StandardCharsets.UTF_8);
+            final NormalizedNode<?, ?> expected = parseStream(json);
+
+            assertEquals(resource, expected, parseBytes(bytes));
+            // Second pass uses populated name tables
+            assertEquals(resource, expected, parseBytes(bytes));
+
+            final ByteBuffer buffer = directBuffer(bytes);
+            assertEquals(resource, expected, parseBuffer(buffer));
+            assertEquals(4, buffer.position());
+
+            final NormalizedNodeResult result = new NormalizedNodeResult();
+            parser.parse(new File(getClass().getResource(resource).toURI()),
+                ImmutableNormalizedNodeStreamWriter.from(result));
+            assertEquals(resource, expected, result.getResult());
+        }
+    }
+
+    @Test
+    public void testEmptyInput() throws IOException {
+        assertNull(parseString(" \n"));
+    }
+
+    @Test
+    public void testIntegerValues() throws IOException {
+        for (final String value : new String[] { "453", "-453", "0", "\"453\"", "\"+453\"", "\"0x1C5\"",
+                "\"0705\"", "2147483647", "-2147483648" }) {
+            final String json = "{\"complexjson:cont1\":{\"lf11\":" + value + "}}";
+            final NormalizedNode<?, ?> expected = parseStream(json);
+            assertEquals(json, expected, parseString(json));
+        }
+
+        assertEquals(Builders.containerBuilder().withNodeIdentifier(new NodeIdentifier(CONT_1))
+            .withChild(ImmutableNodes.leafNode(LF_11, 453)).build(),
+            parseString("{\"complexjson:cont1\":{\"lf11\":453}}"));
+    }
+
+    @Test
+    public void testIntegerOutOfRange() throws IOException {
+        for (final String value : new String[] { "2147483648", "-2147483649", "12345678901234567890", "\"-0\"" }) {
+            try {
+                parseString("{\"complexjson:cont1\":{\"lf11\":" + value + "}}");
+                fail("Expected exception for " + value);
+            } catch (IllegalArgumentException e) {
+                // Expected, reported by the codec
+            }
+        }
+    }
+
+    @Test
+    public void testEscapedName() throws IOException {
+        final String json = "{\"complexjson:cont1\":{\"lf\\u00311\":453}}";
+        assertEquals(parseStream(json), parseString(json));
+    }
+
+    @Test
+    public void testDuplicateName() throws IOException {
+        try {
+            parseString("{\"complexjson:cont1\":{\"lf11\":1,\"lf11\":2}}");
+            fail("Expected exception not raised");
+        } catch (final JsonSyntaxException e) {
+            assertEquals("Duplicate name lf11 in JSON input.", e.getMessage());
+        }
+    }
+
+    @Test
+    public void testDuplicateEscapedName() throws IOException {
+        try {
+            parseString("{\"complexjson:cont1\":{\"lf11\":1,\"lf\\u00311\":2}}");
+            fail("Expected exception not raised");
+        } catch (final JsonSyntaxException e) {
+            assertEquals("Duplicate name lf11 in JSON input.", e.getMessage());
+        }
+    }
+
+    @Test
+    public void testEscapedControlCharacters() throws IOException {
+        final String json = "{\"complexjson:cont1\":{\"lflst11\":[\"a\\tb\\n\",\"\\u0001\"]}}";
+        assertEquals(parseStream(json), parseString(json));
+    }
+
+    @Test
+    public void testUnescapedControlCharacters() throws IOException {
+        for (final String json : new String[] { "{\"complexjson:cont1\":{\"lflst11\":[\"a\tb\"]}}",
+                "{\"complexjson:cont1\":{\"lflst11\":[\"a\nb\"]}}",
+                "{\"complexjson:cont1\":{\"lflst11\":[\"\u0001\"]}}",
+                "{\"complexjson:cont1\":{\"lf\u001f11\":1}}" }) {
+            try {
+                parseString(json);
+                fail("Expected exception for " + json);
+            } catch (final JsonSyntaxException e) {
+                assertTrue(e.getMessage(), e.getMessage().startsWith("Unescaped control character in string"));
+            }
+        }
+    }
+
+    @Test
+    public void testNotExistingElement() throws IOException, URISyntaxException {
+        try {
+            parseString(loadTextFile("/complexjson/not-existing-element.json"));
+            fail("Expected exception not raised");
+        } catch (final IllegalStateException e) {
+            assertTrue(e.getMessage().contains("Schema node with name dummy-element wasn't found"));
+        }
+    }
+
+    @Test
+    public void testMalformedInput() throws IOException {
+        for (final String json : new String[] { "{\"complexjson:cont1\":{\"lf11\":1}", "{\"complexjson:cont1\":{}} x",
+                "{\"complexjson:cont1\":{\"lf11\":01}}", "{complexjson:cont1:{}}",
+                "{\"complexjson:cont1\":{\"lf11\":1,}}" }) {
+            try {
+                parseString(json);
+                fail("Expected exception for " + json);
+            } catch (final JsonSyntaxException e) {
+                assertTrue(e.getMessage(), e.getMessage().contains(" at offset "));
+            }
+        }
+    }
+}
@@ -0,0 +1,240 @@
+/*
+ * Copyright (c) 2016 Cisco Systems, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.yangtools.yang.data.codec.gson;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.opendaylight.yangtools.yang.data.codec.gson.TestUtils.loadModules;
+
+import com.google.common.base.Strings;
+import com.google.gson.stream.JsonWriter;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.net.URISyntaxException;
+import java.nio.charset.StandardCharsets;
+import org.junit.Test;
+import org.opendaylight.yangtools.yang.data.api.schema.NormalizedNode;
+import org.opendaylight.yangtools.yang.data.api.schema.stream.NormalizedNodeWriter;
+import org.opendaylight.yangtools.yang.model.api.SchemaContext;
+import org.opendaylight.yangtools.yang.model.api.SchemaPath;
+import org.opendaylight.yangtools.yang.parser.spi.meta.ReactorException;
+
+public class UTF8JsonWriterTest {
+    private interface Content {
+        void write(JsonWriter writer) throws IOException;
+    }
+
+    private static byte[] gsonOutput(final Content content, final int indent, final boolean htmlSafe)
+            throws IOException {
+        final ByteArrayOutputStream bos = new ByteArrayOutputStream();
+        final JsonWriter writer = JsonWriterFactory.createJsonWriter(
+            new OutputStreamWriter(bos, StandardCharsets.UTF_8), indent);
+        writer.setHtmlSafe(htmlSafe);
+        content.write(writer);
+        writer.close();
+        return bos.toByteArray();
+    }
+
+    private static byte[] utf8Output(final Content content, final int indent, final boolean htmlSafe)
+            throws IOException {
+        final ByteArrayOutputStream bos = new ByteArrayOutputStream();
+        final JsonWriter writer = JsonWriterFactory.createJsonWriter(bos, indent);
+        writer.setHtmlSafe(htmlSafe);
+        content.write(writer);
+        writer.close();
+        return bos.toByteArray();
+    }
+
+    private static void assertSameOutput(final Content content) throws IOException {
+        for (int indent : new int[] { 0, 2 }) {
+            for (boolean htmlSafe : new boolean[] { false, true }) {
+                final byte[] expected = gsonOutput(content, indent, htmlSafe);
+                assertArrayEquals(new String(expected, StandardCharsets.UTF_8), expected,
+                    utf8Output(content, indent, htmlSafe));
+            }
+        }
+    }
+
+    @Test
+    public void testStructure() throws IOException {
+        assertSameOutput(new Content() {
+            @Override
+            public void write(final JsonWriter writer) throws IOException {
+                writer.beginObject();
+                writer.name("empty-object").beginObject().endObject();
+                writer.name("empty-array").beginArray().endArray();
+                writer.name("skipped-null").nullValue();
+                writer.name("nested").beginObject().name("array").beginArray().value(true).value(false).nullValue()
+                    .beginObject().endObject().endArray().endObject();
+                writer.endObject();
+            }
+        });
+    }
+
+    @Test
+    public void testStrings() throws IOException {
+        assertSameOutput(new Content() {
+            @Override
+            public void write(final JsonWriter writer) throws IOException {
+                writer.beginArray();
+                writer.value("plain");
+                writer.value("quote\" backslash\\ tab\t newline\n cr\r bs\b ff\f nul\0 ctl\u001f");
+                writer.value("html <a href='x'>&amp;=</a>");
+                writer.value("latin \u00e9\u00ff, greek \u03b1, cjk \u4e2d\u6587, separators \u2028 \u2029");
+                writer.value("supplementary \uD83D\uDE00, unpaired \uD83D");
+                writer.value(Strings.repeat("long \u00e9 string ", 2000));
+                writer.value((String) null);
+                writer.endArray();
+            }
+        });
+    }
+
+    @Test
+    public void testNumbers() throws IOException {
+        assertSameOutput(new Content() {
+            @Override
+            public void write(final JsonWriter writer) throws IOException {
+                writer.beginArray();
+                writer.value(0).value(7).value(-42).value(Long.MAX_VALUE).value(Long.MIN_VALUE);
+                writer.value(1.5).value(-0.0).value(1e300);
+                writer.value(Integer.valueOf(Integer.MIN_VALUE)).value(Short.valueOf((short) -5));
+                writer.value(Byte.valueOf((byte) 127)).value(new BigDecimal("12.3400"));
+                writer.value(new BigInteger("123456789012345678901234567890")).value((Number) null);
+                writer.endArray();
+            }
+        });
+    }
+
+    @Test
+    public void testEncodedName() throws IOException {
+        final ByteArrayOutputStream bos = new ByteArrayOutputStream();
+        final UTF8JsonWriter writer = (UTF8JsonWriter) JsonWriterFactory.createJsonWriter(bos);
+        writer.beginObject();
+        writer.name(UTF8JsonWriter.encodeName("module:name"));
+        writer.value(1);
+        writer.name("other");
+        writer.value("\u00e9");
+        writer.endObject();
+        writer.close();
+        assertEquals("{\"module:name\":1,\"other\":\"\u00e9\"}",
+            new String(bos.toByteArray(), StandardCharsets.UTF_8));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testNonFiniteNumbers() throws IOException {
+        // JsonWriter.value(double) rejects non-finite values even when lenient
+        final JsonWriter writer = JsonWriterFactory.createJsonWriter(new ByteArrayOutputStream());
+        writer.setLenient(true);
+        writer.beginArray().value(Double.NaN);
+    }
+
+    @Test
+    public void testNonFiniteNumbersLenient() throws IOException {
+        final ByteArrayOutputStream bos = new ByteArrayOutputStream();
+        final JsonWriter writer = JsonWriterFactory.createJsonWriter(bos);
+        writer.setLenient(true);
+        writer.beginArray().value(Double.valueOf(Double.NaN)).value(Float.valueOf(Float.NEGATIVE_INFINITY))
+            .endArray();
+        writer.close();
+        assertEquals("[NaN,-Infinity]", new String(bos.toByteArray(), StandardCharsets.UTF_8));
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void testSetIndent() throws IOException {
+        final JsonWriter writer = JsonWriterFactory.createJsonWriter(new ByteArrayOutputStream());
+        writer.setIndent("  ");
+        writer.beginObject();
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void testSetIndentWhileWriting() throws IOException {
+        final JsonWriter writer = JsonWriterFactory.createJsonWriter(new ByteArrayOutputStream());
+        writer.beginObject();
+        writer.setIndent("  ");
+        writer.endObject();
+        writer.flush();
+    }
+
+    @Test
+    public void testSetEmptyIndent() throws IOException {
+        final ByteArrayOutputStream bos = new ByteArrayOutputStream();
+        final JsonWriter writer = JsonWriterFactory.createJsonWriter(bos);
+        writer.setIndent("");
+        writer.beginObject().name("a").value(1).endObject();
+        writer.close();
+        assertEquals("{\"a\":1}", new String(bos.toByteArray(), StandardCharsets.UTF_8));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testNonFiniteDoubleStrict() throws IOException {
+        JsonWriterFactory.createJsonWriter(new ByteArrayOutputStream()).beginArray().value(Double.NaN);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testNonFiniteNumberStrict() throws IOException {
+        JsonWriterFactory.createJsonWriter(new ByteArrayOutputStream()).beginArray()
+            .value(Double.valueOf(Double.POSITIVE_INFINITY));
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testMultipleTopLevel() throws IOException {
+        final JsonWriter writer = JsonWriterFactory.createJsonWriter(new ByteArrayOutputStream());
+        writer.beginObject().endObject();
+        writer.beginObject();
+    }
+
+    @Test(expected = IOException.class)
+    public void testIncompleteDocument() throws IOException {
+        final JsonWriter writer = JsonWriterFactory.createJsonWriter(new ByteArrayOutputStream());
+        writer.beginObject();
+        writer.close();
+    }
+
+    @Test
+    public void testNormalizedNodes() throws IOException, URISyntaxException, ReactorException {
+        final SchemaContext schemaContext = loadModules("/complexjson/yang");
+        final JSONCodecFactory codecFactory = JSONCodecFactory.create(schemaContext);
+        final JSONNormalizedNodeSerializer serializer = JSONNormalizedNodeSerializer.create(codecFactory,
+            SchemaPath.ROOT, null);
+
+        for (final NormalizedNode<?, ?> node : new NormalizedNode<?, ?>[] {
+                TestingNormalizedNodeStructuresCreator.leafListNodeInContainerMultiline(),
+                TestingNormalizedNodeStructuresCreator.keyedListNodeInContainer(),
+                TestingNormalizedNodeStructuresCreator.caseNodeExternalAugmentationInChoiceInContainer(),
+                TestingNormalizedNodeStructuresCreator.unkeyedNodeInContainer(),
+        }) {
+            final byte[] expected = gsonOutput(new Content() {
+                @Override
+                public void write(final JsonWriter writer) throws IOException {
+                    final NormalizedNodeWriter nodeWriter = NormalizedNodeWriter.forStreamWriter(
+                        JSONNormalizedNodeStreamWriter.createExclusiveWriter(codecFactory, SchemaPath.ROOT, null,
+                            writer));
+                    nodeWriter.write(node);
+                    nodeWriter.flush();
+                }
+            }, 2, false);
+
+            final ByteArrayOutputStream streamed = new ByteArrayOutputStream();
+            final NormalizedNodeWriter nodeWriter = NormalizedNodeWriter.forStreamWriter(
+                JSONNormalizedNodeStreamWriter.createExclusiveWriter(codecFactory, SchemaPath.ROOT, null,
+                    JsonWriterFactory.createJsonWriter(streamed, 2)));
+            nodeWriter.write(node);
+            nodeWriter.close();
+            assertArrayEquals(expected, streamed.toByteArray());
+
+            final ByteArrayOutputStream serialized = new ByteArrayOutputStream();
+            final JsonWriter writer = JsonWriterFactory.createJsonWriter(serialized, 2);
+            serializer.writeExclusive(writer, node);
+            writer.close();
+            assertArrayEquals(expected, serialized.toByteArray());
+        }
+    }
+}
@@ -8,26 +8,22 @@
 
 package org.opendaylight.yangtools.yang.data.codec.xml;
 
+import com.google.common.annotations.Beta;
 import com.google.common.base.Preconditions;
-import com.google.common.base.Verify;
 import com.google.common.cache.CacheBuilder;
 import com.google.common.cache.CacheLoader;
+import com.google.common.cache.CacheStats;
 import com.google.common.cache.LoadingCache;
 import javax.xml.stream.XMLStreamException;
 import javax.xml.stream.XMLStreamWriter;
-import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier;
+import org.opendaylight.yangtools.yang.data.impl.codec.SchemaContextCodecRegistry;
 import org.opendaylight.yangtools.yang.data.impl.codec.TypeDefinitionAwareCodec;
 import org.opendaylight.yangtools.yang.model.api.DataSchemaNode;
-import org.opendaylight.yangtools.yang.model.api.LeafListSchemaNode;
-import org.opendaylight.yangtools.yang.model.api.LeafSchemaNode;
 import org.opendaylight.yangtools.yang.model.api.SchemaContext;
 import org.opendaylight.yangtools.yang.model.api.TypeDefinition;
 import org.opendaylight.yangtools.yang.model.api.type.EmptyTypeDefinition;
 import org.opendaylight.yangtools.yang.model.api.type.IdentityrefTypeDefinition;
 import org.opendaylight.yangtools.yang.model.api.type.InstanceIdentifierTypeDefinition;
-import org.opendaylight.yangtools.yang.model.api.type.LeafrefTypeDefinition;
-import org.opendaylight.yangtools.yang.model.util.SchemaContextUtil;
-import org.opendaylight.yangtools.yang.model.util.type.DerivedTypes;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -57,28 +53,39 @@ public final class XmlCodecFactory {
             CacheBuilder.newBuilder().softValues().build(new CacheLoader<DataSchemaNode, XmlCodec<?>>() {
                 @Override
                 public XmlCodec<?> load(final DataSchemaNode key) throws Exception {
-                    final TypeDefinition<?> type;
-                    if (key instanceof LeafSchemaNode) {
-                        type = ((LeafSchemaNode) key).getType();
-                    } else if (key instanceof LeafListSchemaNode) {
-                        type = ((LeafListSchemaNode) key).getType();
-                    } else {
-                        throw new IllegalArgumentException("Not supported node type " + key.getClass().getName());
+                    final TypeDefinition<?> type = registry.getEffectiveType(key);
+                    if (type instanceof IdentityrefTypeDefinition) {
+                        return new XmlStringIdentityrefCodec(schemaContext, key.getQName().getModule());
                     }
-                    return createCodec(key,type);
+                    return simpleCodecs.getUnchecked(type);
+                }
+            });
+
+    /*
+     * Codecs for types which do not depend on the schema node using them, shared by all such nodes. They wrap codecs
+     * from the registry, which are shared by all factories.
+     */
+    private final LoadingCache<TypeDefinition<?>, XmlCodec<?>> simpleCodecs =
+            CacheBuilder.newBuilder().weakKeys().build(new CacheLoader<TypeDefinition<?>, XmlCodec<?>>() {
+                @Override
+                public XmlCodec<?> load(final TypeDefinition<?> key) {
+                    return createFromSimpleType(key);
                 }
             });
 
     private final SchemaContext schemaContext;
-    private final XmlCodec<YangInstanceIdentifier> iidCodec;
+    private final SchemaContextCodecRegistry registry;
+    private final XmlStringInstanceIdentifierCodec iidCodec;
 
     private XmlCodecFactory(final SchemaContext context) {
         this.schemaContext = Preconditions.checkNotNull(context);
+        this.registry = SchemaContextCodecRegistry.install(context);
         iidCodec = new XmlStringInstanceIdentifierCodec(context, this);
     }
 
     /**
-     * Instantiate a new codec factory attached to a particular context.
+     * Instantiate a new codec factory attached to a particular context. The first factory created for a context warms
+     * up the codecs shared by all factories bound to it, see {@link SchemaContextCodecRegistry#install(SchemaContext)}.
      *
      * @param context SchemaContext to which the factory should be bound
      * @return A codec factory instance.
@@ -87,26 +94,6 @@ public final class XmlCodecFactory {
         return new XmlCodecFactory(context);
     }
 
-    private XmlCodec<?> createCodec(final DataSchemaNode key, final TypeDefinition<?> type) {
-        final TypeDefinition<?> normalizedType = DerivedTypes.derivedTypeBuilder(type, type.getPath()).build();
-        if (normalizedType instanceof LeafrefTypeDefinition) {
-            return createReferencedTypeCodec(key, (LeafrefTypeDefinition) normalizedType);
-        } else if (normalizedType instanceof IdentityrefTypeDefinition) {
-            final XmlCodec<?> xmlStringIdentityrefCodec =
-                    new XmlStringIdentityrefCodec(schemaContext, key.getQName().getModule());
-            return xmlStringIdentityrefCodec;
-        }
-        return createFromSimpleType(normalizedType);
-    }
-
-    private XmlCodec<?> createReferencedTypeCodec(final DataSchemaNode schema, final LeafrefTypeDefinition type) {
-        // FIXME: Verify if this does indeed support leafref of leafref
-        final TypeDefinition<?> referencedType =
-                SchemaContextUtil.getBaseTypeForLeafRef(type, getSchemaContext(), schema);
-        Verify.verifyNotNull(referencedType, "Unable to find base type for leafref node '%s'.", schema.getPath());
-        return createCodec(schema, referencedType);
-    }
-
     private XmlCodec<?> createFromSimpleType(final TypeDefinition<?> type) {
         if (type instanceof InstanceIdentifierTypeDefinition) {
             return iidCodec;
@@ -115,14 +102,33 @@ public final class XmlCodecFactory {
             return XmlEmptyCodec.INSTANCE;
         }
 
-        final TypeDefinitionAwareCodec<Object, ?> codec = TypeDefinitionAwareCodec.from(type);
+        final TypeDefinitionAwareCodec<Object, ?> codec = registry.getCodec(type);
         if (codec == null) {
-            LOG.debug("Codec for type \"{}\" is not implemented yet.", type.getQName().getLocalName());
             return NULL_CODEC;
         }
         return AbstractXmlCodec.create(codec);
     }
 
+    /**
+     * Return statistics of instance-identifier serialization cache.
+     *
+     * @return Cache statistics, or null if the cache is disabled
+     */
+    @Beta
+    public CacheStats getInstanceIdentifierSerializationStats() {
+        return iidCodec.getSerializationCacheStats();
+    }
+
+    /**
+     * Return statistics of instance-identifier deserialization cache.
+     *
+     * @return Cache statistics, or null if the cache is disabled
+     */
+    @Beta
+    public CacheStats getInstanceIdentifierDeserializationStats() {
+        return iidCodec.getDeserializationCacheStats();
+    }
+
     SchemaContext getSchemaContext() {
         return schemaContext;
     }
@@ -18,8 +18,6 @@ import static org.opendaylight.yangtools.yang.model.util.BaseTypes.UINT8_QNAME;
 import com.google.common.base.CharMatcher;
 import com.google.common.base.Optional;
 import com.google.common.base.Preconditions;
-import com.google.common.collect.Range;
-import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 import java.util.regex.Pattern;
@@ -27,8 +25,10 @@ import org.opendaylight.yangtools.yang.model.api.TypeDefinition;
 import org.opendaylight.yangtools.yang.model.api.type.IntegerTypeDefinition;
 import org.opendaylight.yangtools.yang.model.api.type.RangeConstraint;
 import org.opendaylight.yangtools.yang.model.api.type.UnsignedIntegerTypeDefinition;
+import org.opendaylight.yangtools.yang.model.util.type.RangeChecker;
 
-abstract class AbstractIntegerStringCodec<N extends Number & Comparable<N>, T extends TypeDefinition<T>> extends TypeDefinitionAwareCodec<N, T>{
+abstract class AbstractIntegerStringCodec<N extends Number & Comparable<N>, T extends TypeDefinition<T>> extends TypeDefinitionAwareCodec<N, T>
+        implements PrimitiveIntegerCodec<N> {
 
     private static final Pattern INT_PATTERN = Pattern.compile("[+-]?[1-9][0-9]*$");
     private static final Pattern HEX_PATTERN = Pattern.compile("[+-]?0[xX][0-9a-fA-F]+");
@@ -43,19 +43,36 @@ abstract class AbstractIntegerStringCodec<N extends Number & Comparable<N>, T ex
             + "\n  - a hexadecimal number (prefix 0x)," + "%n  - an octal number (prefix 0)."
             + "\nSigned values are allowed. Spaces between digits are NOT allowed.";
 
+    // Longest digit sequences which are guaranteed to fit into a long
+    private static final int MAX_DECIMAL_DIGITS = 18;
+    private static final int MAX_HEXADECIMAL_DIGITS = 15;
+    private static final int MAX_OCTAL_DIGITS = 20;
 
-    private final List<Range<N>> rangeConstraints;
+    // Bounds of the Java representation
+    private final long typeMin;
+    private final long typeMax;
+    private final RangeChecker rangeChecker;
 
     protected AbstractIntegerStringCodec(final Optional<T> typeDefinition, final List<RangeConstraint> constraints , final Class<N> outputClass) {
         super(typeDefinition, outputClass);
-        if (constraints.isEmpty()) {
-            rangeConstraints = Collections.emptyList();
+        if (typeDefinition.isPresent()) {
+            rangeChecker = RangeChecker.rangeCheckerOf(typeDefinition.get()).or(RangeChecker.forRanges(constraints));
         } else {
-            final List<Range<N>> builder = new ArrayList<>(constraints.size());
-            for (final RangeConstraint yangConstraint : constraints) {
-                builder.add(createRange(yangConstraint.getMin(), yangConstraint.getMax()));
-            }
-            rangeConstraints = builder;
+            rangeChecker = RangeChecker.forRanges(constraints);
+        }
+
+        if (Byte.class.equals(outputClass)) {
+            typeMin = Byte.MIN_VALUE;
+            typeMax = Byte.MAX_VALUE;
+        } else if (Short.class.equals(outputClass)) {
+            typeMin = Short.MIN_VALUE;
+            typeMax = Short.MAX_VALUE;
+        } else if (Integer.class.equals(outputClass)) {
+            typeMin = Integer.MIN_VALUE;
+            typeMax = Integer.MAX_VALUE;
+        } else {
+            typeMin = Long.MIN_VALUE;
+            typeMax = Long.MAX_VALUE;
         }
     }
 
@@ -105,14 +122,36 @@ abstract class AbstractIntegerStringCodec<N extends Number & Comparable<N>, T ex
         }
     }
 
-    private Range<N> createRange(final Number yangMin, final Number yangMax) {
-        final N min = convertValue(yangMin);
-        final N max = convertValue(yangMax);
-        return Range.closed(min, max);
+    @Override
+    public final boolean isValid(final long value) {
+        return value >= typeMin && value <= typeMax && rangeChecker.contains(value);
+    }
+
+    @Override
+    public final N deserialize(final CharSequence chars, final int start, final int end) {
+        final int radix = fastRadix(chars, start, end);
+        if (radix == 0) {
+            // Invalid or too long, defer to the String path for proper handling
+            return deserializeString(chars.subSequence(start, end).toString());
+        }
+
+        final long value = parseFast(chars, start, end, radix);
+        if (value < typeMin || value > typeMax) {
+            return deserializeString(chars.subSequence(start, end).toString());
+        }
+        if (!isValid(value)) {
+            throw rangeViolation(valueOf(value));
+        }
+        return valueOf(value);
     }
 
     @Override
     public final N deserialize(final String stringRepresentation) {
+        return stringRepresentation == null ? deserializeString(null)
+                : deserialize(stringRepresentation, 0, stringRepresentation.length());
+    }
+
+    private N deserializeString(final String stringRepresentation) {
         final int base = provideBase(stringRepresentation);
         final N deserialized;
         if (base == 16) {
@@ -125,16 +164,44 @@ abstract class AbstractIntegerStringCodec<N extends Number & Comparable<N>, T ex
     }
 
 
-    private void validate(final N value) {
-        if (rangeConstraints.isEmpty()) {
-            return;
+    @Override
+    final boolean canDeserialize(final String stringRepresentation) {
+        if (stringRepresentation == null) {
+            return false;
         }
-        for (final Range<N> constraint : rangeConstraints) {
-            if (constraint.contains(value)) {
-                return;
-            }
+        final int radix = fastRadix(stringRepresentation, 0, stringRepresentation.length());
+        if (radix != 0) {
+            return isValid(parseFast(stringRepresentation, 0, stringRepresentation.length(), radix));
+        }
+
+        final int base = lexicalBase(stringRepresentation);
+        if (base == -1) {
+            return false;
+        }
+
+        final N deserialized;
+        try {
+            deserialized = deserialize(base == 16 ? normalizeHexadecimal(stringRepresentation) : stringRepresentation,
+                base);
+        } catch (NumberFormatException e) {
+            // Lexically valid, but does not fit the type
+            return false;
+        }
+        return isInRange(deserialized);
+    }
+
+    private boolean isInRange(final N value) {
+        return rangeChecker.contains(value);
+    }
+
+    private void validate(final N value) {
+        if (!isInRange(value)) {
+            throw rangeViolation(value);
         }
-        throw new IllegalArgumentException("Value '" + value + "'  is not in required range " + rangeConstraints);
+    }
+
+    private IllegalArgumentException rangeViolation(final N value) {
+        return new IllegalArgumentException("Value '" + value + "'  is not in required range " + rangeChecker);
     }
 
     /**
@@ -150,7 +217,8 @@ abstract class AbstractIntegerStringCodec<N extends Number & Comparable<N>, T ex
      */
     protected abstract N deserialize(String stringRepresentation, int radix);
 
-    protected abstract N convertValue(Number value);
+    @Override
+    public abstract N valueOf(long value);
 
 
     protected static List<RangeConstraint> extractRange(final IntegerTypeDefinition type) {
@@ -170,17 +238,133 @@ abstract class AbstractIntegerStringCodec<N extends Number & Comparable<N>, T ex
     private static int provideBase(final String integer) {
         Preconditions.checkArgument(integer != null, "String representing integer number cannot be NULL");
 
+        final int base = lexicalBase(integer);
+        if (base == -1) {
+            throw new NumberFormatException(String.format(INCORRECT_LEXICAL_REPRESENTATION, integer));
+        }
+        return base;
+    }
+
+    /**
+     * Determine the base of an integer value by looking at its lexical representation.
+     *
+     * @param integer String representation
+     * @return Base of the value, or -1 if the representation is not valid.
+     */
+    private static int lexicalBase(final String integer) {
         if (integer.length() == 1 && integer.charAt(0) == '0') {
             return 10;
-        } else if (INT_PATTERN.matcher(integer).matches()) {
-            return 10;
+        }
+
+        // Quick check for the first digit, so we do not need to run the patterns on arbitrary strings
+        int offset = 0;
+        if (offset < integer.length() && (integer.charAt(offset) == '+' || integer.charAt(offset) == '-')) {
+            offset++;
+        }
+        if (offset == integer.length()) {
+            return -1;
+        }
+        final char first = integer.charAt(offset);
+        if (first < '0' || first > '9') {
+            return -1;
+        }
+
+        if (first != '0') {
+            return INT_PATTERN.matcher(integer).matches() ? 10 : -1;
         } else if (HEX_PATTERN.matcher(integer).matches()) {
             return 16;
         } else if (OCT_PATTERN.matcher(integer).matches()) {
             return 8;
         } else {
-            throw new NumberFormatException(String.format(INCORRECT_LEXICAL_REPRESENTATION, integer));
+            return -1;
+        }
+    }
+
+    /**
+     * Determine the radix of an integer value, as {@link #lexicalBase(String)} does, provided its digits are
+     * guaranteed to fit into a long.
+     *
+     * @return Radix of the value, or 0 if the representation is not valid or may not fit into a long.
+     */
+    private static int fastRadix(final CharSequence chars, final int start, final int end) {
+        int i = start;
+        if (i < end && (chars.charAt(i) == '+' || chars.charAt(i) == '-')) {
+            i++;
+        }
+        if (i == end) {
+            return 0;
+        }
+
+        final int radix;
+        final int maxDigits;
+        if (chars.charAt(i) != '0') {
+            radix = 10;
+            maxDigits = MAX_DECIMAL_DIGITS;
+        } else if (i + 1 == end) {
+            // Plain zero must not be signed
+            return i == start ? 10 : 0;
+        } else if (chars.charAt(i + 1) == 'x' || chars.charAt(i + 1) == 'X') {
+            i += 2;
+            radix = 16;
+            maxDigits = MAX_HEXADECIMAL_DIGITS;
+        } else {
+            i++;
+            // First octal digit must not be zero
+            if (chars.charAt(i) == '0') {
+                return 0;
+            }
+            radix = 8;
+            maxDigits = MAX_OCTAL_DIGITS;
+        }
+
+        final int digits = end - i;
+        if (digits == 0 || digits > maxDigits) {
+            return 0;
+        }
+        for (; i < end; ++i) {
+            if (digit(chars.charAt(i), radix) < 0) {
+                return 0;
+            }
+        }
+        return radix;
+    }
+
+    /**
+     * Parse a value whose representation has been checked by {@link #fastRadix(CharSequence, int, int)}.
+     */
+    private static long parseFast(final CharSequence chars, final int start, final int end, final int radix) {
+        int i = start;
+        boolean negative = false;
+        if (chars.charAt(i) == '+' || chars.charAt(i) == '-') {
+            negative = chars.charAt(i) == '-';
+            i++;
+        }
+        if (radix == 16) {
+            i += 2;
+        } else if (radix == 8) {
+            i++;
+        }
+
+        long value = 0;
+        for (; i < end; ++i) {
+            value = value * radix + digit(chars.charAt(i), radix);
+        }
+        return negative ? -value : value;
+    }
+
+    // Unlike Character.digit(), this accepts only ASCII digits, as the patterns do
+    private static int digit(final char c, final int radix) {
+        final int value;
+        if (c >= '0' && c <= '9') {
+            value = c - '0';
+        } else if (c >= 'a' && c <= 'f') {
+            value = c - 'a' + 10;
+        } else if (c >= 'A' && c <= 'F') {
+            value = c - 'A' + 10;
+        } else {
+            return -1;
         }
+        return value < radix ? value : -1;
     }
 
     private static String normalizeHexadecimal(final String hexInt) {
@@ -28,6 +28,12 @@ final class BinaryStringCodec extends TypeDefinitionAwareCodec<byte[], BinaryTyp
         return data == null ? "" : BaseEncoding.base64().encode(data);
     }
 
+    @Override
+    boolean canDeserialize(final String stringRepresentation) {
+        // parseBase64Binary() is lenient and does not fail on any input
+        return true;
+    }
+
     @Override
     public byte[] deserialize(final String stringRepresentation) {
         return stringRepresentation == null ? null : DatatypeConverter.parseBase64Binary(stringRepresentation);
@@ -62,6 +62,19 @@ final class BitsStringCodec extends TypeDefinitionAwareCodec<Set<String>, BitsTy
         return ImmutableSet.copyOf(strings);
     }
 
+    @Override
+    boolean canDeserialize(final String stringRepresentation) {
+        if (stringRepresentation == null || bits == null) {
+            return true;
+        }
+        for (final String bit : SPLITTER.split(stringRepresentation)) {
+            if (!bits.contains(bit)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
     private void validate(final Iterable<String> strings) {
         if (bits != null) {
             for (final String bit : strings) {
@@ -34,8 +34,17 @@ final class BooleanStringCodec extends TypeDefinitionAwareCodec<Boolean, Boolean
         return Boolean.valueOf(stringRepresentation);
     }
 
+    @Override
+    boolean canDeserialize(final String stringRepresentation) {
+        return stringRepresentation == null || isBoolean(stringRepresentation);
+    }
+
+    private static boolean isBoolean(final String string) {
+        return "true".equalsIgnoreCase(string) || "false".equalsIgnoreCase(string);
+    }
+
     private static void validate(final String string) {
-        Preconditions.checkArgument("true".equalsIgnoreCase(string) || "false".equalsIgnoreCase(string),
+        Preconditions.checkArgument(isBoolean(string),
                 "Invalid value '%s' for boolean type. Allowed values are true and false", string);
     }
 
@@ -9,26 +9,211 @@ package org.opendaylight.yangtools.yang.data.impl.codec;
 
 import com.google.common.base.Preconditions;
 import com.google.common.base.Strings;
+import com.google.common.base.Throwables;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheLoader;
+import com.google.common.cache.LoadingCache;
+import com.google.common.util.concurrent.UncheckedExecutionException;
 import java.util.regex.Pattern;
+import org.opendaylight.yangtools.xsd.regex.RegexAutomaton;
 import org.opendaylight.yangtools.yang.model.api.type.PatternConstraint;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
+/**
+ * Compiled form of a {@link PatternConstraint}, shared by all codecs using the same constraint.
+ *
+ * <p>
+ * Patterns are matched by a {@link RegexAutomaton} whenever the pattern is written in the common subset of Java and
+ * XML Schema regular expression syntax, where both interpret it the same way. Some constructs, like {@code .},
+ * {@code \d} and {@code \p{..}}, agree only on ASCII input, hence non-ASCII input is matched by the Java pattern. Any
+ * other pattern is matched solely by the Java pattern.
+ */
 class CompiledPatternContext {
+    private static final Logger LOG = LoggerFactory.getLogger(CompiledPatternContext.class);
+    private static final LoadingCache<PatternConstraint, CompiledPatternContext> CONTEXTS = CacheBuilder.newBuilder()
+            .weakKeys().build(new CacheLoader<PatternConstraint, CompiledPatternContext>() {
+                @Override
+                public CompiledPatternContext load(final PatternConstraint key) {
+                    return new CompiledPatternContext(key);
+                }
+            });
+
+    // Single-character escapes with the same meaning in both syntaxes
+    private static final String COMMON_ESCAPES = "\\|.-^?*+{}()[]nrt";
 
     private final Pattern pattern;
     private final String errorMessage;
+    private final RegexAutomaton automaton;
+    private final boolean asciiOnly;
 
     CompiledPatternContext(final PatternConstraint yangConstraint) {
-        pattern = Pattern.compile("^" + yangConstraint.getRegularExpression() + "$");
+        final String regex = yangConstraint.getRegularExpression();
+        pattern = Pattern.compile("^" + regex + "$");
         final String yangMessage = yangConstraint.getErrorMessage();
         if (Strings.isNullOrEmpty(yangMessage)) {
             errorMessage = "Value %s does not match regular expression <" + pattern.pattern() + ">";
         } else {
             errorMessage = yangMessage;
         }
+
+        final String body = stripAnchors(regex);
+        final Boolean ascii = checkCommonSyntax(body);
+        RegexAutomaton compiled = null;
+        if (ascii != null) {
+            try {
+                compiled = RegexAutomaton.compile(body);
+            } catch (RuntimeException e) {
+                LOG.debug("Pattern {} cannot be matched by an automaton, using java.util.regex", regex, e);
+            }
+        } else {
+            LOG.debug("Pattern {} is not in common Java and XSD syntax, using java.util.regex", regex);
+        }
+        automaton = compiled;
+        asciiOnly = ascii != null && ascii;
+    }
+
+    /**
+     * Return the compiled form of a constraint.
+     *
+     * @param yangConstraint Pattern constraint
+     * @return Compiled pattern
+     * @throws java.util.regex.PatternSyntaxException if the pattern is not a valid Java regular expression
+     */
+    static CompiledPatternContext forConstraint(final PatternConstraint yangConstraint) {
+        try {
+            return CONTEXTS.getUnchecked(yangConstraint);
+        } catch (UncheckedExecutionException e) {
+            throw Throwables.propagate(e.getCause());
+        }
+    }
+
+    boolean matches(final String s) {
+        if (automaton != null && (!asciiOnly || isAscii(s))) {
+            return automaton.matches(s);
+        }
+        return pattern.matcher(s).matches();
+    }
+
+    boolean hasAutomaton() {
+        return automaton != null;
     }
 
     public void validate(final String s) {
-        Preconditions.checkArgument(pattern.matcher(s).matches(), errorMessage, s);
+        Preconditions.checkArgument(matches(s), errorMessage, s);
+    }
+
+    private static boolean isAscii(final String s) {
+        for (int i = 0; i < s.length(); ++i) {
+            if (s.charAt(i) >= 0x80) {
+                return false;
+            }
+        }
+        return true;
     }
 
-}
\ No newline at end of file
+    /**
+     * Strip the anchors the parser adds around YANG patterns. Anchors are implied in XML Schema.
+     */
+    private static String stripAnchors(final String regex) {
+        int start = 0;
+        int end = regex.length();
+        if (end > 0 && regex.charAt(0) == '^') {
+            start = 1;
+        }
+        if (end > start && regex.charAt(end - 1) == '$') {
+            // Make sure the dollar is not escaped
+            int backslashes = 0;
+            for (int i = end - 2; i >= start && regex.charAt(i) == '\\'; --i) {
+                backslashes++;
+            }
+            if (backslashes % 2 == 0) {
+                end--;
+            }
+        }
+        return regex.substring(start, end);
+    }
+
+    /**
+     * Check whether a pattern uses only constructs which are interpreted the same way by Java and XML Schema regular
+     * expressions, at least for ASCII input. This is a conservative check: constructs which are not valid XML Schema
+     * are left to the automaton compiler to reject.
+     *
+     * @return Null if the pattern may be interpreted differently, otherwise whether the interpretations agree only
+     *         on ASCII input
+     */
+    private static Boolean checkCommonSyntax(final String body) {
+        boolean ascii = false;
+        boolean inClass = false;
+        final int length = body.length();
+        for (int i = 0; i < length; ++i) {
+            final char c = body.charAt(i);
+            final char next = i + 1 < length ? body.charAt(i + 1) : 0;
+            switch (c) {
+                case '\\':
+                    if (COMMON_ESCAPES.indexOf(next) != -1) {
+                        i++;
+                    } else if (next == 'd' || next == 'D') {
+                        // XSD \d is \p{Nd}
+                        ascii = true;
+                        i++;
+                    } else if (next == 'p' || next == 'P') {
+                        // Unicode tables may differ
+                        ascii = true;
+                        final int close = body.indexOf('}', i);
+                        if (close == -1) {
+                            return null;
+                        }
+                        i = close;
+                    } else {
+                        return null;
+                    }
+                    break;
+                case '[':
+                    if (inClass) {
+                        // Java union, XSD subtraction
+                        return null;
+                    }
+                    inClass = true;
+                    if (next == '^') {
+                        i++;
+                    }
+                    break;
+                case ']':
+                    inClass = false;
+                    break;
+                case '&':
+                    if (inClass && next == '&') {
+                        // Java intersection
+                        return null;
+                    }
+                    break;
+                case '.':
+                    if (!inClass) {
+                        // Java excludes more line terminators
+                        ascii = true;
+                    }
+                    break;
+                case '^':
+                case '$':
+                    if (!inClass) {
+                        // Java anchors, XSD literals
+                        return null;
+                    }
+                    break;
+                case '*':
+                case '+':
+                case '?':
+                case '}':
+                    if (!inClass && next == '+') {
+                        // Java possessive quantifier
+                        return null;
+                    }
+                    break;
+                default:
+                    break;
+            }
+        }
+        return ascii;
+    }
+}
@@ -17,6 +17,9 @@ import org.opendaylight.yangtools.yang.model.api.type.DecimalTypeDefinition;
 final class DecimalStringCodec extends TypeDefinitionAwareCodec<BigDecimal, DecimalTypeDefinition>
         implements DecimalCodec<String> {
 
+    // Longest digit sequence which is guaranteed to fit into a long
+    private static final int MAX_LONG_DIGITS = 18;
+
     private DecimalStringCodec(final Optional<DecimalTypeDefinition> typeDef) {
         super(typeDef, BigDecimal.class);
     }
@@ -30,9 +33,95 @@ final class DecimalStringCodec extends TypeDefinitionAwareCodec<BigDecimal, Deci
         return Objects.toString(data, "");
     }
 
+    @Override
+    boolean canDeserialize(final String stringRepresentation) {
+        if (stringRepresentation == null) {
+            return false;
+        }
+
+        // Check the lexical form accepted by BigDecimal. Exponents are not checked for overflow, hence we defer to
+        // actual parsing when we encounter one.
+        final int length = stringRepresentation.length();
+        int i = 0;
+        if (i < length && isSign(stringRepresentation.charAt(i))) {
+            i++;
+        }
+        int digits = 0;
+        while (i < length && isDigit(stringRepresentation.charAt(i))) {
+            i++;
+            digits++;
+        }
+        if (i < length && stringRepresentation.charAt(i) == '.') {
+            i++;
+            while (i < length && isDigit(stringRepresentation.charAt(i))) {
+                i++;
+                digits++;
+            }
+        }
+        if (digits == 0) {
+            return false;
+        }
+        if (i == length) {
+            return true;
+        }
+
+        final char c = stringRepresentation.charAt(i);
+        return (c == 'e' || c == 'E') && super.canDeserialize(stringRepresentation);
+    }
+
+    private static boolean isSign(final char c) {
+        return c == '+' || c == '-';
+    }
+
+    private static boolean isDigit(final char c) {
+        return c >= '0' && c <= '9';
+    }
+
     @Override
     public BigDecimal deserialize(final String stringRepresentation) {
         Preconditions.checkArgument( stringRepresentation != null , "Input cannot be null" );
-        return new BigDecimal(stringRepresentation);
+        final BigDecimal plain = deserializePlain(stringRepresentation);
+        return plain != null ? plain : new BigDecimal(stringRepresentation);
+    }
+
+    /**
+     * Deserialize a decimal number without an exponent, whose digits fit into a long. This covers all decimal64
+     * values, which are then constructed from their unscaled value without going through BigDecimal's parser.
+     *
+     * @return Deserialized value, or null if the representation is not handled here
+     */
+    private static BigDecimal deserializePlain(final String str) {
+        final int length = str.length();
+        int i = 0;
+        boolean negative = false;
+        if (i < length && isSign(str.charAt(i))) {
+            negative = str.charAt(i) == '-';
+            i++;
+        }
+
+        long unscaled = 0;
+        int digits = 0;
+        int scale = 0;
+        boolean fraction = false;
+        for (; i < length; ++i) {
+            final char c = str.charAt(i);
+            if (isDigit(c)) {
+                if (++digits > MAX_LONG_DIGITS) {
+                    return null;
+                }
+                unscaled = unscaled * 10 + c - '0';
+                if (fraction) {
+                    scale++;
+                }
+            } else if (c == '.' && !fraction) {
+                fraction = true;
+            } else {
+                return null;
+            }
+        }
+        if (digits == 0) {
+            return null;
+        }
+        return BigDecimal.valueOf(negative ? -unscaled : unscaled, scale);
     }
 }
@@ -26,6 +26,11 @@ final class EmptyStringCodec extends TypeDefinitionAwareCodec<Void, EmptyTypeDef
         return "";
     }
 
+    @Override
+    boolean canDeserialize(final String stringRepresentation) {
+        return Strings.isNullOrEmpty(stringRepresentation);
+    }
+
     @Override
     public Void deserialize(final String stringRepresentation) {
         Preconditions.checkArgument(Strings.isNullOrEmpty(stringRepresentation), "The value must be empty");
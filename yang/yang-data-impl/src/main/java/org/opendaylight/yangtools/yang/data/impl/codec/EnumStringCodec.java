@@ -53,6 +53,11 @@ final class EnumStringCodec extends TypeDefinitionAwareCodec<String, EnumTypeDef
         }
     }
 
+    @Override
+    boolean canDeserialize(final String s) {
+        return values == null || (s != null && values.containsKey(s));
+    }
+
     @Override
     public String serialize(final String data) {
         return Objects.toString(data, "");
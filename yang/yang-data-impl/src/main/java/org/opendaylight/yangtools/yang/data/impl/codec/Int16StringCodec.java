@@ -29,7 +29,7 @@ final class Int16StringCodec extends AbstractIntegerStringCodec<Short, IntegerTy
     }
 
     @Override
-    protected Short convertValue(final Number value) {
-        return value.shortValue();
+    public Short valueOf(final long value) {
+        return (short) value;
     }
 }
@@ -29,7 +29,7 @@ final class Int32StringCodec extends AbstractIntegerStringCodec<Integer, Integer
     }
 
     @Override
-    protected Integer convertValue(final Number value) {
-        return value.intValue();
+    public Integer valueOf(final long value) {
+        return (int) value;
     }
 }
@@ -30,7 +30,7 @@ final class Int64StringCodec extends AbstractIntegerStringCodec<Long, IntegerTyp
     }
 
     @Override
-    protected Long convertValue(final Number value) {
-        return value.longValue();
+    public Long valueOf(final long value) {
+        return value;
     }
 }
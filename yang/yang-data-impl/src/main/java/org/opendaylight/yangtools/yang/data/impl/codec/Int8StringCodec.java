@@ -30,7 +30,7 @@ final class Int8StringCodec extends AbstractIntegerStringCodec<Byte, IntegerType
     }
 
     @Override
-    protected Byte convertValue(final Number value) {
-        return value.byteValue();
+    public Byte valueOf(final long value) {
+        return (byte) value;
     }
 }
@@ -0,0 +1,50 @@
+/*
+ * Copyright (c) 2016 Cisco Systems, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.yangtools.yang.data.impl.codec;
+
+import com.google.common.annotations.Beta;
+
+/**
+ * Primitive access to an integer codec. It allows parsers which have already converted a value to a long to validate
+ * and convert it to its Java representation without a round-trip through {@link String}, and parsers which operate
+ * on character buffers to deserialize a value without extracting it first.
+ *
+ * @param <N> Java representation of the integer type
+ */
+@Beta
+public interface PrimitiveIntegerCodec<N extends Number> {
+    /**
+     * Check whether a value is valid for this codec, i.e. it fits the Java representation of the type and satisfies
+     * its range constraints.
+     *
+     * @param value Value to check
+     * @return True if the value is valid
+     */
+    boolean isValid(long value);
+
+    /**
+     * Convert a value to its Java representation. The value is assumed to have been checked via
+     * {@link #isValid(long)}.
+     *
+     * @param value Valid value
+     * @return Java representation of the value
+     */
+    N valueOf(long value);
+
+    /**
+     * Deserialize a value from a region of a character sequence. Accepted lexical forms and reported errors are the
+     * same as when the region is passed to {@link DataStringCodec#deserialize(String)} as a {@link String}.
+     *
+     * @param chars Character sequence
+     * @param start Start of the region, inclusive
+     * @param end End of the region, exclusive
+     * @return Deserialized value
+     * @throws IllegalArgumentException if the region does not contain a valid value
+     */
+    N deserialize(CharSequence chars, int start, int end);
+}
@@ -0,0 +1,249 @@
+/*
+ * Copyright (c) 2016 Cisco Systems, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.yangtools.yang.data.impl.codec;
+
+import com.google.common.annotations.Beta;
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.base.Optional;
+import com.google.common.base.Throwables;
+import com.google.common.base.Verify;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheLoader;
+import com.google.common.cache.LoadingCache;
+import com.google.common.util.concurrent.UncheckedExecutionException;
+import java.lang.ref.WeakReference;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import org.opendaylight.yangtools.yang.model.api.ChoiceCaseNode;
+import org.opendaylight.yangtools.yang.model.api.ChoiceSchemaNode;
+import org.opendaylight.yangtools.yang.model.api.DataNodeContainer;
+import org.opendaylight.yangtools.yang.model.api.DataSchemaNode;
+import org.opendaylight.yangtools.yang.model.api.LeafListSchemaNode;
+import org.opendaylight.yangtools.yang.model.api.LeafSchemaNode;
+import org.opendaylight.yangtools.yang.model.api.Module;
+import org.opendaylight.yangtools.yang.model.api.NotificationDefinition;
+import org.opendaylight.yangtools.yang.model.api.RpcDefinition;
+import org.opendaylight.yangtools.yang.model.api.SchemaContext;
+import org.opendaylight.yangtools.yang.model.api.TypeDefinition;
+import org.opendaylight.yangtools.yang.model.api.type.IdentityrefTypeDefinition;
+import org.opendaylight.yangtools.yang.model.api.type.InstanceIdentifierTypeDefinition;
+import org.opendaylight.yangtools.yang.model.api.type.LeafrefTypeDefinition;
+import org.opendaylight.yangtools.yang.model.util.SchemaContextUtil;
+import org.opendaylight.yangtools.yang.model.util.type.DerivedTypes;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Format-independent codec state of a particular {@link SchemaContext}, shared by all codec factories bound to it.
+ * It holds the effective type of each leaf and leaf-list, with leafrefs resolved to their base types, and a
+ * {@link TypeDefinitionAwareCodec} for each such type. Format-specific factories wrap these codecs, so that expensive
+ * codec graphs, like those of union types, are built only once.
+ *
+ * <p>
+ * Registries are kept in a process-wide cache weakly keyed by the context. A registry does not prevent its context
+ * from being garbage-collected, and stays around as long as the context does, hence a registry which has been warmed
+ * up via {@link #install(SchemaContext)} serves all subsequent factories without cold-cache latency. JSON and XML
+ * codec factories install the registry of their context when they are created.
+ */
+@Beta
+public final class SchemaContextCodecRegistry {
+    private static final Logger LOG = LoggerFactory.getLogger(SchemaContextCodecRegistry.class);
+
+    /*
+     * Values must not be weak, otherwise warm-up results would be lost as soon as the last factory goes away. They
+     * must not reference the key strongly either, which is why the registry holds its context via a WeakReference.
+     */
+    private static final LoadingCache<SchemaContext, SchemaContextCodecRegistry> REGISTRIES = CacheBuilder.newBuilder()
+            .weakKeys().build(new CacheLoader<SchemaContext, SchemaContextCodecRegistry>() {
+                @Override
+                public SchemaContextCodecRegistry load(final SchemaContext key) {
+                    return new SchemaContextCodecRegistry(key);
+                }
+            });
+
+    private final LoadingCache<DataSchemaNode, TypeDefinition<?>> nodeTypes =
+            CacheBuilder.newBuilder().weakKeys().build(new CacheLoader<DataSchemaNode, TypeDefinition<?>>() {
+                @Override
+                public TypeDefinition<?> load(final DataSchemaNode key) {
+                    final TypeDefinition<?> type;
+                    if (key instanceof LeafSchemaNode) {
+                        type = ((LeafSchemaNode) key).getType();
+                    } else if (key instanceof LeafListSchemaNode) {
+                        type = ((LeafListSchemaNode) key).getType();
+                    } else {
+                        throw new IllegalArgumentException("Not supported node type " + key.getClass().getName());
+                    }
+                    return resolveType(key, type);
+                }
+            });
+
+    /*
+     * Normalized types, so that nodes sharing a type definition share its normalized form -- and thus its codec --
+     * even when normalization creates a new object.
+     */
+    private final LoadingCache<TypeDefinition<?>, TypeDefinition<?>> normalizedTypes =
+            CacheBuilder.newBuilder().weakKeys().build(new CacheLoader<TypeDefinition<?>, TypeDefinition<?>>() {
+                @Override
+                public TypeDefinition<?> load(final TypeDefinition<?> key) {
+                    return DerivedTypes.derivedTypeBuilder(key, key.getPath()).build();
+                }
+            });
+
+    private final LoadingCache<TypeDefinition<?>, Optional<TypeDefinitionAwareCodec<Object, ?>>> codecs =
+            CacheBuilder.newBuilder().weakKeys().build(
+                new CacheLoader<TypeDefinition<?>, Optional<TypeDefinitionAwareCodec<Object, ?>>>() {
+                    @Override
+                    public Optional<TypeDefinitionAwareCodec<Object, ?>> load(final TypeDefinition<?> key) {
+                        final TypeDefinitionAwareCodec<Object, ?> codec = TypeDefinitionAwareCodec.from(key);
+                        if (codec == null) {
+                            LOG.debug("Codec for type \"{}\" is not implemented yet.", key.getQName().getLocalName());
+                        }
+                        return Optional.<TypeDefinitionAwareCodec<Object, ?>>fromNullable(codec);
+                    }
+                });
+
+    private final WeakReference<SchemaContext> schemaContext;
+    private volatile boolean warmedUp;
+
+    private SchemaContextCodecRegistry(final SchemaContext schemaContext) {
+        this.schemaContext = new WeakReference<>(schemaContext);
+    }
+
+    /**
+     * Return the registry for a particular context.
+     *
+     * @param ctx SchemaContext
+     * @return Registry bound to the context
+     */
+    @Nonnull public static SchemaContextCodecRegistry from(@Nonnull final SchemaContext ctx) {
+        return REGISTRIES.getUnchecked(ctx);
+    }
+
+    /**
+     * Return the registry for a particular context, making sure codecs of all its leaves and leaf-lists have been
+     * created. This method should be invoked when the context is put into service. The context is walked only once,
+     * subsequent invocations return the registry immediately.
+     *
+     * @param ctx SchemaContext
+     * @return Registry bound to the context
+     */
+    @Nonnull public static SchemaContextCodecRegistry install(@Nonnull final SchemaContext ctx) {
+        final SchemaContextCodecRegistry ret = from(ctx);
+        if (!ret.warmedUp) {
+            synchronized (ret) {
+                if (!ret.warmedUp) {
+                    final long start = System.nanoTime();
+                    final int count = ret.warmUp(ctx);
+                    LOG.debug("Warmed up codecs for {} nodes in {}us", count, (System.nanoTime() - start) / 1000);
+                    ret.warmedUp = true;
+                }
+            }
+        }
+        return ret;
+    }
+
+    /**
+     * Check whether this registry has been warmed up via {@link #install(SchemaContext)}.
+     *
+     * @return True if codecs of all leaves and leaf-lists have been created.
+     */
+    public boolean isWarmedUp() {
+        return warmedUp;
+    }
+
+    /**
+     * Return the effective type of a leaf or a leaf-list. The type is normalized and leafrefs are resolved to the
+     * type of the leaf they refer to.
+     *
+     * @param schema Leaf or leaf-list schema node
+     * @return Effective type
+     * @throws IllegalArgumentException if the node is not a leaf nor a leaf-list
+     */
+    @Nonnull public TypeDefinition<?> getEffectiveType(@Nonnull final DataSchemaNode schema) {
+        try {
+            return nodeTypes.getUnchecked(schema);
+        } catch (UncheckedExecutionException e) {
+            throw Throwables.propagate(e.getCause());
+        }
+    }
+
+    /**
+     * Return the shared codec for an effective type, as returned by {@link #getEffectiveType(DataSchemaNode)}.
+     *
+     * @param type Effective type
+     * @return Codec, or null if the type is not supported
+     */
+    @Nullable public TypeDefinitionAwareCodec<Object, ?> getCodec(@Nonnull final TypeDefinition<?> type) {
+        return codecs.getUnchecked(type).orNull();
+    }
+
+    @VisibleForTesting
+    long cachedNodeTypes() {
+        return nodeTypes.size();
+    }
+
+    private TypeDefinition<?> resolveType(final DataSchemaNode schema, final TypeDefinition<?> type) {
+        final TypeDefinition<?> normalizedType = normalizedTypes.getUnchecked(type);
+        if (!(normalizedType instanceof LeafrefTypeDefinition)) {
+            return normalizedType;
+        }
+
+        final SchemaContext ctx = Verify.verifyNotNull(schemaContext.get(), "Schema context has been collected");
+        // FIXME: Verify if this does indeed support leafref of leafref
+        final TypeDefinition<?> referencedType = SchemaContextUtil.getBaseTypeForLeafRef(
+            (LeafrefTypeDefinition) normalizedType, ctx, schema);
+        Verify.verifyNotNull(referencedType, "Unable to find base type for leafref node '%s'.", schema.getPath());
+        return resolveType(schema, referencedType);
+    }
+
+    private int warmUp(final SchemaContext ctx) {
+        int count = 0;
+        for (Module module : ctx.getModules()) {
+            count += warmUp(module);
+            for (RpcDefinition rpc : module.getRpcs()) {
+                count += warmUp(rpc.getInput());
+                count += warmUp(rpc.getOutput());
+            }
+            for (NotificationDefinition notification : module.getNotifications()) {
+                count += warmUp(notification);
+            }
+        }
+        return count;
+    }
+
+    private int warmUp(final DataNodeContainer container) {
+        if (container == null) {
+            return 0;
+        }
+
+        int count = 0;
+        for (DataSchemaNode child : container.getChildNodes()) {
+            if (child instanceof LeafSchemaNode || child instanceof LeafListSchemaNode) {
+                try {
+                    final TypeDefinition<?> type = getEffectiveType(child);
+                    // These are handled by format-specific codecs
+                    if (!(type instanceof IdentityrefTypeDefinition)
+                            && !(type instanceof InstanceIdentifierTypeDefinition)) {
+                        getCodec(type);
+                    }
+                    count++;
+                } catch (RuntimeException e) {
+                    // The same failure will be reported when the node is actually used
+                    LOG.debug("Failed to warm up codec for {}", child.getPath(), e);
+                }
+            } else if (child instanceof ChoiceSchemaNode) {
+                for (ChoiceCaseNode caze : ((ChoiceSchemaNode) child).getCases()) {
+                    count += warmUp(caze);
+                }
+            } else if (child instanceof DataNodeContainer) {
+                count += warmUp((DataNodeContainer) child);
+            }
+        }
+        return count;
+    }
+}
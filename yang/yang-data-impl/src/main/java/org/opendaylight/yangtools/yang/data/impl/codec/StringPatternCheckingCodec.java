@@ -25,13 +25,26 @@ final class StringPatternCheckingCodec extends StringStringCodec {
         patterns = new ArrayList<>(typeDef.getPatternConstraints().size());
         for (final PatternConstraint yangPattern : typeDef.getPatternConstraints()) {
             try {
-                patterns.add(new CompiledPatternContext(yangPattern));
+                patterns.add(CompiledPatternContext.forConstraint(yangPattern));
             } catch (final PatternSyntaxException e) {
                 LOG.debug("Unable to compile {} pattern, excluding it from validation.", yangPattern, e);
             }
         }
     }
 
+    @Override
+    boolean canDeserialize(final String stringRepresentation) {
+        if (stringRepresentation == null) {
+            return true;
+        }
+        for (final CompiledPatternContext pattern : patterns) {
+            if (!pattern.matches(stringRepresentation)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
     @Override
     protected void validate(final String s) {
         super.validate(s);
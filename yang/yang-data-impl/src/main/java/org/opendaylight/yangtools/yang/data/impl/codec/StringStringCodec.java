@@ -43,6 +43,12 @@ class StringStringCodec extends TypeDefinitionAwareCodec<String, StringTypeDefin
         return Objects.toString(data, "");
     }
 
+    @Override
+    boolean canDeserialize(final String stringRepresentation) {
+        // Length constraints are not enforced
+        return true;
+    }
+
     protected void validate(final String s) {
 
     }
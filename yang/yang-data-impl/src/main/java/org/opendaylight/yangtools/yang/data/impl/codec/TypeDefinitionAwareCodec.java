@@ -41,6 +41,23 @@ public abstract class TypeDefinitionAwareCodec<J, T extends TypeDefinition<T>> i
         return typeDefinition;
     }
 
+    /**
+     * Check whether a string is a valid representation of a value of this codec's type. This is used by
+     * {@link UnionStringCodec} to find a matching member type. This default implementation attempts to deserialize
+     * the string, codecs in this package override it with checks which do not involve exceptions.
+     *
+     * @param stringRepresentation String representation
+     * @return True if {@link #deserialize(Object)} would succeed.
+     */
+    boolean canDeserialize(final String stringRepresentation) {
+        try {
+            deserialize(stringRepresentation);
+            return true;
+        } catch (RuntimeException e) {
+            return false;
+        }
+    }
+
     @SuppressWarnings({ "rawtypes", "unchecked" })
     public static TypeDefinitionAwareCodec<Object, ? extends TypeDefinition<?>> from(final TypeDefinition typeDefinition) {
         return (TypeDefinitionAwareCodec)fromType(typeDefinition);
@@ -0,0 +1,245 @@
+/*
+ * Copyright (c) 2016 Cisco Systems, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.yangtools.yang.data.impl.codec;
+
+import com.google.common.annotations.Beta;
+import com.google.common.base.Preconditions;
+import com.google.common.base.Throwables;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheLoader;
+import com.google.common.cache.LoadingCache;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.util.concurrent.UncheckedExecutionException;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+import javax.annotation.Nonnull;
+import org.opendaylight.yangtools.yang.model.api.TypeDefinition;
+import org.opendaylight.yangtools.yang.model.api.type.BinaryTypeDefinition;
+import org.opendaylight.yangtools.yang.model.api.type.BitsTypeDefinition;
+import org.opendaylight.yangtools.yang.model.api.type.BitsTypeDefinition.Bit;
+import org.opendaylight.yangtools.yang.model.api.type.BooleanTypeDefinition;
+import org.opendaylight.yangtools.yang.model.api.type.DecimalTypeDefinition;
+import org.opendaylight.yangtools.yang.model.api.type.EnumTypeDefinition;
+import org.opendaylight.yangtools.yang.model.api.type.EnumTypeDefinition.EnumPair;
+import org.opendaylight.yangtools.yang.model.api.type.IntegerTypeDefinition;
+import org.opendaylight.yangtools.yang.model.api.type.PatternConstraint;
+import org.opendaylight.yangtools.yang.model.api.type.StringTypeDefinition;
+import org.opendaylight.yangtools.yang.model.api.type.UnionTypeDefinition;
+import org.opendaylight.yangtools.yang.model.api.type.UnsignedIntegerTypeDefinition;
+import org.opendaylight.yangtools.yang.model.util.DerivedType;
+import org.opendaylight.yangtools.yang.model.util.type.RangeChecker;
+
+/**
+ * Validator of values already in their Java representation, such as those held in leaf nodes, against the
+ * restrictions of their {@link TypeDefinition}. This covers ranges, lengths, patterns, enumeration and bits membership
+ * and union members. Types whose values cannot be checked without a schema context, like leafref, identityref and
+ * instance-identifier, accept any value.
+ *
+ * <p>
+ * Validators are compiled once per type definition and shared.
+ */
+@Beta
+public abstract class TypeDefinitionAwareValidator {
+    private static final LoadingCache<TypeDefinition<?>, TypeDefinitionAwareValidator> VALIDATORS =
+            CacheBuilder.newBuilder().weakKeys().build(
+                new CacheLoader<TypeDefinition<?>, TypeDefinitionAwareValidator>() {
+                    @Override
+                    public TypeDefinitionAwareValidator load(final TypeDefinition<?> key) {
+                        return create(key);
+                    }
+                });
+
+    private static final TypeDefinitionAwareValidator ACCEPT_ALL = new TypeDefinitionAwareValidator() {
+        @Override
+        boolean isValid(final Object value) {
+            return true;
+        }
+    };
+
+    TypeDefinitionAwareValidator() {
+        // Hidden on purpose
+    }
+
+    /**
+     * Return the validator for a particular type.
+     *
+     * @param type Type definition
+     * @return Validator of the type's values
+     */
+    @Nonnull public static TypeDefinitionAwareValidator from(@Nonnull final TypeDefinition<?> type) {
+        try {
+            return VALIDATORS.getUnchecked(type);
+        } catch (UncheckedExecutionException e) {
+            throw Throwables.propagate(e.getCause());
+        }
+    }
+
+    /**
+     * Validate a value.
+     *
+     * @param value Value to validate
+     * @throws IllegalArgumentException if the value does not conform to the type
+     */
+    public final void validate(@Nonnull final Object value) {
+        Preconditions.checkArgument(isValid(value), "Value %s does not conform to its type", value);
+    }
+
+    abstract boolean isValid(Object value);
+
+    private static TypeDefinitionAwareValidator create(final TypeDefinition<?> type) {
+        final TypeDefinition<?> normalizedType = DerivedType.from(type);
+        if (normalizedType instanceof IntegerTypeDefinition || normalizedType instanceof UnsignedIntegerTypeDefinition
+                || normalizedType instanceof DecimalTypeDefinition) {
+            return new RangeValidator(RangeChecker.rangeCheckerOf(normalizedType).get());
+        } else if (normalizedType instanceof StringTypeDefinition) {
+            return new StringValidator(RangeChecker.lengthCheckerOf(normalizedType).get(),
+                ((StringTypeDefinition) normalizedType).getPatternConstraints());
+        } else if (normalizedType instanceof BinaryTypeDefinition) {
+            return new BinaryValidator(RangeChecker.lengthCheckerOf(normalizedType).get());
+        } else if (normalizedType instanceof EnumTypeDefinition) {
+            final ImmutableSet.Builder<String> names = ImmutableSet.builder();
+            for (EnumPair pair : ((EnumTypeDefinition) normalizedType).getValues()) {
+                names.add(pair.getName());
+            }
+            return new EnumValidator(names.build());
+        } else if (normalizedType instanceof BitsTypeDefinition) {
+            final ImmutableSet.Builder<String> names = ImmutableSet.builder();
+            for (Bit bit : ((BitsTypeDefinition) normalizedType).getBits()) {
+                names.add(bit.getName());
+            }
+            return new BitsValidator(names.build());
+        } else if (normalizedType instanceof BooleanTypeDefinition) {
+            return BooleanValidator.INSTANCE;
+        } else if (normalizedType instanceof UnionTypeDefinition) {
+            final ImmutableList.Builder<TypeDefinitionAwareValidator> members = ImmutableList.builder();
+            for (TypeDefinition<?> member : ((UnionTypeDefinition) normalizedType).getTypes()) {
+                final TypeDefinitionAwareValidator validator = from(member);
+                if (validator == ACCEPT_ALL) {
+                    return ACCEPT_ALL;
+                }
+                members.add(validator);
+            }
+            return new UnionValidator(members.build());
+        }
+        return ACCEPT_ALL;
+    }
+
+    private static final class RangeValidator extends TypeDefinitionAwareValidator {
+        private final RangeChecker range;
+
+        RangeValidator(final RangeChecker range) {
+            this.range = range;
+        }
+
+        @Override
+        boolean isValid(final Object value) {
+            return value instanceof Number && range.contains((Number) value);
+        }
+    }
+
+    private static final class BooleanValidator extends TypeDefinitionAwareValidator {
+        static final BooleanValidator INSTANCE = new BooleanValidator();
+
+        @Override
+        boolean isValid(final Object value) {
+            return value instanceof Boolean;
+        }
+    }
+
+    private static final class StringValidator extends TypeDefinitionAwareValidator {
+        private final RangeChecker length;
+        private final List<CompiledPatternContext> patterns;
+
+        StringValidator(final RangeChecker length, final List<PatternConstraint> patterns) {
+            this.length = length;
+
+            final ImmutableList.Builder<CompiledPatternContext> builder = ImmutableList.builder();
+            for (PatternConstraint pattern : patterns) {
+                builder.add(CompiledPatternContext.forConstraint(pattern));
+            }
+            this.patterns = builder.build();
+        }
+
+        @Override
+        boolean isValid(final Object value) {
+            if (!(value instanceof String)) {
+                return false;
+            }
+
+            final String str = (String) value;
+            if (!length.contains(str.codePointCount(0, str.length()))) {
+                return false;
+            }
+            for (CompiledPatternContext pattern : patterns) {
+                if (!pattern.matches(str)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+
+    private static final class BinaryValidator extends TypeDefinitionAwareValidator {
+        private final RangeChecker length;
+
+        BinaryValidator(final RangeChecker length) {
+            this.length = length;
+        }
+
+        @Override
+        boolean isValid(final Object value) {
+            return value instanceof byte[] && length.contains(((byte[]) value).length);
+        }
+    }
+
+    private static final class EnumValidator extends TypeDefinitionAwareValidator {
+        private final Set<String> names;
+
+        EnumValidator(final Set<String> names) {
+            this.names = names;
+        }
+
+        @Override
+        boolean isValid(final Object value) {
+            return names.contains(value);
+        }
+    }
+
+    private static final class BitsValidator extends TypeDefinitionAwareValidator {
+        private final Set<String> names;
+
+        BitsValidator(final Set<String> names) {
+            this.names = names;
+        }
+
+        @Override
+        boolean isValid(final Object value) {
+            return value instanceof Collection && names.containsAll((Collection<?>) value);
+        }
+    }
+
+    private static final class UnionValidator extends TypeDefinitionAwareValidator {
+        private final List<TypeDefinitionAwareValidator> members;
+
+        UnionValidator(final List<TypeDefinitionAwareValidator> members) {
+            this.members = members;
+        }
+
+        @Override
+        boolean isValid(final Object value) {
+            for (TypeDefinitionAwareValidator member : members) {
+                if (member.isValid(value)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+}
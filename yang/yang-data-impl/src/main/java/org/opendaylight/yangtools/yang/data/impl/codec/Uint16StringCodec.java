@@ -30,7 +30,7 @@ final class Uint16StringCodec extends AbstractIntegerStringCodec<Integer, Unsign
     }
 
     @Override
-    protected Integer convertValue(final Number value) {
-        return value.intValue();
+    public Integer valueOf(final long value) {
+        return (int) value;
     }
 }
@@ -31,7 +31,7 @@ final class Uint32StringCodec extends AbstractIntegerStringCodec<Long, UnsignedI
     }
 
     @Override
-    protected Long convertValue(final Number value) {
-        return value.longValue();
+    public Long valueOf(final long value) {
+        return value;
     }
 }
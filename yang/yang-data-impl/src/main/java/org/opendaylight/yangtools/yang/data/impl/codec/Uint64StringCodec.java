@@ -32,10 +32,7 @@ final class Uint64StringCodec extends AbstractIntegerStringCodec<BigInteger, Uns
     }
 
     @Override
-    protected BigInteger convertValue(final Number value) {
-        if (value instanceof BigInteger) {
-            return (BigInteger) value;
-        }
-        return BigInteger.valueOf(value.longValue());
+    public BigInteger valueOf(final long value) {
+        return BigInteger.valueOf(value);
     }
 }
@@ -31,7 +31,7 @@ final class Uint8StringCodec extends AbstractIntegerStringCodec<Short, UnsignedI
     }
 
     @Override
-    protected Short convertValue(final Number value) {
-        return value.shortValue();
+    public Short valueOf(final long value) {
+        return (short) value;
     }
 }
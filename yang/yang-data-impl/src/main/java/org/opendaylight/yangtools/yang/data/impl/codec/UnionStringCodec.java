@@ -9,7 +9,10 @@
 package org.opendaylight.yangtools.yang.data.impl.codec;
 
 import com.google.common.base.Optional;
+import com.google.common.collect.ImmutableList;
 import com.google.common.io.BaseEncoding;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Objects;
 import org.opendaylight.yangtools.yang.data.api.codec.UnionCodec;
 import org.opendaylight.yangtools.yang.model.api.TypeDefinition;
@@ -17,18 +20,47 @@ import org.opendaylight.yangtools.yang.model.api.type.UnionTypeDefinition;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+/**
+ * Codec for union types. Codecs for member types are created once, when this codec is instantiated, and are asked to
+ * check the string representation without actually deserializing it, so that finding the matching member does not
+ * involve exceptions.
+ */
 final class UnionStringCodec extends TypeDefinitionAwareCodec<Object, UnionTypeDefinition> implements UnionCodec<String> {
 
     private final static Logger LOG = LoggerFactory.getLogger(UnionStringCodec.class);
 
+    // Null if any member type has no codec, in which case every value is accepted
+    private final List<TypeDefinitionAwareCodec<Object, ? extends TypeDefinition<?>>> memberCodecs;
+
     private UnionStringCodec(final Optional<UnionTypeDefinition> typeDef) {
         super(typeDef, Object.class);
+        memberCodecs = typeDef.isPresent() ? createMemberCodecs(typeDef.get()) : null;
     }
 
     static TypeDefinitionAwareCodec<?, UnionTypeDefinition> from(final UnionTypeDefinition normalizedType) {
         return new UnionStringCodec(Optional.fromNullable(normalizedType));
     }
 
+    private static List<TypeDefinitionAwareCodec<Object, ? extends TypeDefinition<?>>> createMemberCodecs(
+            final UnionTypeDefinition type) {
+        final List<TypeDefinitionAwareCodec<Object, ? extends TypeDefinition<?>>> codecs = new ArrayList<>();
+        for (final TypeDefinition<?> memberType : type.getTypes()) {
+            final TypeDefinitionAwareCodec<Object, ? extends TypeDefinition<?>> codec = from(memberType);
+            if (codec == null) {
+                /*
+                 * This is a type for which we have no codec (eg identity ref) so we'll say any value is valid
+                 */
+                LOG.debug("Union type {} member {} does not have a codec, all values will be accepted", type,
+                    memberType);
+                return null;
+            }
+
+            codecs.add(codec);
+        }
+
+        return ImmutableList.copyOf(codecs);
+    }
+
     @Override
     public String serialize(final Object data) {
         if (data instanceof byte[]) {
@@ -39,29 +71,23 @@ final class UnionStringCodec extends TypeDefinitionAwareCodec<Object, UnionTypeD
     }
 
     @Override
-    public Object deserialize(final String stringRepresentation) {
-
-        if (!getTypeDefinition().isPresent()) {
-            return stringRepresentation;
+    boolean canDeserialize(final String stringRepresentation) {
+        if (memberCodecs == null) {
+            return true;
         }
 
-        for (final TypeDefinition<?> type : getTypeDefinition().get().getTypes()) {
-            final TypeDefinitionAwareCodec<Object, ? extends TypeDefinition<?>> typeAwareCodec = from(type);
-            if (typeAwareCodec == null) {
-                /*
-                 * This is a type for which we have no codec (eg identity ref) so we'll say it's
-                 * valid
-                 */
-                return stringRepresentation;
+        for (final TypeDefinitionAwareCodec<Object, ? extends TypeDefinition<?>> codec : memberCodecs) {
+            if (codec.canDeserialize(stringRepresentation)) {
+                return true;
             }
+        }
+        return false;
+    }
 
-            try {
-                typeAwareCodec.deserialize(stringRepresentation);
-                return stringRepresentation;
-            } catch (final Exception e) {
-                LOG.debug("Value {} did not matched representation for {}",stringRepresentation,type,e);
-                // invalid - try the next union type.
-            }
+    @Override
+    public Object deserialize(final String stringRepresentation) {
+        if (canDeserialize(stringRepresentation)) {
+            return stringRepresentation;
         }
 
         throw new IllegalArgumentException("Invalid value \"" + stringRepresentation + "\" for union type.");
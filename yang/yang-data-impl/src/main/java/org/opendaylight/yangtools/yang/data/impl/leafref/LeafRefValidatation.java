@@ -21,6 +21,7 @@ import java.util.Set;
 import org.opendaylight.yangtools.yang.common.QName;
 import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier;
 import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier.NodeIdentifier;
+import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier.NodeIdentifierWithPredicates;
 import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier.PathArgument;
 import org.opendaylight.yangtools.yang.data.api.schema.ChoiceNode;
 import org.opendaylight.yangtools.yang.data.api.schema.DataContainerChild;
@@ -500,9 +501,10 @@ public class LeafRefValidatation {
     }
 
     private static boolean isMatchingPredicate(final MapEntryNode mapEntryNode, final Map<QName, Set<?>> allowedKeyValues) {
-        for (final Entry<QName, Object> entryKeyValue : mapEntryNode.getIdentifier().getKeyValues().entrySet()) {
-            final Set<?> allowedValues = allowedKeyValues.get(entryKeyValue.getKey());
-            if (allowedValues != null && !allowedValues.contains(entryKeyValue.getValue())) {
+        final NodeIdentifierWithPredicates identifier = mapEntryNode.getIdentifier();
+        for (final QName key : identifier.keySet()) {
+            final Set<?> allowedValues = allowedKeyValues.get(key);
+            if (allowedValues != null && !allowedValues.contains(identifier.getValue(key))) {
                 return false;
             }
         }
@@ -172,9 +172,10 @@ abstract class InstanceIdToCompositeNodes<T extends PathArgument> extends Instan
         protected DataContainerNodeAttrBuilder<NodeIdentifierWithPredicates, MapEntryNode> createBuilder(final PathArgument currentArg) {
             final DataContainerNodeAttrBuilder<NodeIdentifierWithPredicates, MapEntryNode> builder = Builders
                     .mapEntryBuilder().withNodeIdentifier((NodeIdentifierWithPredicates) currentArg);
-            for (final Map.Entry<QName, Object> keyValue : ((NodeIdentifierWithPredicates) currentArg).getKeyValues().entrySet()) {
+            final NodeIdentifierWithPredicates nip = (NodeIdentifierWithPredicates) currentArg;
+            for (final QName key : nip.keySet()) {
                 builder.addChild(Builders.leafBuilder()
-                        .withNodeIdentifier(NodeIdentifier.create(keyValue.getKey())).withValue(keyValue.getValue())
+                        .withNodeIdentifier(NodeIdentifier.create(key)).withValue(nip.getValue(key))
                         .build());
             }
             return builder;
@@ -10,7 +10,6 @@ package org.opendaylight.yangtools.yang.data.impl.schema.builder.impl;
 import java.util.Collection;
 import java.util.LinkedHashMap;
 import java.util.Map;
-import java.util.Map.Entry;
 import org.opendaylight.yangtools.yang.common.QName;
 import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier.AugmentationIdentifier;
 import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier.NodeIdentifierWithPredicates;
@@ -97,16 +96,18 @@ public class ImmutableMapEntryNodeBuilder extends AbstractImmutableDataContainer
 
     @Override
     public MapEntryNode build() {
-        for (final Entry<QName, Object> key : getNodeIdentifier().getKeyValues().entrySet()) {
-            final DataContainerChild<?, ?> childNode = getChild(childrenQNamesToPaths.get(key.getKey()));
+        final NodeIdentifierWithPredicates identifier = getNodeIdentifier();
+        for (final QName key : identifier.keySet()) {
+            final Object value = identifier.getValue(key);
+            final DataContainerChild<?, ?> childNode = getChild(childrenQNamesToPaths.get(key));
 
             // We have enough information to fill-in missing leaf nodes, so let's do that
             if (childNode == null) {
-                LeafNode<Object> leaf = ImmutableNodes.leafNode(key.getKey(), key.getValue());
+                LeafNode<Object> leaf = ImmutableNodes.leafNode(key, value);
                 LOG.debug("Adding leaf {} implied by key {}", leaf, key);
                 withChild(leaf);
             } else {
-                DataValidationException.checkListKey(getNodeIdentifier(), key.getKey(), key.getValue(), childNode.getValue());
+                DataValidationException.checkListKey(identifier, key, value, childNode.getValue());
             }
         }
 
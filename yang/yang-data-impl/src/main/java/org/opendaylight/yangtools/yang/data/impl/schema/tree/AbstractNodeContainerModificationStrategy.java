@@ -31,11 +31,13 @@ abstract class AbstractNodeContainerModificationStrategy extends SchemaAwareAppl
 
     private final Class<? extends NormalizedNode<?, ?>> nodeClass;
     private final boolean verifyChildrenStructure;
+    private final boolean validateValues;
 
     protected AbstractNodeContainerModificationStrategy(final Class<? extends NormalizedNode<?, ?>> nodeClass,
             final TreeType treeType) {
         this.nodeClass = Preconditions.checkNotNull(nodeClass , "nodeClass");
         this.verifyChildrenStructure = (treeType == TreeType.CONFIGURATION);
+        this.validateValues = isValueValidationEnabled();
     }
 
     @SuppressWarnings("rawtypes")
@@ -43,7 +45,10 @@ abstract class AbstractNodeContainerModificationStrategy extends SchemaAwareAppl
     void verifyStructure(final NormalizedNode<?, ?> writtenValue, final boolean verifyChildren) {
         checkArgument(nodeClass.isInstance(writtenValue), "Node %s is not of type %s", writtenValue, nodeClass);
         checkArgument(writtenValue instanceof NormalizedNodeContainer);
-        if (verifyChildrenStructure && verifyChildren) {
+        if (!verifyChildren) {
+            return;
+        }
+        if (verifyChildrenStructure) {
             final NormalizedNodeContainer container = (NormalizedNodeContainer) writtenValue;
             for (final Object child : container.getValue()) {
                 checkArgument(child instanceof NormalizedNode);
@@ -57,6 +62,25 @@ abstract class AbstractNodeContainerModificationStrategy extends SchemaAwareAppl
                             castedChild.getIdentifier(), container.getIdentifier()));
                 }
             }
+        } else if (validateValues) {
+            // Operational trees do not verify structure, but leaf values can only be validated if we descend to them
+            verifyValues(writtenValue);
+        }
+    }
+
+    @SuppressWarnings("rawtypes")
+    @Override
+    void verifyValues(final NormalizedNode<?, ?> value) {
+        if (validateValues && value instanceof NormalizedNodeContainer) {
+            for (final Object child : ((NormalizedNodeContainer) value).getValue()) {
+                if (child instanceof NormalizedNode) {
+                    final NormalizedNode<?, ?> castedChild = (NormalizedNode<?, ?>) child;
+                    final Optional<ModificationApplyOperation> childOp = getChild(castedChild.getIdentifier());
+                    if (childOp.isPresent()) {
+                        childOp.get().verifyValues(castedChild);
+                    }
+                }
+            }
         }
     }
 
@@ -18,20 +18,41 @@ import org.opendaylight.yangtools.yang.data.api.schema.tree.ModificationType;
 import org.opendaylight.yangtools.yang.data.api.schema.tree.spi.TreeNode;
 import org.opendaylight.yangtools.yang.data.api.schema.tree.spi.TreeNodeFactory;
 import org.opendaylight.yangtools.yang.data.api.schema.tree.spi.Version;
+import org.opendaylight.yangtools.yang.data.impl.codec.TypeDefinitionAwareValidator;
 import org.opendaylight.yangtools.yang.model.api.DataSchemaNode;
+import org.opendaylight.yangtools.yang.model.api.TypeDefinition;
 
 abstract class AbstractValueNodeModificationStrategy<T extends DataSchemaNode> extends SchemaAwareApplyOperation {
     private final Class<? extends NormalizedNode<?, ?>> nodeClass;
     private final T schema;
+    private final TypeDefinitionAwareValidator validator;
 
-    protected AbstractValueNodeModificationStrategy(final T schema, final Class<? extends NormalizedNode<?, ?>> nodeClass) {
+    protected AbstractValueNodeModificationStrategy(final T schema, final TypeDefinition<?> type,
+            final Class<? extends NormalizedNode<?, ?>> nodeClass) {
         this.nodeClass = Preconditions.checkNotNull(nodeClass);
         this.schema = schema;
+        this.validator = isValueValidationEnabled() ? TypeDefinitionAwareValidator.from(type) : null;
     }
 
     @Override
     protected final void verifyStructure(final NormalizedNode<?, ?> writtenValue, final boolean verifyChildren) {
         checkArgument(nodeClass.isInstance(writtenValue), "Node should must be of type %s", nodeClass);
+        if (verifyChildren) {
+            verifyValues(writtenValue);
+        }
+    }
+
+    @Override
+    final void verifyValues(final NormalizedNode<?, ?> value) {
+        if (validator != null) {
+            final Object data = value.getValue();
+            try {
+                validator.validate(data);
+            } catch (IllegalArgumentException e) {
+                throw new SchemaValidationFailedException(String.format("Value %s of node %s is not valid",
+                    data, value.getIdentifier()), e);
+            }
+        }
     }
 
     @Override
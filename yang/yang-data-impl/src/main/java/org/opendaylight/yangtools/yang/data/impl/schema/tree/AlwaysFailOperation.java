@@ -49,6 +49,11 @@ final class AlwaysFailOperation extends ModificationApplyOperation {
         throw new IllegalStateException("Schema Context is not available.");
     }
 
+    @Override
+    void verifyValues(final NormalizedNode<?, ?> value) {
+        throw new IllegalStateException("Schema Context is not available.");
+    }
+
     @Override
     ChildTrackingPolicy getChildPolicy() {
         throw new IllegalStateException("Schema Context is not available.");
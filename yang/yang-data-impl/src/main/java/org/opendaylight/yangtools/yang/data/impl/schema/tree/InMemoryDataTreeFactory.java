@@ -26,6 +26,16 @@ import org.opendaylight.yangtools.yang.model.api.SchemaContext;
  * A factory for creating in-memory data trees.
  */
 public final class InMemoryDataTreeFactory implements DataTreeFactory {
+    /**
+     * System property enabling validation of leaf and leaf-list values against the restrictions of their types, such
+     * as ranges, lengths and patterns. Values are validated when they are written or merged into a modification, and
+     * when the modification is sealed. This validation is disabled by default, as values are typically validated when
+     * they are deserialized. The property is consulted when a tree's schema context is set. Operational trees still do
+     * not verify the structure of written data, only values of leaves and leaf-lists known to the schema are checked.
+     */
+    public static final String VALIDATE_VALUES_PROP =
+            "org.opendaylight.yangtools.yang.data.impl.schema.tree.validate-values";
+
     private static final InMemoryDataTreeFactory INSTANCE = new InMemoryDataTreeFactory();
     private final NormalizedNode<?, ?> rootContainer = ImmutableNodes.containerNode(SchemaContext.NAME);
 
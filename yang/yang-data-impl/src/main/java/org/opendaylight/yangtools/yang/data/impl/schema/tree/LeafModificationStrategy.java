@@ -14,6 +14,6 @@ import org.opendaylight.yangtools.yang.model.api.LeafSchemaNode;
 final class LeafModificationStrategy extends AbstractValueNodeModificationStrategy<LeafSchemaNode> {
     @SuppressWarnings({ "unchecked", "rawtypes" })
     LeafModificationStrategy(final LeafSchemaNode schema, final TreeType treeType) {
-        super(schema, (Class) LeafNode.class);
+        super(schema, schema.getType(), (Class) LeafNode.class);
     }
 }
\ No newline at end of file
@@ -13,6 +13,6 @@ import org.opendaylight.yangtools.yang.model.api.LeafListSchemaNode;
 final class LeafSetEntryModificationStrategy extends AbstractValueNodeModificationStrategy<LeafListSchemaNode> {
     @SuppressWarnings({ "unchecked", "rawtypes" })
     LeafSetEntryModificationStrategy(final LeafListSchemaNode schema) {
-        super(schema, (Class) LeafSetEntryNode.class);
+        super(schema, schema.getType(), (Class) LeafSetEntryNode.class);
     }
 }
\ No newline at end of file
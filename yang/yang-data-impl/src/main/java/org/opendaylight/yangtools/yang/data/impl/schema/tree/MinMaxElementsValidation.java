@@ -131,6 +131,11 @@ final class MinMaxElementsValidation extends SchemaAwareApplyOperation {
         delegate.verifyStructure(modification, verifyChildren);
     }
 
+    @Override
+    void verifyValues(final NormalizedNode<?, ?> value) {
+        delegate.verifyValues(value);
+    }
+
     @Override
     protected TreeNode applyMerge(final ModifiedNode modification, final TreeNode currentMeta, final Version version) {
         final TreeNode validated = modification.getValidatedNode(this, Optional.of(currentMeta));
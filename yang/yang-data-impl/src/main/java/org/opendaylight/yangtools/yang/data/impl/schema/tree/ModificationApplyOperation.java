@@ -79,6 +79,16 @@ abstract class ModificationApplyOperation implements StoreTreeNode<ModificationA
     abstract void verifyStructure(NormalizedNode<?, ?> modification, boolean verifyChildren)
             throws IllegalArgumentException;
 
+    /**
+     * Validates values of leaves and leaf-lists contained in provided data against their types, if value validation
+     * is enabled. Unlike {@link #verifyStructure(NormalizedNode, boolean)}, this method does not check the structure
+     * of the data, hence nodes which do not match the schema are skipped.
+     *
+     * @param value data to be validated.
+     * @throws IllegalArgumentException If a value does not conform to its type.
+     */
+    abstract void verifyValues(NormalizedNode<?, ?> value) throws IllegalArgumentException;
+
     /**
      * Return the tracking policy for this node's children.
      *
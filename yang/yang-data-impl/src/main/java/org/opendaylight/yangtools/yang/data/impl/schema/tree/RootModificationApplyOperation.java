@@ -99,6 +99,11 @@ abstract class RootModificationApplyOperation extends ModificationApplyOperation
         getDelegate().verifyStructure(modification, verifyChildren);
     }
 
+    @Override
+    final void verifyValues(final NormalizedNode<?, ?> value) {
+        getDelegate().verifyValues(value);
+    }
+
     @Override
     void recursivelyVerifyStructure(NormalizedNode<?, ?> value) {
         getDelegate().recursivelyVerifyStructure(value);
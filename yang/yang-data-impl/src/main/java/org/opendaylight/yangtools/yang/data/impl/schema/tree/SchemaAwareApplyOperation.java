@@ -261,6 +261,16 @@ abstract class SchemaAwareApplyOperation extends ModificationApplyOperation {
     protected abstract void checkTouchApplicable(YangInstanceIdentifier path, NodeModification modification,
             Optional<TreeNode> current, Version version) throws DataValidationFailedException;
 
+    /**
+     * Checks whether values of leaves and leaf-lists should be validated against their types. This is controlled by
+     * the {@link InMemoryDataTreeFactory#VALIDATE_VALUES_PROP} system property.
+     *
+     * @return {@code true} if values should be validated, {@code false} otherwise.
+     */
+    static boolean isValueValidationEnabled() {
+        return Boolean.getBoolean(InMemoryDataTreeFactory.VALIDATE_VALUES_PROP);
+    }
+
     /**
      * Checks if supplied schema node belong to specified Data Tree type. All nodes belong to the operational tree,
      * nodes in configuration tree are marked as such.
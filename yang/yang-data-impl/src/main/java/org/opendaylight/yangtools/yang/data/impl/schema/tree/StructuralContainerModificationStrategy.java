@@ -105,6 +105,11 @@ final class StructuralContainerModificationStrategy extends ModificationApplyOpe
         delegate.verifyStructure(modification, verifyChildren);
     }
 
+    @Override
+    void verifyValues(final NormalizedNode<?, ?> value) {
+        delegate.verifyValues(value);
+    }
+
     @Override
     void recursivelyVerifyStructure(NormalizedNode<?, ?> value) {
         delegate.recursivelyVerifyStructure(value);
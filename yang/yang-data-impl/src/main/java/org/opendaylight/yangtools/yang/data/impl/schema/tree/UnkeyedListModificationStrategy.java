@@ -125,6 +125,11 @@ final class UnkeyedListModificationStrategy extends SchemaAwareApplyOperation {
 
     }
 
+    @Override
+    void verifyValues(final NormalizedNode<?, ?> value) {
+        // NOOP, as entries are not verified in configuration trees either
+    }
+
     @Override
     void recursivelyVerifyStructure(NormalizedNode<?, ?> value) {
         // NOOP
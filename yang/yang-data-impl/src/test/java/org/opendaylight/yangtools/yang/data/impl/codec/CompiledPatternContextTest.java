@@ -0,0 +1,107 @@
+/*
+ * Copyright (c) 2016 Cisco Systems, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.yangtools.yang.data.impl.codec;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import com.google.common.base.Optional;
+import java.util.Random;
+import java.util.regex.Pattern;
+import org.junit.Test;
+import org.opendaylight.yangtools.yang.model.api.type.PatternConstraint;
+import org.opendaylight.yangtools.yang.model.util.BaseConstraints;
+
+public class CompiledPatternContextTest {
+    private static final String IPV4_ADDRESS = "(([0-9]|[1-9][0-9]|1[0-9][0-9]|2[0-4][0-9]|25[0-5])\\.){3}"
+            + "([0-9]|[1-9][0-9]|1[0-9][0-9]|2[0-4][0-9]|25[0-5])(%[\\p{N}\\p{L}]+)?";
+    private static final String IPV4_PREFIX = "(([0-9]|[1-9][0-9]|1[0-9][0-9]|2[0-4][0-9]|25[0-5])\\.){3}"
+            + "([0-9]|[1-9][0-9]|1[0-9][0-9]|2[0-4][0-9]|25[0-5])/(([0-9])|([1-2][0-9])|(3[0-2]))";
+    private static final String MAC_ADDRESS = "[0-9a-fA-F]{2}(:[0-9a-fA-F]{2}){5}";
+    private static final String IDENTIFIER = "[a-zA-Z_][a-zA-Z0-9\\-_.]*";
+    private static final String ALPHABET = "0123456789abcdefABCDEF.:/%-_ \né١";
+
+    private static PatternConstraint constraint(final String pattern) {
+        return BaseConstraints.newPatternConstraint("^" + pattern + "$", Optional.<String>absent(),
+            Optional.<String>absent());
+    }
+
+    private static void assertAgrees(final String pattern, final String... inputs) {
+        final CompiledPatternContext context = new CompiledPatternContext(constraint(pattern));
+        assertTrue("Pattern " + pattern + " should be compiled to an automaton", context.hasAutomaton());
+
+        final Pattern reference = Pattern.compile("^" + pattern + "$");
+        for (String input : inputs) {
+            assertEquals(pattern + " on " + input, reference.matcher(input).matches(), context.matches(input));
+        }
+
+        final Random random = new Random(pattern.hashCode());
+        for (int i = 0; i < 2000; ++i) {
+            final StringBuilder sb = new StringBuilder();
+            final int length = random.nextInt(20);
+            for (int j = 0; j < length; ++j) {
+                sb.append(ALPHABET.charAt(random.nextInt(ALPHABET.length())));
+            }
+            final String input = sb.toString();
+            assertEquals(pattern + " on " + input, reference.matcher(input).matches(), context.matches(input));
+        }
+    }
+
+    @Test
+    public void testCommonPatterns() {
+        assertAgrees(IPV4_ADDRESS, "192.168.1.1", "256.1.1.1", "10.0.0.1%eth0", "10.0.0.1%", "01.2.3.4");
+        assertAgrees(IPV4_PREFIX, "10.0.0.0/8", "10.0.0.0/33", "10.0.0.0");
+        assertAgrees(MAC_ADDRESS, "00:1a:2B:3c:4D:5e", "00:1a:2B:3c:4D", "00:1a:2B:3c:4D:5e:");
+        assertAgrees(IDENTIFIER, "eth0", "_x.y-z", "0eth", "");
+    }
+
+    @Test
+    public void testConstructs() {
+        assertAgrees("(a|ab)*c", "ababac", "abc", "c", "abab");
+        assertAgrees("a{2,4}b{3}", "aabbb", "aaaaabbb", "abbb");
+        assertAgrees("(ab){2,}", "abab", "ababab", "ab");
+        assertAgrees(".*", "", "abc", "a\nb");
+        assertAgrees("\\d+(\\.\\d+)?", "12", "1.5", "1.", "١");
+        assertAgrees("[^a-c]+", "def", "dad", "");
+        assertAgrees("[a-f\\-]*", "a-b", "g");
+        assertAgrees("x?y*z+", "z", "xyyzz", "xx");
+    }
+
+    @Test
+    public void testJavaOnlyConstructs() {
+        for (String pattern : new String[] { "a^b", "(?i)abc", "[a-z&&[^x]]", "a*+b", "\\w+", "\\s*", "\\x41" }) {
+            final CompiledPatternContext context = new CompiledPatternContext(constraint(pattern));
+            assertFalse("Pattern " + pattern + " should not be compiled to an automaton", context.hasAutomaton());
+        }
+
+        final CompiledPatternContext context = new CompiledPatternContext(constraint("\\w+"));
+        assertTrue(context.matches("a_b"));
+        assertFalse(context.matches("a b"));
+    }
+
+    @Test
+    public void testSharedContext() {
+        final PatternConstraint constraint = constraint(MAC_ADDRESS);
+        assertSame(CompiledPatternContext.forConstraint(constraint), CompiledPatternContext.forConstraint(constraint));
+    }
+
+    @Test
+    public void testValidate() {
+        final CompiledPatternContext context = new CompiledPatternContext(constraint(MAC_ADDRESS));
+        context.validate("00:1a:2B:3c:4D:5e");
+        try {
+            context.validate("00:1a");
+            fail("Invalid value should have been rejected");
+        } catch (IllegalArgumentException e) {
+            assertTrue(e.getMessage().contains("00:1a"));
+        }
+    }
+}
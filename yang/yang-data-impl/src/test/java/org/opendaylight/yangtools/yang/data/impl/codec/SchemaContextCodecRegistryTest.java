@@ -0,0 +1,97 @@
+/*
+ * Copyright (c) 2016 Cisco Systems, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.yangtools.yang.data.impl.codec;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.opendaylight.yangtools.yang.common.QName;
+import org.opendaylight.yangtools.yang.data.impl.TestUtils;
+import org.opendaylight.yangtools.yang.model.api.ContainerSchemaNode;
+import org.opendaylight.yangtools.yang.model.api.DataSchemaNode;
+import org.opendaylight.yangtools.yang.model.api.SchemaContext;
+import org.opendaylight.yangtools.yang.model.api.TypeDefinition;
+import org.opendaylight.yangtools.yang.model.api.type.IdentityrefTypeDefinition;
+import org.opendaylight.yangtools.yang.model.api.type.InstanceIdentifierTypeDefinition;
+import org.opendaylight.yangtools.yang.model.api.type.StringTypeDefinition;
+
+public class SchemaContextCodecRegistryTest {
+    private static final String NS = "urn:opendaylight:yangtools:leafref:test";
+    private static final String REV = "2014-11-04";
+
+    private static SchemaContext schemaContext;
+    private static ContainerSchemaNode cont2;
+
+    @BeforeClass
+    public static void setup() throws Exception {
+        schemaContext = TestUtils.parseYangSources(new File(SchemaContextCodecRegistryTest.class.getResource(
+            "/leafref-test.yang").toURI()));
+        cont2 = (ContainerSchemaNode) schemaContext.getDataChildByName(QName.create(NS, REV, "cont2"));
+    }
+
+    private static DataSchemaNode leaf(final String localName) {
+        return cont2.getDataChildByName(QName.create(NS, REV, localName));
+    }
+
+    @Test
+    public void testSharedRegistry() {
+        final SchemaContextCodecRegistry registry = SchemaContextCodecRegistry.install(schemaContext);
+        assertSame(registry, SchemaContextCodecRegistry.from(schemaContext));
+    }
+
+    @Test
+    public void testWarmUp() throws Exception {
+        // Use a private context, so other tests cannot warm it up
+        final SchemaContext context = TestUtils.parseYangSources(new File(SchemaContextCodecRegistryTest.class
+            .getResource("/leafref-test.yang").toURI()));
+        final SchemaContextCodecRegistry registry = SchemaContextCodecRegistry.from(context);
+        assertFalse(registry.isWarmedUp());
+        assertEquals(0, registry.cachedNodeTypes());
+
+        assertSame(registry, SchemaContextCodecRegistry.install(context));
+        assertTrue(registry.isWarmedUp());
+        final long cached = registry.cachedNodeTypes();
+        assertTrue(cached > 0);
+
+        // Second installation does not walk the context again
+        assertSame(registry, SchemaContextCodecRegistry.install(context));
+        assertEquals(cached, registry.cachedNodeTypes());
+    }
+
+    @Test
+    public void testLeafrefResolution() {
+        final SchemaContextCodecRegistry registry = SchemaContextCodecRegistry.from(schemaContext);
+
+        final TypeDefinition<?> stringType = registry.getEffectiveType(leaf("stringleaf"));
+        assertTrue(stringType instanceof StringTypeDefinition);
+        assertSame(stringType, registry.getEffectiveType(leaf("pointToStringLeaf")));
+
+        assertTrue(registry.getEffectiveType(leaf("point-to-identityrefleaf")) instanceof IdentityrefTypeDefinition);
+        assertTrue(registry.getEffectiveType(leaf("absname")) instanceof InstanceIdentifierTypeDefinition);
+    }
+
+    @Test
+    public void testSharedCodecs() {
+        final SchemaContextCodecRegistry registry = SchemaContextCodecRegistry.from(schemaContext);
+        final TypeDefinitionAwareCodec<Object, ?> codec = registry.getCodec(
+            registry.getEffectiveType(leaf("stringleaf")));
+        assertNotNull(codec);
+        assertSame(codec, registry.getCodec(registry.getEffectiveType(leaf("pointToStringLeaf"))));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testUnsupportedNode() {
+        SchemaContextCodecRegistry.from(schemaContext).getEffectiveType(cont2);
+    }
+}
@@ -0,0 +1,119 @@
+/*
+ * Copyright (c) 2016 Cisco Systems, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.yangtools.yang.data.impl.codecs;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import com.google.common.base.Optional;
+import com.google.common.collect.ImmutableList;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import org.junit.Test;
+import org.opendaylight.yangtools.yang.data.api.codec.DecimalCodec;
+import org.opendaylight.yangtools.yang.data.impl.codec.PrimitiveIntegerCodec;
+import org.opendaylight.yangtools.yang.data.impl.codec.TypeDefinitionAwareCodec;
+import org.opendaylight.yangtools.yang.model.api.SchemaPath;
+import org.opendaylight.yangtools.yang.model.api.type.IntegerTypeDefinition;
+import org.opendaylight.yangtools.yang.model.util.BaseConstraints;
+import org.opendaylight.yangtools.yang.model.util.type.BaseTypes;
+import org.opendaylight.yangtools.yang.model.util.type.RangeRestrictedTypeBuilder;
+import org.opendaylight.yangtools.yang.model.util.type.RestrictedTypes;
+
+public class PrimitiveIntegerCodecTest {
+
+    private static PrimitiveIntegerCodec<?> primitiveCodec(final Object codec) {
+        assertTrue(codec instanceof PrimitiveIntegerCodec);
+        return (PrimitiveIntegerCodec<?>) codec;
+    }
+
+    private static void assertRejected(final PrimitiveIntegerCodec<?> codec, final String str) {
+        try {
+            codec.deserialize(str, 0, str.length());
+            fail("Expected IllegalArgumentException for " + str);
+        } catch (IllegalArgumentException e) {
+            // Expected
+        }
+    }
+
+    @Test
+    public void testTypeBounds() {
+        final PrimitiveIntegerCodec<?> int8 = primitiveCodec(TypeDefinitionAwareCodec.from(BaseTypes.int8Type()));
+        assertTrue(int8.isValid(-128));
+        assertTrue(int8.isValid(127));
+        assertFalse(int8.isValid(128));
+        assertFalse(int8.isValid(-129));
+        assertEquals(Byte.valueOf((byte) -5), int8.valueOf(-5));
+
+        final PrimitiveIntegerCodec<?> uint8 = primitiveCodec(TypeDefinitionAwareCodec.from(BaseTypes.uint8Type()));
+        assertTrue(uint8.isValid(255));
+        assertFalse(uint8.isValid(256));
+        assertFalse(uint8.isValid(-1));
+        assertEquals(Short.valueOf((short) 200), uint8.valueOf(200));
+
+        final PrimitiveIntegerCodec<?> uint64 = primitiveCodec(TypeDefinitionAwareCodec.from(BaseTypes.uint64Type()));
+        assertTrue(uint64.isValid(Long.MAX_VALUE));
+        assertFalse(uint64.isValid(-1));
+        assertEquals(BigInteger.TEN, uint64.valueOf(10));
+        assertEquals(new BigInteger("18446744073709551615"), uint64.deserialize("18446744073709551615", 0, 20));
+    }
+
+    @Test
+    public void testRangeConstraints() {
+        final RangeRestrictedTypeBuilder<IntegerTypeDefinition> builder = RestrictedTypes.newIntegerBuilder(
+            BaseTypes.int32Type(), SchemaPath.ROOT);
+        builder.setRangeAlternatives(ImmutableList.of(
+            BaseConstraints.newRangeConstraint(1, 10, Optional.<String>absent(), Optional.<String>absent()),
+            BaseConstraints.newRangeConstraint(100, 200, Optional.<String>absent(), Optional.<String>absent())));
+
+        final PrimitiveIntegerCodec<?> codec = primitiveCodec(TypeDefinitionAwareCodec.from(builder.build()));
+        assertFalse(codec.isValid(0));
+        assertTrue(codec.isValid(1));
+        assertTrue(codec.isValid(10));
+        assertFalse(codec.isValid(50));
+        assertTrue(codec.isValid(150));
+        assertFalse(codec.isValid(201));
+
+        assertEquals(Integer.valueOf(150), codec.deserialize("[150]", 1, 4));
+        assertRejected(codec, "50");
+        assertRejected(codec, "0x100");
+    }
+
+    @Test
+    public void testDeserializeRegion() {
+        final PrimitiveIntegerCodec<?> codec = primitiveCodec(TypeDefinitionAwareCodec.from(BaseTypes.int32Type()));
+        final String str = "a:-42,b:+17,c:0x1F,d:-017,e:0";
+        assertEquals(Integer.valueOf(-42), codec.deserialize(str, 2, 5));
+        assertEquals(Integer.valueOf(17), codec.deserialize(str, 8, 11));
+        assertEquals(Integer.valueOf(31), codec.deserialize(str, 14, 18));
+        assertEquals(Integer.valueOf(-15), codec.deserialize(str, 21, 25));
+        assertEquals(Integer.valueOf(0), codec.deserialize(str, 28, 29));
+        assertEquals(Integer.valueOf(Integer.MIN_VALUE), codec.deserialize("-2147483648", 0, 11));
+
+        assertRejected(codec, "+0");
+        assertRejected(codec, "-0");
+        assertRejected(codec, "1o");
+        assertRejected(codec, "");
+        assertRejected(codec, "2147483648");
+        // Non-ASCII digits are not accepted by the lexical form
+        assertRejected(codec, "١٢");
+    }
+
+    @SuppressWarnings("unchecked")
+    @Test
+    public void testDecimalPlainForm() {
+        final DecimalCodec<String> codec = TypeDefinitionAwareCodecTestHelper.getCodec(
+            BaseTypes.decimalTypeBuilder(SchemaPath.ROOT).setFractionDigits(3).build(), DecimalCodec.class);
+        for (String str : new String[] { "123.456", "-0.5", "+7", "1.", "123456789012345678", "12345678901234567890",
+                "1.5E3" }) {
+            assertEquals(str, new BigDecimal(str), codec.deserialize(str));
+        }
+    }
+}
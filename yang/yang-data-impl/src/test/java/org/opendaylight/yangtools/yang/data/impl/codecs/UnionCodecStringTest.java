@@ -10,15 +10,21 @@ package org.opendaylight.yangtools.yang.data.impl.codecs;
 
 import static org.junit.Assert.assertEquals;
 import static org.opendaylight.yangtools.yang.data.impl.codecs.TypeDefinitionAwareCodecTestHelper.deserializeWithExpectedIllegalArgEx;
+import static org.mockito.Mockito.mock;
 import static org.opendaylight.yangtools.yang.data.impl.codecs.TypeDefinitionAwareCodecTestHelper.getCodec;
+import static org.opendaylight.yangtools.yang.data.impl.codecs.TypeDefinitionAwareCodecTestHelper.toBitsTypeDefinition;
 import static org.opendaylight.yangtools.yang.data.impl.codecs.TypeDefinitionAwareCodecTestHelper.toEnumTypeDefinition;
 import static org.opendaylight.yangtools.yang.data.impl.codecs.TypeDefinitionAwareCodecTestHelper.toUnionTypeDefinition;
 
 import org.junit.Test;
 import org.opendaylight.yangtools.yang.data.api.codec.UnionCodec;
+import org.opendaylight.yangtools.yang.model.api.SchemaPath;
+import org.opendaylight.yangtools.yang.model.util.BooleanType;
+import org.opendaylight.yangtools.yang.model.util.Decimal64;
 import org.opendaylight.yangtools.yang.model.util.EmptyType;
 import org.opendaylight.yangtools.yang.model.util.Int32;
 import org.opendaylight.yangtools.yang.model.util.Int64;
+import org.opendaylight.yangtools.yang.model.util.Uint8;
 
 /**
  * Unit tests forUnionCodecString.
@@ -65,4 +71,27 @@ public class UnionCodecStringTest {
         deserializeWithExpectedIllegalArgEx( codec, "123o" );
         deserializeWithExpectedIllegalArgEx( codec, "true" );
     }
+
+    @SuppressWarnings("unchecked")
+    @Test
+    public void testDeserializeMemberChecks() {
+        UnionCodec<String> codec =
+            getCodec( toUnionTypeDefinition( BooleanType.getInstance(),
+                                             Decimal64.create( mock( SchemaPath.class ), 2 ),
+                                             toBitsTypeDefinition( "bit1", "bit2" ),
+                                             Uint8.getInstance() ),
+                      UnionCodec.class);
+
+        assertEquals( "deserialize", "TRUE", codec.deserialize( "TRUE" ) );
+        assertEquals( "deserialize", "-12.5", codec.deserialize( "-12.5" ) );
+        assertEquals( "deserialize", "1.5E3", codec.deserialize( "1.5E3" ) );
+        assertEquals( "deserialize", "bit2 bit1", codec.deserialize( "bit2 bit1" ) );
+        assertEquals( "deserialize", "0xff", codec.deserialize( "0xff" ) );
+        assertEquals( "deserialize", "017", codec.deserialize( "017" ) );
+
+        deserializeWithExpectedIllegalArgEx( codec, "bit3" );
+        deserializeWithExpectedIllegalArgEx( codec, "0x1ff" );
+        deserializeWithExpectedIllegalArgEx( codec, "1.5E" );
+        deserializeWithExpectedIllegalArgEx( codec, "." );
+    }
 }
@@ -0,0 +1,162 @@
+/*
+ * Copyright (c) 2016 Cisco Systems, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.yangtools.yang.data.impl.schema.tree;
+
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.fail;
+import static org.opendaylight.yangtools.yang.data.impl.schema.ImmutableNodes.leafNode;
+
+import com.google.common.collect.ImmutableSet;
+import java.math.BigDecimal;
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.opendaylight.yangtools.yang.common.QName;
+import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier;
+import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier.NodeIdentifier;
+import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier.NodeWithValue;
+import org.opendaylight.yangtools.yang.data.api.schema.ContainerNode;
+import org.opendaylight.yangtools.yang.data.api.schema.LeafNode;
+import org.opendaylight.yangtools.yang.data.api.schema.tree.DataTreeModification;
+import org.opendaylight.yangtools.yang.data.api.schema.tree.DataValidationFailedException;
+import org.opendaylight.yangtools.yang.data.api.schema.tree.TreeType;
+import org.opendaylight.yangtools.yang.data.impl.schema.Builders;
+import org.opendaylight.yangtools.yang.model.api.SchemaContext;
+
+public class ValueValidationTest {
+    private static final QName INT_LEAF = QName.create(TestModel.TEST_QNAME, "int-leaf");
+    private static final QName STRING_LEAF = QName.create(TestModel.TEST_QNAME, "string-leaf");
+    private static final QName ENUM_LEAF = QName.create(TestModel.TEST_QNAME, "enum-leaf");
+    private static final QName BITS_LEAF = QName.create(TestModel.TEST_QNAME, "bits-leaf");
+    private static final QName UNION_LEAF = QName.create(TestModel.TEST_QNAME, "union-leaf");
+    private static final QName DECIMAL_LIST = QName.create(TestModel.TEST_QNAME, "decimal-list");
+
+    private static SchemaContext schemaContext;
+
+    @BeforeClass
+    public static void beforeClass() throws Exception {
+        schemaContext = TestModel.createTestContext("/value-validation-test.yang");
+    }
+
+    @AfterClass
+    public static void afterClass() {
+        System.clearProperty(InMemoryDataTreeFactory.VALIDATE_VALUES_PROP);
+    }
+
+    private static InMemoryDataTree initDataTree(final boolean validate, final TreeType treeType) {
+        System.setProperty(InMemoryDataTreeFactory.VALIDATE_VALUES_PROP, String.valueOf(validate));
+        final InMemoryDataTree dataTree = (InMemoryDataTree) InMemoryDataTreeFactory.getInstance().create(treeType);
+        dataTree.setSchemaContext(schemaContext);
+        return dataTree;
+    }
+
+    private static YangInstanceIdentifier leafPath(final QName qname) {
+        return TestModel.TEST_PATH.node(qname);
+    }
+
+    private static void commitLeaf(final InMemoryDataTree dataTree, final QName qname, final Object value)
+            throws DataValidationFailedException {
+        final DataTreeModification modification = dataTree.takeSnapshot().newModification();
+        modification.write(TestModel.TEST_PATH, Builders.containerBuilder()
+            .withNodeIdentifier(new NodeIdentifier(TestModel.TEST_QNAME)).build());
+        modification.write(leafPath(qname), leafNode(qname, value));
+        modification.ready();
+        dataTree.validate(modification);
+        dataTree.commit(dataTree.prepare(modification));
+    }
+
+    private static void assertRejectedLeaf(final InMemoryDataTree dataTree, final QName qname, final Object value)
+            throws DataValidationFailedException {
+        try {
+            commitLeaf(dataTree, qname, value);
+            fail("Value " + value + " of " + qname + " should have been rejected");
+        } catch (SchemaValidationFailedException e) {
+            assertNotNull(e.getCause());
+        }
+    }
+
+    @Test
+    public void testValidLeaves() throws DataValidationFailedException {
+        final InMemoryDataTree dataTree = initDataTree(true, TreeType.CONFIGURATION);
+        commitLeaf(dataTree, INT_LEAF, 5);
+        commitLeaf(dataTree, INT_LEAF, 30);
+        commitLeaf(dataTree, STRING_LEAF, "abc");
+        commitLeaf(dataTree, ENUM_LEAF, "two");
+        commitLeaf(dataTree, BITS_LEAF, ImmutableSet.of("foo", "bar"));
+        commitLeaf(dataTree, UNION_LEAF, (short) 42);
+        commitLeaf(dataTree, UNION_LEAF, "unbounded");
+    }
+
+    @Test
+    public void testInvalidLeaves() throws DataValidationFailedException {
+        final InMemoryDataTree dataTree = initDataTree(true, TreeType.CONFIGURATION);
+        assertRejectedLeaf(dataTree, INT_LEAF, 15);
+        assertRejectedLeaf(dataTree, INT_LEAF, "5");
+        assertRejectedLeaf(dataTree, STRING_LEAF, "abcdef");
+        assertRejectedLeaf(dataTree, STRING_LEAF, "ab1");
+        assertRejectedLeaf(dataTree, ENUM_LEAF, "three");
+        assertRejectedLeaf(dataTree, BITS_LEAF, ImmutableSet.of("foo", "baz"));
+        assertRejectedLeaf(dataTree, UNION_LEAF, (short) 101);
+        assertRejectedLeaf(dataTree, UNION_LEAF, "bounded");
+    }
+
+    @Test
+    public void testValidationDisabled() throws DataValidationFailedException {
+        final InMemoryDataTree dataTree = initDataTree(false, TreeType.CONFIGURATION);
+        commitLeaf(dataTree, INT_LEAF, 15);
+        commitLeaf(dataTree, STRING_LEAF, "abcdef");
+    }
+
+    @Test
+    public void testOperationalContainerWrite() throws DataValidationFailedException {
+        final InMemoryDataTree dataTree = initDataTree(true, TreeType.OPERATIONAL);
+        final LeafNode<Object> leaf = leafNode(INT_LEAF, 15);
+        final ContainerNode container = Builders.containerBuilder()
+                .withNodeIdentifier(new NodeIdentifier(TestModel.TEST_QNAME)).withChild(leaf).build();
+
+        final DataTreeModification modification = dataTree.takeSnapshot().newModification();
+        modification.write(TestModel.TEST_PATH, container);
+        try {
+            modification.ready();
+            fail("Invalid leaf in a written container should have been rejected");
+        } catch (SchemaValidationFailedException e) {
+            assertNotNull(e.getCause());
+        }
+    }
+
+    @Test
+    public void testOperationalStructureNotVerified() throws DataValidationFailedException {
+        final InMemoryDataTree dataTree = initDataTree(true, TreeType.OPERATIONAL);
+        // Value validation does not turn on structure verification in operational trees
+        final ContainerNode container = Builders.containerBuilder()
+                .withNodeIdentifier(new NodeIdentifier(TestModel.TEST_QNAME))
+                .withChild(leafNode(INT_LEAF, 5))
+                .withChild(leafNode(QName.create(TestModel.TEST_QNAME, "unknown-leaf"), "foo")).build();
+
+        final DataTreeModification modification = dataTree.takeSnapshot().newModification();
+        modification.write(TestModel.TEST_PATH, container);
+        modification.ready();
+        dataTree.validate(modification);
+        dataTree.commit(dataTree.prepare(modification));
+    }
+
+    @Test
+    public void testLeafSetMerge() {
+        final InMemoryDataTree dataTree = initDataTree(true, TreeType.CONFIGURATION);
+        final DataTreeModification modification = dataTree.takeSnapshot().newModification();
+        final BigDecimal value = new BigDecimal("1.75");
+        try {
+            modification.merge(leafPath(DECIMAL_LIST).node(new NodeWithValue<>(DECIMAL_LIST, value)),
+                Builders.leafSetEntryBuilder().withNodeIdentifier(new NodeWithValue<>(DECIMAL_LIST, value))
+                .withValue(value).build());
+            fail("Invalid leaf-list entry should have been rejected");
+        } catch (SchemaValidationFailedException e) {
+            assertNotNull(e.getCause());
+        }
+    }
+}
@@ -0,0 +1,82 @@
+/*
+ * Copyright (c) 2016 Cisco Systems, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.yangtools.yang.data.util;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.opendaylight.yangtools.yang.common.QName;
+import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier.NodeIdentifier;
+import org.opendaylight.yangtools.yang.data.impl.schema.tree.TestModel;
+import org.opendaylight.yangtools.yang.model.api.SchemaContext;
+import org.opendaylight.yangtools.yang.parser.spi.meta.ReactorException;
+
+public class SchemaQNameInternerTest {
+    private static SchemaContext schemaContext;
+
+    @BeforeClass
+    public static void setup() throws ReactorException {
+        schemaContext = TestModel.createTestContext();
+    }
+
+    private static QName copyOf(final QName qname) {
+        return QName.create(qname.getNamespace(), qname.getRevision(), new String(qname.getLocalName()));
+    }
+
+    @Test
+    public void testSeededNames() {
+        final SchemaQNameInterner interner = new SchemaQNameInterner(schemaContext, 16);
+        assertTrue(interner.getSeededSize() > 0);
+
+        for (QName qname : new QName[] { TestModel.TEST_QNAME, TestModel.OUTER_LIST_QNAME,
+                TestModel.INNER_LIST_QNAME, TestModel.ID_QNAME, TestModel.TWO_QNAME }) {
+            final QName copy = copyOf(qname);
+            final QName interned = interner.intern(copy);
+            assertEquals(qname, interned);
+            assertSame(interned, interner.intern(copyOf(qname)));
+            assertSame(interner.nodeIdentifier(copy), interner.nodeIdentifier(qname));
+            assertSame(interned, interner.nodeIdentifier(copy).getNodeType());
+        }
+
+        assertEquals(25, interner.getSeededHits());
+        assertEquals(0, interner.getMisses());
+        assertEquals(1.0, interner.getHitRate(), 0);
+    }
+
+    @Test
+    public void testFallback() {
+        final SchemaQNameInterner interner = new SchemaQNameInterner(schemaContext, 1);
+        final QName unknown = QName.create(TestModel.TEST_QNAME, "unknown");
+
+        final NodeIdentifier first = interner.nodeIdentifier(unknown);
+        assertEquals(unknown, first.getNodeType());
+        assertSame(first, interner.nodeIdentifier(copyOf(unknown)));
+        assertEquals(1, interner.getFallbackSize());
+        assertEquals(1, interner.getMisses());
+        assertEquals(1, interner.getFallbackHits());
+        assertEquals(0.5, interner.getHitRate(), 0);
+
+        // The fallback table is full, this goes to the global interners
+        final QName other = QName.create(TestModel.TEST_QNAME, "other");
+        assertEquals(other, interner.intern(other));
+        assertEquals(1, interner.getFallbackSize());
+        assertEquals(1, interner.getOverflows());
+        assertEquals(2, interner.getMisses());
+    }
+
+    @Test
+    public void testSharedInstance() {
+        final SchemaQNameInterner interner = SchemaQNameInterner.forSchemaContext(schemaContext);
+        assertSame(interner, SchemaQNameInterner.forSchemaContext(schemaContext));
+        assertNotSame(interner, new SchemaQNameInterner(schemaContext, 0));
+    }
+}
@@ -196,9 +196,15 @@ public abstract class QNameTransformingStreamWriter extends ForwardingObject imp
     }
 
     private NodeIdentifierWithPredicates transform(final NodeIdentifierWithPredicates identifier) {
+        if (identifier.size() == 1) {
+            final QName key = identifier.keySet().iterator().next();
+            return new NodeIdentifierWithPredicates(transform(identifier.getNodeType()), transform(key),
+                identifier.getValue(key));
+        }
+
         Map<QName, Object> keyValues = new HashMap<>();
-        for (Map.Entry<QName, Object> original : identifier.getKeyValues().entrySet()) {
-            keyValues.put(transform(original.getKey()), original.getValue());
+        for (QName original : identifier.keySet()) {
+            keyValues.put(transform(original), identifier.getValue(original));
         }
         return new NodeIdentifierWithPredicates(transform(identifier.getNodeType()), keyValues);
     }
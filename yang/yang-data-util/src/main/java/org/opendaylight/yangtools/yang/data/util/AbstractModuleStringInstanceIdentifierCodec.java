@@ -9,19 +9,44 @@ package org.opendaylight.yangtools.yang.data.util;
 
 import com.google.common.annotations.Beta;
 import com.google.common.base.Preconditions;
+import com.google.common.cache.CacheStats;
 
 import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
 
 import org.opendaylight.yangtools.yang.common.QName;
+import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier;
 import org.opendaylight.yangtools.yang.model.api.Module;
 
 /**
  * Extension of {@link AbstractStringInstanceIdentifierCodec}, which instantiates
  * QNames by first resolving the namespace and then looking the target namespace
  * in the list of currently-subscribed modules.
+ *
+ * <p>
+ * Since module names do not depend on the context in which the identifier appears,
+ * string representations are cached in both directions.
  */
 @Beta
 public abstract class AbstractModuleStringInstanceIdentifierCodec extends AbstractStringInstanceIdentifierCodec {
+    /**
+     * Default maximum number of cached string representations.
+     */
+    public static final int DEFAULT_CACHE_SIZE = 4096;
+
+    protected AbstractModuleStringInstanceIdentifierCodec() {
+        this(DEFAULT_CACHE_SIZE);
+    }
+
+    /**
+     * Create a new codec.
+     *
+     * @param cacheSize Maximum number of cached string representations in each direction, 0 disables caching.
+     */
+    protected AbstractModuleStringInstanceIdentifierCodec(final int cacheSize) {
+        super(cacheSize);
+    }
+
     /**
      * Resolve a string prefix into the corresponding module.
      *
@@ -36,4 +61,22 @@ public abstract class AbstractModuleStringInstanceIdentifierCodec extends Abstra
         Preconditions.checkArgument(module != null, "Failed to lookup prefix %s", prefix);
         return QName.create(module.getQNameModule(), localName);
     }
+
+    /**
+     * Return statistics of the cache used by {@link #serialize(YangInstanceIdentifier)}.
+     *
+     * @return Cache statistics, or null if caching is disabled
+     */
+    @Nullable public final CacheStats getSerializationCacheStats() {
+        return serializationStats();
+    }
+
+    /**
+     * Return statistics of the cache used by {@link #deserialize(String)}.
+     *
+     * @return Cache statistics, or null if caching is disabled
+     */
+    @Nullable public final CacheStats getDeserializationCacheStats() {
+        return deserializationStats();
+    }
 }
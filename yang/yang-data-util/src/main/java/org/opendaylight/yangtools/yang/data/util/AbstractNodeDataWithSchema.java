@@ -21,6 +21,8 @@ import org.opendaylight.yangtools.yang.model.api.DataSchemaNode;
 @Beta
 public abstract class AbstractNodeDataWithSchema {
     private final DataSchemaNode schema;
+    // Inherited from the parent when this node is attached to it, null if identifiers should not be interned locally
+    private SchemaQNameInterner interner;
 
     public AbstractNodeDataWithSchema(final DataSchemaNode schema) {
         this.schema = Preconditions.checkNotNull(schema);
@@ -43,7 +45,15 @@ public abstract class AbstractNodeDataWithSchema {
     public abstract void write(final SchemaAwareNormalizedNodeStreamWriter writer) throws IOException;
 
     protected final NodeIdentifier provideNodeIdentifier() {
-        return NodeIdentifier.create(schema.getQName());
+        return interner != null ? interner.nodeIdentifier(schema.getQName()) : NodeIdentifier.create(schema.getQName());
+    }
+
+    final SchemaQNameInterner getInterner() {
+        return interner;
+    }
+
+    final void setInterner(final SchemaQNameInterner interner) {
+        this.interner = interner;
     }
 
     @Override
@@ -9,8 +9,9 @@ package org.opendaylight.yangtools.yang.data.util;
 
 import com.google.common.annotations.Beta;
 import com.google.common.base.Preconditions;
-import java.util.Map;
+import com.google.common.cache.CacheStats;
 import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
 import org.opendaylight.yangtools.yang.common.QName;
 import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier;
 import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier.NodeIdentifierWithPredicates;
@@ -25,9 +26,28 @@ import org.opendaylight.yangtools.yang.model.api.DataSchemaNode;
  */
 @Beta
 public abstract class AbstractStringInstanceIdentifierCodec extends AbstractNamespaceCodec implements InstanceIdentifierCodec<String> {
+    private final InstanceIdentifierStringCache cache;
+
+    protected AbstractStringInstanceIdentifierCodec() {
+        this.cache = null;
+    }
+
+    /**
+     * Constructor for subclasses whose string representations depend only on the schema, hence can be cached.
+     *
+     * @param cacheSize Maximum number of cached representations in each direction, 0 disables caching
+     */
+    AbstractStringInstanceIdentifierCodec(final int cacheSize) {
+        Preconditions.checkArgument(cacheSize >= 0, "Cache size %s is negative", cacheSize);
+        this.cache = cacheSize == 0 ? null : new InstanceIdentifierStringCache(this, cacheSize);
+    }
 
     @Override
     public final String serialize(final YangInstanceIdentifier data) {
+        return cache == null ? serializeUncached(data) : cache.serialize(data);
+    }
+
+    final String serializeUncached(final YangInstanceIdentifier data) {
         StringBuilder sb = new StringBuilder();
         DataSchemaContextNode<?> current = getDataContextTree().getRoot();
         for (PathArgument arg : data.getPathArguments()) {
@@ -50,11 +70,12 @@ public abstract class AbstractStringInstanceIdentifierCodec extends AbstractName
             appendQName(sb, arg.getNodeType());
 
             if (arg instanceof NodeIdentifierWithPredicates) {
-                for (Map.Entry<QName, Object> entry : ((NodeIdentifierWithPredicates) arg).getKeyValues().entrySet()) {
+                final NodeIdentifierWithPredicates nip = (NodeIdentifierWithPredicates) arg;
+                for (QName key : nip.keySet()) {
                     sb.append('[');
-                    appendQName(sb, entry.getKey());
+                    appendQName(sb, key);
                     sb.append("='");
-                    sb.append(String.valueOf(entry.getValue()));
+                    sb.append(String.valueOf(nip.getValue(key)));
                     sb.append("']");
                 }
             } else if (arg instanceof NodeWithValue) {
@@ -92,8 +113,29 @@ public abstract class AbstractStringInstanceIdentifierCodec extends AbstractName
     @Override
     public final YangInstanceIdentifier deserialize(final String data) {
         Preconditions.checkNotNull(data, "Data may not be null");
+        if (cache != null) {
+            return cache.deserialize(data);
+        }
         XpathStringParsingPathArgumentBuilder builder = new XpathStringParsingPathArgumentBuilder(this, data);
         return YangInstanceIdentifier.create(builder.build());
     }
 
+    /**
+     * Return serialization cache statistics.
+     *
+     * @return Cache statistics, or null if this codec does not cache.
+     */
+    @Nullable final CacheStats serializationStats() {
+        return cache == null ? null : cache.serializationStats();
+    }
+
+    /**
+     * Return deserialization cache statistics.
+     *
+     * @return Cache statistics, or null if this codec does not cache.
+     */
+    @Nullable final CacheStats deserializationStats() {
+        return cache == null ? null : cache.deserializationStats();
+    }
+
 }
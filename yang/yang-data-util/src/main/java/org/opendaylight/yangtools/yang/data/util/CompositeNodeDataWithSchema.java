@@ -20,6 +20,7 @@ import java.util.Deque;
 import java.util.List;
 import java.util.Map.Entry;
 import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
 import org.opendaylight.yangtools.yang.common.QName;
 import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier;
 import org.opendaylight.yangtools.yang.data.api.schema.stream.SchemaAwareNormalizedNodeStreamWriter;
@@ -54,6 +55,23 @@ public class CompositeNodeDataWithSchema extends AbstractNodeDataWithSchema {
         super(schema);
     }
 
+    /**
+     * Create a root node. Node identifiers of this node and all nodes attached to it, directly or indirectly, are
+     * obtained from the specified interner.
+     *
+     * @param schema Schema node
+     * @param interner Interner of node identifiers, may be null
+     */
+    public CompositeNodeDataWithSchema(final DataSchemaNode schema, @Nullable final SchemaQNameInterner interner) {
+        super(schema);
+        setInterner(interner);
+    }
+
+    private <T extends AbstractNodeDataWithSchema> T adopt(final T child) {
+        child.setInterner(getInterner());
+        return child;
+    }
+
     public AbstractNodeDataWithSchema addChild(final Deque<DataSchemaNode> schemas) {
         Preconditions.checkArgument(!schemas.isEmpty(), "Expecting at least one schema");
 
@@ -90,7 +108,7 @@ public class CompositeNodeDataWithSchema extends AbstractNodeDataWithSchema {
 
         CompositeNodeDataWithSchema caseNodeDataWithSchema = findChoice(childNodes, choiceCandidate, caseCandidate);
         if (caseNodeDataWithSchema == null) {
-            ChoiceNodeDataWithSchema choiceNodeDataWithSchema = new ChoiceNodeDataWithSchema(choiceNode);
+            ChoiceNodeDataWithSchema choiceNodeDataWithSchema = adopt(new ChoiceNodeDataWithSchema(choiceNode));
             childNodes.add(choiceNodeDataWithSchema);
             caseNodeDataWithSchema = choiceNodeDataWithSchema.addCompositeChild(caseNode);
         }
@@ -117,7 +135,7 @@ public class CompositeNodeDataWithSchema extends AbstractNodeDataWithSchema {
             augSchema = findCorrespondingAugment(getSchema(), schema);
         }
         if (augSchema != null) {
-            augmentationsToChild.put(augSchema, newChild);
+            augmentationsToChild.put(augSchema, adopt(newChild));
         } else {
             addChild(newChild);
         }
@@ -165,7 +183,7 @@ public class CompositeNodeDataWithSchema extends AbstractNodeDataWithSchema {
     void addCompositeChild(final CompositeNodeDataWithSchema newChild) {
         AugmentationSchema augSchema = findCorrespondingAugment(getSchema(), newChild.getSchema());
         if (augSchema != null) {
-            augmentationsToChild.put(augSchema, newChild);
+            augmentationsToChild.put(augSchema, adopt(newChild));
         } else {
             addChild(newChild);
         }
@@ -177,7 +195,7 @@ public class CompositeNodeDataWithSchema extends AbstractNodeDataWithSchema {
     }
 
     public void addChild(final AbstractNodeDataWithSchema newChild) {
-        children.add(newChild);
+        children.add(adopt(newChild));
     }
 
     /**
@@ -0,0 +1,116 @@
+/*
+ * Copyright (c) 2016 Cisco Systems, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.yangtools.yang.data.util;
+
+import com.google.common.base.Preconditions;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheStats;
+import java.util.List;
+import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier;
+import org.opendaylight.yangtools.yang.data.util.XpathStringParsingPathArgumentBuilder.Step;
+
+/**
+ * Bounded cache of string representations of {@link YangInstanceIdentifier}s and the identifiers they represent. Equal
+ * strings deserialize to the same {@link YangInstanceIdentifier} instance while they remain cached.
+ *
+ * <p>
+ * Besides complete identifiers, the deserialization cache also holds their ancestors, so that parsing of a string
+ * which has not been seen before can start at the longest parent path which has.
+ */
+final class InstanceIdentifierStringCache {
+    /**
+     * A parsed prefix of a string representation.
+     */
+    private static final class Parsed {
+        final YangInstanceIdentifier identifier;
+        final DataSchemaContextNode<?> node;
+
+        Parsed(final YangInstanceIdentifier identifier, final DataSchemaContextNode<?> node) {
+            this.identifier = identifier;
+            this.node = node;
+        }
+    }
+
+    private final Cache<YangInstanceIdentifier, String> serialized;
+    private final Cache<String, Parsed> deserialized;
+    private final AbstractStringInstanceIdentifierCodec codec;
+
+    InstanceIdentifierStringCache(final AbstractStringInstanceIdentifierCodec codec, final int maximumSize) {
+        Preconditions.checkArgument(maximumSize > 0, "Cache size %s is not positive", maximumSize);
+        this.codec = Preconditions.checkNotNull(codec);
+        this.serialized = CacheBuilder.newBuilder().maximumSize(maximumSize).recordStats().build();
+        this.deserialized = CacheBuilder.newBuilder().maximumSize(maximumSize).recordStats().build();
+    }
+
+    String serialize(final YangInstanceIdentifier data) {
+        String ret = serialized.getIfPresent(data);
+        if (ret == null) {
+            ret = codec.serializeUncached(data);
+            serialized.put(data, ret);
+        }
+        return ret;
+    }
+
+    YangInstanceIdentifier deserialize(final String data) {
+        final Parsed cached = deserialized.getIfPresent(data);
+        if (cached != null) {
+            return cached.identifier;
+        }
+
+        /*
+         * Find the longest cached parent path. Separators may appear in quoted predicate values, skip those. Probes go
+         * through the map view, so they are not accounted as misses.
+         */
+        Parsed parent = null;
+        int parentEnd = 0;
+        char quote = 0;
+        for (int i = data.length() - 1; i > 0 && parent == null; --i) {
+            final char c = data.charAt(i);
+            if (quote != 0) {
+                if (c == quote) {
+                    quote = 0;
+                }
+            } else if (c == '\'' || c == '"') {
+                quote = c;
+            } else if (c == '/') {
+                parent = deserialized.asMap().get(data.substring(0, i));
+                parentEnd = i;
+            }
+        }
+
+        final XpathStringParsingPathArgumentBuilder builder;
+        if (parent != null) {
+            builder = new XpathStringParsingPathArgumentBuilder(codec, data, parentEnd, parent.node,
+                parent.identifier.getPathArguments());
+        } else {
+            builder = new XpathStringParsingPathArgumentBuilder(codec, data);
+        }
+
+        final YangInstanceIdentifier ret = YangInstanceIdentifier.create(builder.build());
+        final List<Step> steps = builder.getSteps();
+        if (!steps.isEmpty()) {
+            for (final Step step : steps.subList(0, steps.size() - 1)) {
+                final String prefix = data.substring(0, step.getOffset());
+                if (deserialized.asMap().get(prefix) == null) {
+                    deserialized.put(prefix, new Parsed(ret.getAncestor(step.getDepth()), step.getNode()));
+                }
+            }
+            deserialized.put(data, new Parsed(ret, steps.get(steps.size() - 1).getNode()));
+        }
+        return ret;
+    }
+
+    CacheStats serializationStats() {
+        return serialized.stats();
+    }
+
+    CacheStats deserializationStats() {
+        return deserialized.stats();
+    }
+}
@@ -0,0 +1,255 @@
+/*
+ * Copyright (c) 2016 Cisco Systems, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.yangtools.yang.data.util;
+
+import com.google.common.annotations.Beta;
+import com.google.common.base.MoreObjects;
+import com.google.common.base.Preconditions;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheLoader;
+import com.google.common.cache.LoadingCache;
+import com.google.common.collect.ImmutableMap;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+import javax.annotation.Nonnull;
+import org.opendaylight.yangtools.yang.common.QName;
+import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier.NodeIdentifier;
+import org.opendaylight.yangtools.yang.model.api.ChoiceCaseNode;
+import org.opendaylight.yangtools.yang.model.api.ChoiceSchemaNode;
+import org.opendaylight.yangtools.yang.model.api.DataNodeContainer;
+import org.opendaylight.yangtools.yang.model.api.DataSchemaNode;
+import org.opendaylight.yangtools.yang.model.api.IdentitySchemaNode;
+import org.opendaylight.yangtools.yang.model.api.Module;
+import org.opendaylight.yangtools.yang.model.api.NotificationDefinition;
+import org.opendaylight.yangtools.yang.model.api.RpcDefinition;
+import org.opendaylight.yangtools.yang.model.api.SchemaContext;
+
+/**
+ * Interner of {@link QName}s and {@link NodeIdentifier}s, seeded with all names defined in a {@link SchemaContext}.
+ * This includes data nodes, choices and cases, RPCs and their input and output, notifications and identities.
+ *
+ * <p>
+ * Seeded names are held in an immutable table, hence looking them up does not involve any locking or reference
+ * tracking, unlike {@link QName#intern()} and {@link NodeIdentifier#create(QName)}. Names which are not part of the
+ * schema are interned through a concurrent table, which is bounded in size. Once it fills up, further unknown names
+ * are passed to the global weak interners.
+ *
+ * <p>
+ * The interner keeps counters of its hits and misses, so its efficiency can be assessed. Lookups which end up in the
+ * global interners are counted separately, as those create weak references, which need to be processed by the
+ * garbage collector. Counters are striped, so that threads sharing an interner do not contend on them, and are summed
+ * when read.
+ */
+@Beta
+public final class SchemaQNameInterner {
+    /**
+     * Default maximum number of names which are not part of the schema, which are interned locally.
+     */
+    public static final int DEFAULT_FALLBACK_SIZE = 4096;
+
+    private static final LoadingCache<SchemaContext, SchemaQNameInterner> INTERNERS = CacheBuilder.newBuilder()
+            .weakKeys().build(new CacheLoader<SchemaContext, SchemaQNameInterner>() {
+                @Override
+                public SchemaQNameInterner load(final SchemaContext key) {
+                    return new SchemaQNameInterner(key, DEFAULT_FALLBACK_SIZE);
+                }
+            });
+
+    private final Map<QName, NodeIdentifier> seeded;
+    private final ConcurrentMap<QName, NodeIdentifier> fallback = new ConcurrentHashMap<>();
+    private final int maxFallbackSize;
+
+    // Updated by all threads using this interner, hence we use striped counters to keep them from contending
+    private final LongAdder seededHits = new LongAdder();
+    private final LongAdder fallbackHits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder overflows = new LongAdder();
+
+    /**
+     * Create a new interner.
+     *
+     * @param ctx Schema context whose names should be seeded
+     * @param maxFallbackSize Maximum number of names outside of the schema context which are interned locally
+     */
+    public SchemaQNameInterner(@Nonnull final SchemaContext ctx, final int maxFallbackSize) {
+        Preconditions.checkArgument(maxFallbackSize >= 0, "Invalid fallback size %s", maxFallbackSize);
+        this.maxFallbackSize = maxFallbackSize;
+
+        final Map<QName, NodeIdentifier> names = new HashMap<>();
+        for (Module module : ctx.getModules()) {
+            addChildren(names, module);
+            for (RpcDefinition rpc : module.getRpcs()) {
+                addName(names, rpc.getQName());
+                if (rpc.getInput() != null) {
+                    addNode(names, rpc.getInput());
+                }
+                if (rpc.getOutput() != null) {
+                    addNode(names, rpc.getOutput());
+                }
+            }
+            for (NotificationDefinition notification : module.getNotifications()) {
+                addName(names, notification.getQName());
+                addChildren(names, notification);
+            }
+            for (IdentitySchemaNode identity : module.getIdentities()) {
+                addName(names, identity.getQName());
+            }
+        }
+        seeded = ImmutableMap.copyOf(names);
+    }
+
+    /**
+     * Return the shared interner for a particular schema context. The interner is retained for as long as the context
+     * is, so its names are seeded only once.
+     *
+     * @param ctx Schema context
+     * @return Interner seeded with the context's names
+     */
+    @Nonnull public static SchemaQNameInterner forSchemaContext(@Nonnull final SchemaContext ctx) {
+        return INTERNERS.getUnchecked(ctx);
+    }
+
+    private static void addName(final Map<QName, NodeIdentifier> names, final QName qname) {
+        if (!names.containsKey(qname)) {
+            names.put(qname, NodeIdentifier.create(qname.intern()));
+        }
+    }
+
+    private static void addNode(final Map<QName, NodeIdentifier> names, final DataSchemaNode node) {
+        addName(names, node.getQName());
+        if (node instanceof DataNodeContainer) {
+            addChildren(names, (DataNodeContainer) node);
+        } else if (node instanceof ChoiceSchemaNode) {
+            for (ChoiceCaseNode caze : ((ChoiceSchemaNode) node).getCases()) {
+                addNode(names, caze);
+            }
+        }
+    }
+
+    private static void addChildren(final Map<QName, NodeIdentifier> names, final DataNodeContainer container) {
+        for (DataSchemaNode child : container.getChildNodes()) {
+            addNode(names, child);
+        }
+    }
+
+    /**
+     * Return an interned QName equal to the supplied one.
+     *
+     * @param qname QName to intern
+     * @return Interned QName
+     */
+    @Nonnull public QName intern(@Nonnull final QName qname) {
+        return nodeIdentifier(qname).getNodeType();
+    }
+
+    /**
+     * Return an interned {@link NodeIdentifier} for a QName.
+     *
+     * @param qname Node's QName
+     * @return Interned NodeIdentifier
+     */
+    @Nonnull public NodeIdentifier nodeIdentifier(@Nonnull final QName qname) {
+        NodeIdentifier ret = seeded.get(qname);
+        if (ret != null) {
+            seededHits.increment();
+            return ret;
+        }
+
+        ret = fallback.get(qname);
+        if (ret != null) {
+            fallbackHits.increment();
+            return ret;
+        }
+
+        misses.increment();
+        final NodeIdentifier created = NodeIdentifier.create(qname.intern());
+        if (fallback.size() >= maxFallbackSize) {
+            overflows.increment();
+            return created;
+        }
+
+        ret = fallback.putIfAbsent(qname, created);
+        return ret != null ? ret : created;
+    }
+
+    /**
+     * Return the number of names seeded from the schema context.
+     *
+     * @return Number of seeded names
+     */
+    public int getSeededSize() {
+        return seeded.size();
+    }
+
+    /**
+     * Return the number of names outside of the schema context which are currently interned locally.
+     *
+     * @return Number of locally-interned unknown names
+     */
+    public int getFallbackSize() {
+        return fallback.size();
+    }
+
+    /**
+     * Return the number of lookups satisfied from the seeded table.
+     *
+     * @return Number of seeded hits
+     */
+    public long getSeededHits() {
+        return seededHits.sum();
+    }
+
+    /**
+     * Return the number of lookups satisfied from the fallback table.
+     *
+     * @return Number of fallback hits
+     */
+    public long getFallbackHits() {
+        return fallbackHits.sum();
+    }
+
+    /**
+     * Return the number of lookups of names which were not found in either table.
+     *
+     * @return Number of misses
+     */
+    public long getMisses() {
+        return misses.sum();
+    }
+
+    /**
+     * Return the number of misses which could not be recorded in the fallback table because it was full. Each of
+     * these lookups has been passed to the global weak interners, incurring reference processing overhead.
+     *
+     * @return Number of overflows
+     */
+    public long getOverflows() {
+        return overflows.sum();
+    }
+
+    /**
+     * Return the ratio of lookups which were satisfied without instantiating or interning a new object.
+     *
+     * @return Hit rate between 0 and 1, or 1 if no lookups have been made
+     */
+    public double getHitRate() {
+        final long hits = seededHits.sum() + fallbackHits.sum();
+        final long total = hits + misses.sum();
+        return total == 0 ? 1.0 : (double) hits / total;
+    }
+
+    @Override
+    public String toString() {
+        return MoreObjects.toStringHelper(this).add("seeded", seeded.size()).add("fallback", fallback.size())
+                .add("seededHits", seededHits.sum()).add("fallbackHits", fallbackHits.sum())
+                .add("misses", misses.sum()).add("overflows", overflows.sum()).toString();
+    }
+}
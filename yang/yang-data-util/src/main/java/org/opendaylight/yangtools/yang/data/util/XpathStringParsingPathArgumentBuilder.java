@@ -11,6 +11,7 @@ import com.google.common.base.CharMatcher;
 import com.google.common.base.Preconditions;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
+import java.util.ArrayList;
 import java.util.LinkedList;
 import java.util.List;
 import javax.annotation.Nullable;
@@ -72,15 +73,31 @@ class XpathStringParsingPathArgumentBuilder implements Builder<Iterable<PathArgu
     private final String data;
 
     private final List<PathArgument> product = new LinkedList<>();
+    private final List<Step> steps = new ArrayList<>();
 
     private DataSchemaContextNode<?> current;
     private int offset;
 
     XpathStringParsingPathArgumentBuilder(AbstractStringInstanceIdentifierCodec codec, String data) {
+        this(codec, data, 0, codec.getDataContextTree().getRoot(), ImmutableList.<PathArgument>of());
+    }
+
+    /**
+     * Create a builder which continues parsing after an already-parsed prefix of the string.
+     *
+     * @param codec Codec performing the parsing
+     * @param data String representation
+     * @param offset Offset of the first unparsed character, which must be a '/'
+     * @param current Context node corresponding to the already-parsed prefix
+     * @param prefix Path arguments corresponding to the already-parsed prefix
+     */
+    XpathStringParsingPathArgumentBuilder(AbstractStringInstanceIdentifierCodec codec, String data, int offset,
+            DataSchemaContextNode<?> current, List<PathArgument> prefix) {
         this.codec = Preconditions.checkNotNull(codec);
         this.data = Preconditions.checkNotNull(data);
-        this.current = codec.getDataContextTree().getRoot();
-        this.offset = 0;
+        this.current = Preconditions.checkNotNull(current);
+        this.offset = offset;
+        this.product.addAll(prefix);
     }
 
 
@@ -88,10 +105,54 @@ class XpathStringParsingPathArgumentBuilder implements Builder<Iterable<PathArgu
     public Iterable<PathArgument> build() {
         while (!allCharactersConsumed()) {
             product.add(computeNextArgument());
+            steps.add(new Step(offset, product.size(), current));
         }
         return ImmutableList.copyOf(product);
     }
 
+    /**
+     * Return the steps parsed by {@link #build()}, in the order in which they were encountered.
+     *
+     * @return List of parsed steps
+     */
+    List<Step> getSteps() {
+        return steps;
+    }
+
+    /**
+     * A parsed step of the instance identifier, e.g. the state of the parser after a complete path argument has been
+     * consumed.
+     */
+    static final class Step {
+        private final int offset;
+        private final int depth;
+        private final DataSchemaContextNode<?> node;
+
+        Step(final int offset, final int depth, final DataSchemaContextNode<?> node) {
+            this.offset = offset;
+            this.depth = depth;
+            this.node = node;
+        }
+
+        /**
+         * Return the offset just past this step.
+         */
+        int getOffset() {
+            return offset;
+        }
+
+        /**
+         * Return the number of path arguments produced up to and including this step.
+         */
+        int getDepth() {
+            return depth;
+        }
+
+        DataSchemaContextNode<?> getNode() {
+            return node;
+        }
+    }
+
     private PathArgument computeNextArgument() {
         checkValid(SLASH == currentChar(), "Identifier must start with '/'.");
         skipCurrentChar();
@@ -0,0 +1,156 @@
+/*
+ * Copyright (c) 2016 Cisco Systems, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.yangtools.yang2sources.plugin;
+
+import com.google.common.base.Charsets;
+import com.google.common.hash.Hasher;
+import com.google.common.hash.Hashing;
+import com.google.common.io.Files;
+import java.io.File;
+import java.io.IOException;
+import java.net.URL;
+import java.security.CodeSource;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import org.apache.maven.project.MavenProject;
+import org.opendaylight.yangtools.yang2sources.plugin.ConfigArg.CodeGeneratorArg;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Fingerprint of all inputs of a single plugin execution. It covers the path, size and modification time of every
+ * YANG file and dependency, as well as code generator configuration. If the fingerprint matches the one recorded by
+ * a previous successful execution and all output directories are still present, code generation can be skipped.
+ */
+final class BuildFingerprint {
+    private static final Logger LOG = LoggerFactory.getLogger(BuildFingerprint.class);
+    private static final String STATE_DIR = "yang-to-sources";
+
+    private final File stateFile;
+    private final String fingerprint;
+
+    private BuildFingerprint(final File stateFile, final String fingerprint) {
+        this.stateFile = stateFile;
+        this.fingerprint = fingerprint;
+    }
+
+    /**
+     * Compute the fingerprint of an execution.
+     *
+     * @return A BuildFingerprint, or null if the project does not have a build directory to hold the state.
+     */
+    static BuildFingerprint create(final MavenProject project, final File yangFilesRootDir,
+            final Collection<File> inputs, final List<CodeGeneratorArg> codeGenerators) {
+        if (project.getBuild() == null || project.getBuild().getDirectory() == null) {
+            return null;
+        }
+
+        // Executions are told apart by their source directory and generators
+        final Hasher nameHasher = Hashing.sha1().newHasher();
+        nameHasher.putString(yangFilesRootDir.getAbsolutePath(), Charsets.UTF_8);
+        for (CodeGeneratorArg arg : codeGenerators) {
+            nameHasher.putString(String.valueOf(arg.getCodeGeneratorClass()), Charsets.UTF_8);
+        }
+        final File stateFile = new File(new File(project.getBuild().getDirectory(), STATE_DIR),
+            nameHasher.hash().toString());
+
+        final Hasher hasher = Hashing.sha256().newHasher();
+        final List<String> paths = new ArrayList<>(inputs.size());
+        for (File file : inputs) {
+            paths.add(file.getAbsolutePath());
+        }
+        Collections.sort(paths);
+        for (String path : paths) {
+            final File file = new File(path);
+            hasher.putString(path, Charsets.UTF_8).putLong(file.length()).putLong(file.lastModified());
+        }
+
+        for (CodeGeneratorArg arg : codeGenerators) {
+            hasher.putString(String.valueOf(arg.getCodeGeneratorClass()), Charsets.UTF_8);
+            hasher.putString(String.valueOf(generatorLocation(arg.getCodeGeneratorClass())), Charsets.UTF_8);
+            hasher.putString(String.valueOf(arg.getOutputBaseDir(project)), Charsets.UTF_8);
+            hasher.putString(String.valueOf(arg.getResourceBaseDir(project)), Charsets.UTF_8);
+            for (Map.Entry<String, String> e : new TreeMap<>(arg.getAdditionalConfiguration()).entrySet()) {
+                hasher.putString(e.getKey(), Charsets.UTF_8).putString(String.valueOf(e.getValue()), Charsets.UTF_8);
+            }
+        }
+
+        return new BuildFingerprint(stateFile, hasher.hash().toString());
+    }
+
+    /**
+     * Location of the code generator, so that upgrading the generator invalidates previous outputs.
+     */
+    private static String generatorLocation(final String codeGeneratorClass) {
+        if (codeGeneratorClass == null) {
+            return null;
+        }
+
+        final Class<?> clazz;
+        try {
+            clazz = Class.forName(codeGeneratorClass);
+        } catch (ClassNotFoundException | LinkageError e) {
+            LOG.debug("{} Failed to load generator {}", YangToSourcesProcessor.LOG_PREFIX, codeGeneratorClass, e);
+            return null;
+        }
+
+        final CodeSource source = clazz.getProtectionDomain().getCodeSource();
+        final URL location = source == null ? null : source.getLocation();
+        if (location == null) {
+            return null;
+        }
+        if ("file".equals(location.getProtocol())) {
+            final File file = new File(location.getPath());
+            return location + "@" + file.lastModified();
+        }
+        return location.toString();
+    }
+
+    /**
+     * Check whether the previous execution with identical inputs completed successfully.
+     */
+    boolean isUpToDate() {
+        if (!stateFile.isFile()) {
+            return false;
+        }
+
+        try {
+            return fingerprint.equals(Files.toString(stateFile, Charsets.UTF_8));
+        } catch (IOException e) {
+            LOG.debug("{} Failed to read state file {}", YangToSourcesProcessor.LOG_PREFIX, stateFile, e);
+            return false;
+        }
+    }
+
+    /**
+     * Forget the previous execution. Invoked before outputs are regenerated, so that an unsuccessful execution is not
+     * considered up-to-date.
+     */
+    void invalidate() {
+        if (stateFile.exists() && !stateFile.delete()) {
+            LOG.warn("{} Failed to delete state file {}", YangToSourcesProcessor.LOG_PREFIX, stateFile);
+        }
+    }
+
+    /**
+     * Record a successful execution.
+     */
+    void store() {
+        try {
+            Files.createParentDirs(stateFile);
+            Files.write(fingerprint, stateFile, Charsets.UTF_8);
+        } catch (IOException e) {
+            LOG.warn("{} Failed to write state file {}, next build will not be incremental",
+                YangToSourcesProcessor.LOG_PREFIX, stateFile, e);
+        }
+    }
+}
@@ -72,6 +72,13 @@ public final class YangToSourcesMojo extends AbstractMojo {
     @Parameter(property = "inspectDependencies")
     private boolean inspectDependencies;
 
+    /**
+     * Run code generators concurrently. Generators are not required to be thread-safe, hence this should only be
+     * enabled when all configured generators are known not to share mutable state.
+     */
+    @Parameter(property = "parallelCodeGenerators", defaultValue = "false")
+    private boolean parallelCodeGenerators;
+
     @Component
     private BuildContext buildContext;
 
@@ -111,7 +118,7 @@ public final class YangToSourcesMojo extends AbstractMojo {
             File[] excludedFiles = processExcludeFiles(excludeFiles, yangFilesRootFile);
 
             yangToSourcesProcessor = new YangToSourcesProcessor(buildContext, yangFilesRootFile,
-                    excludedFiles, codeGeneratorArgs, project, inspectDependencies);
+                    excludedFiles, codeGeneratorArgs, project, inspectDependencies, parallelCodeGenerators);
         }
         yangToSourcesProcessor.execute();
     }
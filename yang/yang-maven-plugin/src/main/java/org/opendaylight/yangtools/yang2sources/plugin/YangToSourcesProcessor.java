@@ -13,6 +13,7 @@ import org.opendaylight.yangtools.yang.parser.stmt.rfc6020.YangInferencePipeline
 import com.google.common.annotations.VisibleForTesting;
 import com.google.common.base.Throwables;
 import com.google.common.collect.Maps;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import java.io.Closeable;
 import java.io.File;
 import java.io.IOException;
@@ -20,10 +21,17 @@ import java.io.InputStream;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Map.Entry;
 import java.util.Set;
+import java.util.concurrent.Callable;
 import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import org.apache.commons.io.IOUtils;
 import org.apache.maven.model.Resource;
 import org.apache.maven.plugin.MojoExecutionException;
@@ -56,6 +64,7 @@ class YangToSourcesProcessor {
     private final List<CodeGeneratorArg> codeGenerators;
     private final MavenProject project;
     private final boolean inspectDependencies;
+    private final boolean parallelCodeGenerators;
     private final BuildContext buildContext;
     private final YangProvider yangProvider;
     private final URLSchemaContextResolver resolver;
@@ -63,13 +72,20 @@ class YangToSourcesProcessor {
     @VisibleForTesting
     YangToSourcesProcessor(File yangFilesRootDir, File[] excludedFiles, List<CodeGeneratorArg> codeGenerators,
             MavenProject project, boolean inspectDependencies, YangProvider yangProvider) {
+        this(yangFilesRootDir, excludedFiles, codeGenerators, project, inspectDependencies, yangProvider, false);
+    }
+
+    @VisibleForTesting
+    YangToSourcesProcessor(File yangFilesRootDir, File[] excludedFiles, List<CodeGeneratorArg> codeGenerators,
+            MavenProject project, boolean inspectDependencies, YangProvider yangProvider,
+            boolean parallelCodeGenerators) {
         this(new DefaultBuildContext(), yangFilesRootDir, excludedFiles, codeGenerators, project,
-                inspectDependencies, yangProvider);
+                inspectDependencies, yangProvider, parallelCodeGenerators);
     }
 
     private YangToSourcesProcessor(BuildContext buildContext, File yangFilesRootDir, File[] excludedFiles,
             List<CodeGeneratorArg> codeGenerators, MavenProject project, boolean inspectDependencies, YangProvider
-                                           yangProvider) {
+                                           yangProvider, boolean parallelCodeGenerators) {
         this.buildContext = Util.checkNotNull(buildContext, "buildContext");
         this.yangFilesRootDir = Util.checkNotNull(yangFilesRootDir, "yangFilesRootDir");
         this.excludedFiles = new File[excludedFiles.length];
@@ -80,65 +96,112 @@ class YangToSourcesProcessor {
         this.codeGenerators = Collections.unmodifiableList(Util.checkNotNull(codeGenerators, "codeGenerators"));
         this.project = Util.checkNotNull(project, "project");
         this.inspectDependencies = inspectDependencies;
+        this.parallelCodeGenerators = parallelCodeGenerators;
         this.yangProvider = yangProvider;
         this.resolver = URLSchemaContextResolver.create("maven-plugin");
     }
 
     YangToSourcesProcessor(BuildContext buildContext, File yangFilesRootDir, File[] excludedFiles,
                            List<CodeGeneratorArg> codeGenerators, MavenProject project, boolean inspectDependencies) {
-        this(yangFilesRootDir, excludedFiles, codeGenerators, project, inspectDependencies, new YangProvider());
+        this(buildContext, yangFilesRootDir, excludedFiles, codeGenerators, project, inspectDependencies, false);
     }
 
-    public void execute() throws MojoExecutionException, MojoFailureException {
-        ContextHolder context = processYang();
-        if (context != null) {
-            generateSources(context);
-            yangProvider.addYangsToMetaInf(project, yangFilesRootDir, excludedFiles);
-        }
+    YangToSourcesProcessor(BuildContext buildContext, File yangFilesRootDir, File[] excludedFiles,
+                           List<CodeGeneratorArg> codeGenerators, MavenProject project, boolean inspectDependencies,
+                           boolean parallelCodeGenerators) {
+        this(yangFilesRootDir, excludedFiles, codeGenerators, project, inspectDependencies, new YangProvider(),
+                parallelCodeGenerators);
     }
 
-    private ContextHolder processYang() throws MojoExecutionException {
-        final CrossSourceStatementReactor.BuildAction reactor = YangInferencePipeline.RFC6020_REACTOR.newBuild();
-        SchemaContext resolveSchemaContext;
-        List<Closeable> closeables = new ArrayList<>();
+    public void execute() throws MojoExecutionException, MojoFailureException {
         LOG.info("{} Inspecting {}", LOG_PREFIX, yangFilesRootDir);
-        try {
-            /*
-             * Collect all files which affect YANG context. This includes all
-             * files in current project and optionally any jars/files in the
-             * dependencies.
-             */
-            final Collection<File> yangFilesInProject = Util.listFiles(yangFilesRootDir, excludedFiles);
-
 
-            final Collection<File> allFiles = new ArrayList<>(yangFilesInProject);
+        /*
+         * Collect all files which affect YANG context. This includes all
+         * files in current project and optionally any jars/files in the
+         * dependencies.
+         */
+        final Collection<File> yangFilesInProject;
+        final Collection<File> allFiles;
+        try {
+            yangFilesInProject = Util.listFiles(yangFilesRootDir, excludedFiles);
+            allFiles = new ArrayList<>(yangFilesInProject);
             if (inspectDependencies) {
                 allFiles.addAll(Util.findYangFilesInDependencies(project));
             }
+        } catch (Exception e) {
+            LOG.error("{} Unable to list {} files from {}", LOG_PREFIX, Util.YANG_SUFFIX, yangFilesRootDir, e);
+            throw new MojoExecutionException(LOG_PREFIX + " Unable to parse " + Util.YANG_SUFFIX + " files from " +
+                    yangFilesRootDir, Throwables.getRootCause(e));
+        }
+
+        if (allFiles.isEmpty()) {
+            LOG.info("{} No input files found", LOG_PREFIX);
+            return;
+        }
 
-            if (allFiles.isEmpty()) {
-                LOG.info("{} No input files found", LOG_PREFIX);
-                return null;
+        /*
+         * Check if any of the listed files changed. If no changes occurred,
+         * simply return, which indicates and of execution.
+         */
+        boolean noChange = true;
+        for (final File f : allFiles) {
+            if (buildContext.hasDelta(f)) {
+                LOG.debug("{} buildContext {} indicates {} changed, forcing regeneration", LOG_PREFIX,
+                        buildContext, f);
+                noChange = false;
             }
+        }
 
-            /*
-             * Check if any of the listed files changed. If no changes occurred,
-             * simply return null, which indicates and of execution.
-             */
-            boolean noChange = true;
-            for (final File f : allFiles) {
-                if (buildContext.hasDelta(f)) {
-                    LOG.debug("{} buildContext {} indicates {} changed, forcing regeneration", LOG_PREFIX,
-                            buildContext, f);
-                    noChange = false;
+        if (noChange) {
+            LOG.info("{} None of {} input files changed", LOG_PREFIX, allFiles.size());
+            return;
+        }
+
+        /*
+         * Check if a previous build has already processed the same inputs. If
+         * it has and its outputs are still present, we just need to make them
+         * known to the project.
+         */
+        final BuildFingerprint fingerprint = BuildFingerprint.create(project, yangFilesRootDir, allFiles,
+            codeGenerators);
+        if (fingerprint != null) {
+            if (fingerprint.isUpToDate() && outputsPresent()) {
+                LOG.info("{} Sources generated from {} input files are up-to-date", LOG_PREFIX, allFiles.size());
+                for (CodeGeneratorArg codeGenerator : codeGenerators) {
+                    addGeneratorOutputs(codeGenerator);
                 }
+                yangProvider.addYangsToMetaInf(project, yangFilesRootDir, excludedFiles);
+                return;
             }
 
-            if (noChange) {
-                LOG.info("{} None of {} input files changed", LOG_PREFIX, allFiles.size());
-                return null;
+            fingerprint.invalidate();
+        }
+
+        ContextHolder context = processYang(yangFilesInProject);
+        generateSources(context);
+        yangProvider.addYangsToMetaInf(project, yangFilesRootDir, excludedFiles);
+
+        if (fingerprint != null) {
+            fingerprint.store();
+        }
+    }
+
+    private boolean outputsPresent() {
+        for (CodeGeneratorArg codeGenerator : codeGenerators) {
+            final File outputDir = codeGenerator.getOutputBaseDir(project);
+            if (outputDir == null || !outputDir.isDirectory()) {
+                return false;
             }
+        }
+        return true;
+    }
 
+    private ContextHolder processYang(final Collection<File> yangFilesInProject) throws MojoExecutionException {
+        final CrossSourceStatementReactor.BuildAction reactor = YangInferencePipeline.RFC6020_REACTOR.newBuild();
+        SchemaContext resolveSchemaContext;
+        List<Closeable> closeables = new ArrayList<>();
+        try {
             final List<NamedFileInputStream> yangsInProject = new ArrayList<>();
             for (final File f : yangFilesInProject) {
                 // FIXME: This is hack - normal path should be reported.
@@ -271,7 +334,10 @@ class YangToSourcesProcessor {
     }
 
     /**
-     * Call generate on every generator from plugin configuration
+     * Call generate on every generator from plugin configuration. Generators are instantiated and configured one
+     * after another, as that involves updating the MavenProject. They are then run one after another, unless
+     * parallelCodeGenerators is set, in which case they run concurrently, as they only read the SchemaContext while
+     * generating sources.
      */
     private void generateSources(ContextHolder context) throws MojoFailureException {
         if (codeGenerators.size() == 0) {
@@ -280,14 +346,33 @@ class YangToSourcesProcessor {
         }
 
         Map<String, String> thrown = Maps.newHashMap();
-        for (CodeGeneratorArg codeGenerator : codeGenerators) {
-            try {
-                generateSourcesWithOneGenerator(context, codeGenerator);
-            } catch (Exception e) {
-                // try other generators, exception will be thrown after
-                LOG.error("{} Unable to generate sources with {} generator", LOG_PREFIX, codeGenerator
-                        .getCodeGeneratorClass(), e);
-                thrown.put(codeGenerator.getCodeGeneratorClass(), e.getClass().getCanonicalName());
+        if (!parallelCodeGenerators || codeGenerators.size() == 1) {
+            // Generators are not required to be thread-safe, hence by default they run one after another
+            for (CodeGeneratorArg codeGenerator : codeGenerators) {
+                try {
+                    runGenerator(context, codeGenerator, prepareGenerator(codeGenerator));
+                } catch (Exception e) {
+                    // try other generators, exception will be thrown after
+                    LOG.error("{} Unable to generate sources with {} generator", LOG_PREFIX, codeGenerator
+                            .getCodeGeneratorClass(), e);
+                    thrown.put(codeGenerator.getCodeGeneratorClass(), e.getClass().getCanonicalName());
+                }
+            }
+        } else {
+            Map<CodeGeneratorArg, BasicCodeGenerator> generators = new LinkedHashMap<>();
+            for (CodeGeneratorArg codeGenerator : codeGenerators) {
+                try {
+                    generators.put(codeGenerator, prepareGenerator(codeGenerator));
+                } catch (Exception e) {
+                    // try other generators, exception will be thrown after
+                    LOG.error("{} Unable to generate sources with {} generator", LOG_PREFIX, codeGenerator
+                            .getCodeGeneratorClass(), e);
+                    thrown.put(codeGenerator.getCodeGeneratorClass(), e.getClass().getCanonicalName());
+                }
+            }
+
+            if (!generators.isEmpty()) {
+                thrown.putAll(runGenerators(context, generators));
             }
         }
 
@@ -298,25 +383,60 @@ class YangToSourcesProcessor {
         }
     }
 
+    private Map<String, String> runGenerators(final ContextHolder context,
+            final Map<CodeGeneratorArg, BasicCodeGenerator> generators) throws MojoFailureException {
+        final int threads = Math.min(generators.size(), Runtime.getRuntime().availableProcessors());
+        final ExecutorService executor = Executors.newFixedThreadPool(threads,
+            new ThreadFactoryBuilder().setNameFormat("yang-to-sources-%d").setDaemon(true).build());
+        // Generators may be loading resources through the context class loader, make sure they see the same one
+        final ClassLoader contextClassLoader = Thread.currentThread().getContextClassLoader();
+
+        try {
+            final Map<CodeGeneratorArg, Future<?>> futures = new LinkedHashMap<>();
+            for (final Entry<CodeGeneratorArg, BasicCodeGenerator> e : generators.entrySet()) {
+                futures.put(e.getKey(), executor.submit(new Callable<Void>() {
+                    @Override
+                    public Void call() throws Exception {
+                        Thread.currentThread().setContextClassLoader(contextClassLoader);
+                        runGenerator(context, e.getKey(), e.getValue());
+                        return null;
+                    }
+                }));
+            }
+
+            final Map<String, String> thrown = Maps.newHashMap();
+            for (Entry<CodeGeneratorArg, Future<?>> e : futures.entrySet()) {
+                try {
+                    e.getValue().get();
+                } catch (ExecutionException ex) {
+                    // try other generators, exception will be thrown after
+                    final Throwable cause = ex.getCause();
+                    LOG.error("{} Unable to generate sources with {} generator", LOG_PREFIX, e.getKey()
+                            .getCodeGeneratorClass(), cause);
+                    thrown.put(e.getKey().getCodeGeneratorClass(), cause.getClass().getCanonicalName());
+                }
+            }
+            return thrown;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new MojoFailureException(LOG_PREFIX + " Interrupted while generating sources", e);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
     /**
-     * Instantiate generator from class and call required method
+     * Instantiate generator from class and configure it
      */
-    private void generateSourcesWithOneGenerator(ContextHolder context, CodeGeneratorArg codeGeneratorCfg)
-            throws ClassNotFoundException, InstantiationException, IllegalAccessException, IOException {
+    private BasicCodeGenerator prepareGenerator(CodeGeneratorArg codeGeneratorCfg) throws ClassNotFoundException,
+            InstantiationException, IllegalAccessException {
 
         codeGeneratorCfg.check();
 
         BasicCodeGenerator g = Util.getInstance(codeGeneratorCfg.getCodeGeneratorClass(), BasicCodeGenerator.class);
         LOG.info("{} Code generator instantiated from {}", LOG_PREFIX, codeGeneratorCfg.getCodeGeneratorClass());
 
-        File outputDir = codeGeneratorCfg.getOutputBaseDir(project);
-
-        if (outputDir != null) {
-          project.addCompileSourceRoot(outputDir.getAbsolutePath());
-        } else {
-          throw new NullPointerException("outputBaseDir is null. Please provide a valid outputBaseDir value in the " +
-                  "pom.xml");
-        }
+        File outputDir = addGeneratorOutputs(codeGeneratorCfg);
 
         LOG.info("{} Sources will be generated to {}", LOG_PREFIX, outputDir);
         LOG.debug("{} Project root dir is {}", LOG_PREFIX, project.getBasedir());
@@ -330,13 +450,36 @@ class YangToSourcesProcessor {
             ((MavenProjectAware)g).setMavenProject(project);
         }
         g.setAdditionalConfig(codeGeneratorCfg.getAdditionalConfiguration());
-        File resourceBaseDir = codeGeneratorCfg.getResourceBaseDir(project);
+        g.setResourceBaseDir(codeGeneratorCfg.getResourceBaseDir(project));
+        return g;
+    }
+
+    /**
+     * Make the output and resource directories of a generator known to the project
+     */
+    private File addGeneratorOutputs(CodeGeneratorArg codeGeneratorCfg) {
+        File outputDir = codeGeneratorCfg.getOutputBaseDir(project);
+
+        if (outputDir != null) {
+          project.addCompileSourceRoot(outputDir.getAbsolutePath());
+        } else {
+          throw new NullPointerException("outputBaseDir is null. Please provide a valid outputBaseDir value in the " +
+                  "pom.xml");
+        }
 
+        File resourceBaseDir = codeGeneratorCfg.getResourceBaseDir(project);
         YangProvider.setResource(resourceBaseDir, project);
-        g.setResourceBaseDir(resourceBaseDir);
         LOG.debug("{} Folder: {} marked as resources for generator: {}", LOG_PREFIX, resourceBaseDir,
                 codeGeneratorCfg.getCodeGeneratorClass());
+        return outputDir;
+    }
 
+    /**
+     * Generate sources with a configured generator
+     */
+    private void runGenerator(ContextHolder context, CodeGeneratorArg codeGeneratorCfg, BasicCodeGenerator g)
+            throws IOException {
+        File outputDir = codeGeneratorCfg.getOutputBaseDir(project);
         Collection<File> generated = g.generateSources(context.getContext(), outputDir, context.getYangModules());
 
         LOG.info("{} Sources generated by {}: {}", LOG_PREFIX, codeGeneratorCfg.getCodeGeneratorClass(), generated);
@@ -8,13 +8,16 @@
 package org.opendaylight.yangtools.yang2sources.plugin;
 
 import java.io.File;
+import java.io.IOException;
 import java.util.ArrayList;
 import java.util.List;
 import org.apache.maven.model.Build;
 import org.apache.maven.model.Plugin;
 import org.apache.maven.project.MavenProject;
 import org.junit.Assert;
+import org.junit.Rule;
 import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
 import org.junit.runner.RunWith;
 import org.mockito.Mock;
 import org.mockito.Mockito;
@@ -25,6 +28,8 @@ import org.opendaylight.yangtools.yang2sources.plugin.YangToSourcesProcessor.Yan
 
 @RunWith(MockitoJUnitRunner.class)
 public class YangToSourcesMojoTest {
+    @Rule
+    public final TemporaryFolder tempFolder = new TemporaryFolder();
 
     private YangToSourcesMojo mojo;
 
@@ -62,7 +67,7 @@ public class YangToSourcesMojoTest {
         Assert.assertNotNull(this.mojo);
     }
 
-    private void prepareProcessor() {
+    private void prepareProcessor() throws IOException {
         final File file = new File(getClass().getResource("/yang").getFile());
         final File excludedYang = new File(getClass().getResource("/yang/excluded-file.yang").getFile());
         final String path = file.getPath();
@@ -72,6 +77,7 @@ public class YangToSourcesMojoTest {
         codeGenerators.add(codeGeneratorArg);
         final MavenProject mvnProject = Mockito.mock(MavenProject.class);
         final Build build = new Build();
+        build.setDirectory(tempFolder.newFolder("target").getPath());
         Mockito.when(mvnProject.getBuild()).thenReturn(build);
         final boolean dependencies = true;
         this.proc = new YangToSourcesProcessor(file, yangFilesRootDir, codeGenerators,
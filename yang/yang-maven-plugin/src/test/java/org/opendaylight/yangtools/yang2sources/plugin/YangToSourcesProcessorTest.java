@@ -9,20 +9,33 @@ package org.opendaylight.yangtools.yang2sources.plugin;
 
 import java.io.File;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
 import org.apache.maven.model.Build;
 import org.apache.maven.project.MavenProject;
 import org.junit.Assert;
+import org.junit.Rule;
 import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
 import org.junit.runner.RunWith;
 import org.mockito.Mockito;
 import org.mockito.runners.MockitoJUnitRunner;
+import org.opendaylight.yangtools.yang.model.api.Module;
+import org.opendaylight.yangtools.yang.model.api.SchemaContext;
 import org.opendaylight.yangtools.yang2sources.plugin.ConfigArg.CodeGeneratorArg;
 import org.opendaylight.yangtools.yang2sources.plugin.GenerateSourcesTest.GeneratorMock;
 import org.opendaylight.yangtools.yang2sources.plugin.YangToSourcesProcessor.YangProvider;
+import org.opendaylight.yangtools.yang2sources.spi.BasicCodeGenerator;
 
 @RunWith(MockitoJUnitRunner.class)
 public class YangToSourcesProcessorTest {
+    @Rule
+    public final TemporaryFolder tempFolder = new TemporaryFolder();
 
     private final File buildContext = Mockito.mock(File.class);
     private final File[] yangFilesRootDir = {this.buildContext};
@@ -52,6 +65,7 @@ public class YangToSourcesProcessorTest {
         codeGenerators.add(codeGeneratorArg);
         final MavenProject mvnProject = Mockito.mock(MavenProject.class);
         final Build build = new Build();
+        build.setDirectory(tempFolder.newFolder("target").getPath());
         Mockito.when(mvnProject.getBuild()).thenReturn(build);
         final boolean dependencies = true;
         final YangToSourcesProcessor proc = new YangToSourcesProcessor(file, yangFilesRootDir, codeGenerators,
@@ -60,4 +74,86 @@ public class YangToSourcesProcessorTest {
         proc.execute();
     }
 
+    @Test
+    public void testUpToDate() throws Exception {
+        final File yangDir = new File(getClass().getResource("/yang").getFile());
+        final File baseDir = tempFolder.getRoot();
+        final MavenProject mvnProject = Mockito.mock(MavenProject.class);
+        final Build build = new Build();
+        build.setDirectory(new File(baseDir, "target").getPath());
+        Mockito.when(mvnProject.getBuild()).thenReturn(build);
+        Mockito.when(mvnProject.getBasedir()).thenReturn(baseDir);
+
+        final List<CodeGeneratorArg> codeGenerators = new ArrayList<>();
+        codeGenerators.add(new CodeGeneratorArg(CountingGenerator.class.getName(), "out1"));
+        codeGenerators.add(new CodeGeneratorArg(CountingGenerator.class.getName(), "out2"));
+
+        CountingGenerator.CALLS.set(0);
+        new YangToSourcesProcessor(yangDir, new File[] {}, codeGenerators, mvnProject, false,
+            Mockito.mock(YangProvider.class)).execute();
+        Assert.assertEquals(2, CountingGenerator.CALLS.get());
+
+        // Nothing changed, generators should not be invoked, but their outputs should be added to the project
+        new YangToSourcesProcessor(yangDir, new File[] {}, codeGenerators, mvnProject, false,
+            Mockito.mock(YangProvider.class)).execute();
+        Assert.assertEquals(2, CountingGenerator.CALLS.get());
+        Mockito.verify(mvnProject, Mockito.times(2)).addCompileSourceRoot(new File(baseDir, "out1").getAbsolutePath());
+
+        // Outputs are gone, generators need to run again
+        Assert.assertTrue(new File(baseDir, "out2").delete());
+        new YangToSourcesProcessor(yangDir, new File[] {}, codeGenerators, mvnProject, false,
+            Mockito.mock(YangProvider.class)).execute();
+        Assert.assertEquals(4, CountingGenerator.CALLS.get());
+    }
+
+    @Test
+    public void testGeneratorThreads() throws Exception {
+        final File yangDir = new File(getClass().getResource("/yang").getFile());
+        final File baseDir = tempFolder.getRoot();
+        final MavenProject mvnProject = Mockito.mock(MavenProject.class);
+        final Build build = new Build();
+        build.setDirectory(new File(baseDir, "target").getPath());
+        Mockito.when(mvnProject.getBuild()).thenReturn(build);
+        Mockito.when(mvnProject.getBasedir()).thenReturn(baseDir);
+
+        final List<CodeGeneratorArg> codeGenerators = new ArrayList<>();
+        codeGenerators.add(new CodeGeneratorArg(CountingGenerator.class.getName(), "out1"));
+        codeGenerators.add(new CodeGeneratorArg(CountingGenerator.class.getName(), "out2"));
+
+        // Sequential by default: generators run on the calling thread
+        CountingGenerator.THREADS.clear();
+        new YangToSourcesProcessor(yangDir, new File[] {}, codeGenerators, mvnProject, false,
+            Mockito.mock(YangProvider.class)).execute();
+        Assert.assertEquals(Collections.singleton(Thread.currentThread().getName()), CountingGenerator.THREADS);
+
+        // Outputs are gone, so the generators run again, this time concurrently
+        Assert.assertTrue(new File(baseDir, "out1").delete());
+        CountingGenerator.THREADS.clear();
+        new YangToSourcesProcessor(yangDir, new File[] {}, codeGenerators, mvnProject, false,
+            Mockito.mock(YangProvider.class), true).execute();
+        Assert.assertFalse(CountingGenerator.THREADS.isEmpty());
+        Assert.assertFalse(CountingGenerator.THREADS.contains(Thread.currentThread().getName()));
+    }
+
+    public static class CountingGenerator implements BasicCodeGenerator {
+        static final AtomicInteger CALLS = new AtomicInteger();
+        static final Set<String> THREADS = Collections.synchronizedSet(new HashSet<String>());
+
+        @Override
+        public Collection<File> generateSources(final SchemaContext context, final File outputBaseDir,
+                final Set<Module> currentModules) {
+            CALLS.incrementAndGet();
+            THREADS.add(Thread.currentThread().getName());
+            outputBaseDir.mkdirs();
+            return Collections.emptyList();
+        }
+
+        @Override
+        public void setAdditionalConfig(final Map<String, String> additionalConfiguration) {
+        }
+
+        @Override
+        public void setResourceBaseDir(final File resourceBaseDir) {
+        }
+    }
 }
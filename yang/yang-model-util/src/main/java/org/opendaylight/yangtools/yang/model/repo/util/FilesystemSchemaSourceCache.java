@@ -13,28 +13,28 @@ import com.google.common.base.MoreObjects;
 import com.google.common.base.Optional;
 import com.google.common.base.Preconditions;
 import com.google.common.base.Strings;
-import com.google.common.collect.Lists;
 import com.google.common.util.concurrent.CheckedFuture;
 import com.google.common.util.concurrent.Futures;
 import java.io.File;
 import java.io.FileInputStream;
-import java.io.FilenameFilter;
 import java.io.IOException;
 import java.io.InputStream;
+import java.nio.file.AtomicMoveNotSupportedException;
 import java.nio.file.FileVisitResult;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.SimpleFileVisitor;
 import java.nio.file.StandardCopyOption;
 import java.nio.file.attribute.BasicFileAttributes;
-import java.text.DateFormat;
-import java.text.ParseException;
-import java.text.SimpleDateFormat;
 import java.util.Collections;
-import java.util.Date;
-import java.util.List;
+import java.util.HashMap;
 import java.util.Map;
-import java.util.TreeMap;
+import java.util.Map.Entry;
+import java.util.NavigableMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.TimeUnit;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 import org.opendaylight.yangtools.yang.model.repo.api.MissingSchemaSourceException;
@@ -48,7 +48,12 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 /**
- * Cache implementation that stores schemas in form of files under provided folder
+ * Cache implementation that stores schemas in form of files under provided folder. The contents of the folder
+ * are indexed in memory when the cache is instantiated and the index is kept up to date as sources are offered,
+ * hence lookups do not need to touch the filesystem unless the source is actually restored. Lookups are not
+ * serialized, only concurrent stores are. Sources are first written into a temporary file, which is then atomically
+ * renamed to its final name, so concurrent readers (and later instances of this cache) never observe partially
+ * written files.
  */
 public final class FilesystemSchemaSourceCache<T extends SchemaSourceRepresentation> extends AbstractSchemaSourceCache<T> {
 
@@ -64,6 +69,25 @@ public final class FilesystemSchemaSourceCache<T extends SchemaSourceRepresentat
                     "(?<moduleName>[^@]+)" +
                     "(@(?<revision>" + SourceIdentifier.REVISION_PATTERN + "))?");
 
+    private static final String YANG_SUFFIX = ".yang";
+    private static final String TEMPORARY_PREFIX = ".";
+    private static final String TEMPORARY_SUFFIX = ".tmp";
+    private static final Pattern TEMPORARY_FILE_PATTERN = Pattern.compile(
+            Pattern.quote(TEMPORARY_PREFIX) + ".+" + Pattern.quote(YANG_SUFFIX) + "\\d+"
+                    + Pattern.quote(TEMPORARY_SUFFIX));
+
+    /**
+     * Temporary files younger than this may belong to a write in progress in another instance sharing the storage
+     * directory, hence they are not removed when the cache is restored.
+     */
+    private static final long STALE_TEMPORARY_FILE_MILLIS = TimeUnit.MINUTES.toMillis(1);
+
+    /**
+     * Index of stored sources, keyed by module name. Each module maps its revisions to the file holding that
+     * revision. Revisions are kept in their string form, which sorts the same way as the dates they represent,
+     * with an empty revision sorting before all others.
+     */
+    private final ConcurrentMap<String, NavigableMap<String, File>> index = new ConcurrentHashMap<>();
     private final Class<T> representation;
     private final File storageDirectory;
 
@@ -110,15 +134,50 @@ public final class FilesystemSchemaSourceCache<T extends SchemaSourceRepresentat
             return;
         }
 
-        for (final SourceIdentifier cachedSchema : fileVisitor.getCachedSchemas()) {
-            register(cachedSchema);
+        for (final Entry<SourceIdentifier, File> cachedSchema : fileVisitor.getCachedSchemas().entrySet()) {
+            index(cachedSchema.getKey(), cachedSchema.getValue());
+            register(cachedSchema.getKey());
+        }
+    }
+
+    private void index(final SourceIdentifier sourceIdentifier, final File file) {
+        NavigableMap<String, File> revisions = index.get(sourceIdentifier.getName());
+        if (revisions == null) {
+            final NavigableMap<String, File> newRevisions = new ConcurrentSkipListMap<>();
+            revisions = index.putIfAbsent(sourceIdentifier.getName(), newRevisions);
+            if (revisions == null) {
+                revisions = newRevisions;
+            }
+        }
+
+        revisions.put(Strings.nullToEmpty(sourceIdentifier.getRevision()), file);
+    }
+
+    /**
+     * Look up the file holding a source in the index. If the identifier does not specify a revision, the newest
+     * stored revision is returned.
+     *
+     * @param sourceIdentifier Source identifier
+     * @return File holding the source, or null if the source is not present in this cache.
+     */
+    private File lookupFile(final SourceIdentifier sourceIdentifier) {
+        final NavigableMap<String, File> revisions = index.get(sourceIdentifier.getName());
+        if (revisions == null) {
+            return null;
         }
+
+        final String rev = sourceIdentifier.getRevision();
+        if (Strings.isNullOrEmpty(rev)) {
+            final Entry<String, File> newest = revisions.lastEntry();
+            return newest == null ? null : newest.getValue();
+        }
+        return revisions.get(rev);
     }
 
     @Override
-    public synchronized CheckedFuture<? extends T, SchemaSourceException> getSource(final SourceIdentifier sourceIdentifier) {
-        final File file = sourceIdToFile(sourceIdentifier, storageDirectory);
-        if (file.exists() && file.canRead()) {
+    public CheckedFuture<? extends T, SchemaSourceException> getSource(final SourceIdentifier sourceIdentifier) {
+        final File file = lookupFile(sourceIdentifier);
+        if (file != null && file.canRead()) {
             LOG.trace("Source {} found in cache as {}", sourceIdentifier, file);
             final SchemaSourceRepresentation restored = STORAGE_ADAPTERS.get(representation).restore(sourceIdentifier, file);
             return Futures.immediateCheckedFuture(representation.cast(restored));
@@ -131,81 +190,44 @@ public final class FilesystemSchemaSourceCache<T extends SchemaSourceRepresentat
     @Override
     protected synchronized void offer(final T source) {
         LOG.trace("Source {} offered to cache", source.getIdentifier());
-        final File file = sourceIdToFile(source);
-        if (file.exists()) {
-            LOG.debug("Source {} already in cache as {}", source.getIdentifier(), file);
+        final File existing = lookupFile(source.getIdentifier());
+        if (existing != null) {
+            LOG.debug("Source {} already in cache as {}", source.getIdentifier(), existing);
             return;
         }
 
+        final File file = new File(storageDirectory, source.getIdentifier().toYangFilename());
         storeSource(file, source);
+        index(source.getIdentifier(), file);
         register(source.getIdentifier());
         LOG.trace("Source {} stored in cache as {}", source.getIdentifier(), file);
     }
 
-    private File sourceIdToFile(final T source) {
-        return sourceIdToFile(source.getIdentifier(), storageDirectory);
-    }
-
-    static File sourceIdToFile(final SourceIdentifier identifier, final File storageDirectory) {
-        final String rev = identifier.getRevision();
-        final File file;
-        if (Strings.isNullOrEmpty(rev)) {
-            file = findFileWithNewestRev(identifier, storageDirectory);
-        } else {
-            file = new File(storageDirectory, identifier.toYangFilename());
+    private void storeSource(final File file, final T schemaRepresentation) {
+        final File tmp;
+        try {
+            tmp = File.createTempFile(TEMPORARY_PREFIX + file.getName(), TEMPORARY_SUFFIX, storageDirectory);
+        } catch (final IOException e) {
+            throw new IllegalStateException("Cannot create temporary file for schema source "
+                    + schemaRepresentation.getIdentifier() + " in " + storageDirectory, e);
         }
-        return file;
-    }
-
-    private static File findFileWithNewestRev(final SourceIdentifier identifier, final File storageDirectory) {
-        File[] files = storageDirectory.listFiles(new FilenameFilter() {
-            final Pattern p = Pattern.compile(Pattern.quote(identifier.getName()) + "(\\.yang|@\\d\\d\\d\\d-\\d\\d-\\d\\d.yang)");
 
-            @Override
-            public boolean accept(final File dir, final String name) {
-                return p.matcher(name).matches();
+        try {
+            STORAGE_ADAPTERS.get(representation).store(tmp, schemaRepresentation);
+            try {
+                Files.move(tmp.toPath(), file.toPath(), StandardCopyOption.ATOMIC_MOVE);
+            } catch (final AtomicMoveNotSupportedException e) {
+                LOG.debug("Filesystem does not support atomic moves, falling back to plain rename", e);
+                Files.move(tmp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING);
             }
-        });
-
-        if (files.length == 0) {
-            return new File(storageDirectory, identifier.toYangFilename());
-        }
-        if (files.length == 1) {
-            return files[0];
-        }
-
-        File file = null;
-        TreeMap<Date, File> map = new TreeMap<>();
-        for (File sorted : files) {
-            String fileName = sorted.getName();
-            Matcher m = SourceIdentifier.REVISION_PATTERN.matcher(fileName);
-            if (m.find()) {
-                String revStr = m.group();
-                /*
-                 * FIXME: Consider using string for comparison.
-                 * String is comparable, pattern check tested format
-                 * so comparing as ASCII string should be sufficient
-                 */
-                DateFormat df = new SimpleDateFormat("yyyy-MM-dd");
-                try {
-                    Date d = df.parse(revStr);
-                    map.put(d, sorted);
-                } catch (final ParseException e) {
-                    LOG.info("Unable to parse date from yang file name {}", fileName);
-                    map.put(new Date(0L), sorted);
-                }
-
-            } else {
-                map.put(new Date(0L), sorted);
+        } catch (final IOException e) {
+            throw new IllegalStateException("Cannot store schema source " + schemaRepresentation.getIdentifier()
+                    + " to " + file, e);
+        } finally {
+            if (tmp.exists() && !tmp.delete()) {
+                LOG.warn("Failed to delete temporary file {}", tmp);
             }
         }
-        file = map.lastEntry().getValue();
-
-        return file;
-    }
-
-    private void storeSource(final File file, final T schemaRepresentation) {
-        STORAGE_ADAPTERS.get(representation).store(file, schemaRepresentation);
     }
 
     private static abstract class StorageAdapter<T extends SchemaSourceRepresentation> {
@@ -269,18 +291,31 @@ public final class FilesystemSchemaSourceCache<T extends SchemaSourceRepresentat
     }
 
     private static final class CachedModulesFileVisitor extends SimpleFileVisitor<Path> {
-        private final List<SourceIdentifier> cachedSchemas = Lists.newArrayList();
+        private final Map<SourceIdentifier, File> cachedSchemas = new HashMap<>();
 
         @Override
         public FileVisitResult visitFile(final Path file, final BasicFileAttributes attrs) throws IOException {
             final FileVisitResult fileVisitResult = super.visitFile(file, attrs);
             String fileName = file.toFile().getName();
+            if (TEMPORARY_FILE_PATTERN.matcher(fileName).matches()) {
+                if (System.currentTimeMillis() - attrs.lastModifiedTime().toMillis() > STALE_TEMPORARY_FILE_MILLIS) {
+                    LOG.debug("Removing leftover temporary file {}", file);
+                    Files.deleteIfExists(file);
+                } else {
+                    LOG.debug("Skipping recent temporary file {}", file);
+                }
+                return fileVisitResult;
+            }
+            if (!fileName.endsWith(YANG_SUFFIX)) {
+                LOG.debug("Skipping cached file {}, it does not have {} suffix", file, YANG_SUFFIX);
+                return fileVisitResult;
+            }
             fileName = com.google.common.io.Files.getNameWithoutExtension(fileName);
 
             final Optional<SourceIdentifier> si = getSourceIdentifier(fileName);
             if (si.isPresent()) {
                 LOG.trace("Restoring cached file {} as {}", file, si.get());
-                cachedSchemas.add(si.get());
+                cachedSchemas.put(si.get(), file.toFile());
             } else {
                 LOG.debug("Skipping cached file {}, cannot restore source identifier from filename: {}, does not match {}", file, fileName, CACHED_FILE_PATTERN);
             }
@@ -303,7 +338,7 @@ public final class FilesystemSchemaSourceCache<T extends SchemaSourceRepresentat
             return FileVisitResult.CONTINUE;
         }
 
-        public List<SourceIdentifier> getCachedSchemas() {
+        public Map<SourceIdentifier, File> getCachedSchemas() {
             return cachedSchemas;
         }
     }
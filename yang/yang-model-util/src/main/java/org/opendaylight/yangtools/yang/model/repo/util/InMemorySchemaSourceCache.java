@@ -10,14 +10,24 @@ package org.opendaylight.yangtools.yang.model.repo.util;
 import com.google.common.annotations.Beta;
 import com.google.common.base.FinalizablePhantomReference;
 import com.google.common.base.FinalizableReferenceQueue;
+import com.google.common.base.Function;
+import com.google.common.base.Preconditions;
 import com.google.common.cache.Cache;
 import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheStats;
+import com.google.common.cache.RemovalListener;
+import com.google.common.cache.RemovalNotification;
+import com.google.common.cache.Weigher;
 import com.google.common.util.concurrent.CheckedFuture;
 import com.google.common.util.concurrent.Futures;
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import javax.annotation.Nullable;
 import org.opendaylight.yangtools.yang.model.repo.api.MissingSchemaSourceException;
 import org.opendaylight.yangtools.yang.model.repo.api.SchemaSourceException;
 import org.opendaylight.yangtools.yang.model.repo.api.SchemaSourceRepresentation;
@@ -26,15 +36,59 @@ import org.opendaylight.yangtools.yang.model.repo.spi.PotentialSchemaSource.Cost
 import org.opendaylight.yangtools.yang.model.repo.spi.SchemaSourceRegistration;
 import org.opendaylight.yangtools.yang.model.repo.spi.SchemaSourceRegistry;
 
+/**
+ * Cache implementation which keeps schema sources in memory. Two flavors are available:
+ * <ul>
+ * <li>soft caches, created via {@link #createSoftCache(SchemaSourceRegistry, Class)}, which keep sources as long as
+ *     the JVM does not reclaim them. Their registrations are withdrawn once a source is garbage-collected.</li>
+ * <li>weighted caches, created via {@link #createWeightedCache(SchemaSourceRegistry, Class, long, Weigher)}, which
+ *     enforce a hard budget on the total weight (typically the approximate size in bytes) of cached sources and
+ *     evict least-recently used sources once the budget is exceeded. Registrations are withdrawn as soon as a source
+ *     is evicted. A weighted cache can optionally demote sources to a lighter representation instead of evicting them
+ *     outright, see {@link #createWeightedCache(SchemaSourceRegistry, Class, long, Weigher, Function)}. Weighted
+ *     caches also record hit, miss and eviction statistics, available via {@link #getStatistics()}.</li>
+ * </ul>
+ *
+ * @param <T> Cached schema source type.
+ */
 @Beta
 public class InMemorySchemaSourceCache<T extends SchemaSourceRepresentation> extends AbstractSchemaSourceCache<T> implements AutoCloseable {
     private final List<FinalizablePhantomReference<T>> regs = Collections.synchronizedList(new ArrayList<>());
     private final FinalizableReferenceQueue queue = new FinalizableReferenceQueue();
     private final Cache<SourceIdentifier, T> cache;
 
+    // Weighted mode only: registrations are tied to cache residency rather than reachability. Guarded by
+    // weightedLock, so a source is never cached without a registration or registered without being cached.
+    private final Object weightedLock = new Object();
+    private final Map<SourceIdentifier, SchemaSourceRegistration<T>> weightedRegs;
+    private final Weigher<? super SourceIdentifier, ? super T> weigher;
+    private final Function<T, T> demoter;
+    private final AtomicLong demotions = new AtomicLong();
+
     protected InMemorySchemaSourceCache(final SchemaSourceRegistry consumer, final Class<T> representation, final CacheBuilder<Object, Object> builder) {
         super(consumer, representation, Costs.IMMEDIATE);
         cache = builder.build();
+        weightedRegs = null;
+        weigher = null;
+        demoter = null;
+    }
+
+    private InMemorySchemaSourceCache(final SchemaSourceRegistry consumer, final Class<T> representation,
+            final long maximumWeight, final Weigher<? super SourceIdentifier, ? super T> weigher,
+            @Nullable final Function<T, T> demoter) {
+        super(consumer, representation, Costs.IMMEDIATE);
+        Preconditions.checkArgument(maximumWeight >= 0, "Maximum weight %s must not be negative", maximumWeight);
+        this.weigher = Preconditions.checkNotNull(weigher);
+        this.demoter = demoter;
+        weightedRegs = new HashMap<>();
+        // A single segment, so the budget is enforced as a whole rather than split across segments
+        cache = CacheBuilder.newBuilder().concurrencyLevel(1).maximumWeight(maximumWeight).weigher(weigher)
+                .recordStats().removalListener(new RemovalListener<SourceIdentifier, T>() {
+                    @Override
+                    public void onRemoval(final RemovalNotification<SourceIdentifier, T> notification) {
+                        weightedSourceRemoved(notification);
+                    }
+                }).build();
     }
 
     public static <R extends SchemaSourceRepresentation> InMemorySchemaSourceCache<R> createSoftCache(final SchemaSourceRegistry consumer, final Class<R> representation) {
@@ -47,6 +101,62 @@ public class InMemorySchemaSourceCache<T extends SchemaSourceRepresentation> ext
                 .expireAfterAccess(lifetime, units));
     }
 
+    /**
+     * Create a cache bounded by the total weight of cached sources. Once the weight of cached sources exceeds
+     * the specified maximum, least-recently used sources are evicted and their registrations are withdrawn.
+     *
+     * @param consumer Registry where cached sources are registered
+     * @param representation Cached schema source type
+     * @param maximumWeight Maximum total weight of cached sources
+     * @param weigher Weigher assigning a weight to each source, usually its approximate size in bytes
+     * @return A new cache instance
+     */
+    public static <R extends SchemaSourceRepresentation> InMemorySchemaSourceCache<R> createWeightedCache(
+            final SchemaSourceRegistry consumer, final Class<R> representation, final long maximumWeight,
+            final Weigher<? super SourceIdentifier, ? super R> weigher) {
+        return new InMemorySchemaSourceCache<>(consumer, representation, maximumWeight, weigher, null);
+    }
+
+    /**
+     * Create a cache bounded by the total weight of cached sources, which attempts to demote sources to a lighter
+     * representation before evicting them. When a source is selected for eviction, the demoter is invoked to produce
+     * an equivalent source of the same type with a lower weight, for example a parsed source which has dropped its
+     * derived structures and recreates them from text on demand. If it does so, the
+     * demoted source replaces the evicted one and its registration is retained. If the demoter returns null or
+     * a source which is not lighter than the original, the source is evicted.
+     *
+     * @param consumer Registry where cached sources are registered
+     * @param representation Cached schema source type
+     * @param maximumWeight Maximum total weight of cached sources
+     * @param weigher Weigher assigning a weight to each source, usually its approximate size in bytes
+     * @param demoter Function producing a lighter representation of a source, or null if it cannot be demoted
+     * @return A new cache instance
+     */
+    public static <R extends SchemaSourceRepresentation> InMemorySchemaSourceCache<R> createWeightedCache(
+            final SchemaSourceRegistry consumer, final Class<R> representation, final long maximumWeight,
+            final Weigher<? super SourceIdentifier, ? super R> weigher, final Function<R, R> demoter) {
+        return new InMemorySchemaSourceCache<>(consumer, representation, maximumWeight, weigher,
+            Preconditions.checkNotNull(demoter));
+    }
+
+    /**
+     * Return cache statistics. Statistics are recorded only by weighted caches, soft caches report all-zero values.
+     *
+     * @return Snapshot of cache hit, miss and eviction statistics.
+     */
+    public CacheStats getStatistics() {
+        return cache.stats();
+    }
+
+    /**
+     * Return the number of sources which were demoted to a lighter representation instead of being evicted.
+     *
+     * @return Number of demoted sources.
+     */
+    public long getDemotionCount() {
+        return demotions.get();
+    }
+
     @Override
     public CheckedFuture<? extends T, SchemaSourceException> getSource(final SourceIdentifier sourceIdentifier) {
         final T present = cache.getIfPresent(sourceIdentifier);
@@ -59,6 +169,11 @@ public class InMemorySchemaSourceCache<T extends SchemaSourceRepresentation> ext
 
     @Override
     protected void offer(final T source) {
+        if (weightedRegs != null) {
+            offerWeighted(source);
+            return;
+        }
+
         final T present = cache.getIfPresent(source.getIdentifier());
         if (present == null) {
             cache.put(source.getIdentifier(), source);
@@ -76,6 +191,45 @@ public class InMemorySchemaSourceCache<T extends SchemaSourceRepresentation> ext
         }
     }
 
+    private void offerWeighted(final T source) {
+        final SourceIdentifier id = source.getIdentifier();
+        synchronized (weightedLock) {
+            if (!cache.asMap().containsKey(id)) {
+                // Register before caching, so an immediate eviction finds the registration to close
+                if (!weightedRegs.containsKey(id)) {
+                    weightedRegs.put(id, register(id));
+                }
+                cache.put(id, source);
+            }
+        }
+    }
+
+    /*
+     * Guava delivers removal notifications on the thread which caused the removal, after it has released the cache's
+     * internal locks. That thread may be inside offerWeighted(), which is fine as the lock is reentrant.
+     */
+    private void weightedSourceRemoved(final RemovalNotification<SourceIdentifier, T> notification) {
+        final SourceIdentifier id = notification.getKey();
+        final T source = notification.getValue();
+        synchronized (weightedLock) {
+            if (notification.wasEvicted() && demoter != null && source != null) {
+                final T demoted = demoter.apply(source);
+                if (demoted != null && weigher.weigh(id, demoted) < weigher.weigh(id, source)
+                        && cache.asMap().putIfAbsent(id, demoted) == null) {
+                    demotions.incrementAndGet();
+                    return;
+                }
+            }
+
+            if (!cache.asMap().containsKey(id)) {
+                final SchemaSourceRegistration<T> reg = weightedRegs.remove(id);
+                if (reg != null) {
+                    reg.close();
+                }
+            }
+        }
+    }
+
     @Override
     public void close() {
         while (!regs.isEmpty()) {
@@ -84,6 +238,14 @@ public class InMemorySchemaSourceCache<T extends SchemaSourceRepresentation> ext
         }
 
         cache.invalidateAll();
+        if (weightedRegs != null) {
+            synchronized (weightedLock) {
+                for (final SchemaSourceRegistration<T> reg : weightedRegs.values()) {
+                    reg.close();
+                }
+                weightedRegs.clear();
+            }
+        }
         queue.close();
     }
 }
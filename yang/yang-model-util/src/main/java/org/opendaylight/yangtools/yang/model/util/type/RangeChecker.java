@@ -0,0 +1,383 @@
+/*
+ * Copyright (c) 2016 Cisco Systems, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.yangtools.yang.model.util.type;
+
+import com.google.common.annotations.Beta;
+import com.google.common.base.Optional;
+import com.google.common.base.Preconditions;
+import com.google.common.base.Throwables;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheLoader;
+import com.google.common.cache.LoadingCache;
+import com.google.common.util.concurrent.UncheckedExecutionException;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import javax.annotation.Nonnull;
+import org.opendaylight.yangtools.yang.model.api.TypeDefinition;
+import org.opendaylight.yangtools.yang.model.api.type.BinaryTypeDefinition;
+import org.opendaylight.yangtools.yang.model.api.type.DecimalTypeDefinition;
+import org.opendaylight.yangtools.yang.model.api.type.IntegerTypeDefinition;
+import org.opendaylight.yangtools.yang.model.api.type.LengthConstraint;
+import org.opendaylight.yangtools.yang.model.api.type.RangeConstraint;
+import org.opendaylight.yangtools.yang.model.api.type.StringTypeDefinition;
+import org.opendaylight.yangtools.yang.model.api.type.UnsignedIntegerTypeDefinition;
+import org.opendaylight.yangtools.yang.model.util.DerivedType;
+
+/**
+ * Compiled form of range or length constraints. Constraint intervals are sorted and merged into primitive arrays,
+ * so that checking a value is a binary search, without any boxing. Intervals whose bounds fit into a long are checked
+ * as longs, others, like decimal64 ranges or uint64 ranges beyond {@link Long#MAX_VALUE}, fall back to
+ * {@link BigDecimal}s.
+ *
+ * <p>
+ * Checkers of types' constraints are compiled once per type and shared, see {@link #rangeCheckerOf(TypeDefinition)}
+ * and {@link #lengthCheckerOf(TypeDefinition)}.
+ */
+@Beta
+public abstract class RangeChecker {
+    private static final LoadingCache<TypeDefinition<?>, Optional<RangeChecker>> RANGE_CHECKERS =
+            CacheBuilder.newBuilder().weakKeys().build(new CacheLoader<TypeDefinition<?>, Optional<RangeChecker>>() {
+                @Override
+                public Optional<RangeChecker> load(final TypeDefinition<?> key) {
+                    final List<RangeConstraint> constraints = rangeConstraintsOf(DerivedType.from(key));
+                    return constraints == null ? Optional.<RangeChecker>absent() : Optional.of(forRanges(constraints));
+                }
+            });
+    private static final LoadingCache<TypeDefinition<?>, Optional<RangeChecker>> LENGTH_CHECKERS =
+            CacheBuilder.newBuilder().weakKeys().build(new CacheLoader<TypeDefinition<?>, Optional<RangeChecker>>() {
+                @Override
+                public Optional<RangeChecker> load(final TypeDefinition<?> key) {
+                    final List<LengthConstraint> constraints = lengthConstraintsOf(DerivedType.from(key));
+                    return constraints == null ? Optional.<RangeChecker>absent() : Optional.of(forLengths(constraints));
+                }
+            });
+
+    private static final Comparator<Interval> INTERVAL_ORDER = new Comparator<Interval>() {
+        @Override
+        public int compare(final Interval o1, final Interval o2) {
+            return o1.min.compareTo(o2.min);
+        }
+    };
+
+    private static final RangeChecker ALL = new RangeChecker() {
+        @Override
+        public boolean contains(final long value) {
+            return true;
+        }
+
+        @Override
+        public boolean contains(final Number value) {
+            return true;
+        }
+
+        @Override
+        public String toString() {
+            return "[]";
+        }
+    };
+
+    RangeChecker() {
+        // Hidden on purpose
+    }
+
+    /**
+     * Compile range constraints. An empty collection results in a checker accepting all values.
+     *
+     * @param constraints Range constraints
+     * @return A checker
+     */
+    @Nonnull public static RangeChecker forRanges(@Nonnull final Collection<? extends RangeConstraint> constraints) {
+        final List<Interval> intervals = new ArrayList<>(constraints.size());
+        for (RangeConstraint constraint : constraints) {
+            intervals.add(new Interval(constraint.getMin(), constraint.getMax()));
+        }
+        return compile(intervals);
+    }
+
+    /**
+     * Compile length constraints. An empty collection results in a checker accepting all lengths.
+     *
+     * @param constraints Length constraints
+     * @return A checker
+     */
+    @Nonnull public static RangeChecker forLengths(@Nonnull final Collection<? extends LengthConstraint> constraints) {
+        final List<Interval> intervals = new ArrayList<>(constraints.size());
+        for (LengthConstraint constraint : constraints) {
+            intervals.add(new Interval(constraint.getMin(), constraint.getMax()));
+        }
+        return compile(intervals);
+    }
+
+    /**
+     * Return the checker of a type's range constraints.
+     *
+     * @param type Type definition
+     * @return Shared checker, or absent if the type is not an integer or decimal type
+     */
+    @Nonnull public static Optional<RangeChecker> rangeCheckerOf(@Nonnull final TypeDefinition<?> type) {
+        try {
+            return RANGE_CHECKERS.getUnchecked(type);
+        } catch (UncheckedExecutionException e) {
+            throw Throwables.propagate(e.getCause());
+        }
+    }
+
+    /**
+     * Return the checker of a type's length constraints.
+     *
+     * @param type Type definition
+     * @return Shared checker, or absent if the type is not a string or binary type
+     */
+    @Nonnull public static Optional<RangeChecker> lengthCheckerOf(@Nonnull final TypeDefinition<?> type) {
+        try {
+            return LENGTH_CHECKERS.getUnchecked(type);
+        } catch (UncheckedExecutionException e) {
+            throw Throwables.propagate(e.getCause());
+        }
+    }
+
+    /**
+     * Check whether a value falls into one of the intervals.
+     *
+     * @param value Value to check
+     * @return True if the value is in range
+     */
+    public abstract boolean contains(long value);
+
+    /**
+     * Check whether a value falls into one of the intervals. Values of any standard {@link Number} subclass are
+     * compared by their numeric value.
+     *
+     * @param value Value to check
+     * @return True if the value is in range
+     */
+    public abstract boolean contains(@Nonnull Number value);
+
+    private static List<RangeConstraint> rangeConstraintsOf(final TypeDefinition<?> type) {
+        if (type instanceof IntegerTypeDefinition) {
+            return ((IntegerTypeDefinition) type).getRangeConstraints();
+        } else if (type instanceof UnsignedIntegerTypeDefinition) {
+            return ((UnsignedIntegerTypeDefinition) type).getRangeConstraints();
+        } else if (type instanceof DecimalTypeDefinition) {
+            return ((DecimalTypeDefinition) type).getRangeConstraints();
+        }
+        return null;
+    }
+
+    private static List<LengthConstraint> lengthConstraintsOf(final TypeDefinition<?> type) {
+        if (type instanceof StringTypeDefinition) {
+            return ((StringTypeDefinition) type).getLengthConstraints();
+        } else if (type instanceof BinaryTypeDefinition) {
+            return ((BinaryTypeDefinition) type).getLengthConstraints();
+        }
+        return null;
+    }
+
+    private static RangeChecker compile(final List<Interval> intervals) {
+        if (intervals.isEmpty()) {
+            return ALL;
+        }
+
+        Collections.sort(intervals, INTERVAL_ORDER);
+        final List<Interval> merged = new ArrayList<>(intervals.size());
+        Interval current = intervals.get(0);
+        for (Interval next : intervals.subList(1, intervals.size())) {
+            if (next.min.compareTo(current.max) <= 0) {
+                if (next.max.compareTo(current.max) > 0) {
+                    current = new Interval(current.min, next.max);
+                }
+            } else {
+                merged.add(current);
+                current = next;
+            }
+        }
+        merged.add(current);
+
+        for (Interval interval : merged) {
+            if (!interval.fitsLong()) {
+                return new DecimalRangeChecker(merged);
+            }
+        }
+        return new LongRangeChecker(merged);
+    }
+
+    /**
+     * Convert a number to a BigDecimal, or return null if it is not a standard Number subclass.
+     */
+    static BigDecimal toBigDecimal(final Number number) {
+        if (number instanceof BigDecimal) {
+            return (BigDecimal) number;
+        } else if (number instanceof BigInteger) {
+            return new BigDecimal((BigInteger) number);
+        } else if (isIntegral(number)) {
+            return BigDecimal.valueOf(number.longValue());
+        }
+
+        try {
+            return new BigDecimal(number.toString());
+        } catch (NumberFormatException e) {
+            // NaN, infinity or a custom class
+            return null;
+        }
+    }
+
+    private static boolean isIntegral(final Number number) {
+        return number instanceof Long || number instanceof Integer || number instanceof Short
+                || number instanceof Byte;
+    }
+
+    /**
+     * Find the interval which may contain a value, given sorted lower bounds.
+     *
+     * @return Index of the last interval whose lower bound is not greater than the value, -1 if there is none
+     */
+    private static int floorIndex(final int searchResult) {
+        return searchResult >= 0 ? searchResult : -searchResult - 2;
+    }
+
+    private static final class Interval {
+        final BigDecimal min;
+        final BigDecimal max;
+
+        Interval(final Number min, final Number max) {
+            this(checkBound(min), checkBound(max));
+        }
+
+        private static BigDecimal checkBound(final Number bound) {
+            final BigDecimal ret = toBigDecimal(bound);
+            Preconditions.checkArgument(ret != null, "Unsupported constraint bound %s", bound);
+            return ret;
+        }
+
+        Interval(final BigDecimal min, final BigDecimal max) {
+            this.min = min;
+            this.max = max;
+        }
+
+        boolean fitsLong() {
+            return fitsLong(min) && fitsLong(max);
+        }
+
+        private static boolean fitsLong(final BigDecimal value) {
+            try {
+                value.longValueExact();
+                return true;
+            } catch (ArithmeticException e) {
+                return false;
+            }
+        }
+    }
+
+    private static final class LongRangeChecker extends RangeChecker {
+        private final long[] mins;
+        private final long[] maxs;
+
+        LongRangeChecker(final List<Interval> intervals) {
+            mins = new long[intervals.size()];
+            maxs = new long[intervals.size()];
+            for (int i = 0; i < mins.length; ++i) {
+                mins[i] = intervals.get(i).min.longValueExact();
+                maxs[i] = intervals.get(i).max.longValueExact();
+            }
+        }
+
+        @Override
+        public boolean contains(final long value) {
+            // Single intervals are very common, do not bother with the search
+            if (mins.length == 1) {
+                return value >= mins[0] && value <= maxs[0];
+            }
+
+            final int index = floorIndex(Arrays.binarySearch(mins, value));
+            return index >= 0 && value <= maxs[index];
+        }
+
+        @Override
+        public boolean contains(final Number value) {
+            if (isIntegral(value)) {
+                return contains(value.longValue());
+            }
+            if (value instanceof BigInteger) {
+                // All our bounds fit into a long
+                return ((BigInteger) value).bitLength() <= 63 && contains(value.longValue());
+            }
+
+            final BigDecimal decimal = toBigDecimal(value);
+            if (decimal == null) {
+                return false;
+            }
+            for (int i = 0; i < mins.length; ++i) {
+                if (decimal.compareTo(BigDecimal.valueOf(mins[i])) >= 0
+                        && decimal.compareTo(BigDecimal.valueOf(maxs[i])) <= 0) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        @Override
+        public String toString() {
+            final StringBuilder sb = new StringBuilder("[");
+            for (int i = 0; i < mins.length; ++i) {
+                if (i != 0) {
+                    sb.append(", ");
+                }
+                sb.append(mins[i]).append("..").append(maxs[i]);
+            }
+            return sb.append(']').toString();
+        }
+    }
+
+    private static final class DecimalRangeChecker extends RangeChecker {
+        private final BigDecimal[] mins;
+        private final BigDecimal[] maxs;
+
+        DecimalRangeChecker(final List<Interval> intervals) {
+            mins = new BigDecimal[intervals.size()];
+            maxs = new BigDecimal[intervals.size()];
+            for (int i = 0; i < mins.length; ++i) {
+                mins[i] = intervals.get(i).min;
+                maxs[i] = intervals.get(i).max;
+            }
+        }
+
+        @Override
+        public boolean contains(final long value) {
+            return contains(BigDecimal.valueOf(value));
+        }
+
+        @Override
+        public boolean contains(final Number value) {
+            final BigDecimal decimal = toBigDecimal(value);
+            return decimal != null && contains(decimal);
+        }
+
+        private boolean contains(final BigDecimal value) {
+            final int index = floorIndex(Arrays.binarySearch(mins, value));
+            return index >= 0 && value.compareTo(maxs[index]) <= 0;
+        }
+
+        @Override
+        public String toString() {
+            final StringBuilder sb = new StringBuilder("[");
+            for (int i = 0; i < mins.length; ++i) {
+                if (i != 0) {
+                    sb.append(", ");
+                }
+                sb.append(mins[i]).append("..").append(maxs[i]);
+            }
+            return sb.append(']').toString();
+        }
+    }
+}
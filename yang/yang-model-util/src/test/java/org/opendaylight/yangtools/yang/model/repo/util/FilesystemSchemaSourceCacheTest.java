@@ -41,6 +41,7 @@ import org.junit.Before;
 import org.junit.Test;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.opendaylight.yangtools.yang.model.repo.api.MissingSchemaSourceException;
 import org.opendaylight.yangtools.yang.model.repo.api.SchemaSourceException;
 import org.opendaylight.yangtools.yang.model.repo.api.SourceIdentifier;
 import org.opendaylight.yangtools.yang.model.repo.api.YangTextSchemaSource;
@@ -144,48 +145,47 @@ public class FilesystemSchemaSourceCacheTest {
         verify(this.registry, times(3)).registerSchemaSource(any(SchemaSourceProvider.class), any(PotentialSchemaSource.class));
     }
 
-    @Test
-    public void sourceIdToFileEmptyRevWithEmptyDir() {
-        final SourceIdentifier sourceIdentifier = RevisionSourceIdentifier.create("test", "");
-        final File sourceIdToFile = FilesystemSchemaSourceCache.sourceIdToFile(sourceIdentifier, this.storageDir);
+    @Test(expected = MissingSchemaSourceException.class)
+    public void getSourceEmptyRevWithEmptyDir() throws Exception {
         final FilesystemSchemaSourceCache<YangTextSchemaSource> cache = new FilesystemSchemaSourceCache<>(this.registry,
-                YangTextSchemaSource.class, sourceIdToFile);
-        Assert.assertNotNull(cache);
-        final List<File> storedFiles = Arrays.asList(sourceIdToFile.listFiles());
-        assertEquals(0, storedFiles.size());
+                YangTextSchemaSource.class, this.storageDir);
+        assertEquals(0, getFilesFromCache().size());
+        cache.getSource(RevisionSourceIdentifier.create("test", "")).checkedGet();
     }
 
     @Test
-    public void sourceIdToFileEmptyRevWithOneItemInDir() {
+    public void getSourceEmptyRevWithOneItemInDir() throws Exception {
         final FilesystemSchemaSourceCache<YangTextSchemaSource> cache = new FilesystemSchemaSourceCache<>(this.registry,
                 YangTextSchemaSource.class, this.storageDir);
-        final String content = "content1";
-        final YangTextSchemaSource source = new TestingYangSource("test", "2013-12-12", content);
-        cache.offer(source);
-
-        final SourceIdentifier sourceIdentifier = RevisionSourceIdentifier.create("test", "");
-        final File sourceIdToFile = FilesystemSchemaSourceCache.sourceIdToFile(sourceIdentifier,
-                this.storageDir);
-        Assert.assertNotNull(sourceIdToFile);
-        final List<File> storedFiles = Arrays.asList(this.storageDir.listFiles());
-        assertEquals(1, storedFiles.size());
+        cache.offer(new TestingYangSource("test", "2013-12-12", "content1"));
+        cache.offer(new TestingYangSource("test2", null, "content2"));
+        assertEquals(2, getFilesFromCache().size());
+
+        assertEquals("content1", readSource(cache, RevisionSourceIdentifier.create("test", "")));
+        assertEquals("content2", readSource(cache, RevisionSourceIdentifier.create("test2", "")));
+
+        // The same lookups are served by an index restored from disk
+        final FilesystemSchemaSourceCache<YangTextSchemaSource> restored = new FilesystemSchemaSourceCache<>(
+                this.registry, YangTextSchemaSource.class, this.storageDir);
+        assertEquals("content1", readSource(restored, RevisionSourceIdentifier.create("test", "")));
+        assertEquals("content2", readSource(restored, RevisionSourceIdentifier.create("test2", "")));
     }
 
     @Test
-    public void sourceIdToFileEmptyRevWithMoreItemsInDir() {
+    public void getSourceEmptyRevWithMoreItemsInDir() throws Exception {
         final FilesystemSchemaSourceCache<YangTextSchemaSource> cache = new FilesystemSchemaSourceCache<>(this.registry,
                 YangTextSchemaSource.class, this.storageDir);
-        final String content = "content1";
-        final YangTextSchemaSource source = new TestingYangSource("test", "2012-12-12", content);
-        final YangTextSchemaSource source2 = new TestingYangSource("test", "2013-12-12", content);
-        cache.offer(source);
-        cache.offer(source2);
+        // Offered out of order, so the newest revision is not the last one seen
+        cache.offer(new TestingYangSource("test", "2013-12-12", "content2"));
+        cache.offer(new TestingYangSource("test", "2012-12-12", "content1"));
+        assertEquals(2, getFilesFromCache().size());
 
-        final SourceIdentifier sourceIdentifier = RevisionSourceIdentifier.create("test", "");
-        final File sourceIdToFile = FilesystemSchemaSourceCache.sourceIdToFile(sourceIdentifier, this.storageDir);
-        Assert.assertNotNull(sourceIdToFile);
-        final List<File> storedFiles = Arrays.asList(this.storageDir.listFiles());
-        assertEquals(2, storedFiles.size());
+        assertEquals("content2", readSource(cache, RevisionSourceIdentifier.create("test", "")));
+        assertEquals("content1", readSource(cache, RevisionSourceIdentifier.create("test", "2012-12-12")));
+
+        final FilesystemSchemaSourceCache<YangTextSchemaSource> restored = new FilesystemSchemaSourceCache<>(
+                this.registry, YangTextSchemaSource.class, this.storageDir);
+        assertEquals("content2", readSource(restored, RevisionSourceIdentifier.create("test", "")));
     }
 
     @Test
@@ -220,6 +220,41 @@ public class FilesystemSchemaSourceCacheTest {
         checked.get();
     }
 
+    @Test
+    public void testGetNewestRevision() throws Exception {
+        final FilesystemSchemaSourceCache<YangTextSchemaSource> cache = new FilesystemSchemaSourceCache<>(this.registry,
+                YangTextSchemaSource.class, this.storageDir);
+        cache.offer(new TestingYangSource("test", "2012-12-12", "content1"));
+        cache.offer(new TestingYangSource("test", "2013-12-12", "content2"));
+        cache.offer(new TestingYangSource("test", null, "content3"));
+
+        final SourceIdentifier newest = RevisionSourceIdentifier.create("test", "");
+        assertEquals("content2", new String(cache.getSource(newest).checkedGet().read(), Charsets.UTF_8));
+
+        // A stale temporary file must not be picked up when the index is restored and gets removed, while a recent
+        // one and files not created by the cache are left alone
+        final File stale = new File(this.storageDir, ".test@2014-12-12.yang123.tmp");
+        Files.write("garbage", stale, Charsets.UTF_8);
+        Assert.assertTrue(stale.setLastModified(System.currentTimeMillis() - 3600000));
+        final File recent = new File(this.storageDir, ".test@2015-12-12.yang456.tmp");
+        Files.write("garbage", recent, Charsets.UTF_8);
+        final File foreign = new File(this.storageDir, "foreign.tmp");
+        Files.write("garbage", foreign, Charsets.UTF_8);
+
+        final FilesystemSchemaSourceCache<YangTextSchemaSource> restored = new FilesystemSchemaSourceCache<>(
+                this.registry, YangTextSchemaSource.class, this.storageDir);
+        assertEquals("content2", new String(restored.getSource(newest).checkedGet().read(), Charsets.UTF_8));
+        Assert.assertFalse(stale.exists());
+        Assert.assertTrue(recent.exists());
+        Assert.assertTrue(foreign.exists());
+        assertEquals(5, getFilesFromCache().size());
+    }
+
+    private static String readSource(final FilesystemSchemaSourceCache<YangTextSchemaSource> cache,
+            final SourceIdentifier identifier) throws IOException, SchemaSourceException {
+        return new String(cache.getSource(identifier).checkedGet().read(), Charsets.UTF_8);
+    }
+
     private List<File> getFilesFromCache() {
         return Arrays.asList(this.storageDir.listFiles());
     }
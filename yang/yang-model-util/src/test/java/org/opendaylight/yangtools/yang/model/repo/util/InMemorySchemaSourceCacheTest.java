@@ -8,23 +8,38 @@
 package org.opendaylight.yangtools.yang.model.repo.util;
 
 import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 
 import com.google.common.base.Charsets;
+import com.google.common.base.Function;
 import com.google.common.base.MoreObjects;
 import com.google.common.base.Optional;
+import com.google.common.cache.CacheStats;
+import com.google.common.cache.Weigher;
 import com.google.common.util.concurrent.CheckedFuture;
 import java.io.ByteArrayInputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.util.Map.Entry;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 import org.junit.Assert;
 import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.mockito.Mock;
+import org.mockito.invocation.InvocationOnMock;
 import org.mockito.runners.MockitoJUnitRunner;
+import org.mockito.stubbing.Answer;
 import org.opendaylight.yangtools.yang.model.repo.api.RevisionSourceIdentifier;
 import org.opendaylight.yangtools.yang.model.repo.api.SchemaSourceException;
 import org.opendaylight.yangtools.yang.model.repo.api.SchemaSourceRepresentation;
@@ -127,7 +142,130 @@ public class InMemorySchemaSourceCacheTest {
         inMemorySchemaSourceCache2.close();
     }
 
-    private class TestingYangSource extends YangTextSchemaSource {
+    @Test
+    public void inMemorySchemaSourceCacheWeightedTest() throws Exception {
+        final InMemorySchemaSourceCache<YangSchemaSourceRepresentation> cache = InMemorySchemaSourceCache
+                .createWeightedCache(this.registry, representation, 10, CONTENT_WEIGHER);
+
+        final SourceIdentifier first = RevisionSourceIdentifier.create("first", "2012-12-12");
+        final SourceIdentifier second = RevisionSourceIdentifier.create("second", "2012-12-12");
+        cache.offer(new TestingYangSource("first", "2012-12-12", "123456"));
+        Assert.assertNotNull(cache.getSource(first).get());
+
+        // Exceeds the budget, first source needs to be evicted and unregistered
+        cache.offer(new TestingYangSource("second", "2012-12-12", "123456"));
+        Assert.assertNotNull(cache.getSource(second).get());
+        verify(this.registration).close();
+
+        try {
+            cache.getSource(first).checkedGet();
+            Assert.fail("Evicted source should not be found");
+        } catch (final SchemaSourceException e) {
+            // Expected
+        }
+
+        final CacheStats stats = cache.getStatistics();
+        Assert.assertEquals(2, stats.hitCount());
+        Assert.assertEquals(1, stats.missCount());
+        Assert.assertEquals(1, stats.evictionCount());
+        Assert.assertEquals(0, cache.getDemotionCount());
+        cache.close();
+    }
+
+    @Test
+    public void inMemorySchemaSourceCacheWeightedConcurrentTest() throws Exception {
+        // Tracks the number of open registrations for each source
+        final ConcurrentMap<SourceIdentifier, AtomicInteger> open = new ConcurrentHashMap<>();
+        final SchemaSourceRegistry countingRegistry = mock(SchemaSourceRegistry.class);
+        doAnswer(new Answer<SchemaSourceRegistration<?>>() {
+            @Override
+            public SchemaSourceRegistration<?> answer(final InvocationOnMock invocation) {
+                final SchemaSourceProvider<?> provider = (SchemaSourceProvider<?>) invocation.getArguments()[0];
+                final PotentialSchemaSource<?> source = (PotentialSchemaSource<?>) invocation.getArguments()[1];
+                final AtomicInteger count = new AtomicInteger();
+                final AtomicInteger existing = open.putIfAbsent(source.getSourceIdentifier(), count);
+                return countingRegistration(provider, source, existing != null ? existing : count);
+            }
+        }).when(countingRegistry).registerSchemaSource(any(SchemaSourceProvider.class),
+            any(PotentialSchemaSource.class));
+
+        // Budget for three sources, contended by four threads offering eight
+        final InMemorySchemaSourceCache<YangSchemaSourceRepresentation> cache = InMemorySchemaSourceCache
+                .createWeightedCache(countingRegistry, representation, 18, CONTENT_WEIGHER);
+        final ExecutorService executor = Executors.newFixedThreadPool(4);
+        for (int i = 0; i < 4; ++i) {
+            executor.execute(new Runnable() {
+                @Override
+                public void run() {
+                    for (int j = 0; j < 10000; ++j) {
+                        cache.offer(new TestingYangSource("source" + j % 8, "2012-12-12", "123456"));
+                    }
+                }
+            });
+        }
+        executor.shutdown();
+        Assert.assertTrue(executor.awaitTermination(1, TimeUnit.MINUTES));
+
+        for (final Entry<SourceIdentifier, AtomicInteger> e : open.entrySet()) {
+            Assert.assertEquals("Registrations of " + e.getKey(), isPresent(cache, e.getKey()) ? 1 : 0,
+                e.getValue().get());
+        }
+        cache.close();
+    }
+
+    private static <T extends SchemaSourceRepresentation> SchemaSourceRegistration<T> countingRegistration(
+            final SchemaSourceProvider<?> provider, final PotentialSchemaSource<T> source, final AtomicInteger counter) {
+        counter.incrementAndGet();
+        return new AbstractSchemaSourceRegistration<T>(provider, source) {
+            @Override
+            protected void removeRegistration() {
+                counter.decrementAndGet();
+            }
+        };
+    }
+
+    private static boolean isPresent(final InMemorySchemaSourceCache<?> cache, final SourceIdentifier id) {
+        try {
+            cache.getSource(id).checkedGet();
+            return true;
+        } catch (final SchemaSourceException e) {
+            return false;
+        }
+    }
+
+    @Test
+    public void inMemorySchemaSourceCacheDemotionTest() throws Exception {
+        final InMemorySchemaSourceCache<YangSchemaSourceRepresentation> cache = InMemorySchemaSourceCache
+                .createWeightedCache(this.registry, representation, 10, CONTENT_WEIGHER,
+                    new Function<YangSchemaSourceRepresentation, YangSchemaSourceRepresentation>() {
+                        @Override
+                        public YangSchemaSourceRepresentation apply(final YangSchemaSourceRepresentation input) {
+                            return new TestingYangSource(input.getIdentifier().getName(),
+                                input.getIdentifier().getRevision(), "12");
+                        }
+                    });
+
+        final SourceIdentifier first = RevisionSourceIdentifier.create("first", "2012-12-12");
+        cache.offer(new TestingYangSource("first", "2012-12-12", "123456"));
+        cache.offer(new TestingYangSource("second", "2012-12-12", "123456"));
+
+        // First source has been demoted, so it remains available and registered
+        Assert.assertEquals("12", new String(((YangTextSchemaSource) cache.getSource(first).get()).read(),
+            Charsets.UTF_8));
+        verify(this.registration, never()).close();
+        Assert.assertEquals(1, cache.getDemotionCount());
+        cache.close();
+    }
+
+    private static final Weigher<SourceIdentifier, YangSchemaSourceRepresentation> CONTENT_WEIGHER =
+            new Weigher<SourceIdentifier, YangSchemaSourceRepresentation>() {
+                @Override
+                public int weigh(final SourceIdentifier key, final YangSchemaSourceRepresentation value) {
+                    return ((TestingYangSource) value).content.length();
+                }
+            };
+
+    private static class TestingYangSource extends YangTextSchemaSource {
 
         private final String content;
 
@@ -0,0 +1,105 @@
+/*
+ * Copyright (c) 2016 Cisco Systems, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.yangtools.yang.model.util.type;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import com.google.common.base.Optional;
+import com.google.common.collect.ImmutableList;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.Collections;
+import org.junit.Test;
+import org.opendaylight.yangtools.yang.common.QName;
+import org.opendaylight.yangtools.yang.model.api.SchemaPath;
+import org.opendaylight.yangtools.yang.model.api.type.IntegerTypeDefinition;
+import org.opendaylight.yangtools.yang.model.api.type.RangeConstraint;
+import org.opendaylight.yangtools.yang.model.util.BaseConstraints;
+
+public class RangeCheckerTest {
+    private static final SchemaPath SCHEMA_PATH = SchemaPath.create(true,
+        QName.create("test.namespace", "2016-01-01", "test-name"));
+    private static final Optional<String> ABSENT = Optional.absent();
+
+    private static RangeConstraint range(final Number min, final Number max) {
+        return BaseConstraints.newRangeConstraint(min, max, ABSENT, ABSENT);
+    }
+
+    @Test
+    public void testLongIntervals() {
+        // Deliberately unsorted and overlapping
+        final RangeChecker checker = RangeChecker.forRanges(ImmutableList.of(range(20, 30), range(-5, 1),
+            range(25, 40), range(100L, 100L)));
+        assertTrue(checker.contains(-5));
+        assertTrue(checker.contains(1));
+        assertFalse(checker.contains(2));
+        assertFalse(checker.contains(19));
+        assertTrue(checker.contains(20));
+        assertTrue(checker.contains(35));
+        assertTrue(checker.contains(40));
+        assertFalse(checker.contains(41));
+        assertTrue(checker.contains(100));
+        assertFalse(checker.contains(Long.MIN_VALUE));
+        assertFalse(checker.contains(Long.MAX_VALUE));
+
+        assertTrue(checker.contains((Number) (byte) 22));
+        assertTrue(checker.contains(BigInteger.valueOf(100)));
+        assertFalse(checker.contains(BigInteger.ONE.shiftLeft(70)));
+        assertTrue(checker.contains(new BigDecimal("0.5")));
+        assertFalse(checker.contains(new BigDecimal("1.5")));
+    }
+
+    @Test
+    public void testDecimalIntervals() {
+        final RangeChecker checker = RangeChecker.forRanges(ImmutableList.of(
+            range(new BigDecimal("1.5"), new BigDecimal("2.25")), range(new BigDecimal("-1"), new BigDecimal("0"))));
+        assertTrue(checker.contains(new BigDecimal("1.50")));
+        assertTrue(checker.contains(new BigDecimal("2.25")));
+        assertFalse(checker.contains(new BigDecimal("2.26")));
+        assertFalse(checker.contains(new BigDecimal("0.1")));
+        assertTrue(checker.contains(0));
+        assertTrue(checker.contains(-1L));
+        assertFalse(checker.contains(1));
+    }
+
+    @Test
+    public void testUnsigned64() {
+        final BigInteger max = new BigInteger("18446744073709551615");
+        final RangeChecker checker = RangeChecker.forRanges(ImmutableList.of(range(BigInteger.ZERO, max)));
+        assertTrue(checker.contains(max));
+        assertFalse(checker.contains(max.add(BigInteger.ONE)));
+        assertFalse(checker.contains(-1));
+        assertTrue(checker.contains(Long.MAX_VALUE));
+    }
+
+    @Test
+    public void testEmptyConstraints() {
+        final RangeChecker checker = RangeChecker.forLengths(Collections.emptyList());
+        assertTrue(checker.contains(Long.MAX_VALUE));
+        assertTrue(checker.contains(BigInteger.ONE.shiftLeft(100)));
+    }
+
+    @Test
+    public void testTypeCheckers() {
+        final RangeRestrictedTypeBuilder<IntegerTypeDefinition> builder = RestrictedTypes.newIntegerBuilder(
+            BaseTypes.int8Type(), SCHEMA_PATH);
+        builder.setRangeAlternatives(ImmutableList.of(range((byte) 1, (byte) 10)));
+        final IntegerTypeDefinition type = builder.build();
+
+        final RangeChecker checker = RangeChecker.rangeCheckerOf(type).get();
+        assertSame(checker, RangeChecker.rangeCheckerOf(type).get());
+        assertTrue(checker.contains(10));
+        assertFalse(checker.contains(11));
+
+        assertFalse(RangeChecker.lengthCheckerOf(type).isPresent());
+        assertTrue(RangeChecker.lengthCheckerOf(BaseTypes.stringType()).get().contains(Integer.MAX_VALUE));
+        assertFalse(RangeChecker.rangeCheckerOf(BaseTypes.uint8Type()).get().contains(256));
+    }
+}
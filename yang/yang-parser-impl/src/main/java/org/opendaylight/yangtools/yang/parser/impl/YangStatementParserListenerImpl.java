@@ -58,16 +58,32 @@ public class YangStatementParserListenerImpl extends YangStatementParserBaseList
 
     @Override
     public void enterStatement(final StatementContext ctx) {
-        final StatementSourceReference ref = DeclarationInTextSource.atPosition(sourceName, ctx
-                .getStart().getLine(), ctx.getStart().getCharPositionInLine());
         final KeywordContext keywordCtx = Verify.verifyNotNull(ctx.getChild(KeywordContext.class, 0));
         final ArgumentContext argumentCtx = ctx.getChild(ArgumentContext.class, 0);
-        final String keywordTxt = keywordCtx.getText();
+        enterStatement(keywordCtx.getText(), argumentCtx != null ? Utils.stringFromStringContext(argumentCtx) : null,
+            ctx.getStart().getLine(), ctx.getStart().getCharPositionInLine());
+    }
 
+    @Override
+    public void exitStatement(final StatementContext ctx) {
+        exitStatement(ctx.getChild(KeywordContext.class, 0).getText(), ctx.getStart().getLine(),
+            ctx.getStart().getCharPositionInLine());
+    }
+
+    /**
+     * Enter a statement. This method is invoked by the ANTLR parse tree walker, but can be used to replay statements
+     * from other representations, too.
+     *
+     * @param keywordTxt Statement keyword, as it appears in source text
+     * @param argument Statement argument, with quotes removed, or null if the statement does not have an argument
+     * @param line Line on which the statement starts
+     * @param column Position within the line at which the statement starts
+     */
+    public void enterStatement(final String keywordTxt, final String argument, final int line, final int column) {
+        final StatementSourceReference ref = DeclarationInTextSource.atPosition(sourceName, line, column);
         final QName identifier = QName.create(YangConstants.RFC6020_YIN_MODULE, keywordTxt);
         final QName validStatementDefinition = Utils.getValidStatementDefinition(prefixes, stmtDef, identifier);
         if (stmtDef != null && validStatementDefinition != null && toBeSkipped.isEmpty()) {
-            final String argument = argumentCtx != null ? Utils.stringFromStringContext(argumentCtx) : null;
             // FIXME: Refactor/clean up this special case
             if (identifier.equals(Rfc6020Mapping.TYPE.getStatementName())) {
                 Preconditions.checkArgument(argument != null);
@@ -91,14 +107,17 @@ public class YangStatementParserListenerImpl extends YangStatementParserBaseList
         }
     }
 
-    @Override
-    public void exitStatement(final StatementContext ctx) {
-        final StatementSourceReference ref = DeclarationInTextSource.atPosition(
-            sourceName, ctx.getStart().getLine(), ctx.getStart().getCharPositionInLine());
+    /**
+     * Exit a statement previously entered via {@link #enterStatement(String, String, int, int)}.
+     *
+     * @param statementName Statement keyword, as it appears in source text
+     * @param line Line on which the statement starts
+     * @param column Position within the line at which the statement starts
+     */
+    public void exitStatement(final String statementName, final int line, final int column) {
+        final StatementSourceReference ref = DeclarationInTextSource.atPosition(sourceName, line, column);
 
         try {
-            KeywordContext keyword = ctx.getChild(KeywordContext.class, 0);
-            String statementName = keyword.getText();
             QName identifier = QName.create(YangConstants.RFC6020_YIN_MODULE, statementName);
             if (stmtDef != null && Utils.getValidStatementDefinition(prefixes, stmtDef, identifier) != null
                     && toBeSkipped.isEmpty()) {
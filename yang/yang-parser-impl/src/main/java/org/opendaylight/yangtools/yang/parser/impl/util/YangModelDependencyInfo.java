@@ -40,6 +40,7 @@ import org.opendaylight.yangtools.yang.parser.impl.ParserListenerUtils;
 import org.opendaylight.yangtools.yang.parser.stmt.rfc6020.SupportedExtensionsMapping;
 import org.opendaylight.yangtools.yang.parser.stmt.rfc6020.Utils;
 import org.opendaylight.yangtools.yang.parser.stmt.rfc6020.YangStatementSourceImpl;
+import org.opendaylight.yangtools.yang.parser.util.CompactStatementTree;
 
 /**
  * Helper transfer object which holds basic and dependency information for YANG
@@ -194,8 +195,7 @@ public abstract class YangModelDependencyInfo {
             final ParserRuleContext tree) throws YangSyntaxErrorException {
 
         if (tree instanceof YangStatementParser.StatementContext) {
-            final YangStatementParser.StatementContext rootStatement = (YangStatementParser.StatementContext) tree;
-            return parseAST(rootStatement);
+            return fromStatementTree(CompactStatementTree.create((YangStatementParser.StatementContext) tree));
         }
 
         final Optional<Module_stmtContext> moduleCtx = ParserListenerUtils
@@ -213,19 +213,22 @@ public abstract class YangModelDependencyInfo {
         throw new YangSyntaxErrorException(name, 0, 0, "Unknown YANG text type");
     }
 
-    private static YangModelDependencyInfo parseAST(
-            final YangStatementParser.StatementContext rootStatement) {
-        if (rootStatement
-                .keyword()
-                .getText()
-                .equals(Rfc6020Mapping.MODULE.getStatementName().getLocalName())) {
-            return parseModuleContext(rootStatement);
-        } else if (rootStatement
-                .keyword()
-                .getText()
-                .equals(Rfc6020Mapping.SUBMODULE.getStatementName()
-                        .getLocalName())) {
-            return parseSubmoduleContext(rootStatement);
+    /**
+     * Extracts {@link YangModelDependencyInfo} from a compact statement tree
+     * of a YANG model.
+     *
+     * @param tree
+     *            Compact statement tree
+     * @return {@link YangModelDependencyInfo}
+     * @throws IllegalArgumentException
+     *             If the tree is not a YANG module/submodule
+     */
+    public static YangModelDependencyInfo fromStatementTree(final CompactStatementTree tree) {
+        final String keyword = tree.getKeyword(0);
+        if (keyword.equals(Rfc6020Mapping.MODULE.getStatementName().getLocalName())) {
+            return parseModuleStatement(tree);
+        } else if (keyword.equals(Rfc6020Mapping.SUBMODULE.getStatementName().getLocalName())) {
+            return parseSubmoduleStatement(tree);
         }
 
         throw new IllegalArgumentException(
@@ -249,7 +252,7 @@ public abstract class YangModelDependencyInfo {
             final InputStream yangStream) {
         final StatementContext yangAST = new YangStatementSourceImpl(yangStream)
                 .getYangAST();
-        return parseAST(yangAST);
+        return fromStatementTree(CompactStatementTree.create(yangAST));
     }
 
     private static YangModelDependencyInfo parseModuleContext(
@@ -264,33 +267,27 @@ public abstract class YangModelDependencyInfo {
         return new ModuleDependencyInfo(name, latestRevision, imports, includes);
     }
 
-    private static YangModelDependencyInfo parseModuleContext(
-            final YangStatementParser.StatementContext module) {
-        final String name = Utils.stringFromStringContext(module.argument());
+    private static YangModelDependencyInfo parseModuleStatement(final CompactStatementTree module) {
+        final String name = module.getArgument(0);
         final String latestRevision = getLatestRevision(module);
-        final Optional<SemVer> semVer = Optional.fromNullable(getSemanticVersion(module));
+        final Optional<SemVer> semVer = Optional.fromNullable(getSemanticVersion(module, 0));
         final ImmutableSet<ModuleImport> imports = parseImports(module);
         final ImmutableSet<ModuleImport> includes = parseIncludes(module);
 
         return new ModuleDependencyInfo(name, latestRevision, imports, includes, semVer);
     }
 
-    private static ImmutableSet<ModuleImport> parseImports(
-            final YangStatementParser.StatementContext module) {
+    private static ImmutableSet<ModuleImport> parseImports(final CompactStatementTree module) {
         final Set<ModuleImport> result = new HashSet<>();
-        final List<StatementContext> subStatements = module.statement();
-        for (final StatementContext subStatementContext : subStatements) {
-            if (subStatementContext
-                    .keyword()
-                    .getText()
-                    .equals(Rfc6020Mapping.IMPORT.getStatementName()
-                            .getLocalName())) {
-                final String revisionDateStr = getRevisionDateString(subStatementContext);
-                final String importedModuleName = Utils
-                        .stringFromStringContext(subStatementContext.argument());
+        final String importKeyword = Rfc6020Mapping.IMPORT.getStatementName().getLocalName();
+        final int end = module.getSubtreeEnd(0);
+        for (int i = 1; i < end; i = module.getSubtreeEnd(i)) {
+            if (importKeyword.equals(module.getKeyword(i))) {
+                final String revisionDateStr = getRevisionDateString(module, i);
+                final String importedModuleName = module.getArgument(i);
                 final Date revisionDate = (revisionDateStr == null) ? null : QName
                         .parseRevision(revisionDateStr);
-                final Optional<SemVer> importSemVer = Optional.fromNullable(getSemanticVersion(subStatementContext));
+                final Optional<SemVer> importSemVer = Optional.fromNullable(getSemanticVersion(module, i));
                 result.add(new ModuleImportImpl(importedModuleName,
                         revisionDate, importSemVer));
             }
@@ -298,14 +295,14 @@ public abstract class YangModelDependencyInfo {
         return ImmutableSet.copyOf(result);
     }
 
-    private static SemVer getSemanticVersion(final StatementContext statement) {
-        final List<StatementContext> subStatements = statement.statement();
+    private static SemVer getSemanticVersion(final CompactStatementTree tree, final int statement) {
         String semVerString = null;
         final String semVerStmtName = SupportedExtensionsMapping.SEMANTIC_VERSION.getStatementName().getLocalName();
-        for (final StatementContext subStatement : subStatements) {
-            final String subStatementName = Utils.trimPrefix(subStatement.keyword().getText());
+        final int end = tree.getSubtreeEnd(statement);
+        for (int i = statement + 1; i < end; i = tree.getSubtreeEnd(i)) {
+            final String subStatementName = Utils.trimPrefix(tree.getKeyword(i));
             if (semVerStmtName.equals(subStatementName)) {
-                semVerString = Utils.stringFromStringContext(subStatement.argument());
+                semVerString = tree.getArgument(i);
                 break;
             }
         }
@@ -317,39 +314,29 @@ public abstract class YangModelDependencyInfo {
         return SemVer.valueOf(semVerString);
     }
 
-    private static ImmutableSet<ModuleImport> parseIncludes(
-            final YangStatementParser.StatementContext module) {
+    private static ImmutableSet<ModuleImport> parseIncludes(final CompactStatementTree module) {
         final Set<ModuleImport> result = new HashSet<>();
-        final List<StatementContext> subStatements = module.statement();
-        for (final StatementContext subStatementContext : subStatements) {
-            if (subStatementContext
-                    .keyword()
-                    .getText()
-                    .equals(Rfc6020Mapping.INCLUDE.getStatementName()
-                            .getLocalName())) {
-                final String revisionDateStr = getRevisionDateString(subStatementContext);
-                final String IncludeModuleName = Utils
-                        .stringFromStringContext(subStatementContext.argument());
+        final String includeKeyword = Rfc6020Mapping.INCLUDE.getStatementName().getLocalName();
+        final int end = module.getSubtreeEnd(0);
+        for (int i = 1; i < end; i = module.getSubtreeEnd(i)) {
+            if (includeKeyword.equals(module.getKeyword(i))) {
+                final String revisionDateStr = getRevisionDateString(module, i);
+                final String includeModuleName = module.getArgument(i);
                 final Date revisionDate = (revisionDateStr == null) ? null : QName
                         .parseRevision(revisionDateStr);
-                result.add(new ModuleImportImpl(IncludeModuleName, revisionDate));
+                result.add(new ModuleImportImpl(includeModuleName, revisionDate));
             }
         }
         return ImmutableSet.copyOf(result);
     }
 
-    private static String getRevisionDateString(final StatementContext importStatement) {
-        final List<StatementContext> importSubStatements = importStatement
-                .statement();
+    private static String getRevisionDateString(final CompactStatementTree tree, final int importStatement) {
+        final String revisionDateKeyword = Rfc6020Mapping.REVISION_DATE.getStatementName().getLocalName();
         String revisionDateStr = null;
-        for (final StatementContext importSubStatement : importSubStatements) {
-            if (importSubStatement
-                    .keyword()
-                    .getText()
-                    .equals(Rfc6020Mapping.REVISION_DATE.getStatementName()
-                            .getLocalName())) {
-                revisionDateStr = Utils
-                        .stringFromStringContext(importSubStatement.argument());
+        final int end = tree.getSubtreeEnd(importStatement);
+        for (int i = importStatement + 1; i < end; i = tree.getSubtreeEnd(i)) {
+            if (revisionDateKeyword.equals(tree.getKeyword(i))) {
+                revisionDateStr = tree.getArgument(i);
             }
         }
         return revisionDateStr;
@@ -387,6 +374,22 @@ public abstract class YangModelDependencyInfo {
         return latestRevision;
     }
 
+    private static String getLatestRevision(final CompactStatementTree module) {
+        final String revisionKeyword = Rfc6020Mapping.REVISION.getStatementName().getLocalName();
+        String latestRevision = null;
+        final int end = module.getSubtreeEnd(0);
+        for (int i = 1; i < end; i = module.getSubtreeEnd(i)) {
+            if (revisionKeyword.equals(module.getKeyword(i))) {
+                final String currentRevision = module.getArgument(i);
+                if (latestRevision == null
+                        || latestRevision.compareTo(currentRevision) == -1) {
+                    latestRevision = currentRevision;
+                }
+            }
+        }
+        return latestRevision;
+    }
+
     public static String getLatestRevision(
             final Revision_stmtsContext revisionStmts) {
         final List<Revision_stmtContext> revisions = revisionStmts
@@ -402,9 +405,8 @@ public abstract class YangModelDependencyInfo {
         return latestRevision;
     }
 
-    private static YangModelDependencyInfo parseSubmoduleContext(
-            final YangStatementParser.StatementContext submodule) {
-        final String name = Utils.stringFromStringContext(submodule.argument());
+    private static YangModelDependencyInfo parseSubmoduleStatement(final CompactStatementTree submodule) {
+        final String name = submodule.getArgument(0);
         final String belongsTo = parseBelongsTo(submodule);
 
         final String latestRevision = getLatestRevision(submodule);
@@ -415,16 +417,12 @@ public abstract class YangModelDependencyInfo {
                 imports, includes);
     }
 
-    private static String parseBelongsTo(final StatementContext submodule) {
-        final List<StatementContext> subStatements = submodule.statement();
-        for (final StatementContext subStatementContext : subStatements) {
-            if (subStatementContext
-                    .keyword()
-                    .getText()
-                    .equals(Rfc6020Mapping.BELONGS_TO.getStatementName()
-                            .getLocalName())) {
-                return Utils.stringFromStringContext(subStatementContext
-                        .argument());
+    private static String parseBelongsTo(final CompactStatementTree submodule) {
+        final String belongsToKeyword = Rfc6020Mapping.BELONGS_TO.getStatementName().getLocalName();
+        final int end = submodule.getSubtreeEnd(0);
+        for (int i = 1; i < end; i = submodule.getSubtreeEnd(i)) {
+            if (belongsToKeyword.equals(submodule.getKeyword(i))) {
+                return submodule.getArgument(i);
             }
         }
         return null;
@@ -0,0 +1,79 @@
+/*
+ * Copyright (c) 2016 Cisco Systems, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.yangtools.yang.parser.stmt.rfc6020;
+
+import com.google.common.base.Preconditions;
+import org.opendaylight.yangtools.yang.model.repo.api.SourceIdentifier;
+import org.opendaylight.yangtools.yang.parser.impl.YangStatementParserListenerImpl;
+import org.opendaylight.yangtools.yang.parser.spi.source.PrefixToModule;
+import org.opendaylight.yangtools.yang.parser.spi.source.QNameToStatementDefinition;
+import org.opendaylight.yangtools.yang.parser.spi.source.StatementStreamSource;
+import org.opendaylight.yangtools.yang.parser.spi.source.StatementWriter;
+import org.opendaylight.yangtools.yang.parser.util.CompactStatementTree;
+
+/**
+ * This class represents implementation of StatementStreamSource which emits YANG statements from
+ * a {@link CompactStatementTree} using supplied StatementWriter. It emits the same sequence of events as
+ * {@link YangStatementSourceImpl} does for the parse tree the compact tree was created from.
+ */
+public final class CompactStatementSourceImpl implements StatementStreamSource {
+    private final YangStatementParserListenerImpl yangStatementModelParser;
+    private final CompactStatementTree tree;
+    private final String sourceName;
+
+    public CompactStatementSourceImpl(final SourceIdentifier identifier, final CompactStatementTree tree) {
+        this.tree = Preconditions.checkNotNull(tree);
+        this.sourceName = identifier.getName();
+        yangStatementModelParser = new YangStatementParserListenerImpl(sourceName);
+    }
+
+    @Override
+    public void writePreLinkage(final StatementWriter writer, final QNameToStatementDefinition stmtDef) {
+        yangStatementModelParser.setAttributes(writer, stmtDef);
+        walk(0);
+    }
+
+    @Override
+    public void writeLinkage(final StatementWriter writer, final QNameToStatementDefinition stmtDef,
+            final PrefixToModule preLinkagePrefixes) {
+        yangStatementModelParser.setAttributes(writer, stmtDef, preLinkagePrefixes);
+        walk(0);
+    }
+
+    @Override
+    public void writeLinkageAndStatementDefinitions(final StatementWriter writer,
+            final QNameToStatementDefinition stmtDef, final PrefixToModule prefixes) {
+        yangStatementModelParser.setAttributes(writer, stmtDef, prefixes);
+        walk(0);
+    }
+
+    @Override
+    public void writeFull(final StatementWriter writer, final QNameToStatementDefinition stmtDef,
+            final PrefixToModule prefixes) {
+        yangStatementModelParser.setAttributes(writer, stmtDef, prefixes);
+        walk(0);
+    }
+
+    private void walk(final int index) {
+        final String keyword = tree.getKeyword(index);
+        final int line = tree.getLine(index);
+        final int column = tree.getColumn(index);
+
+        yangStatementModelParser.enterStatement(keyword, tree.getArgument(index), line, column);
+        final int end = tree.getSubtreeEnd(index);
+        for (int child = index + 1; child < end; child = tree.getSubtreeEnd(child)) {
+            walk(child);
+        }
+        yangStatementModelParser.exitStatement(keyword, line, column);
+    }
+
+    @Override
+    public String toString() {
+        return sourceName;
+    }
+}
@@ -107,7 +107,31 @@ public final class YangStatementSourceImpl implements StatementStreamSource {
 
     private YangStatementParser.StatementContext parseYangSource(final InputStream stream) throws IOException,
             YangSyntaxErrorException {
-        final YangStatementLexer lexer = new YangStatementLexer(new ANTLRInputStream(stream));
+        if (stream instanceof NamedFileInputStream) {
+            sourceName = stream.toString();
+        } else {
+            sourceName = null;
+        }
+
+        return parseYangSource(new ANTLRInputStream(stream));
+    }
+
+    /**
+     * Parse YANG text into an ANTLR parse tree. Unlike the constructors of this class, which log syntax errors,
+     * this method reports them to the caller.
+     *
+     * @param text YANG text
+     * @return Parse tree of the root statement
+     * @throws YangSyntaxErrorException if the text is not syntactically valid
+     */
+    public static YangStatementParser.StatementContext parseYangSource(final CharSequence text)
+            throws YangSyntaxErrorException {
+        return parseYangSource(new ANTLRInputStream(text.toString()));
+    }
+
+    private static YangStatementParser.StatementContext parseYangSource(final ANTLRInputStream input)
+            throws YangSyntaxErrorException {
+        final YangStatementLexer lexer = new YangStatementLexer(input);
         final CommonTokenStream tokens = new CommonTokenStream(lexer);
         final YangStatementParser parser = new YangStatementParser(tokens);
         //disconnect from console error output
@@ -116,12 +140,6 @@ public final class YangStatementSourceImpl implements StatementStreamSource {
         final YangErrorListener errorListener = new YangErrorListener();
         parser.addErrorListener(errorListener);
 
-        if (stream instanceof NamedFileInputStream) {
-            sourceName = stream.toString();
-        } else {
-            sourceName = null;
-        }
-
         final StatementContext result = parser.statement();
         errorListener.validate();
 
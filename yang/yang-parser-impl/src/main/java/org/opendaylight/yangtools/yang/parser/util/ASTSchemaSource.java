@@ -10,8 +10,14 @@ package org.opendaylight.yangtools.yang.parser.util;
 import com.google.common.annotations.Beta;
 import com.google.common.base.Function;
 import com.google.common.base.Preconditions;
+import com.google.common.base.Verify;
+import com.google.common.cache.Weigher;
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
 import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
 import org.antlr.v4.runtime.ParserRuleContext;
+import org.opendaylight.yangtools.antlrv4.code.gen.YangStatementParser.StatementContext;
 import org.opendaylight.yangtools.yang.model.api.Module;
 import org.opendaylight.yangtools.yang.model.parser.api.YangSyntaxErrorException;
 import org.opendaylight.yangtools.yang.model.repo.api.RevisionSourceIdentifier;
@@ -19,6 +25,7 @@ import org.opendaylight.yangtools.yang.model.repo.api.SchemaSourceRepresentation
 import org.opendaylight.yangtools.yang.model.repo.api.SemVerSourceIdentifier;
 import org.opendaylight.yangtools.yang.model.repo.api.SourceIdentifier;
 import org.opendaylight.yangtools.yang.parser.impl.util.YangModelDependencyInfo;
+import org.opendaylight.yangtools.yang.parser.stmt.rfc6020.YangStatementSourceImpl;
 
 /**
  * Abstract Syntax Tree representation of a schema source. This representation
@@ -29,6 +36,11 @@ import org.opendaylight.yangtools.yang.parser.impl.util.YangModelDependencyInfo;
  * has been successfully parsed, so we know it is syntactically correct. It also
  * passes basic semantic validation and we were able to extract dependency
  * information.
+ *
+ * Since these instances are retained for a long time, the statements are held
+ * in a {@link CompactStatementTree} rather than the ANTLR parse tree, which is
+ * many times larger than the text it was parsed from. Size-bounded caches can further trim sources through
+ * {@link #WEIGHER} and {@link #DEMOTER}.
  */
 @Beta
 public final class ASTSchemaSource implements SchemaSourceRepresentation {
@@ -61,20 +73,81 @@ public final class ASTSchemaSource implements SchemaSourceRepresentation {
         }
     };
 
+
+    /**
+     * Weigher estimating the memory footprint of a source in bytes, for use with size-bounded caches. The estimate
+     * is rough, but accounts for the text, the statement tree and any retained parse tree.
+     */
+    public static final Weigher<SourceIdentifier, ASTSchemaSource> WEIGHER = new Weigher<SourceIdentifier, ASTSchemaSource>() {
+        @Override
+        public int weigh(@Nonnull final SourceIdentifier key, @Nonnull final ASTSchemaSource value) {
+            return value.estimateWeight();
+        }
+    };
+
+    /**
+     * Function demoting a source to a lighter form, which retains only its text and dependency information. The
+     * statement tree of a demoted source is re-parsed from text whenever it is requested. The function returns null
+     * if the source cannot be demoted, because it does not retain its text or because it has already been demoted.
+     */
+    public static final Function<ASTSchemaSource, ASTSchemaSource> DEMOTER = new Function<ASTSchemaSource, ASTSchemaSource>() {
+        @Override
+        public ASTSchemaSource apply(@Nonnull final ASTSchemaSource input) {
+            Preconditions.checkNotNull(input);
+            return input.demote();
+        }
+    };
+
+    // Rough per-object costs, in bytes, used by the weigher
+    private static final int BASE_WEIGHT = 512;
+    private static final int STATEMENT_WEIGHT = 64;
+    private static final int PARSE_TREE_WEIGHT_PER_CHAR = 32;
+
     private final YangModelDependencyInfo depInfo;
+    private final CompactStatementTree statements;
+    // Retained only if it cannot be recovered from text
     private final ParserRuleContext tree;
     private final SourceIdentifier id;
     private final SemVerSourceIdentifier semVerId;
     private final String text;
 
-    private ASTSchemaSource(@Nonnull final SourceIdentifier id, @Nonnull final SemVerSourceIdentifier semVerId, @Nonnull final ParserRuleContext tree, @Nonnull final YangModelDependencyInfo depInfo, final String text) {
+    private ASTSchemaSource(@Nonnull final SourceIdentifier id, @Nonnull final SemVerSourceIdentifier semVerId,
+            @Nullable final CompactStatementTree statements, @Nullable final ParserRuleContext tree,
+            @Nonnull final YangModelDependencyInfo depInfo, final String text) {
         this.depInfo = Preconditions.checkNotNull(depInfo);
-        this.tree = Preconditions.checkNotNull(tree);
+        this.statements = statements;
+        this.tree = tree;
         this.id = Preconditions.checkNotNull(id);
         this.semVerId = Preconditions.checkNotNull(semVerId);
         this.text = text;
     }
 
+    private static ASTSchemaSource create(final String name, final SourceIdentifier identifier,
+            final ParserRuleContext tree, final String text) throws YangSyntaxErrorException {
+        Preconditions.checkNotNull(tree);
+        if (tree instanceof StatementContext) {
+            final CompactStatementTree statements = CompactStatementTree.create((StatementContext) tree);
+            return create(identifier, statements, text == null ? tree : null,
+                YangModelDependencyInfo.fromStatementTree(statements), text);
+        }
+
+        return create(identifier, null, tree, YangModelDependencyInfo.fromAST(name, tree), text);
+    }
+
+    private static ASTSchemaSource create(final SourceIdentifier identifier, final CompactStatementTree statements,
+            final ParserRuleContext tree, final YangModelDependencyInfo depInfo, final String text) {
+        final SourceIdentifier id = getSourceId(depInfo);
+
+        final SemVerSourceIdentifier semVerId;
+        if (identifier instanceof SemVerSourceIdentifier && !depInfo.getSemanticVersion().isPresent()) {
+            semVerId = (SemVerSourceIdentifier) identifier;
+        } else {
+            semVerId = getSemVerSourceId(depInfo);
+        }
+
+        return new ASTSchemaSource(id, semVerId, statements, tree, depInfo, text);
+    }
+
     /**
      * Create a new instance of AST representation for a abstract syntax tree,
      * performing minimal semantic analysis to acquire dependency information.
@@ -85,10 +158,7 @@ public final class ASTSchemaSource implements SchemaSourceRepresentation {
      * @throws YangSyntaxErrorException if we fail to extract dependency information.
      */
     public static ASTSchemaSource create(@Nonnull final String name, @Nonnull final ParserRuleContext tree) throws YangSyntaxErrorException {
-        final YangModelDependencyInfo depInfo = YangModelDependencyInfo.fromAST(name, tree);
-        final SourceIdentifier id = getSourceId(depInfo);
-        final SemVerSourceIdentifier semVerId = getSemVerSourceId(depInfo);
-        return new ASTSchemaSource(id, semVerId, tree, depInfo, null);
+        return create(name, null, tree, null);
     }
 
     private static SourceIdentifier getSourceId(final YangModelDependencyInfo depInfo) {
@@ -119,10 +189,7 @@ public final class ASTSchemaSource implements SchemaSourceRepresentation {
      */
     @Deprecated
     public static ASTSchemaSource create(@Nonnull final String name, @Nonnull final ParserRuleContext tree, final String text) throws YangSyntaxErrorException {
-        final YangModelDependencyInfo depInfo = YangModelDependencyInfo.fromAST(name, tree);
-        final SourceIdentifier id = getSourceId(depInfo);
-        final SemVerSourceIdentifier semVerId = getSemVerSourceId(depInfo);
-        return new ASTSchemaSource(id, semVerId, tree, depInfo, text);
+        return create(name, null, tree, text);
     }
 
     /**
@@ -142,17 +209,30 @@ public final class ASTSchemaSource implements SchemaSourceRepresentation {
      */
     public static ASTSchemaSource create(@Nonnull final SourceIdentifier identifier,
             @Nonnull final ParserRuleContext tree, final String text) throws YangSyntaxErrorException {
-        final YangModelDependencyInfo depInfo = YangModelDependencyInfo.fromAST(identifier.getName(), tree);
-        final SourceIdentifier id = getSourceId(depInfo);
-
-        final SemVerSourceIdentifier semVerId;
-        if (identifier instanceof SemVerSourceIdentifier && !depInfo.getSemanticVersion().isPresent()) {
-            semVerId = (SemVerSourceIdentifier) identifier;
-        } else {
-            semVerId = getSemVerSourceId(depInfo);
-        }
+        return create(identifier.getName(), identifier, tree, text);
+    }
 
-        return new ASTSchemaSource(id, semVerId, tree, depInfo, text);
+    /**
+     * Create a new instance of AST representation for a compact statement tree,
+     * performing minimal semantic analysis to acquire dependency information.
+     * The ANTLR parse tree is not available up front and will be recovered from
+     * text when requested.
+     *
+     * @param identifier
+     *            SourceIdentifier of yang schema source.
+     * @param statements
+     *            Compact statement tree
+     * @param text
+     *            YANG text source
+     * @return A new representation instance.
+     * @throws IllegalArgumentException
+     *             if the statement tree does not describe a module or a submodule.
+     */
+    public static ASTSchemaSource create(@Nonnull final SourceIdentifier identifier,
+            @Nonnull final CompactStatementTree statements, @Nonnull final String text) {
+        Preconditions.checkNotNull(identifier);
+        Preconditions.checkNotNull(text);
+        return create(identifier, statements, null, YangModelDependencyInfo.fromStatementTree(statements), text);
     }
 
     @Override
@@ -170,12 +250,59 @@ public final class ASTSchemaSource implements SchemaSourceRepresentation {
     }
 
     /**
-     * Return the underlying abstract syntax tree.
+     * Return the underlying abstract syntax tree. If this source was created with its YANG text, the tree is not
+     * retained and this method re-parses the text, which is expensive. Users should prefer
+     * {@link #getStatementTree()} whenever possible.
      *
      * @return Underlying AST.
      */
     @Nonnull public ParserRuleContext getAST() {
-        return tree;
+        if (tree != null) {
+            return tree;
+        }
+
+        return Verify.verifyNotNull(new YangStatementSourceImpl(new ByteArrayInputStream(
+            text.getBytes(StandardCharsets.UTF_8))).getYangAST(), "Failed to re-parse source %s", id);
+    }
+
+    /**
+     * Return the compact statement tree of this source. This representation is available for all sources created
+     * from YANG text or from a YANG statement parse tree. If this source has been demoted, the tree is re-parsed from
+     * text on each invocation.
+     *
+     * @return Compact statement tree, or null if this source was created from a different kind of parse tree.
+     */
+    @Nullable public CompactStatementTree getStatementTree() {
+        if (statements != null || tree != null) {
+            return statements;
+        }
+
+        try {
+            return CompactStatementTree.parse(text);
+        } catch (YangSyntaxErrorException e) {
+            throw new IllegalStateException("Failed to re-parse source " + id, e);
+        }
+    }
+
+    private ASTSchemaSource demote() {
+        if (statements == null || text == null) {
+            return null;
+        }
+        return new ASTSchemaSource(id, semVerId, null, null, depInfo, text);
+    }
+
+    private int estimateWeight() {
+        long weight = BASE_WEIGHT;
+        if (text != null) {
+            weight += 2L * text.length();
+        }
+        if (statements != null) {
+            weight += (long) STATEMENT_WEIGHT * statements.size();
+        }
+        if (tree != null && tree.getStop() != null) {
+            weight += (long) PARSE_TREE_WEIGHT_PER_CHAR * (tree.getStop().getStopIndex() + 1);
+        }
+        return (int) Math.min(weight, Integer.MAX_VALUE);
     }
 
     /**
@@ -0,0 +1,233 @@
+/*
+ * Copyright (c) 2016 Cisco Systems, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.yangtools.yang.parser.util;
+
+import com.google.common.annotations.Beta;
+import com.google.common.base.Preconditions;
+import com.google.common.base.Verify;
+import java.io.File;
+import java.io.IOException;
+import java.nio.CharBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
+import java.util.HashMap;
+import java.util.Map;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import org.opendaylight.yangtools.antlrv4.code.gen.YangStatementParser.ArgumentContext;
+import org.opendaylight.yangtools.antlrv4.code.gen.YangStatementParser.KeywordContext;
+import org.opendaylight.yangtools.antlrv4.code.gen.YangStatementParser.StatementContext;
+import org.opendaylight.yangtools.concepts.Immutable;
+import org.opendaylight.yangtools.yang.model.parser.api.YangSyntaxErrorException;
+import org.opendaylight.yangtools.yang.parser.stmt.rfc6020.Utils;
+import org.opendaylight.yangtools.yang.parser.stmt.rfc6020.YangStatementSourceImpl;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Compact, immutable representation of a YANG statement tree. Unlike the ANTLR parse tree it is derived from, it does
+ * not retain tokens or intermediate rule nodes. Each statement is described by its keyword, its (unquoted) argument
+ * and its position in the source text. Statements are laid out in flat arrays in document order, each statement being
+ * followed by its substatements. Child statements of a statement at index {@code i} start at {@code i + 1} and end
+ * just before {@link #getSubtreeEnd(int)}, which is also the index of the statement's next sibling.
+ *
+ * <p>
+ * Keywords and arguments are deduplicated while the tree is built, so that common strings are shared.
+ *
+ * <p>
+ * Trees can be created from an existing ANTLR parse tree via {@link #create(StatementContext)}, or directly from YANG
+ * text via {@link #parse(CharSequence)}, which avoids creating the parse tree in the common case.
+ */
+@Beta
+public final class CompactStatementTree implements Immutable {
+    private static final Logger LOG = LoggerFactory.getLogger(CompactStatementTree.class);
+
+    private final String[] keywords;
+    private final String[] arguments;
+    private final int[] lines;
+    private final int[] columns;
+    private final int[] ends;
+
+    CompactStatementTree(final String[] keywords, final String[] arguments, final int[] lines,
+            final int[] columns, final int[] ends) {
+        this.keywords = keywords;
+        this.arguments = arguments;
+        this.lines = lines;
+        this.columns = columns;
+        this.ends = ends;
+    }
+
+    /**
+     * Create a compact statement tree from an ANTLR parse tree.
+     *
+     * @param root Root statement context
+     * @return A new compact statement tree
+     */
+    public static CompactStatementTree create(@Nonnull final StatementContext root) {
+        final Builder builder = new Builder(countStatements(Preconditions.checkNotNull(root)));
+        builder.append(root);
+        return builder.build();
+    }
+
+    /**
+     * Parse YANG text into a compact statement tree. Well-formed text is processed by a hand-written reader, which
+     * does not create intermediate tokens or parse tree. Should that reader fail to process the text, it is handed over
+     * to the ANTLR-based parser, which either processes it or reports the syntax error.
+     *
+     * @param text YANG text
+     * @return A new compact statement tree
+     * @throws YangSyntaxErrorException if the text is not syntactically valid
+     */
+    public static CompactStatementTree parse(@Nonnull final CharSequence text) throws YangSyntaxErrorException {
+        final CompactStatementTree ret = CompactStatementTreeParser.parse(Preconditions.checkNotNull(text));
+        if (ret != null) {
+            return ret;
+        }
+
+        LOG.debug("Falling back to ANTLR parser");
+        return create(YangStatementSourceImpl.parseYangSource(text));
+    }
+
+    /**
+     * Parse a UTF-8 encoded YANG file into a compact statement tree. The file is memory-mapped and decoded in one go,
+     * without going through intermediate stream buffers.
+     *
+     * @param file YANG file
+     * @return A new compact statement tree
+     * @throws IOException if the file cannot be read
+     * @throws YangSyntaxErrorException if the file is not syntactically valid
+     */
+    public static CompactStatementTree parse(@Nonnull final File file) throws IOException, YangSyntaxErrorException {
+        final CharBuffer text;
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+            text = StandardCharsets.UTF_8.decode(channel.map(MapMode.READ_ONLY, 0, channel.size()));
+        }
+
+        return parse(text);
+    }
+
+    private static int countStatements(final StatementContext ctx) {
+        int count = 1;
+        for (StatementContext child : ctx.statement()) {
+            count += countStatements(child);
+        }
+        return count;
+    }
+
+    /**
+     * Return the number of statements in this tree, including the root statement.
+     *
+     * @return Number of statements.
+     */
+    public int size() {
+        return keywords.length;
+    }
+
+    /**
+     * Return the keyword of a statement, as it appears in source text, including any prefix.
+     *
+     * @param index Statement index
+     * @return Statement keyword
+     */
+    @Nonnull public String getKeyword(final int index) {
+        return keywords[index];
+    }
+
+    /**
+     * Return the argument of a statement, with quotes removed and concatenations resolved.
+     *
+     * @param index Statement index
+     * @return Statement argument, or null if the statement does not have an argument.
+     */
+    @Nullable public String getArgument(final int index) {
+        return arguments[index];
+    }
+
+    /**
+     * Return the line on which a statement starts.
+     *
+     * @param index Statement index
+     * @return Line number, starting at 1
+     */
+    public int getLine(final int index) {
+        return lines[index];
+    }
+
+    /**
+     * Return the position within its line at which a statement starts.
+     *
+     * @param index Statement index
+     * @return Character position in line, starting at 0
+     */
+    public int getColumn(final int index) {
+        return columns[index];
+    }
+
+    /**
+     * Return the index just past the last substatement of a statement. This is also the index of the statement's
+     * next sibling, if it has one.
+     *
+     * @param index Statement index
+     * @return End index of the statement's subtree
+     */
+    public int getSubtreeEnd(final int index) {
+        return ends[index];
+    }
+
+    private static final class Builder {
+        private final Map<String, String> strings = new HashMap<>();
+        private final String[] keywords;
+        private final String[] arguments;
+        private final int[] lines;
+        private final int[] columns;
+        private final int[] ends;
+        private int offset;
+
+        Builder(final int size) {
+            keywords = new String[size];
+            arguments = new String[size];
+            lines = new int[size];
+            columns = new int[size];
+            ends = new int[size];
+        }
+
+        void append(final StatementContext ctx) {
+            final int index = offset++;
+            final KeywordContext keywordCtx = Verify.verifyNotNull(ctx.getChild(KeywordContext.class, 0));
+            final ArgumentContext argumentCtx = ctx.getChild(ArgumentContext.class, 0);
+
+            keywords[index] = dedup(keywordCtx.getText());
+            arguments[index] = argumentCtx != null ? dedup(Utils.stringFromStringContext(argumentCtx)) : null;
+            lines[index] = ctx.getStart().getLine();
+            columns[index] = ctx.getStart().getCharPositionInLine();
+
+            for (StatementContext child : ctx.statement()) {
+                append(child);
+            }
+            ends[index] = offset;
+        }
+
+        private String dedup(final String str) {
+            final String existing = strings.get(str);
+            if (existing != null) {
+                return existing;
+            }
+
+            strings.put(str, str);
+            return str;
+        }
+
+        CompactStatementTree build() {
+            Verify.verify(offset == keywords.length, "Expected %s statements, encountered %s", keywords.length,
+                offset);
+            return new CompactStatementTree(keywords, arguments, lines, columns, ends);
+        }
+    }
+}
@@ -0,0 +1,395 @@
+/*
+ * Copyright (c) 2016 Cisco Systems, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.yangtools.yang.parser.util;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Hand-written reader of YANG statement syntax, producing a {@link CompactStatementTree} directly from text. It scans
+ * the text in place, without creating token objects, and accepts the same language as the YangStatementLexer and
+ * YangStatementParser grammars, producing the same keywords, arguments and statement positions as
+ * {@link CompactStatementTree#create(org.opendaylight.yangtools.antlrv4.code.gen.YangStatementParser.StatementContext)}
+ * does for the corresponding ANTLR parse tree.
+ *
+ * <p>
+ * This reader does not attempt to report errors. Whenever it encounters input which is not well-formed, or whose
+ * interpretation by the ANTLR lexer is not obvious, it gives up and returns null, leaving it up to the ANTLR-based
+ * parser to either make sense of the input or report a proper error.
+ */
+final class CompactStatementTreeParser {
+    /**
+     * Thrown when the input cannot be handled. It does not carry any information, hence we use a single instance.
+     */
+    private static final class BailOut extends Exception {
+        private static final long serialVersionUID = 1L;
+        static final BailOut INSTANCE = new BailOut();
+
+        private BailOut() {
+            super(null, null, false, false);
+        }
+    }
+
+    private static final int INITIAL_CAPACITY = 64;
+
+    private final Map<String, String> strings = new HashMap<>();
+    private final CharSequence text;
+    private final int length;
+
+    private String[] keywords = new String[INITIAL_CAPACITY];
+    private String[] arguments = new String[INITIAL_CAPACITY];
+    private int[] lines = new int[INITIAL_CAPACITY];
+    private int[] columns = new int[INITIAL_CAPACITY];
+    private int[] ends = new int[INITIAL_CAPACITY];
+    private int count;
+
+    private int pos;
+    private int line = 1;
+    private int lineStart;
+
+    private CompactStatementTreeParser(final CharSequence text) {
+        this.text = text;
+        this.length = text.length();
+    }
+
+    /**
+     * Parse YANG text.
+     *
+     * @param text YANG text
+     * @return A compact statement tree, or null if the text cannot be handled by this reader.
+     */
+    static CompactStatementTree parse(final CharSequence text) {
+        final CompactStatementTreeParser parser = new CompactStatementTreeParser(text);
+        try {
+            return parser.parse();
+        } catch (BailOut e) {
+            return null;
+        }
+    }
+
+    private CompactStatementTree parse() throws BailOut {
+        final int[] rootPosition = skipLeadingTrivia();
+        parseStatement(rootPosition[0], rootPosition[1]);
+        skipTrivia();
+        if (pos != length) {
+            // Trailing content, let ANTLR deal with it
+            throw BailOut.INSTANCE;
+        }
+
+        return new CompactStatementTree(Arrays.copyOf(keywords, count), Arrays.copyOf(arguments, count),
+            Arrays.copyOf(lines, count), Arrays.copyOf(columns, count), Arrays.copyOf(ends, count));
+    }
+
+    private void parseStatement(final int startLine, final int startColumn) throws BailOut {
+        final int index = count++;
+        ensureCapacity();
+
+        keywords[index] = readKeyword();
+        lines[index] = startLine;
+        columns[index] = startColumn;
+
+        skipTrivia();
+        final char c = peek();
+        if (c != ';' && c != '{') {
+            arguments[index] = readArgument();
+            skipTrivia();
+        }
+
+        switch (peek()) {
+            case ';':
+                advance();
+                break;
+            case '{':
+                advance();
+                while (true) {
+                    skipTrivia();
+                    if (peek() == '}') {
+                        advance();
+                        break;
+                    }
+                    parseStatement(line, pos - lineStart);
+                }
+                break;
+            default:
+                throw BailOut.INSTANCE;
+        }
+
+        ends[index] = count;
+    }
+
+    private String readKeyword() throws BailOut {
+        final int start = pos;
+        if (!isIdentifierStart(peek())) {
+            throw BailOut.INSTANCE;
+        }
+        final int end = unquotedEnd();
+        for (int i = start + 1; i < end; ++i) {
+            if (!isIdentifierPart(text.charAt(i))) {
+                // The lexer would produce a STRING token, which is not a valid keyword
+                throw BailOut.INSTANCE;
+            }
+        }
+
+        pos = end;
+        return dedup(text.subSequence(start, end).toString());
+    }
+
+    private String readArgument() throws BailOut {
+        final StringBuilder sb = new StringBuilder();
+        if (!appendArgumentPart(sb)) {
+            // Single IDENTIFIER: cannot be concatenated
+            return dedup(sb.toString());
+        }
+
+        while (true) {
+            skipTrivia();
+            if (peek() != '+') {
+                return dedup(sb.toString());
+            }
+            advance();
+            skipTrivia();
+            if (!appendArgumentPart(sb)) {
+                // IDENTIFIER cannot be concatenated
+                throw BailOut.INSTANCE;
+            }
+        }
+    }
+
+    /**
+     * Read a single argument token and append its value to a StringBuilder.
+     *
+     * @return True if the token was a STRING, false if it was an IDENTIFIER.
+     */
+    private boolean appendArgumentPart(final StringBuilder sb) throws BailOut {
+        final char c = peek();
+        switch (c) {
+            case '"':
+                appendDoubleQuoted(sb);
+                return true;
+            case '\'':
+                appendSingleQuoted(sb);
+                return true;
+            case '+':
+            case '}':
+            case ':':
+            case '\0':
+                throw BailOut.INSTANCE;
+            default:
+                break;
+        }
+
+        final int start = pos;
+        final int end = unquotedEnd();
+        boolean identifier = isIdentifierStart(c);
+        for (int i = start + 1; identifier && i < end; ++i) {
+            identifier = isIdentifierPart(text.charAt(i));
+        }
+        if (!identifier && c == '/') {
+            // Not a valid STRING start and the lexer would split this into multiple tokens
+            throw BailOut.INSTANCE;
+        }
+
+        sb.append(text, start, end);
+        pos = end;
+        return !identifier;
+    }
+
+    private void appendDoubleQuoted(final StringBuilder sb) throws BailOut {
+        // Skip opening quote
+        advance();
+        while (true) {
+            if (pos >= length) {
+                throw BailOut.INSTANCE;
+            }
+
+            final char c = text.charAt(pos);
+            if (c == '"') {
+                // A quote preceded by a backslash is matched as an escape sequence, which the lexer prefers, as it
+                // results in a longer token. Such quotes are removed from the value, just as the terminating one.
+                if (text.charAt(pos - 1) != '\\') {
+                    advance();
+                    return;
+                }
+            } else {
+                sb.append(c);
+            }
+            advance();
+        }
+    }
+
+    private void appendSingleQuoted(final StringBuilder sb) throws BailOut {
+        // Skip opening quote
+        advance();
+        while (true) {
+            if (pos >= length) {
+                throw BailOut.INSTANCE;
+            }
+
+            final char c = text.charAt(pos);
+            advance();
+            if (c == '\'') {
+                return;
+            }
+            sb.append(c);
+        }
+    }
+
+    /**
+     * Find the end of an unquoted token starting at current position. The token extends up to the first whitespace,
+     * semicolon or brace.
+     */
+    private int unquotedEnd() {
+        int end = pos;
+        while (end < length) {
+            switch (text.charAt(end)) {
+                case ' ':
+                case '\t':
+                case '\r':
+                case '\n':
+                case ';':
+                case '{':
+                case '}':
+                    return end;
+                default:
+                    ++end;
+            }
+        }
+        return end;
+    }
+
+    /**
+     * Skip whitespace and comments preceding the root statement, returning the line and column of the first token
+     * which the ANTLR parser would attribute to the root statement. This is the first whitespace token which is not
+     * part of a line comment, or the keyword itself.
+     */
+    private int[] skipLeadingTrivia() throws BailOut {
+        int[] start = null;
+        boolean afterLineComment = false;
+        while (pos < length) {
+            final char c = text.charAt(pos);
+            if (isWhitespace(c)) {
+                final int runLine = line;
+                final int runColumn = pos - lineStart;
+                skipWhitespace();
+                if (!afterLineComment && !startsWith('/', '/') && start == null) {
+                    start = new int[] { runLine, runColumn };
+                }
+                afterLineComment = false;
+            } else if (startsWith('/', '/')) {
+                skipLineComment();
+                afterLineComment = true;
+            } else if (startsWith('/', '*')) {
+                skipBlockComment();
+                afterLineComment = false;
+            } else {
+                break;
+            }
+        }
+
+        return start != null ? start : new int[] { line, pos - lineStart };
+    }
+
+    private void skipTrivia() throws BailOut {
+        while (pos < length) {
+            final char c = text.charAt(pos);
+            if (isWhitespace(c)) {
+                skipWhitespace();
+            } else if (startsWith('/', '/')) {
+                skipLineComment();
+            } else if (startsWith('/', '*')) {
+                skipBlockComment();
+            } else {
+                return;
+            }
+        }
+    }
+
+    private void skipWhitespace() {
+        while (pos < length && isWhitespace(text.charAt(pos))) {
+            advance();
+        }
+    }
+
+    private void skipLineComment() {
+        while (pos < length) {
+            final char c = text.charAt(pos);
+            if (c == '\r' || c == '\n') {
+                return;
+            }
+            advance();
+        }
+    }
+
+    private void skipBlockComment() throws BailOut {
+        // Skip the opening sequence
+        advance();
+        advance();
+        while (pos < length - 1) {
+            if (startsWith('*', '/')) {
+                advance();
+                advance();
+                return;
+            }
+            advance();
+        }
+
+        // Unterminated comment
+        throw BailOut.INSTANCE;
+    }
+
+    private boolean startsWith(final char first, final char second) {
+        return pos + 1 < length && text.charAt(pos) == first && text.charAt(pos + 1) == second;
+    }
+
+    private char peek() {
+        return pos < length ? text.charAt(pos) : '\0';
+    }
+
+    private void advance() {
+        if (text.charAt(pos) == '\n') {
+            ++line;
+            lineStart = pos + 1;
+        }
+        ++pos;
+    }
+
+    private void ensureCapacity() {
+        if (count > keywords.length) {
+            final int newCapacity = keywords.length * 2;
+            keywords = Arrays.copyOf(keywords, newCapacity);
+            arguments = Arrays.copyOf(arguments, newCapacity);
+            lines = Arrays.copyOf(lines, newCapacity);
+            columns = Arrays.copyOf(columns, newCapacity);
+            ends = Arrays.copyOf(ends, newCapacity);
+        }
+    }
+
+    private String dedup(final String str) {
+        final String existing = strings.get(str);
+        if (existing != null) {
+            return existing;
+        }
+
+        strings.put(str, str);
+        return str;
+    }
+
+    private static boolean isWhitespace(final char c) {
+        return c == ' ' || c == '\t' || c == '\r' || c == '\n';
+    }
+
+    private static boolean isIdentifierStart(final char c) {
+        return c >= 'a' && c <= 'z' || c >= 'A' && c <= 'Z' || c == '_' || c == '/';
+    }
+
+    private static boolean isIdentifierPart(final char c) {
+        return c >= 'a' && c <= 'z' || c >= 'A' && c <= 'Z' || c >= '0' && c <= '9' || c == '_' || c == '-'
+                || c == '.' || c == ':' || c == '/';
+    }
+}
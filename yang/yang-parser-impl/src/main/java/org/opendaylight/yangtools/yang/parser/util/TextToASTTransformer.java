@@ -13,15 +13,12 @@ import com.google.common.base.Charsets;
 import com.google.common.util.concurrent.CheckedFuture;
 import com.google.common.util.concurrent.Futures;
 import java.io.IOException;
-import java.io.InputStream;
-import org.antlr.v4.runtime.ParserRuleContext;
 import org.opendaylight.yangtools.yang.model.parser.api.YangSyntaxErrorException;
 import org.opendaylight.yangtools.yang.model.repo.api.SchemaRepository;
 import org.opendaylight.yangtools.yang.model.repo.api.SchemaSourceException;
 import org.opendaylight.yangtools.yang.model.repo.api.YangTextSchemaSource;
 import org.opendaylight.yangtools.yang.model.repo.spi.SchemaSourceRegistry;
 import org.opendaylight.yangtools.yang.model.repo.util.SchemaSourceTransformer;
-import org.opendaylight.yangtools.yang.parser.stmt.rfc6020.YangStatementSourceImpl;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -35,17 +32,13 @@ public final class TextToASTTransformer extends SchemaSourceTransformer<YangText
     public static final class TextToASTTransformation implements Transformation<YangTextSchemaSource, ASTSchemaSource> {
         @Override
         public CheckedFuture<ASTSchemaSource, SchemaSourceException> apply(final YangTextSchemaSource input) throws IOException, YangSyntaxErrorException {
-            try (InputStream is = input.openStream()) {
-                final ParserRuleContext ctx = new YangStatementSourceImpl(is).getYangAST();
-                LOG.debug("Model {} parsed successfully", input);
+            final String text = input.asCharSource(Charsets.UTF_8).read();
+            final CompactStatementTree statements = CompactStatementTree.parse(text);
+            LOG.debug("Model {} parsed successfully", input);
 
-                //:TODO missing validation (YangModelBasicValidationListener should be re-implemented to new parser)
+            //:TODO missing validation (YangModelBasicValidationListener should be re-implemented to new parser)
 
-                // Backwards compatibility
-                final String text = input.asCharSource(Charsets.UTF_8).read();
-
-                return Futures.immediateCheckedFuture(ASTSchemaSource.create(input.getIdentifier(), ctx, text));
-            }
+            return Futures.immediateCheckedFuture(ASTSchemaSource.create(input.getIdentifier(), statements, text));
         }
     }
 
@@ -0,0 +1,93 @@
+/*
+ * Copyright (c) 2016 Cisco Systems, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.yangtools.yang.parser.util;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+import org.junit.Test;
+import org.opendaylight.yangtools.yang.model.repo.api.RevisionSourceIdentifier;
+import org.opendaylight.yangtools.yang.model.repo.api.SourceIdentifier;
+import org.opendaylight.yangtools.yang.model.repo.spi.PotentialSchemaSource;
+import org.opendaylight.yangtools.yang.model.repo.spi.SchemaSourceProvider;
+import org.opendaylight.yangtools.yang.model.repo.spi.SchemaSourceRegistration;
+import org.opendaylight.yangtools.yang.model.repo.spi.SchemaSourceRegistry;
+import org.opendaylight.yangtools.yang.model.repo.util.InMemorySchemaSourceCache;
+
+public class ASTSchemaSourceTest {
+    private static final String TEXT = "module foo {\n"
+            + "    namespace \"urn:foo\";\n"
+            + "    prefix foo;\n"
+            + "    container bar {\n"
+            + "        leaf baz { type string; }\n"
+            + "    }\n"
+            + "}\n";
+
+    private static ASTSchemaSource createSource(final String name) throws Exception {
+        final String text = TEXT.replace("foo", name);
+        return ASTSchemaSource.create(RevisionSourceIdentifier.create(name), CompactStatementTree.parse(text), text);
+    }
+
+    @Test
+    public void testDemote() throws Exception {
+        final ASTSchemaSource source = createSource("foo");
+        final SourceIdentifier id = source.getIdentifier();
+
+        final ASTSchemaSource demoted = ASTSchemaSource.DEMOTER.apply(source);
+        assertNotNull(demoted);
+        assertEquals(id, demoted.getIdentifier());
+        assertSame(source.getDependencyInformation(), demoted.getDependencyInformation());
+        assertTrue(ASTSchemaSource.WEIGHER.weigh(id, demoted) < ASTSchemaSource.WEIGHER.weigh(id, source));
+
+        // The statement tree and the parse tree are recovered from text
+        final CompactStatementTree statements = demoted.getStatementTree();
+        assertEquals(source.getStatementTree().size(), statements.size());
+        assertEquals("baz", statements.getArgument(4));
+        assertNotNull(demoted.getAST());
+
+        // Nothing more to drop
+        assertNull(ASTSchemaSource.DEMOTER.apply(demoted));
+    }
+
+    @Test
+    public void testDemotingCache() throws Exception {
+        final SchemaSourceRegistry registry = mock(SchemaSourceRegistry.class);
+        final SchemaSourceRegistration<?> registration = mock(SchemaSourceRegistration.class);
+        doReturn(registration).when(registry).registerSchemaSource(any(SchemaSourceProvider.class),
+            any(PotentialSchemaSource.class));
+
+        final ASTSchemaSource first = createSource("first");
+        final ASTSchemaSource second = createSource("second");
+        final SourceIdentifier firstId = first.getIdentifier();
+
+        // Room for one full source and one demoted source
+        final int budget = ASTSchemaSource.WEIGHER.weigh(firstId, first)
+                + ASTSchemaSource.WEIGHER.weigh(firstId, ASTSchemaSource.DEMOTER.apply(first)) + 16;
+        try (InMemorySchemaSourceCache<ASTSchemaSource> cache = InMemorySchemaSourceCache.createWeightedCache(
+                registry, ASTSchemaSource.class, budget, ASTSchemaSource.WEIGHER, ASTSchemaSource.DEMOTER)) {
+            cache.schemaSourceEncountered(first);
+            cache.schemaSourceEncountered(second);
+
+            assertEquals(1, cache.getDemotionCount());
+            verify(registration, never()).close();
+
+            final ASTSchemaSource restored = cache.getSource(firstId).checkedGet();
+            assertEquals(firstId, restored.getIdentifier());
+            assertEquals(first.getStatementTree().size(), restored.getStatementTree().size());
+            assertSame(second, cache.getSource(second.getIdentifier()).checkedGet());
+        }
+    }
+}
@@ -0,0 +1,130 @@
+/*
+ * Copyright (c) 2016 Cisco Systems, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.yangtools.yang.parser.util;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import com.google.common.io.Files;
+import java.io.File;
+import java.io.IOException;
+import java.net.URISyntaxException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import org.junit.Test;
+import org.opendaylight.yangtools.yang.model.parser.api.YangSyntaxErrorException;
+import org.opendaylight.yangtools.yang.parser.stmt.rfc6020.YangStatementSourceImpl;
+
+public class CompactStatementTreeParserTest {
+
+    private static void assertSameTree(final String message, final CompactStatementTree expected,
+            final CompactStatementTree actual) {
+        assertEquals(message, expected.size(), actual.size());
+        for (int i = 0; i < expected.size(); ++i) {
+            final String where = message + " statement " + i;
+            assertEquals(where, expected.getKeyword(i), actual.getKeyword(i));
+            assertEquals(where, expected.getArgument(i), actual.getArgument(i));
+            assertEquals(where, expected.getLine(i), actual.getLine(i));
+            assertEquals(where, expected.getColumn(i), actual.getColumn(i));
+            assertEquals(where, expected.getSubtreeEnd(i), actual.getSubtreeEnd(i));
+        }
+    }
+
+    private static CompactStatementTree antlrParse(final String text) throws YangSyntaxErrorException {
+        return CompactStatementTree.create(YangStatementSourceImpl.parseYangSource(text));
+    }
+
+    private static void assertParsesSame(final String text) throws YangSyntaxErrorException {
+        final CompactStatementTree fast = CompactStatementTreeParser.parse(text);
+        assertNotNull("Failed to parse " + text, fast);
+        assertSameTree(text, antlrParse(text), fast);
+    }
+
+    @Test
+    public void testTestResources() throws IOException, URISyntaxException, YangSyntaxErrorException {
+        final Deque<File> dirs = new ArrayDeque<>();
+        dirs.add(new File(CompactStatementTreeParserTest.class.getResource("/").toURI()));
+
+        int parsed = 0;
+        while (!dirs.isEmpty()) {
+            for (File file : dirs.pop().listFiles()) {
+                if (file.isDirectory()) {
+                    dirs.add(file);
+                    continue;
+                }
+                if (!file.getName().endsWith(".yang")) {
+                    continue;
+                }
+
+                final String text = Files.toString(file, StandardCharsets.UTF_8);
+                final CompactStatementTree antlr;
+                try {
+                    antlr = antlrParse(text);
+                } catch (YangSyntaxErrorException e) {
+                    // Broken on purpose, checked separately
+                    continue;
+                }
+
+                final CompactStatementTree fast = CompactStatementTreeParser.parse(text);
+                if (fast != null) {
+                    assertSameTree(file.getPath(), antlr, fast);
+                    assertSameTree(file.getPath(), antlr, CompactStatementTree.parse(file));
+                    parsed++;
+                }
+            }
+        }
+
+        assertTrue("Too few files parsed: " + parsed, parsed > 100);
+    }
+
+    @Test
+    public void testQuoting() throws YangSyntaxErrorException {
+        assertParsesSame("module foo { description 'single \"quoted\"'; }");
+        assertParsesSame("module foo { description \"double 'quoted'\"; }");
+        assertParsesSame("module foo { description \"escaped \\\"quote\\\" \\n\"; }");
+        assertParsesSame("module foo { description \"multi\n   line\n\"; }");
+        assertParsesSame("module foo { pattern '[a-z]+\\d'; }");
+    }
+
+    @Test
+    public void testConcatenation() throws YangSyntaxErrorException {
+        assertParsesSame("module foo { description \"abc\" + 'def'\n   + \"ghi\"; }");
+        assertParsesSame("module foo { default 1am+2; }");
+        assertParsesSame("module foo { default 1am + \"2\"; }");
+    }
+
+    @Test
+    public void testComments() throws YangSyntaxErrorException {
+        assertParsesSame("// header\n\n  module foo {\n// comment\n  namespace urn:foo; /* block\n */ prefix f;\n}\n");
+        assertParsesSame("\n\n/* header */ module foo { prefix f; } // trailer");
+        assertParsesSame("\t module foo { prefix f//not-a-comment\n; }");
+        assertParsesSame("module foo{prefix f;container c{leaf l{type string;}}}");
+    }
+
+    @Test
+    public void testUnsupported() {
+        // Identifiers cannot be concatenated
+        assertNull(CompactStatementTreeParser.parse("module foo { default abc + \"def\"; }"));
+        // Unterminated constructs
+        assertNull(CompactStatementTreeParser.parse("module foo { description \"abc; }"));
+        assertNull(CompactStatementTreeParser.parse("module foo { /* prefix f; }"));
+        assertNull(CompactStatementTreeParser.parse("module foo { prefix f; "));
+        // Trailing garbage
+        assertNull(CompactStatementTreeParser.parse("module foo { prefix f; } }"));
+        // Invalid keyword
+        assertNull(CompactStatementTreeParser.parse("module foo { 1prefix f; }"));
+    }
+
+    @Test(expected = YangSyntaxErrorException.class)
+    public void testSyntaxError() throws YangSyntaxErrorException {
+        CompactStatementTree.parse("module foo { prefix f; ");
+    }
+}
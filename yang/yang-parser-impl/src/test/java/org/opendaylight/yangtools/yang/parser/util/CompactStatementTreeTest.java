@@ -0,0 +1,101 @@
+/*
+ * Copyright (c) 2016 Cisco Systems, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.yangtools.yang.parser.util;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+
+import com.google.common.io.Resources;
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Set;
+import org.antlr.v4.runtime.ParserRuleContext;
+import org.junit.Test;
+import org.opendaylight.yangtools.antlrv4.code.gen.YangStatementParser.StatementContext;
+import org.opendaylight.yangtools.yang.model.api.TypeDefinition;
+import org.opendaylight.yangtools.yang.model.repo.api.RevisionSourceIdentifier;
+import org.opendaylight.yangtools.yang.parser.spi.meta.ReactorException;
+import org.opendaylight.yangtools.yang.parser.stmt.reactor.CrossSourceStatementReactor;
+import org.opendaylight.yangtools.yang.parser.stmt.rfc6020.CompactStatementSourceImpl;
+import org.opendaylight.yangtools.yang.parser.stmt.rfc6020.YangInferencePipeline;
+import org.opendaylight.yangtools.yang.parser.stmt.rfc6020.YangStatementSourceImpl;
+import org.opendaylight.yangtools.yang.parser.stmt.rfc6020.effective.EffectiveSchemaContext;
+
+public class CompactStatementTreeTest {
+
+    private static CompactStatementTree parseTree() {
+        return CompactStatementTree.create(new YangStatementSourceImpl(
+            "/typedef-substmts-test/typedef-substmts-test.yang", false).getYangAST());
+    }
+
+    @Test
+    public void testTreeLayout() {
+        final CompactStatementTree tree = parseTree();
+        assertEquals(7, tree.size());
+        assertEquals(7, tree.getSubtreeEnd(0));
+
+        assertEquals("module", tree.getKeyword(0));
+        assertEquals("typedef-substmts-test", tree.getArgument(0));
+        assertEquals(1, tree.getLine(0));
+        assertEquals(0, tree.getColumn(0));
+
+        // namespace, prefix and typedef are siblings
+        assertEquals("namespace", tree.getKeyword(1));
+        assertEquals("urn:opendaylight.org/typedef-substmts-test", tree.getArgument(1));
+        assertEquals(2, tree.getSubtreeEnd(1));
+        assertEquals("prefix", tree.getKeyword(2));
+        assertEquals("tdst", tree.getArgument(2));
+        assertEquals(3, tree.getSubtreeEnd(2));
+        assertEquals("typedef", tree.getKeyword(3));
+        assertEquals(5, tree.getLine(3));
+        assertEquals(4, tree.getColumn(3));
+        assertEquals(7, tree.getSubtreeEnd(3));
+
+        assertEquals("type", tree.getKeyword(4));
+        assertEquals("string", tree.getArgument(4));
+        assertEquals("default", tree.getKeyword(6));
+        assertEquals("1am", tree.getArgument(6));
+    }
+
+    @Test
+    public void testReactorSource() throws ReactorException {
+        final CrossSourceStatementReactor.BuildAction reactor = YangInferencePipeline.RFC6020_REACTOR.newBuild();
+        reactor.addSource(new CompactStatementSourceImpl(RevisionSourceIdentifier.create("typedef-substmts-test"),
+            parseTree()));
+
+        final EffectiveSchemaContext result = reactor.buildEffective();
+        assertNotNull(result);
+
+        final Set<TypeDefinition<?>> typedefs = result.getTypeDefinitions();
+        assertEquals(1, typedefs.size());
+
+        final TypeDefinition<?> typedef = typedefs.iterator().next();
+        assertEquals("time-of-the-day", typedef.getQName().getLocalName());
+        assertEquals("string", typedef.getBaseType().getQName().getLocalName());
+        assertEquals("24-hour-clock", typedef.getUnits());
+        assertEquals("1am", typedef.getDefaultValue().toString());
+    }
+
+    @Test
+    public void testASTSchemaSource() throws Exception {
+        final String text = Resources.toString(CompactStatementTreeTest.class.getResource(
+            "/typedef-substmts-test/typedef-substmts-test.yang"), StandardCharsets.UTF_8);
+        final ASTSchemaSource source = ASTSchemaSource.create(RevisionSourceIdentifier.create("typedef-substmts-test"),
+            new YangStatementSourceImpl(new ByteArrayInputStream(text.getBytes(StandardCharsets.UTF_8)))
+            .getYangAST(), text);
+
+        assertEquals(7, source.getStatementTree().size());
+        assertEquals("typedef-substmts-test", source.getStatementTree().getArgument(0));
+
+        // The parse tree is not retained, but can be recovered from text
+        final ParserRuleContext ast = source.getAST();
+        assertTrue(ast instanceof StatementContext);
+        assertEquals("module", ((StatementContext) ast).keyword().getText());
+    }
+}